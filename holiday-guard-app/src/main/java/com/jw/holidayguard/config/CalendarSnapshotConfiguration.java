@@ -0,0 +1,40 @@
+package com.jw.holidayguard.config;
+
+import com.jw.holidayguard.service.rule.RuleEngine;
+import com.jw.holidayguard.service.snapshot.CalendarSnapshotFile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Maps the calendar snapshot file named by {@code app.calendar-snapshot.file}, which the
+ * {@link com.jw.holidayguard.service.CalendarCache} then loads calendars from instead of
+ * reading rules and deviations. Without the property no snapshot is used.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty("app.calendar-snapshot.file")
+public class CalendarSnapshotConfiguration {
+
+    /**
+     * @throws IllegalStateException if the file cannot be mapped, so a misconfigured snapshot
+     *                               fails startup rather than silently falling back
+     */
+    @Bean
+    public CalendarSnapshotFile calendarSnapshotFile(
+            @Value("${app.calendar-snapshot.file}") String file,
+            RuleEngine ruleEngine) {
+        try {
+            CalendarSnapshotFile snapshot = CalendarSnapshotFile.open(Path.of(file), ruleEngine);
+            log.info("Calendar snapshot {}: {} calendars exported at {}", file, snapshot.size(), snapshot.exportedAt());
+            return snapshot;
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open calendar snapshot " + file + ": " + e.getMessage(), e);
+        }
+    }
+}
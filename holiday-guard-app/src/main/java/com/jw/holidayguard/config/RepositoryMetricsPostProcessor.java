@@ -0,0 +1,113 @@
+package com.jw.holidayguard.config;
+
+import com.jw.holidayguard.repository.DeviationRepository;
+import com.jw.holidayguard.repository.QueryLogRepository;
+import com.jw.holidayguard.repository.RuleRepository;
+import com.jw.holidayguard.repository.ScheduleRepository;
+import com.jw.holidayguard.repository.VersionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every repository call as {@code holidayguard.repository}, tagged by
+ * {@code repository} (interface name), {@code method} and {@code exception}
+ * ({@code none} on success).
+ *
+ * <p>Wraps whichever beans implement the repository interfaces, so the H2 (Spring Data) and
+ * JSON providers report under the same names. Both tag sets are bounded by the interfaces'
+ * methods. The registry is looked up on first use; without one, calls pass straight through.
+ */
+@Component
+public class RepositoryMetricsPostProcessor implements BeanPostProcessor {
+
+    private static final List<Class<?>> REPOSITORIES = List.of(
+            ScheduleRepository.class,
+            VersionRepository.class,
+            RuleRepository.class,
+            DeviationRepository.class,
+            QueryLogRepository.class);
+
+    private final ObjectProvider<MeterRegistry> registryProvider;
+
+    public RepositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> registryProvider) {
+        this.registryProvider = registryProvider;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        for (Class<?> repository : REPOSITORIES) {
+            if (repository.isInstance(bean)) {
+                ProxyFactory proxyFactory = new ProxyFactory(bean);
+                proxyFactory.setInterfaces(ClassUtils.getAllInterfaces(bean));
+                proxyFactory.addAdvice(new TimingInterceptor(repository.getSimpleName(), registryProvider));
+                return proxyFactory.getProxy(bean.getClass().getClassLoader());
+            }
+        }
+        return bean;
+    }
+
+    private static final class TimingInterceptor implements MethodInterceptor {
+
+        private final String repository;
+        private final ObjectProvider<MeterRegistry> registryProvider;
+        private final Map<Method, Timer> successTimers = new ConcurrentHashMap<>();
+        private volatile MeterRegistry registry;
+
+        TimingInterceptor(String repository, ObjectProvider<MeterRegistry> registryProvider) {
+            this.repository = repository;
+            this.registryProvider = registryProvider;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Method method = invocation.getMethod();
+            MeterRegistry meterRegistry = registry();
+            if (meterRegistry == null || method.getDeclaringClass() == Object.class) {
+                return invocation.proceed();
+            }
+
+            long start = System.nanoTime();
+            try {
+                Object result = invocation.proceed();
+                successTimers.computeIfAbsent(method, m -> timer(meterRegistry, m, "none"))
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return result;
+            } catch (Throwable e) {
+                timer(meterRegistry, method, e.getClass().getSimpleName())
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                throw e;
+            }
+        }
+
+        private MeterRegistry registry() {
+            MeterRegistry resolved = registry;
+            if (resolved == null) {
+                resolved = registryProvider.getIfAvailable();
+                registry = resolved;
+            }
+            return resolved;
+        }
+
+        private Timer timer(MeterRegistry meterRegistry, Method method, String exception) {
+            return Timer.builder("holidayguard.repository")
+                    .description("Repository calls by repository and method")
+                    .tag("repository", repository)
+                    .tag("method", method.getName())
+                    .tag("exception", exception)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.jw.holidayguard.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that a should-run query shows up on the Prometheus endpoint with controller,
+ * service, rule engine, cache and repository meters, and that scraping needs the METRICS role.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "management.endpoints.web.exposure.include=health,prometheus") // test application.yml replaces the main one
+@AutoConfigureObservability
+@ActiveProfiles("json")
+class PrometheusMetricsTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Test
+    void shouldRunQueryIsVisibleOnPrometheusEndpoint() {
+        // given - one should-run query
+        ResponseEntity<String> answer = rest.getForEntity("/api/v1/schedules/1/should-run?clientIdentifier=metrics", String.class);
+        assertThat(answer.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        // when
+        ResponseEntity<String> scrape = rest.withBasicAuth("prometheus", "prometheus").getForEntity("/actuator/prometheus", String.class);
+
+        // then
+        assertThat(scrape.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(scrape.getBody())
+                .contains("holidayguard_query_requests_total{endpoint=\"today\",outcome=\"answered\"")
+                .contains("holidayguard_query_phase_seconds_count{operation=\"should-run\",phase=\"lookup\"")
+                .contains("holidayguard_query_evaluation_seconds_count{rule_type=")
+                .contains("holidayguard_rule_engine_seconds_count{operation=\"should-run\"")
+                .contains("cache_gets_total{cache=\"calendar\"")
+                .contains("repository=\"ScheduleRepository\"")
+                .contains("http_server_requests_seconds_count");
+    }
+
+    @Test
+    void prometheusEndpointRejectsAnonymousAndUnprivilegedScrapes() {
+        assertThat(rest.getForEntity("/actuator/prometheus", String.class).getStatusCode())
+                .isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(rest.withBasicAuth("prometheus", "wrong").getForEntity("/actuator/prometheus", String.class).getStatusCode())
+                .isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(rest.withBasicAuth("user", "user").getForEntity("/actuator/prometheus", String.class).getStatusCode())
+                .isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(rest.withBasicAuth("admin", "admin").getForEntity("/actuator/prometheus", String.class).getStatusCode())
+                .isEqualTo(HttpStatus.OK);
+    }
+}
@@ -0,0 +1,140 @@
+package com.jw.holidayguard.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop load driver for {@code GET /api/v1/schedules/{id}/should-run}.
+ *
+ * <p>Starts one virtual thread per simulated client; each sends a request, waits for the
+ * answer and immediately sends the next one until the run ends. Latencies recorded after the
+ * warm-up are reported as throughput and percentiles. Used to compare the platform-thread and
+ * virtual-thread server modes (see docs/VIRTUAL_THREADS.md); it is not a unit test and is not
+ * run by the build.
+ *
+ * <pre>
+ * java -cp holiday-guard-app/target/test-classes com.jw.holidayguard.load.ShouldRunLoadDriver \
+ *     http://localhost:8080 1 10000 60 10
+ * </pre>
+ * Arguments: base URL, schedule id, clients (10000), duration seconds (60), warm-up seconds (10).
+ */
+public final class ShouldRunLoadDriver {
+
+    private ShouldRunLoadDriver() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        long scheduleId = args.length > 1 ? Long.parseLong(args[1]) : 1L;
+        int clients = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        Duration duration = Duration.ofSeconds(args.length > 3 ? Long.parseLong(args[3]) : 60);
+        Duration warmUp = Duration.ofSeconds(args.length > 4 ? Long.parseLong(args[4]) : 10);
+
+        URI uri = URI.create(baseUrl + "/api/v1/schedules/" + scheduleId + "/should-run?clientIdentifier=load-driver");
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmUp.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        LongAdder errors = new LongAdder();
+        Recorder[] recorders = new Recorder[clients];
+        CountDownLatch done = new CountDownLatch(clients);
+
+        try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                Recorder recorder = new Recorder();
+                recorders[i] = recorder;
+                clientThreads.execute(() -> {
+                    try {
+                        runClient(http, uri, measureFrom, end, recorder, errors);
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+        }
+
+        report(clients, duration, recorders, errors.sum());
+    }
+
+    private static void runClient(HttpClient http, URI uri, long measureFrom, long end, Recorder recorder, LongAdder errors) {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            boolean ok;
+            try {
+                ok = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+            } catch (Exception e) {
+                ok = false;
+            }
+            long finished = System.nanoTime();
+            if (now < measureFrom) continue;
+            if (ok) {
+                recorder.add(finished - now);
+            } else {
+                errors.increment();
+            }
+        }
+    }
+
+    private static void report(int clients, Duration duration, Recorder[] recorders, long errors) {
+        List<long[]> parts = new ArrayList<>(recorders.length);
+        int total = 0;
+        for (Recorder recorder : recorders) {
+            parts.add(recorder.values());
+            total += recorder.size;
+        }
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (long[] part : parts) {
+            System.arraycopy(part, 0, latencies, offset, part.length);
+            offset += part.length;
+        }
+        Arrays.sort(latencies);
+
+        System.out.printf("clients=%d duration=%ds requests=%d errors=%d throughput=%.0f req/s%n",
+                clients, duration.toSeconds(), total, errors, total / (double) duration.toSeconds());
+        System.out.printf("p50=%.1fms p90=%.1fms p99=%.1fms p99.9=%.1fms max=%.1fms%n",
+                millis(latencies, 0.50), millis(latencies, 0.90), millis(latencies, 0.99),
+                millis(latencies, 0.999), total == 0 ? 0 : latencies[total - 1] / 1e6);
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    /**
+     * Latencies of one client; only its own thread writes to it.
+     */
+    private static final class Recorder {
+        private long[] values = new long[256];
+        private int size;
+
+        void add(long nanos) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = nanos;
+        }
+
+        long[] values() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
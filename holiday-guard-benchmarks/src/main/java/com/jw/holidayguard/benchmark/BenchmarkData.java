@@ -0,0 +1,112 @@
+package com.jw.holidayguard.benchmark;
+
+import com.jw.holidayguard.domain.Deviation;
+import com.jw.holidayguard.domain.Rule;
+import com.jw.holidayguard.domain.RunStatus;
+import com.jw.holidayguard.domain.Schedule;
+import com.jw.holidayguard.service.rule.handler.AllDaysHandler;
+import com.jw.holidayguard.service.rule.handler.CronExpressionHandler;
+import com.jw.holidayguard.service.rule.handler.NoDaysHandler;
+import com.jw.holidayguard.service.rule.handler.RuleHandler;
+import com.jw.holidayguard.service.rule.handler.USFederalReserveBusinessDaysHandler;
+import com.jw.holidayguard.service.rule.handler.WeekdaysOnlyHandler;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fixed inputs shared by the benchmark suites. Everything is derived from constants and a
+ * fixed seed, so two runs measure exactly the same work.
+ */
+final class BenchmarkData {
+
+    static final long SCHEDULE_ID = 1L;
+    static final long VERSION_ID = 10L;
+    static final LocalDate START = LocalDate.of(2025, 1, 1);
+
+    /** Cron rule used for CRON_EXPRESSION: the 15th, or the nearest weekday. */
+    static final String CRON = "0 0 0 15W * ?";
+
+    /** Dates cycled through by single-date benchmarks; a power of two so the index is a mask. */
+    static final int DATE_COUNT = 1024;
+
+    private static final long SEED = 20250101L;
+
+    private BenchmarkData() {
+    }
+
+    static Schedule schedule() {
+        return Schedule.builder().id(SCHEDULE_ID).name("Benchmark").active(true).build();
+    }
+
+    static Rule rule(Rule.RuleType ruleType) {
+        return Rule.builder()
+                .id(100L + ruleType.ordinal())
+                .scheduleId(SCHEDULE_ID)
+                .versionId(VERSION_ID)
+                .ruleType(ruleType)
+                .ruleConfig(ruleType == Rule.RuleType.CRON_EXPRESSION ? CRON : null)
+                .effectiveFrom(START)
+                .active(true)
+                .build();
+    }
+
+    /**
+     * One handler per rule type, built as Spring would with default configuration.
+     */
+    static List<RuleHandler> handlers() {
+        return List.of(
+                new WeekdaysOnlyHandler(),
+                new USFederalReserveBusinessDaysHandler(),
+                new CronExpressionHandler(),
+                new AllDaysHandler(),
+                new NoDaysHandler());
+    }
+
+    static RuleHandler handler(Rule.RuleType ruleType) {
+        return handlers().stream()
+                .filter(handler -> handler.getSupportedRuleType() == ruleType)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No handler for " + ruleType));
+    }
+
+    /**
+     * Consecutive dates from {@link #START}, for single-date lookups.
+     */
+    static LocalDate[] dates() {
+        LocalDate[] dates = new LocalDate[DATE_COUNT];
+        for (int i = 0; i < DATE_COUNT; i++) {
+            dates[i] = START.plusDays(i);
+        }
+        return dates;
+    }
+
+    /**
+     * Deviations on distinct dates spread over the {@link #DATE_COUNT} days from {@link #START},
+     * alternating FORCE_SKIP and FORCE_RUN.
+     */
+    static List<Deviation> deviations(int count) {
+        if (count > DATE_COUNT) {
+            throw new IllegalArgumentException("At most " + DATE_COUNT + " deviations");
+        }
+        Random random = new Random(SEED);
+        boolean[] used = new boolean[DATE_COUNT];
+        List<Deviation> deviations = new ArrayList<>(count);
+        while (deviations.size() < count) {
+            int day = random.nextInt(DATE_COUNT);
+            if (used[day]) continue;
+            used[day] = true;
+            deviations.add(Deviation.builder()
+                    .id((long) deviations.size() + 1)
+                    .scheduleId(SCHEDULE_ID)
+                    .versionId(VERSION_ID)
+                    .deviationDate(START.plusDays(day))
+                    .action(deviations.size() % 2 == 0 ? RunStatus.FORCE_SKIP : RunStatus.FORCE_RUN)
+                    .reason("benchmark")
+                    .build());
+        }
+        return deviations;
+    }
+}
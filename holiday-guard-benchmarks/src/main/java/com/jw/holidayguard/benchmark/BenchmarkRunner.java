@@ -0,0 +1,31 @@
+package com.jw.holidayguard.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code benchmarks.jar}. Accepts the usual JMH command line and always adds the
+ * GC profiler, so every suite reports allocation rate ({@code gc.alloc.rate.norm}, bytes per
+ * operation) next to its timings.
+ *
+ * <pre>
+ * java -jar holiday-guard-benchmarks/target/benchmarks.jar                   # every suite
+ * java -jar holiday-guard-benchmarks/target/benchmarks.jar CalendarBenchmark # one suite
+ * java -jar holiday-guard-benchmarks/target/benchmarks.jar -p rangeDays=365 -rf json
+ * </pre>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        var options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,62 @@
+package com.jw.holidayguard.benchmark;
+
+import com.jw.holidayguard.domain.Calendar;
+import com.jw.holidayguard.domain.Rule;
+import com.jw.holidayguard.service.rule.CompiledRule;
+import com.jw.holidayguard.service.rule.RuleEngineImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Calendar#shouldRun} for one date and for a range, with 0, 10 and 1000 deviations.
+ * The calendar is built the way {@code CalendarCache} builds it: a weekdays rule compiled once
+ * through the rule engine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalendarBenchmark {
+
+    @Param({"0", "10", "1000"})
+    public int deviationCount;
+
+    private Calendar calendar;
+    private LocalDate[] dates;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Rule rule = BenchmarkData.rule(Rule.RuleType.WEEKDAYS_ONLY);
+        CompiledRule compiledRule = new RuleEngineImpl(BenchmarkData.handlers()).compile(rule);
+        calendar = new Calendar(BenchmarkData.schedule(), rule, BenchmarkData.deviations(deviationCount),
+                (r, date) -> compiledRule.shouldRun(date));
+        dates = BenchmarkData.dates();
+    }
+
+    @Benchmark
+    public boolean shouldRunSingleDate() {
+        return calendar.shouldRun(dates[next++ & (BenchmarkData.DATE_COUNT - 1)]);
+    }
+
+    @Benchmark
+    public Map<LocalDate, Boolean> shouldRunRange(DateRange range) {
+        return calendar.shouldRun(range.from, range.to);
+    }
+}
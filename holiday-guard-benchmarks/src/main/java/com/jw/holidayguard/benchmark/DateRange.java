@@ -0,0 +1,29 @@
+package com.jw.holidayguard.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+
+/**
+ * Range-length parameter shared by the range benchmarks: a week, a month, a year and five years
+ * starting at {@link BenchmarkData#START}.
+ */
+@State(Scope.Benchmark)
+public class DateRange {
+
+    @Param({"7", "31", "365", "1826"})
+    public int rangeDays;
+
+    public LocalDate from;
+    public LocalDate to;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        from = BenchmarkData.START;
+        to = from.plusDays(rangeDays - 1);
+    }
+}
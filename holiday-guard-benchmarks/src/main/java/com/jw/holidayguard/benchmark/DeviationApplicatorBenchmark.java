@@ -0,0 +1,68 @@
+package com.jw.holidayguard.benchmark;
+
+import com.jw.holidayguard.domain.Deviation;
+import com.jw.holidayguard.domain.Rule;
+import com.jw.holidayguard.repository.DeviationRepository;
+import com.jw.holidayguard.service.rule.DeviationApplicator;
+import com.jw.holidayguard.service.rule.DeviationApplicatorImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DeviationApplicatorImpl} over weekday rule dates with 0, 10 and 1000 deviations and
+ * each {@link DateRange} length. The repository is an in-memory stub, so only the filtering
+ * and merging is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeviationApplicatorBenchmark {
+
+    @Param({"0", "10", "1000"})
+    public int deviationCount;
+
+    private DeviationApplicator applicator;
+    private List<LocalDate> ruleDates;
+
+    @Setup(Level.Trial)
+    public void setUp(DateRange range) {
+        applicator = new DeviationApplicatorImpl(deviationRepository(BenchmarkData.deviations(deviationCount)));
+        ruleDates = BenchmarkData.handler(Rule.RuleType.WEEKDAYS_ONLY).generateDates(null, range.from, range.to);
+    }
+
+    @Benchmark
+    public List<LocalDate> applyDeviations(DateRange range) {
+        return applicator.applyDeviations(BenchmarkData.SCHEDULE_ID, BenchmarkData.VERSION_ID, ruleDates, range.from, range.to);
+    }
+
+    /**
+     * Answers {@code findByScheduleId} from memory; the applicator calls nothing else.
+     */
+    private static DeviationRepository deviationRepository(List<Deviation> deviations) {
+        return (DeviationRepository) Proxy.newProxyInstance(
+                DeviationRepository.class.getClassLoader(),
+                new Class<?>[]{DeviationRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findByScheduleId")) return deviations;
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,165 @@
+package com.jw.holidayguard.benchmark;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jw.holidayguard.repository.json.JsonDataLoader;
+import com.jw.holidayguard.repository.json.JsonDataModel;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Startup cost of the JSON data file: wall time and peak heap to parse, index and validate it.
+ *
+ * <p>Not a JMH suite. A load happens once per process and its peak heap is the point, so each
+ * invocation loads the file once in a fresh JVM and prints one result line. Run each mode in
+ * its own JVM with the same {@code -Xmx}:
+ *
+ * <pre>
+ * java -cp benchmarks.jar com.jw.holidayguard.benchmark.JsonLoadBenchmark generate data-1g.json 1024
+ * java -Xmx4g -cp benchmarks.jar com.jw.holidayguard.benchmark.JsonLoadBenchmark load data-1g.json databind
+ * java -Xmx4g -cp benchmarks.jar com.jw.holidayguard.benchmark.JsonLoadBenchmark load data-1g.json streaming
+ * java -Xmx4g -cp benchmarks.jar com.jw.holidayguard.benchmark.JsonLoadBenchmark load data-1g.json parallel
+ * </pre>
+ *
+ * <p>Modes are those of {@link JsonDataLoader.Mode}: {@code databind} (the default) reads the
+ * whole file into {@link JsonDataModel} with {@code ObjectMapper.readValue}, {@code streaming}
+ * indexes entities as a parser reads them and {@code parallel} streams the sections of a
+ * memory-mapped file concurrently. Each is validated as the application would.
+ *
+ * <p>Peak heap is the sum of the heap pools' peak usage after a GC and a reset, so it includes
+ * garbage the collector had not yet reclaimed; retained heap is measured after a GC once the
+ * model is built.
+ */
+public final class JsonLoadBenchmark {
+
+    private static final int SCHEDULES = 1_000;
+    private static final int VERSIONS_PER_SCHEDULE = 2;
+    private static final LocalDate FIRST_DATE = LocalDate.of(2000, 1, 1);
+
+    private JsonLoadBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 3 && args[0].equals("generate")) {
+            generate(Path.of(args[1]), Long.parseLong(args[2]) * 1024 * 1024);
+        } else if (args.length == 3 && args[0].equals("load")) {
+            load(Path.of(args[1]), args[2]);
+        } else {
+            System.err.println("Usage: JsonLoadBenchmark generate <file> <megabytes>");
+            System.err.println("       JsonLoadBenchmark load <file> databind|streaming|parallel");
+            System.exit(2);
+        }
+    }
+
+    private static void load(Path file, String mode) throws IOException {
+        List<MemoryPoolMXBean> heap = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        System.gc();
+        heap.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        long start = System.nanoTime();
+        JsonDataLoader loader = new JsonDataLoader(JsonDataLoader.Mode.valueOf(mode.toUpperCase(Locale.ROOT)));
+        JsonDataModel data = loader.load(file);
+        long elapsed = System.nanoTime() - start;
+        long peak = heap.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+
+        System.gc();
+        long retained = heap.stream().mapToLong(pool -> pool.getUsage().getUsed()).sum();
+
+        System.out.printf(Locale.ROOT,
+                "mode=%s file=%dMB entities=%d time=%dms peakHeap=%dMB retainedHeap=%dMB processors=%d%n",
+                mode, Files.size(file) >> 20,
+                data.getSchedules().size() + data.getVersions().size() + data.getRules().size() + data.getDeviations().size(),
+                elapsed / 1_000_000, peak >> 20, retained >> 20, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Writes a valid data file of about {@code targetBytes}: {@value #SCHEDULES} schedules with
+     * two versions and a rule per version, then deviations spread over the versions until the
+     * file reaches the target size. The output depends only on the target size.
+     */
+    private static void generate(Path file, long targetBytes) throws IOException {
+        int versions = SCHEDULES * VERSIONS_PER_SCHEDULE;
+        try (JsonGenerator json = new ObjectMapper().getFactory().createGenerator(file.toFile(), JsonEncoding.UTF8)) {
+            json.writeStartObject();
+
+            json.writeArrayFieldStart("schedules");
+            for (long s = 1; s <= SCHEDULES; s++) {
+                json.writeStartObject();
+                json.writeNumberField("id", s);
+                json.writeStringField("name", "Schedule " + s);
+                json.writeStringField("description", "Generated schedule " + s);
+                json.writeStringField("country", s % 10 == 0 ? "CA" : "US");
+                json.writeBooleanField("active", true);
+                json.writeStringField("createdAt", "2025-01-01T00:00:00Z");
+                json.writeStringField("createdBy", "generator");
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+
+            json.writeArrayFieldStart("versions");
+            for (long v = 1; v <= versions; v++) {
+                json.writeStartObject();
+                json.writeNumberField("id", v);
+                json.writeNumberField("scheduleId", scheduleOf(v));
+                json.writeStringField("effectiveFrom", "2025-01-01T00:00:00Z");
+                json.writeStringField("createdAt", "2025-01-01T00:00:00Z");
+                json.writeBooleanField("active", v % VERSIONS_PER_SCHEDULE == 0);
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+
+            json.writeArrayFieldStart("rules");
+            for (long v = 1; v <= versions; v++) {
+                json.writeStartObject();
+                json.writeNumberField("id", v);
+                json.writeNumberField("scheduleId", scheduleOf(v));
+                json.writeNumberField("versionId", v);
+                json.writeStringField("ruleType", v % 3 == 0 ? "US_FEDERAL_RESERVE_BUSINESS_DAYS" : "WEEKDAYS_ONLY");
+                json.writeStringField("effectiveFrom", "2025-01-01");
+                json.writeBooleanField("active", true);
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+
+            json.writeArrayFieldStart("deviations");
+            long written = 0;
+            for (long d = 1; written < targetBytes; d++) {
+                long version = (d - 1) % versions + 1;
+                boolean skip = d % 2 == 0;
+                json.writeStartObject();
+                json.writeNumberField("id", d);
+                json.writeNumberField("scheduleId", scheduleOf(version));
+                json.writeNumberField("versionId", version);
+                json.writeStringField("deviationDate", FIRST_DATE.plusDays((d - 1) / versions).toString());
+                json.writeStringField("action", skip ? "FORCE_SKIP" : "FORCE_RUN");
+                json.writeStringField("reason", (skip ? "Closure " : "Extra run ") + d);
+                json.writeStringField("createdBy", "generator");
+                json.writeStringField("createdAt", "2025-01-01T00:00:00Z");
+                json.writeEndObject();
+                if (d % 1024 == 0) {
+                    json.flush();
+                    written = Files.size(file);
+                }
+            }
+            json.writeEndArray();
+
+            json.writeEndObject();
+        }
+        System.out.printf(Locale.ROOT, "Wrote %s (%dMB)%n", file, Files.size(file) >> 20);
+    }
+
+    private static long scheduleOf(long version) {
+        return (version - 1) / VERSIONS_PER_SCHEDULE + 1;
+    }
+}
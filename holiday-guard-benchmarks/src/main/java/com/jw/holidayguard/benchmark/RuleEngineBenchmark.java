@@ -0,0 +1,71 @@
+package com.jw.holidayguard.benchmark;
+
+import com.jw.holidayguard.domain.Rule;
+import com.jw.holidayguard.service.rule.CompiledRule;
+import com.jw.holidayguard.service.rule.RuleEngine;
+import com.jw.holidayguard.service.rule.RuleEngineImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RuleEngineImpl} dispatch: handler lookup by rule type plus the compiled-rule cache,
+ * measured against {@link RuleHandlerBenchmark} to show what the engine adds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RuleEngineBenchmark {
+
+    @Param
+    public Rule.RuleType ruleType;
+
+    private RuleEngine engine;
+    private Rule rule;
+    private LocalDate[] dates;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = new RuleEngineImpl(BenchmarkData.handlers());
+        rule = BenchmarkData.rule(ruleType);
+        dates = BenchmarkData.dates();
+    }
+
+    /**
+     * Dispatch and compile-cache hit for every date, as {@code RuleEngine.shouldRun} callers pay.
+     */
+    @Benchmark
+    public boolean shouldRun() {
+        return engine.shouldRun(rule, dates[next++ & (BenchmarkData.DATE_COUNT - 1)]);
+    }
+
+    /**
+     * Compile-cache hit alone.
+     */
+    @Benchmark
+    public CompiledRule compile() {
+        return engine.compile(rule);
+    }
+
+    @Benchmark
+    public List<LocalDate> generateDates(DateRange range) {
+        return engine.generateDates(rule, range.from, range.to);
+    }
+}
@@ -0,0 +1,59 @@
+package com.jw.holidayguard.benchmark;
+
+import com.jw.holidayguard.domain.Rule;
+import com.jw.holidayguard.service.rule.handler.RuleHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every {@link RuleHandler} called directly, without the engine's dispatch or compile cache.
+ * {@code shouldRun} walks a fixed set of consecutive dates; {@code generateDates} covers each
+ * {@link DateRange} length.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RuleHandlerBenchmark {
+
+    @Param
+    public Rule.RuleType ruleType;
+
+    private RuleHandler handler;
+    private Rule rule;
+    private LocalDate[] dates;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        handler = BenchmarkData.handler(ruleType);
+        rule = BenchmarkData.rule(ruleType);
+        dates = BenchmarkData.dates();
+    }
+
+    @Benchmark
+    public boolean shouldRun() {
+        return handler.shouldRun(rule, dates[next++ & (BenchmarkData.DATE_COUNT - 1)]);
+    }
+
+    @Benchmark
+    public List<LocalDate> generateDates(DateRange range) {
+        return handler.generateDates(rule, range.from, range.to);
+    }
+}
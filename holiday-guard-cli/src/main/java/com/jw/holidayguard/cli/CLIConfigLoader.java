@@ -8,15 +8,13 @@ import java.io.IOException;
 
 /**
  * Loads CLI configuration from JSON files.
+ *
+ * <p>The {@link ObjectMapper} is created on first use, so runs answered from a calendar
+ * snapshot or the compiled cache never start Jackson.
  */
 public class CLIConfigLoader {
 
-    private final ObjectMapper objectMapper;
-
-    public CLIConfigLoader() {
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
-    }
+    private volatile ObjectMapper objectMapper;
 
     /**
      * Load configuration from a JSON file.
@@ -27,9 +25,36 @@ public class CLIConfigLoader {
      */
     public CLIConfig loadConfig(File configFile) throws IOException {
         try {
-            return objectMapper.readValue(configFile, CLIConfig.class);
+            return objectMapper().readValue(configFile, CLIConfig.class);
         } catch (IOException e) {
             throw new IOException("Failed to parse configuration file: " + configFile.getAbsolutePath() + ". " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Parse configuration already read from a JSON file.
+     *
+     * @param configFile the file the content was read from, for error messages
+     * @param content the file's bytes
+     * @return parsed configuration
+     * @throws IOException if the content cannot be parsed
+     */
+    public CLIConfig loadConfig(File configFile, byte[] content) throws IOException {
+        try {
+            return objectMapper().readValue(content, CLIConfig.class);
+        } catch (IOException e) {
+            throw new IOException("Failed to parse configuration file: " + configFile.getAbsolutePath() + ". " + e.getMessage(), e);
+        }
+    }
+
+    private ObjectMapper objectMapper() {
+        ObjectMapper mapper = objectMapper;
+        if (mapper == null) {
+            // racing threads may each build one; any of them will do
+            mapper = new ObjectMapper();
+            mapper.registerModule(new JavaTimeModule());
+            objectMapper = mapper;
+        }
+        return mapper;
+    }
 }
@@ -5,13 +5,18 @@ import com.jw.holidayguard.domain.Deviation;
 import com.jw.holidayguard.domain.Rule;
 import com.jw.holidayguard.domain.RunStatus;
 import com.jw.holidayguard.domain.Schedule;
+import com.jw.holidayguard.domain.YearCalendar;
 import com.jw.holidayguard.service.rule.RuleEngine;
 import com.jw.holidayguard.service.rule.RuleEngineImpl;
 import com.jw.holidayguard.service.rule.handler.*;
+import com.jw.holidayguard.service.snapshot.CalendarSnapshotFile;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
 /**
@@ -72,27 +77,62 @@ public class CLIScheduleService {
     }
 
     /**
-     * Determine the detailed RunStatus for a date.
+     * Map a calendar snapshot file exported by the server. Dates outside its year bitmaps are
+     * evaluated with this service's rule engine.
      *
-     * @param calendar the calendar to query
-     * @param scheduleConfig the schedule configuration
-     * @param date the date to check
-     * @return detailed RunStatus (RUN, SKIP, FORCE_RUN, FORCE_SKIP)
+     * @param file the {@code .hgsnap} file
+     * @return the mapped snapshot
+     * @throws IOException if the file cannot be read or is not a snapshot this version reads
      */
-    public RunStatus determineRunStatus(Calendar calendar, CLIConfig.ScheduleConfig scheduleConfig, LocalDate date) {
+    public CalendarSnapshotFile openSnapshot(Path file) throws IOException {
+        return CalendarSnapshotFile.open(file, ruleEngine);
+    }
 
-        boolean shouldRun = calendar.shouldRun(date);
+    /**
+     * Walk every day of a date range in order, passing each day's RunStatus to the action.
+     *
+     * <p>Run dates come from {@link RuleEngine#generateDates} one calendar year at a time and
+     * are materialized with the year's deviations as a {@link YearCalendar}, so memory stays
+     * the same however long the range is.
+     *
+     * @param calendar the calendar to walk
+     * @param from first day (inclusive)
+     * @param to last day (inclusive)
+     * @param action called once per day with its RunStatus (RUN, SKIP, FORCE_RUN, FORCE_SKIP)
+     * @throws IllegalArgumentException if from is after to
+     */
+    public void forEachDay(Calendar calendar, LocalDate from, LocalDate to, BiConsumer<LocalDate, RunStatus> action) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Range start " + from + " is after its end " + to);
+        }
 
-        // use deviation if one is found
-        if (scheduleConfig.getDeviations() != null) {
-            for (CLIConfig.DeviationConfig deviation : scheduleConfig.getDeviations()) {
-                if (deviation.getDate().equals(date)) {
-                    return RunStatus.valueOf(deviation.getAction());
-                }
+        LocalDate chunkStart = from;
+        while (true) {
+            LocalDate yearEnd = chunkStart.withDayOfYear(chunkStart.lengthOfYear());
+            LocalDate chunkEnd = yearEnd.isBefore(to) ? yearEnd : to;
+
+            // only the chunk is read, so the rule's run dates for the chunk are enough
+            YearCalendar year = YearCalendar.of(calendar, chunkStart.getYear(),
+                ruleEngine.generateDates(calendar.getRule(), chunkStart, chunkEnd));
+            for (LocalDate day = chunkStart; !day.isAfter(chunkEnd); day = day.plusDays(1)) {
+                action.accept(day, year.runStatus(day));
             }
+
+            if (chunkEnd.equals(to)) return;
+            chunkStart = chunkEnd.plusDays(1);
         }
+    }
+
+    /**
+     * Determine the detailed RunStatus for a date.
+     *
+     * @param calendar the calendar to query
+     * @param date the date to check
+     * @return detailed RunStatus (RUN, SKIP, FORCE_RUN, FORCE_SKIP)
+     */
+    public RunStatus determineRunStatus(Calendar calendar, LocalDate date) {
 
-        // No deviation, return based on rule
-        return shouldRun ? RunStatus.RUN : RunStatus.SKIP;
+        // calendar's deviation index takes precedence, otherwise based on rule
+        return calendar.runStatus(date);
     }
 }
@@ -0,0 +1,297 @@
+package com.jw.holidayguard.cli;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps a configuration's calendars in memory and answers queries on a Unix domain socket,
+ * so scripts that check schedules in a loop pay for JVM startup once ({@code --serve}).
+ *
+ * <p>Protocol: each request is one line, {@code schedule<TAB>date} as in {@code --batch}
+ * (the date may be left out for today; blank lines are ignored). Each is answered with one
+ * line: the exit code a single query would have, a result and a status or message, separated
+ * by tabs:
+ * <pre>
+ * 0	RUN	RUN
+ * 1	SKIP	FORCE_SKIP
+ * 2	ERROR	Schedule not found
+ * </pre>
+ * A connection may send any number of lines; replies come in order and are flushed whenever
+ * no more requests are waiting.
+ *
+ * <p>The socket is bound in a directory that belongs to the current user and is closed to
+ * everyone else. Until it is restricted to its owner a new socket has whatever permissions
+ * the umask leaves, and the directory keeps other local users from connecting in that window
+ * or from placing a socket or link at the path beforehand.
+ *
+ * <p>The configuration file's modification time and size are checked on each request; when
+ * they change the file is read again and swapped in. A file that fails to load is reported
+ * and the previous calendars keep answering until the file changes again.
+ */
+final class CalendarDaemon implements AutoCloseable {
+
+    private static final Set<PosixFilePermission> PRIVATE_DIRECTORY = PosixFilePermissions.fromString("rwx------");
+
+    private final File configFile;
+    private final CLIConfigLoader configLoader;
+    private final CLIScheduleService scheduleService;
+    private final Path socket;
+    private final ServerSocketChannel server;
+    private final PrintStream log;
+
+    private final AtomicReference<Loaded> loaded = new AtomicReference<>();
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private CalendarDaemon(File configFile, CLIConfigLoader configLoader, CLIScheduleService scheduleService,
+                           Path socket, ServerSocketChannel server, PrintStream log, Loaded initial) {
+        this.configFile = configFile;
+        this.configLoader = configLoader;
+        this.scheduleService = scheduleService;
+        this.socket = socket;
+        this.server = server;
+        this.log = log;
+        this.loaded.set(initial);
+    }
+
+    /**
+     * Loads the configuration and binds the socket, readable and writable by the owner only,
+     * in a directory private to the current user ({@link #privateDirectory(Path)}). A socket
+     * the current user owns, left behind by a daemon that is no longer running, is replaced.
+     *
+     * @param log where reloads and failures are reported, or {@code null} for nowhere
+     * @throws IOException if the configuration cannot be loaded, the socket's directory is not
+     *                     private to the current user, the path is taken by another user or by
+     *                     something other than a socket, another daemon is listening on the
+     *                     socket, or the socket cannot be bound
+     */
+    static CalendarDaemon bind(File configFile, CLIConfigLoader configLoader, CLIScheduleService scheduleService,
+                               Path socket, PrintStream log) throws IOException {
+        Loaded initial = load(configFile, configLoader, scheduleService);
+
+        socket = socket.toAbsolutePath().normalize();
+        UserPrincipal user = privateDirectory(socket.getParent());
+        if (Files.exists(socket, LinkOption.NOFOLLOW_LINKS)) {
+            if (!Files.readAttributes(socket, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS).isOther()) {
+                throw new IOException("Not a socket: " + socket);
+            }
+            if (!user.equals(Files.getOwner(socket, LinkOption.NOFOLLOW_LINKS))) {
+                throw new IOException("Socket " + socket + " belongs to another user");
+            }
+            if (listening(socket)) {
+                throw new IOException("Another daemon is already listening on " + socket);
+            }
+            Files.delete(socket); // left behind by a daemon that is no longer running
+        }
+
+        ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            server.bind(UnixDomainSocketAddress.of(socket));
+            Files.setPosixFilePermissions(socket, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException e) {
+            // no POSIX permissions here; access is governed by the socket's directory
+        } catch (IOException e) {
+            server.close();
+            Files.deleteIfExists(socket);
+            throw e;
+        }
+        return new CalendarDaemon(configFile, configLoader, scheduleService, socket, server, log, initial);
+    }
+
+    Path socket() {
+        return socket;
+    }
+
+    /**
+     * Checks that {@code directory} is a directory, not a link, owned by the current user and
+     * with no permissions for group or others, first creating it that way if it is missing.
+     * Permissions are not checked on file systems without POSIX permissions.
+     *
+     * @return the current user
+     * @throws IOException if the directory cannot be created or is not private to the user
+     */
+    static UserPrincipal privateDirectory(Path directory) throws IOException {
+        UserPrincipal user = directory.getFileSystem().getUserPrincipalLookupService()
+                .lookupPrincipalByName(System.getProperty("user.name"));
+        boolean posix = directory.getFileSystem().supportedFileAttributeViews().contains("posix");
+
+        if (!Files.exists(directory, LinkOption.NOFOLLOW_LINKS)) {
+            try {
+                if (posix) {
+                    Files.createDirectory(directory, PosixFilePermissions.asFileAttribute(PRIVATE_DIRECTORY));
+                } else {
+                    Files.createDirectory(directory);
+                }
+            } catch (FileAlreadyExistsException e) {
+                // created meanwhile, possibly by someone else: checked below like any other
+            }
+        }
+
+        if (!Files.isDirectory(directory, LinkOption.NOFOLLOW_LINKS)) {
+            throw new IOException("Socket directory " + directory + " is not a directory");
+        }
+        UserPrincipal owner = Files.getOwner(directory, LinkOption.NOFOLLOW_LINKS);
+        if (!user.equals(owner)) {
+            throw new IOException("Socket directory " + directory + " belongs to " + owner.getName()
+                    + ", not " + user.getName());
+        }
+        if (posix) {
+            Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(directory, LinkOption.NOFOLLOW_LINKS);
+            if (!PRIVATE_DIRECTORY.containsAll(permissions)) {
+                throw new IOException("Socket directory " + directory + " is accessible to other users ("
+                        + PosixFilePermissions.toString(permissions) + "); chmod 700 it or choose another --socket");
+            }
+        }
+        return user;
+    }
+
+    /**
+     * Accepts connections until {@link #close()}, answering each on its own virtual thread.
+     */
+    void serve() throws IOException {
+        report("Serving " + loaded.get().calendars().names().size() + " schedules from "
+                + configFile.getAbsolutePath() + " on " + socket);
+        while (server.isOpen()) {
+            SocketChannel connection;
+            try {
+                connection = server.accept();
+            } catch (AsynchronousCloseException e) {
+                return;
+            }
+            Thread.ofVirtual().name("holiday-guard-connection").start(() -> handle(connection));
+        }
+    }
+
+    /**
+     * Stops accepting and removes the socket file. Connections being answered finish.
+     */
+    @Override
+    public void close() throws IOException {
+        server.close();
+        Files.deleteIfExists(socket);
+    }
+
+    private void handle(SocketChannel connection) {
+        try (connection;
+             BufferedReader in = new BufferedReader(Channels.newReader(connection, StandardCharsets.UTF_8));
+             Writer out = Channels.newWriter(connection, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                Query query = Query.parse(line, "today");
+                if (query == null) continue;
+
+                out.write(reply(query));
+                if (!in.ready()) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            report("Connection failed: " + e.getMessage());
+        }
+    }
+
+    private String reply(Query query) {
+        LocalDate date;
+        try {
+            date = HolidayGuardCLI.parseDate(query.date());
+        } catch (IllegalArgumentException e) {
+            return "2\tERROR\t" + singleLine(e.getMessage()) + '\n';
+        }
+
+        HolidayGuardCLI.Answer answer = HolidayGuardCLI.answer(calendars(), query.schedule(), date);
+        if (answer.error() != null) {
+            return "2\tERROR\t" + singleLine(answer.error()) + '\n';
+        }
+        return answer.exitCode() + "\t" + (answer.exitCode() == 0 ? "RUN" : "SKIP") + '\t' + answer.status() + '\n';
+    }
+
+    /**
+     * The current calendars, reloading first if the file changed since they were read. Only
+     * one thread reloads; the others keep answering from the previous calendars meanwhile.
+     */
+    private ScheduleCalendars calendars() {
+        Loaded current = loaded.get();
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(configFile.toPath(), BasicFileAttributes.class);
+        } catch (IOException e) {
+            return current.calendars(); // mid-replace, or removed: keep answering
+        }
+        if (current.matches(attributes) || !reloadLock.tryLock()) {
+            return current.calendars();
+        }
+
+        try {
+            current = loaded.get();
+            if (!current.matches(attributes)) {
+                try {
+                    Loaded reloaded = load(configFile, configLoader, scheduleService);
+                    loaded.set(reloaded);
+                    report("Reloaded " + reloaded.calendars().names().size() + " schedules from " + configFile.getAbsolutePath());
+                } catch (IOException | RuntimeException e) {
+                    // remember the failed version so it is not retried on every request
+                    loaded.set(new Loaded(current.calendars(), attributes.lastModifiedTime(), attributes.size()));
+                    report("Reload failed, still serving the previous configuration: " + e.getMessage());
+                }
+            }
+            return loaded.get().calendars();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private static boolean listening(Path socket) {
+        try (SocketChannel ignored = SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static Loaded load(File configFile, CLIConfigLoader configLoader, CLIScheduleService scheduleService) throws IOException {
+        // read the attributes first: a change during the load then shows up as another change
+        BasicFileAttributes attributes = Files.readAttributes(configFile.toPath(), BasicFileAttributes.class);
+        ScheduleCalendars calendars = ScheduleCalendars.load(configFile, configLoader, scheduleService);
+        return new Loaded(calendars, attributes.lastModifiedTime(), attributes.size());
+    }
+
+    private void report(String message) {
+        if (log != null) {
+            log.println(message);
+        }
+    }
+
+    private static String singleLine(String message) {
+        return message == null ? "" : message.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+
+    private record Loaded(ScheduleCalendars calendars, FileTime modified, long size) {
+
+        boolean matches(BasicFileAttributes attributes) {
+            return modified.equals(attributes.lastModifiedTime()) && size == attributes.size();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.jw.holidayguard.cli;
+
+import com.jw.holidayguard.domain.Calendar;
+import com.jw.holidayguard.domain.Deviation;
+import com.jw.holidayguard.domain.Rule;
+import com.jw.holidayguard.domain.RunStatus;
+import com.jw.holidayguard.domain.Schedule;
+import com.jw.holidayguard.service.CalendarSnapshot;
+import com.jw.holidayguard.service.snapshot.CalendarSnapshotFile;
+import com.jw.holidayguard.service.snapshot.CalendarSnapshotWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Compiled copies of JSON configurations, so a run whose configuration has not changed maps
+ * a calendar snapshot instead of starting Jackson.
+ *
+ * <p>Each configuration file gets one snapshot in the cache directory, named after the
+ * file and a hash of its absolute path. The snapshot records the file's size, modification
+ * time and SHA-256 as its source ({@link CalendarSnapshotWriter#withSource(String)}); schedule
+ * ids are positions in the file. A cached snapshot is used when:
+ * <ul>
+ *   <li>size and modification time match, and the file was last modified well before the
+ *       snapshot was written; or</li>
+ *   <li>size and content hash match. This covers a file touched without being changed, and
+ *       one modified so close to the snapshot that an edit could share its timestamp. The
+ *       snapshot is then rewritten with the new time so later runs skip the hash.</li>
+ * </ul>
+ * Otherwise the JSON is parsed and a new snapshot written to a temporary file and moved into
+ * place. Processes that race each write a complete file, the last move wins, and a reader
+ * keeps its mapping of the file it opened. Cache files that are missing, unreadable or
+ * corrupt are ignored, and failing to write one never fails the query.
+ *
+ * <p>A schedule whose rule or deviations fail to build is cached without a rule type, with
+ * its error message in place of the rule configuration, so querying it fails the same way
+ * either path. A configuration with a deviation other than FORCE_RUN or FORCE_SKIP is not
+ * cached, because the snapshot format stores only those two.
+ */
+final class CompiledConfigCache {
+
+    /** Modification times closer than this to the snapshot's creation are checked by hash. */
+    private static final long RACY_MILLIS = 2_000;
+
+    private final Path directory;
+    private final CLIScheduleService scheduleService;
+
+    CompiledConfigCache(Path directory, CLIScheduleService scheduleService) {
+        this.directory = directory;
+        this.scheduleService = scheduleService;
+    }
+
+    /**
+     * {@code $XDG_CACHE_HOME/holiday-guard}, or {@code ~/.cache/holiday-guard}.
+     */
+    static Path defaultDirectory() {
+        String cacheHome = System.getenv("XDG_CACHE_HOME");
+        Path base = cacheHome != null && !cacheHome.isBlank()
+                ? Path.of(cacheHome)
+                : Path.of(System.getProperty("user.home"), ".cache");
+        return base.resolve("holiday-guard");
+    }
+
+    /**
+     * The configuration's calendars, from the cache when it is fresh and from the JSON file
+     * otherwise (refreshing the cache).
+     *
+     * @throws IOException if the configuration file cannot be read or parsed
+     */
+    ScheduleCalendars load(File configFile, CLIConfigLoader configLoader) throws IOException {
+        Path source = configFile.toPath().toAbsolutePath().normalize();
+        Path cacheFile = cacheFile(source);
+
+        // read the attributes first: a change during the load then shows up as another change
+        BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+        CalendarSnapshotFile cached = open(cacheFile);
+        if (cached != null) {
+            Fingerprint recorded = cached.source().map(Fingerprint::parse).orElse(null);
+            if (recorded != null && recorded.size() == attributes.size()) {
+                if (recorded.modified() == modified(attributes) && !racy(recorded.modified(), cached.exportedAt())) {
+                    return calendars(cached);
+                }
+                byte[] content = Files.readAllBytes(source);
+                if (recorded.sha256().equals(sha256(content))) {
+                    Fingerprint current = new Fingerprint(content.length, modified(attributes), recorded.sha256());
+                    if (!racy(current.modified(), Instant.now())) {
+                        store(cacheFile, current, copy(cached));
+                    }
+                    return calendars(cached);
+                }
+                return compile(configFile, configLoader, cacheFile, attributes, content);
+            }
+        }
+        return compile(configFile, configLoader, cacheFile, attributes, Files.readAllBytes(source));
+    }
+
+    Path cacheFile(Path source) {
+        String name = source.getFileName().toString().replaceFirst("\\.json$", "");
+        String pathHash = sha256(source.toString().getBytes(StandardCharsets.UTF_8)).substring(0, 16);
+        return directory.resolve(name + "-" + pathHash + ".hgsnap");
+    }
+
+    private ScheduleCalendars compile(File configFile, CLIConfigLoader configLoader, Path cacheFile,
+                                      BasicFileAttributes attributes, byte[] content) throws IOException {
+        CLIConfig config = configLoader.loadConfig(configFile, content);
+        List<CalendarSnapshot> calendars = compile(config);
+        if (calendars != null) {
+            store(cacheFile, new Fingerprint(content.length, modified(attributes), sha256(content)), calendars);
+        }
+        return ScheduleCalendars.of(config, scheduleService);
+    }
+
+    /**
+     * @return every schedule's calendar, id'd by position, or null if the configuration
+     *         cannot be cached as it is
+     */
+    private List<CalendarSnapshot> compile(CLIConfig config) {
+        List<CLIConfig.ScheduleConfig> schedules = config.getSchedules();
+        CalendarSnapshot[] calendars = new CalendarSnapshot[schedules.size()];
+        for (int i = 0; i < calendars.length; i++) {
+            CLIConfig.ScheduleConfig schedule = schedules.get(i);
+            Schedule withId = Schedule.builder().id(i + 1L).name(schedule.getName()).active(true).build();
+            Calendar calendar;
+            try {
+                calendar = scheduleService.buildCalendar(schedule);
+            } catch (RuntimeException e) {
+                Rule failed = Rule.builder().ruleConfig(String.valueOf(e.getMessage())).build();
+                calendar = new Calendar(withId, failed, List.of(), (rule, date) -> false);
+            }
+            for (Deviation deviation : calendar.getDeviations()) {
+                if (deviation.getAction() != RunStatus.FORCE_RUN && deviation.getAction() != RunStatus.FORCE_SKIP) {
+                    return null;
+                }
+            }
+            calendars[i] = new CalendarSnapshot(withId, null, null, calendar);
+        }
+        return List.of(calendars);
+    }
+
+    /**
+     * The cached calendars; a schedule cached without a rule type fails with its recorded error.
+     */
+    private static ScheduleCalendars calendars(CalendarSnapshotFile cached) {
+        return ScheduleCalendars.of(cached, entry -> {
+            if (entry.ruleType() == null) {
+                throw new IllegalArgumentException(entry.ruleConfig());
+            }
+            return entry.calendar();
+        });
+    }
+
+    private static List<CalendarSnapshot> copy(CalendarSnapshotFile cached) {
+        return cached.entries().stream()
+                .map(entry -> new CalendarSnapshot(entry.schedule(), entry.versionId(), entry.versionEffectiveFrom(), entry.calendar()))
+                .toList();
+    }
+
+    private void store(Path cacheFile, Fingerprint fingerprint, List<CalendarSnapshot> calendars) {
+        try {
+            Files.createDirectories(directory);
+            CalendarSnapshotWriter writer = new CalendarSnapshotWriter().withSource(fingerprint.toString());
+            calendars.forEach(writer::add);
+            writer.writeTo(cacheFile);
+        } catch (IOException | RuntimeException e) {
+            // read-only or full cache directory: the next run parses the JSON again
+        }
+    }
+
+    private CalendarSnapshotFile open(Path cacheFile) {
+        try {
+            return scheduleService.openSnapshot(cacheFile);
+        } catch (IOException | RuntimeException e) {
+            return null; // missing, or not a snapshot this version reads
+        }
+    }
+
+    private static long modified(BasicFileAttributes attributes) {
+        return attributes.lastModifiedTime().toMillis();
+    }
+
+    private static boolean racy(long modified, Instant written) {
+        return modified > written.toEpochMilli() - RACY_MILLIS;
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * What a cached snapshot was compiled from: {@code size modified-millis sha256}.
+     */
+    private record Fingerprint(long size, long modified, String sha256) {
+
+        static Fingerprint parse(String source) {
+            String[] parts = source.split(" ");
+            if (parts.length != 3) return null;
+            try {
+                return new Fingerprint(Long.parseLong(parts[0]), Long.parseLong(parts[1]), parts[2]);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return size + " " + modified + " " + sha256;
+        }
+    }
+}
@@ -7,8 +7,19 @@ import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.Callable;
 
 /**
@@ -25,6 +36,22 @@ import java.util.concurrent.Callable;
  * # Use custom config file
  * java -jar holiday-guard-cli.jar "ACH Processing" --config /path/to/config.json
  *
+ * # Use a calendar snapshot exported by the server (GET /api/v1/calendar-snapshot)
+ * java -jar holiday-guard-cli.jar "ACH Processing" --config calendars.hgsnap
+ *
+ * # Many queries in one launch: "schedule<TAB>date" lines on stdin, one result line each
+ * printf 'Payroll Schedule\t2025-12-25\nACH Processing\t2025-12-26\n' | java -jar holiday-guard-cli.jar --batch --format tsv
+ *
+ * # Every schedule in the configuration for one date
+ * java -jar holiday-guard-cli.jar --all --date 2025-12-25
+ *
+ * # Every day of a range, one row per day (text, json, tsv, csv), or the run days as iCalendar
+ * java -jar holiday-guard-cli.jar "Payroll Schedule" --from 2025-01-01 --to 2054-12-31 --format csv
+ * java -jar holiday-guard-cli.jar "Payroll Schedule" --from 2026-01-01 --to 2026-12-31 --format ics > payroll.ics
+ *
+ * # Resident daemon answering on a Unix domain socket (see CalendarDaemon for the protocol)
+ * java -jar holiday-guard-cli.jar --serve --socket /run/user/1000/holiday-guard.sock
+ *
  * # Quiet mode (only exit code)
  * java -jar holiday-guard-cli.jar "Payroll Schedule" --quiet
  * </pre>
@@ -35,6 +62,9 @@ import java.util.concurrent.Callable;
  *   <li>1 = Schedule should not run</li>
  *   <li>2 = Error (schedule not found, invalid config, etc.)</li>
  * </ul>
+ * With {@code --batch} or {@code --all} the exit code is the worst over all answers: 2 if any
+ * failed, otherwise 1 if any schedule skips, otherwise 0. With {@code --from}/{@code --to} it is
+ * 0 once the whole range is written, 2 on error.
  */
 @Command(
     name = "holiday-guard",
@@ -46,7 +76,8 @@ public class HolidayGuardCLI implements Callable<Integer> {
 
     @Parameters(
         index = "0",
-        description = "Schedule name (e.g., 'Payroll Schedule')"
+        arity = "0..1",
+        description = "Schedule name (e.g., 'Payroll Schedule'); omit with --batch or --all"
     )
     String scheduleName; // Package-private for testing
 
@@ -58,7 +89,7 @@ public class HolidayGuardCLI implements Callable<Integer> {
 
     @Option(
         names = {"-c", "--config"},
-        description = "Path to JSON configuration file (default: ./schedules.json)"
+        description = "Path to JSON configuration file or calendar snapshot (.hgsnap) (default: ./schedules.json)"
     )
     File configFile = new File("schedules.json"); // Package-private for testing
 
@@ -76,10 +107,66 @@ public class HolidayGuardCLI implements Callable<Integer> {
 
     @Option(
         names = {"--format"},
-        description = "Output format: text, json (default: text)"
+        description = "Output format: text, json, tsv, csv (default: text). json, tsv and csv print one line per answer; "
+            + "ics (with --from/--to) prints the run days as an iCalendar feed"
     )
     OutputFormat format = OutputFormat.TEXT; // Package-private for testing
 
+    @Option(
+        names = {"-b", "--batch"},
+        arity = "0..1",
+        fallbackValue = "-",
+        paramLabel = "<file>",
+        description = "Answer many queries: read 'schedule<TAB>date' lines (date optional, default --date) "
+            + "from the file or stdin ('-', the default) and print one result per line"
+    )
+    String batchInput; // Package-private for testing
+
+    @Option(
+        names = {"-a", "--all"},
+        description = "Answer every schedule in the configuration for --date, one result per line. "
+            + "Exit code: 2 if any failed, else 1 if any skips, else 0"
+    )
+    boolean all = false; // Package-private for testing
+
+    @Option(
+        names = {"--from"},
+        paramLabel = "<date>",
+        description = "First day of a range to print day by day (with --to), e.g. 2025-01-01 or today"
+    )
+    String fromInput; // Package-private for testing
+
+    @Option(
+        names = {"--to"},
+        paramLabel = "<date>",
+        description = "Last day (inclusive) of the range started by --from"
+    )
+    String toInput; // Package-private for testing
+
+    @Option(
+        names = {"--no-cache"},
+        description = "Always parse the JSON configuration instead of using its compiled copy in "
+            + "$XDG_CACHE_HOME/holiday-guard (or ~/.cache/holiday-guard)"
+    )
+    boolean noCache = false; // Package-private for testing
+
+    @Option(
+        names = {"--serve"},
+        description = "Keep the configuration's calendars in memory and answer 'schedule<TAB>date' lines "
+            + "on the Unix domain socket (--socket) until stopped; reloads when the configuration changes"
+    )
+    boolean serve = false; // Package-private for testing
+
+    @Option(
+        names = {"--socket"},
+        paramLabel = "<path>",
+        description = "Socket for --serve (default: $XDG_RUNTIME_DIR/holiday-guard.sock, "
+            + "or holiday-guard-<user>/holiday-guard.sock in the temp directory)"
+    )
+    Path socket = defaultSocket(); // Package-private for testing
+
+    private final Path cacheDirectory = CompiledConfigCache.defaultDirectory();
+
     private final CLIConfigLoader configLoader;
     private final CLIScheduleService scheduleService;
 
@@ -95,15 +182,40 @@ public class HolidayGuardCLI implements Callable<Integer> {
     }
 
     public static void main(String[] args) {
-        int exitCode = new CommandLine(new HolidayGuardCLI()).execute(args);
+        int exitCode = commandLine(new HolidayGuardCLI()).execute(args);
         System.exit(exitCode);
     }
 
+    static CommandLine commandLine(HolidayGuardCLI cli) {
+        return new CommandLine(cli)
+            .setCaseInsensitiveEnumValuesAllowed(true); // --format json, as documented
+    }
+
     @Override
     public Integer call() {
         try {
-            // Parse date
-            LocalDate queryDate = parseDate(dateInput);
+            if (serve && (batchInput != null || all || scheduleName != null)) {
+                return usageError("--serve answers queries on its socket; it takes no schedule name, --batch or --all");
+            }
+            if (batchInput != null && all) {
+                return usageError("--batch and --all cannot be combined");
+            }
+            boolean range = fromInput != null || toInput != null;
+            if (range && (serve || batchInput != null || all)) {
+                return usageError("--from/--to print one schedule's days; they cannot be combined with --batch, --all or --serve");
+            }
+            if (range && (fromInput == null || toInput == null)) {
+                return usageError("A range needs both --from and --to");
+            }
+            if (format == OutputFormat.ICS && !range) {
+                return usageError("--format ics needs a range (--from/--to)");
+            }
+            if ((batchInput != null || all) && scheduleName != null) {
+                return usageError("Schedule names are read from the batch input (--batch) or the configuration (--all)");
+            }
+            if (!serve && batchInput == null && !all && scheduleName == null) {
+                return usageError("Missing schedule name (or use --batch / --all)");
+            }
 
             // Load configuration
             if (!configFile.exists()) {
@@ -112,28 +224,23 @@ public class HolidayGuardCLI implements Callable<Integer> {
                 return 2;
             }
 
-            CLIConfig config = configLoader.loadConfig(configFile);
-
-            // Find schedule
-            CLIConfig.ScheduleConfig scheduleConfig = config.findSchedule(scheduleName);
-            if (scheduleConfig == null) {
-                System.err.println("Error: Schedule not found: " + scheduleName);
-                System.err.println("Available schedules: " + config.getScheduleNames());
-                return 2;
+            if (serve) {
+                return serve();
             }
 
-            // Build calendar and query shouldRun
-            Calendar calendar = scheduleService.buildCalendar(scheduleConfig);
-            boolean shouldRun = calendar.shouldRun(queryDate);
-            RunStatus status = scheduleService.determineRunStatus(calendar, scheduleConfig, queryDate);
-
-            // Output result
-            if (!quiet) {
-                outputResult(scheduleName, queryDate, shouldRun, status, scheduleConfig);
+            ScheduleCalendars calendars = noCache
+                ? ScheduleCalendars.load(configFile, configLoader, scheduleService)
+                : ScheduleCalendars.load(configFile, configLoader, scheduleService, new CompiledConfigCache(cacheDirectory, scheduleService));
+            if (batchInput != null) {
+                return batch(calendars);
             }
-
-            // Return exit code: 0 = run, 1 = skip
-            return shouldRun ? 0 : 1;
+            if (all) {
+                return all(calendars, parseDate(dateInput));
+            }
+            if (range) {
+                return range(calendars, parseDate(fromInput), parseDate(toInput));
+            }
+            return single(calendars, parseDate(dateInput));
 
         } catch (Exception e) {
             if (!quiet) {
@@ -146,7 +253,171 @@ public class HolidayGuardCLI implements Callable<Integer> {
         }
     }
 
-    private LocalDate parseDate(String input) {
+    private int single(ScheduleCalendars calendars, LocalDate queryDate) {
+        // Find schedule
+        Optional<Calendar> calendar = calendars.find(scheduleName);
+        if (calendar.isEmpty()) {
+            System.err.println("Error: Schedule not found: " + scheduleName);
+            System.err.println("Available schedules: " + calendars.names());
+            return 2;
+        }
+
+        // Query shouldRun
+        RunStatus status = calendar.get().runStatus(queryDate);
+        boolean shouldRun = ResultWriter.shouldRun(status);
+
+        // Output result
+        if (!quiet) {
+            outputResult(scheduleName, queryDate, shouldRun, status, calendar.get());
+        }
+
+        // Return exit code: 0 = run, 1 = skip
+        return shouldRun ? 0 : 1;
+    }
+
+    /**
+     * Answers one line of input at a time, writing each result as it goes: output is flushed
+     * whenever no more input is waiting, so a caller can also feed lines interactively.
+     */
+    private int batch(ScheduleCalendars calendars) throws IOException {
+        ResultWriter writer = new ResultWriter(System.out, format);
+        int exitCode = 0;
+        try (BufferedReader in = "-".equals(batchInput)
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Path.of(batchInput))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                Query query = Query.parse(line, dateInput);
+                if (query == null) continue;
+
+                exitCode = Math.max(exitCode, evaluate(calendars, query.schedule(), query.date(), writer));
+                if (!in.ready()) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        return exitCode;
+    }
+
+    /**
+     * Answers every schedule in the configuration in parallel, then writes the results in
+     * configuration order.
+     */
+    private int all(ScheduleCalendars calendars, LocalDate queryDate) {
+        List<Answer> answers = calendars.names().parallelStream()
+                .map(name -> answer(calendars, name, queryDate))
+                .toList();
+
+        ResultWriter writer = new ResultWriter(System.out, format);
+        int exitCode = 0;
+        for (Answer answer : answers) {
+            if (!quiet) {
+                if (answer.error() != null) {
+                    writer.error(answer.schedule(), queryDate.toString(), answer.error());
+                } else {
+                    writer.result(answer.schedule(), queryDate, answer.status());
+                }
+            }
+            exitCode = Math.max(exitCode, answer.exitCode());
+        }
+        writer.flush();
+        return exitCode;
+    }
+
+    /**
+     * Writes every day from {@code from} to {@code to} as it is evaluated, so only one year of
+     * the range is in memory at a time however long it is.
+     */
+    private int range(ScheduleCalendars calendars, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return usageError("--from " + from + " is after --to " + to);
+        }
+        Optional<Calendar> calendar = calendars.find(scheduleName);
+        if (calendar.isEmpty()) {
+            System.err.println("Error: Schedule not found: " + scheduleName);
+            System.err.println("Available schedules: " + calendars.names());
+            return 2;
+        }
+        if (quiet) {
+            return 0;
+        }
+
+        // one write to stdout per buffer instead of per line
+        PrintStream out = new PrintStream(new BufferedOutputStream(System.out, 1 << 16), false, StandardCharsets.UTF_8);
+        if (format == OutputFormat.ICS) {
+            ICalendarWriter writer = new ICalendarWriter(out, scheduleName, Instant.now());
+            scheduleService.forEachDay(calendar.get(), from, to, writer::day);
+            writer.end();
+        } else {
+            ResultWriter writer = new ResultWriter(out, format);
+            scheduleService.forEachDay(calendar.get(), from, to, (date, status) -> writer.result(scheduleName, date, status));
+            writer.flush();
+        }
+        return 0;
+    }
+
+    /**
+     * Runs the daemon until the process is stopped; the socket file is removed on the way out.
+     */
+    private int serve() throws IOException {
+        CalendarDaemon daemon = CalendarDaemon.bind(configFile, configLoader, scheduleService, socket, quiet ? null : System.err);
+        Runtime.getRuntime().addShutdownHook(Thread.ofPlatform().name("holiday-guard-shutdown").unstarted(() -> {
+            try {
+                daemon.close();
+            } catch (IOException e) {
+                // exiting anyway
+            }
+        }));
+        daemon.serve();
+        return 0;
+    }
+
+    private int evaluate(ScheduleCalendars calendars, String name, String date, ResultWriter writer) {
+        LocalDate queryDate;
+        try {
+            queryDate = parseDate(date);
+        } catch (IllegalArgumentException e) {
+            if (!quiet) writer.error(name, date, e.getMessage());
+            return 2;
+        }
+
+        Answer answer = answer(calendars, name, queryDate);
+        if (!quiet) {
+            if (answer.error() != null) {
+                writer.error(name, date, answer.error());
+            } else {
+                writer.result(name, queryDate, answer.status());
+            }
+        }
+        return answer.exitCode();
+    }
+
+    static Answer answer(ScheduleCalendars calendars, String name, LocalDate queryDate) {
+        try {
+            return calendars.find(name)
+                    .map(calendar -> new Answer(name, calendar.runStatus(queryDate), null))
+                    .orElseGet(() -> new Answer(name, null, "Schedule not found"));
+        } catch (RuntimeException e) {
+            return new Answer(name, null, e.getMessage());
+        }
+    }
+
+    private int usageError(String message) {
+        System.err.println("Error: " + message);
+        return 2;
+    }
+
+    private static Path defaultSocket() {
+        String runtimeDir = System.getenv("XDG_RUNTIME_DIR");
+        if (runtimeDir != null && !runtimeDir.isBlank()) {
+            return Path.of(runtimeDir, "holiday-guard.sock");
+        }
+        // a directory of its own, which the daemon creates private to the user or refuses
+        return Path.of(System.getProperty("java.io.tmpdir"), "holiday-guard-" + System.getProperty("user.name"), "holiday-guard.sock");
+    }
+
+    static LocalDate parseDate(String input) {
         if ("today".equalsIgnoreCase(input)) {
             return LocalDate.now();
         }
@@ -157,15 +428,17 @@ public class HolidayGuardCLI implements Callable<Integer> {
         }
     }
 
-    private void outputResult(String schedule, LocalDate date, boolean shouldRun, RunStatus status, CLIConfig.ScheduleConfig config) {
-        if (format == OutputFormat.JSON) {
-            outputJson(schedule, date, shouldRun, status, config);
+    private void outputResult(String schedule, LocalDate date, boolean shouldRun, RunStatus status, Calendar calendar) {
+        if (format == OutputFormat.TEXT) {
+            outputText(schedule, date, shouldRun, status, calendar);
         } else {
-            outputText(schedule, date, shouldRun, status, config);
+            ResultWriter writer = new ResultWriter(System.out, format);
+            writer.result(schedule, date, status);
+            writer.flush();
         }
     }
 
-    private void outputText(String schedule, LocalDate date, boolean shouldRun, RunStatus status, CLIConfig.ScheduleConfig config) {
+    private void outputText(String schedule, LocalDate date, boolean shouldRun, RunStatus status, Calendar calendar) {
         System.out.println("Schedule: " + schedule);
         System.out.println("Date:     " + date);
         System.out.println("Status:   " + status);
@@ -173,20 +446,29 @@ public class HolidayGuardCLI implements Callable<Integer> {
 
         if (verbose) {
             System.out.println("\nDetails:");
-            System.out.println("  Rule Type: " + config.getRule().getRuleType());
-            System.out.println("  Rule Config: " + (config.getRule().getRuleConfig() != null ? config.getRule().getRuleConfig() : "N/A"));
-            if (config.getDeviations() != null && !config.getDeviations().isEmpty()) {
-                System.out.println("  Deviations: " + config.getDeviations().size() + " configured");
+            System.out.println("  Rule Type: " + calendar.getRule().getRuleType());
+            System.out.println("  Rule Config: " + (calendar.getRule().getRuleConfig() != null ? calendar.getRule().getRuleConfig() : "N/A"));
+            if (!calendar.getDeviations().isEmpty()) {
+                System.out.println("  Deviations: " + calendar.getDeviations().size() + " configured");
             }
         }
     }
 
-    private void outputJson(String schedule, LocalDate date, boolean shouldRun, RunStatus status, CLIConfig.ScheduleConfig config) {
-        System.out.printf("{\"schedule\":\"%s\",\"date\":\"%s\",\"shouldRun\":%b,\"status\":\"%s\"}%n",
-            schedule, date, shouldRun, status);
+    /**
+     * A schedule's answer, or why there is none.
+     */
+    record Answer(String schedule, RunStatus status, String error) {
+
+        /**
+         * 0 = run, 1 = skip, 2 = error, as for a single query.
+         */
+        int exitCode() {
+            if (error != null) return 2;
+            return ResultWriter.shouldRun(status) ? 0 : 1;
+        }
     }
 
     enum OutputFormat {
-        TEXT, JSON
+        TEXT, JSON, TSV, CSV, ICS
     }
 }
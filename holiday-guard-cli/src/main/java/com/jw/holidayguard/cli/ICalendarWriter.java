@@ -0,0 +1,102 @@
+package com.jw.holidayguard.cli;
+
+import com.jw.holidayguard.domain.RunStatus;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Writes a schedule's run days as an iCalendar (RFC 5545) feed for {@code --format ics}: one
+ * all-day event per day the schedule runs, forced runs marked in the description. Skipped days
+ * are left out, so calendar applications show when the job runs.
+ *
+ * <p>Events are written as days are passed in; call {@link #end()} once after the last one.
+ */
+final class ICalendarWriter {
+
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'")
+            .withZone(ZoneOffset.UTC);
+    private static final int MAX_LINE_OCTETS = 75;
+
+    private final PrintStream out;
+    private final String schedule;
+    private final String uidSuffix;
+    private final String stamp;
+
+    /**
+     * Writes the calendar header.
+     *
+     * @param generated the {@code DTSTAMP} of every event
+     */
+    ICalendarWriter(PrintStream out, String schedule, Instant generated) {
+        this.out = out;
+        this.schedule = schedule;
+        this.uidSuffix = "-" + schedule.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-") + "@holiday-guard";
+        this.stamp = STAMP.format(generated);
+
+        line("BEGIN:VCALENDAR");
+        line("VERSION:2.0");
+        line("PRODID:-//Holiday Guard//CLI//EN");
+        line("CALSCALE:GREGORIAN");
+        line("X-WR-CALNAME:" + text(schedule));
+    }
+
+    void day(LocalDate date, RunStatus status) {
+        if (!ResultWriter.shouldRun(status)) return;
+
+        String day = DateTimeFormatter.BASIC_ISO_DATE.format(date);
+        line("BEGIN:VEVENT");
+        line("UID:" + day + uidSuffix);
+        line("DTSTAMP:" + stamp);
+        line("DTSTART;VALUE=DATE:" + day);
+        line("DTEND;VALUE=DATE:" + DateTimeFormatter.BASIC_ISO_DATE.format(date.plusDays(1)));
+        line("SUMMARY:" + text(schedule));
+        line("DESCRIPTION:" + status);
+        line("TRANSP:TRANSPARENT");
+        line("END:VEVENT");
+    }
+
+    void end() {
+        line("END:VCALENDAR");
+        out.flush();
+    }
+
+    /**
+     * Writes a content line, folded so no line is longer than 75 octets (RFC 5545 3.1).
+     */
+    private void line(String content) {
+        if (content.length() <= MAX_LINE_OCTETS / 3) { // fits whatever its characters encode to
+            out.print(content + "\r\n");
+            return;
+        }
+
+        int octets = 0;
+        StringBuilder folded = new StringBuilder(content.length() + 8);
+        for (int i = 0; i < content.length(); ) {
+            int codePoint = content.codePointAt(i);
+            int length = Character.toString(codePoint).getBytes(StandardCharsets.UTF_8).length;
+            if (octets + length > MAX_LINE_OCTETS) {
+                folded.append("\r\n ");
+                octets = 1;
+            }
+            folded.appendCodePoint(codePoint);
+            octets += length;
+            i += Character.charCount(codePoint);
+        }
+        out.print(folded.append("\r\n"));
+    }
+
+    private static String text(String value) {
+        return value.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n")
+                .replace("\r", "\\n");
+    }
+}
@@ -0,0 +1,24 @@
+package com.jw.holidayguard.cli;
+
+/**
+ * One {@code schedule<TAB>date} line of {@code --batch} input or of the {@code --serve}
+ * socket protocol.
+ *
+ * @param schedule the schedule name, trimmed
+ * @param date     the date as given (ISO or {@code today}), not yet parsed
+ */
+record Query(String schedule, String date) {
+
+    /**
+     * @param defaultDate used when the line has no date
+     * @return the query, or {@code null} for a blank or {@code #} comment line
+     */
+    static Query parse(String line, String defaultDate) {
+        if (line.isBlank() || line.startsWith("#")) return null;
+
+        int tab = line.indexOf('\t');
+        if (tab < 0) return new Query(line.strip(), defaultDate);
+        String date = line.substring(tab + 1).strip();
+        return new Query(line.substring(0, tab).strip(), date.isEmpty() ? defaultDate : date);
+    }
+}
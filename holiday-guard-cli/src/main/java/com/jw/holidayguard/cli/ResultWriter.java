@@ -0,0 +1,121 @@
+package com.jw.holidayguard.cli;
+
+import com.jw.holidayguard.domain.RunStatus;
+
+import java.io.PrintStream;
+import java.time.LocalDate;
+
+/**
+ * Writes one line per answer for {@code --batch}, {@code --all}, {@code --from}/{@code --to}
+ * and {@code --format json}.
+ *
+ * <ul>
+ *   <li>text: {@code 2025-12-25  SKIP   FORCE_SKIP  Payroll Schedule}</li>
+ *   <li>json: {@code {"schedule":"Payroll Schedule","date":"2025-12-25","shouldRun":false,"status":"FORCE_SKIP"}}</li>
+ *   <li>tsv: {@code Payroll Schedule<TAB>2025-12-25<TAB>SKIP<TAB>FORCE_SKIP}</li>
+ *   <li>csv: {@code Payroll Schedule,2025-12-25,SKIP,FORCE_SKIP}, below a
+ *       {@code schedule,date,result,status} header written with the first line</li>
+ * </ul>
+ *
+ * <p>A line that could not be answered has result {@code ERROR} and the message in place of
+ * the status; in JSON it has an {@code error} field instead of {@code shouldRun} and
+ * {@code status}. Lines are not flushed individually; call {@link #flush()}.
+ */
+final class ResultWriter {
+
+    private final PrintStream out;
+    private final HolidayGuardCLI.OutputFormat format;
+    private boolean headerWritten;
+
+    /**
+     * @throws IllegalArgumentException for {@code ics}, which only describes date ranges
+     *                                  ({@link ICalendarWriter})
+     */
+    ResultWriter(PrintStream out, HolidayGuardCLI.OutputFormat format) {
+        if (format == HolidayGuardCLI.OutputFormat.ICS) {
+            throw new IllegalArgumentException("--format ics is only available with --from/--to");
+        }
+        this.out = out;
+        this.format = format;
+    }
+
+    void result(String schedule, LocalDate date, RunStatus status) {
+        boolean shouldRun = shouldRun(status);
+        header();
+        switch (format) {
+            case JSON -> out.print("{\"schedule\":" + quote(schedule) + ",\"date\":\"" + date
+                    + "\",\"shouldRun\":" + shouldRun + ",\"status\":\"" + status + "\"}\n");
+            case TSV -> out.print(tsv(schedule) + '\t' + date + '\t' + result(shouldRun) + '\t' + status + '\n');
+            case CSV -> out.print(csv(schedule) + ',' + date + ',' + result(shouldRun) + ',' + status + "\r\n");
+            case TEXT -> out.printf("%-10s  %-5s  %-10s  %s\n", date, result(shouldRun), status, schedule);
+        }
+    }
+
+    /**
+     * @param date the date as given, which may not have parsed
+     */
+    void error(String schedule, String date, String message) {
+        header();
+        switch (format) {
+            case JSON -> out.print("{\"schedule\":" + quote(schedule) + ",\"date\":" + quote(date)
+                    + ",\"error\":" + quote(message) + "}\n");
+            case TSV -> out.print(tsv(schedule) + '\t' + tsv(date) + "\tERROR\t" + tsv(message) + '\n');
+            case CSV -> out.print(csv(schedule) + ',' + csv(date) + ",ERROR," + csv(message) + "\r\n");
+            case TEXT -> out.printf("%-10s  %-5s  %s: %s\n", date, "ERROR", schedule, message);
+        }
+    }
+
+    void flush() {
+        out.flush();
+    }
+
+    private void header() {
+        if (format == HolidayGuardCLI.OutputFormat.CSV && !headerWritten) {
+            out.print("schedule,date,result,status\r\n");
+            headerWritten = true;
+        }
+    }
+
+    static boolean shouldRun(RunStatus status) {
+        return status == RunStatus.RUN || status == RunStatus.FORCE_RUN;
+    }
+
+    private static String result(boolean shouldRun) {
+        return shouldRun ? "RUN" : "SKIP";
+    }
+
+    private static String tsv(String value) {
+        return value == null ? "" : value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+
+    private static String csv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String quote(String value) {
+        if (value == null) return "null";
+        StringBuilder json = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        return json.append('"').toString();
+    }
+}
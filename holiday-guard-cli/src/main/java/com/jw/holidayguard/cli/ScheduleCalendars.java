@@ -0,0 +1,107 @@
+package com.jw.holidayguard.cli;
+
+import com.jw.holidayguard.domain.Calendar;
+import com.jw.holidayguard.service.snapshot.CalendarSnapshotFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * The schedules of one configuration file, looked up by name (case-insensitive), each
+ * {@link Calendar} built on first use and then reused. Safe to share between threads.
+ *
+ * <p>The file is either a JSON configuration ({@link CLIConfig}) or a calendar snapshot
+ * exported by the server ({@link CalendarSnapshotFile}).
+ */
+final class ScheduleCalendars {
+
+    private final List<String> names;
+    private final Function<String, Calendar> builder;
+    private final ConcurrentMap<String, Calendar> calendars = new ConcurrentHashMap<>();
+
+    private ScheduleCalendars(List<String> names, Function<String, Calendar> builder) {
+        this.names = names;
+        this.builder = builder;
+    }
+
+    /**
+     * Reads the configuration file, as a snapshot if it starts with the snapshot magic number
+     * and as JSON otherwise.
+     *
+     * @throws IOException if the file cannot be read or parsed
+     */
+    static ScheduleCalendars load(File configFile, CLIConfigLoader configLoader, CLIScheduleService scheduleService) throws IOException {
+        Path path = configFile.toPath();
+        if (CalendarSnapshotFile.isSnapshot(path)) {
+            return of(scheduleService.openSnapshot(path));
+        }
+        return of(configLoader.loadConfig(configFile), scheduleService);
+    }
+
+    /**
+     * As {@link #load(File, CLIConfigLoader, CLIScheduleService)}, taking a JSON configuration
+     * from the compiled cache when it has not changed since it was cached.
+     *
+     * @throws IOException if the file cannot be read or parsed
+     */
+    static ScheduleCalendars load(File configFile, CLIConfigLoader configLoader, CLIScheduleService scheduleService,
+                                  CompiledConfigCache cache) throws IOException {
+        Path path = configFile.toPath();
+        if (CalendarSnapshotFile.isSnapshot(path)) {
+            return of(scheduleService.openSnapshot(path));
+        }
+        return cache.load(configFile, configLoader);
+    }
+
+    static ScheduleCalendars of(CLIConfig config, CLIScheduleService scheduleService) {
+        Map<String, CLIConfig.ScheduleConfig> byName = new HashMap<>();
+        for (CLIConfig.ScheduleConfig schedule : config.getSchedules()) {
+            byName.putIfAbsent(key(schedule.getName()), schedule);
+        }
+        return new ScheduleCalendars(config.getScheduleNames(), name -> {
+            CLIConfig.ScheduleConfig schedule = byName.get(name);
+            return schedule != null ? scheduleService.buildCalendar(schedule) : null;
+        });
+    }
+
+    static ScheduleCalendars of(CalendarSnapshotFile snapshot) {
+        return of(snapshot, CalendarSnapshotFile.Entry::calendar);
+    }
+
+    /**
+     * @param builder builds the calendar of the entry a name finds
+     */
+    static ScheduleCalendars of(CalendarSnapshotFile snapshot, Function<CalendarSnapshotFile.Entry, Calendar> builder) {
+        return new ScheduleCalendars(snapshot.names(),
+                name -> snapshot.findByName(name).map(builder).orElse(null));
+    }
+
+    /**
+     * @return the schedule's calendar, or empty if no schedule has this name
+     * @throws IllegalArgumentException if the schedule's rule or deviations are invalid
+     */
+    Optional<Calendar> find(String name) {
+        if (name == null) return Optional.empty();
+        return Optional.ofNullable(calendars.computeIfAbsent(key(name), builder));
+    }
+
+    /**
+     * Schedule names in file order, for {@code --all} and error messages.
+     */
+    List<String> names() {
+        return names;
+    }
+
+    private static String key(String name) {
+        return name != null ? name.toLowerCase(Locale.ROOT) : null;
+    }
+}
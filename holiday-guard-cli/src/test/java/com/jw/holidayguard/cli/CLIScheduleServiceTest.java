@@ -7,9 +7,12 @@ import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class CLIScheduleServiceTest {
 
@@ -152,7 +155,7 @@ class CLIScheduleServiceTest {
         LocalDate monday = LocalDate.of(2025, 10, 13);
 
         // when - Determining status
-        RunStatus status = service.determineRunStatus(calendar, config, monday);
+        RunStatus status = service.determineRunStatus(calendar, monday);
 
         // then - Status is RUN
         assertThat(status).isEqualTo(RunStatus.RUN);
@@ -173,7 +176,7 @@ class CLIScheduleServiceTest {
         LocalDate saturday = LocalDate.of(2025, 10, 18);
 
         // when - Determining status
-        RunStatus status = service.determineRunStatus(calendar, config, saturday);
+        RunStatus status = service.determineRunStatus(calendar, saturday);
 
         // then - Status is SKIP
         assertThat(status).isEqualTo(RunStatus.SKIP);
@@ -200,7 +203,7 @@ class CLIScheduleServiceTest {
         Calendar calendar = service.buildCalendar(config);
 
         // when - Determining status
-        RunStatus status = service.determineRunStatus(calendar, config, christmas);
+        RunStatus status = service.determineRunStatus(calendar, christmas);
 
         // then - Status is FORCE_SKIP
         assertThat(status).isEqualTo(RunStatus.FORCE_SKIP);
@@ -227,7 +230,7 @@ class CLIScheduleServiceTest {
         Calendar calendar = service.buildCalendar(config);
 
         // when - Determining status
-        RunStatus status = service.determineRunStatus(calendar, config, saturday);
+        RunStatus status = service.determineRunStatus(calendar, saturday);
 
         // then - Status is FORCE_RUN
         assertThat(status).isEqualTo(RunStatus.FORCE_RUN);
@@ -261,11 +264,76 @@ class CLIScheduleServiceTest {
         Calendar calendar = service.buildCalendar(config);
 
         // when - Checking both dates
-        RunStatus status1 = service.determineRunStatus(calendar, config, date1);
-        RunStatus status2 = service.determineRunStatus(calendar, config, date2);
+        RunStatus status1 = service.determineRunStatus(calendar, date1);
+        RunStatus status2 = service.determineRunStatus(calendar, date2);
 
         // then - Both have correct deviation status
         assertThat(status1).isEqualTo(RunStatus.FORCE_SKIP);
         assertThat(status2).isEqualTo(RunStatus.FORCE_SKIP);
     }
+
+    @Test
+    void forEachDay_shouldMatchRunStatusAcrossYearBoundaries() {
+        // given - Weekdays-only schedule with deviations on both sides of New Year
+        CLIConfig.ScheduleConfig config = new CLIConfig.ScheduleConfig();
+        config.setName("Test");
+
+        CLIConfig.RuleConfig rule = new CLIConfig.RuleConfig();
+        rule.setRuleType("WEEKDAYS_ONLY");
+        config.setRule(rule);
+
+        CLIConfig.DeviationConfig christmas = new CLIConfig.DeviationConfig();
+        christmas.setDate(LocalDate.of(2025, 12, 25));
+        christmas.setAction("FORCE_SKIP");
+
+        CLIConfig.DeviationConfig saturday = new CLIConfig.DeviationConfig();
+        saturday.setDate(LocalDate.of(2026, 1, 3));
+        saturday.setAction("FORCE_RUN");
+
+        config.setDeviations(List.of(christmas, saturday));
+        Calendar calendar = service.buildCalendar(config);
+
+        // when - Walking a range that spans two years
+        LocalDate from = LocalDate.of(2025, 12, 20);
+        LocalDate to = LocalDate.of(2026, 1, 10);
+        Map<LocalDate, RunStatus> days = new LinkedHashMap<>();
+        service.forEachDay(calendar, from, to, days::put);
+
+        // then - Every day once, in order, with the same status as a single-date query
+        assertThat(days).hasSize(22);
+        assertThat(days.keySet()).first().isEqualTo(from);
+        assertThat(days.keySet()).last().isEqualTo(to);
+        days.forEach((date, status) -> assertThat(status).as(date.toString()).isEqualTo(calendar.runStatus(date)));
+        assertThat(days.get(LocalDate.of(2025, 12, 25))).isEqualTo(RunStatus.FORCE_SKIP);
+        assertThat(days.get(LocalDate.of(2026, 1, 3))).isEqualTo(RunStatus.FORCE_RUN);
+        assertThat(days.get(LocalDate.of(2026, 1, 4))).isEqualTo(RunStatus.SKIP);
+
+        // and - A no-days schedule with the same deviations skips every other day
+        rule.setRuleType("NO_DAYS");
+        Calendar noDays = service.buildCalendar(config);
+        Map<LocalDate, RunStatus> noDaysDays = new LinkedHashMap<>();
+        service.forEachDay(noDays, from, to, noDaysDays::put);
+
+        assertThat(noDaysDays).hasSize(22);
+        noDaysDays.forEach((date, status) -> assertThat(status).as(date.toString()).isEqualTo(noDays.runStatus(date)));
+        assertThat(noDaysDays.get(LocalDate.of(2026, 1, 3))).isEqualTo(RunStatus.FORCE_RUN);
+        assertThat(noDaysDays.values()).filteredOn(status -> status == RunStatus.RUN).isEmpty();
+    }
+
+    @Test
+    void forEachDay_shouldWalkMultiDecadeRangeAndRejectReversedOne() {
+        CLIConfig.ScheduleConfig config = new CLIConfig.ScheduleConfig();
+        config.setName("Test");
+        CLIConfig.RuleConfig rule = new CLIConfig.RuleConfig();
+        rule.setRuleType("ALL_DAYS");
+        config.setRule(rule);
+        Calendar calendar = service.buildCalendar(config);
+
+        long[] days = new long[1];
+        service.forEachDay(calendar, LocalDate.of(2000, 1, 1), LocalDate.of(2099, 12, 31), (date, status) -> days[0]++);
+        assertThat(days[0]).isEqualTo(36525);
+
+        assertThatThrownBy(() -> service.forEachDay(calendar, LocalDate.of(2026, 1, 2), LocalDate.of(2026, 1, 1), (date, status) -> { }))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
 }
@@ -0,0 +1,190 @@
+package com.jw.holidayguard.cli;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CalendarDaemonTest {
+
+    private static final String WEEKDAYS = """
+        {
+          "schedules": [
+            {
+              "name": "Payroll Schedule",
+              "rule": {"ruleType": "WEEKDAYS_ONLY"},
+              "deviations": [
+                {"date": "2025-12-25", "action": "FORCE_SKIP", "reason": "Christmas"}
+              ]
+            }
+          ]
+        }
+        """;
+
+    @TempDir
+    Path dir;
+
+    private CalendarDaemon daemon;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (daemon != null) {
+            daemon.close();
+        }
+    }
+
+    @Test
+    void serve_answersEachLineWithExitCodeResultAndStatus() throws IOException {
+        start(WEEKDAYS);
+
+        List<String> replies = query(
+            "Payroll Schedule\t2025-12-24",
+            "payroll schedule\t2025-12-25",
+            "",
+            "Payroll Schedule\t2025-12-27",
+            "Unknown\t2025-12-24",
+            "Payroll Schedule\tnot-a-date");
+
+        assertThat(replies).hasSize(5);
+        assertThat(replies.subList(0, 4)).containsExactly(
+            "0\tRUN\tRUN",
+            "1\tSKIP\tFORCE_SKIP",
+            "1\tSKIP\tSKIP",
+            "2\tERROR\tSchedule not found");
+        assertThat(replies.get(4)).startsWith("2\tERROR\tInvalid date format: not-a-date");
+        assertThat(query("Payroll Schedule")).hasSize(1); // today
+    }
+
+    @Test
+    void serve_reloadsChangedConfigAndKeepsServingThroughBrokenOne() throws IOException {
+        File config = start(WEEKDAYS);
+        assertThat(query("Payroll Schedule\t2025-12-27")).containsExactly("1\tSKIP\tSKIP");
+
+        write(config, WEEKDAYS.replace("WEEKDAYS_ONLY", "ALL_DAYS"), 10);
+        assertThat(query("Payroll Schedule\t2025-12-27")).containsExactly("0\tRUN\tRUN");
+
+        write(config, "{ not json", 20);
+        assertThat(query("Payroll Schedule\t2025-12-27")).containsExactly("0\tRUN\tRUN");
+    }
+
+    @Test
+    void bind_refusesSocketInUseAndReplacesStaleOne() throws IOException {
+        File config = start(WEEKDAYS);
+
+        assertThatThrownBy(() -> bind(config, daemon.socket()))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("Another daemon is already listening");
+
+        Path stale = dir.resolve("stale.sock");
+        ServerSocketChannel dead = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        dead.bind(UnixDomainSocketAddress.of(stale));
+        dead.close(); // the socket file stays behind, as after a crash
+        assertThat(stale).exists();
+
+        try (CalendarDaemon replacement = bind(config, stale)) {
+            assertThat(replacement.socket()).exists();
+        }
+        assertThat(stale).doesNotExist();
+    }
+
+    @Test
+    void bind_createsMissingDirectoryForTheUserOnly() throws IOException {
+        File config = start(WEEKDAYS);
+        Path socket = dir.resolve("run").resolve("holiday-guard.sock");
+
+        try (CalendarDaemon other = bind(config, socket)) {
+            assertThat(other.socket()).exists();
+            assertThat(Files.getPosixFilePermissions(socket.getParent())).isEqualTo(PosixFilePermissions.fromString("rwx------"));
+            assertThat(Files.getPosixFilePermissions(socket)).isEqualTo(PosixFilePermissions.fromString("rw-------"));
+        }
+    }
+
+    @Test
+    void bind_refusesDirectoryOthersCanEnterAndLinkedSocket() throws IOException {
+        File config = start(WEEKDAYS);
+
+        Path shared = Files.createDirectory(dir.resolve("shared"));
+        Files.setPosixFilePermissions(shared, PosixFilePermissions.fromString("rwxrwxrwx"));
+        assertThatThrownBy(() -> bind(config, shared.resolve("holiday-guard.sock")))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("accessible to other users");
+        assertThat(shared.resolve("holiday-guard.sock")).doesNotExist();
+
+        Path linkedDirectory = Files.createSymbolicLink(dir.resolve("linked"), dir);
+        assertThatThrownBy(() -> bind(config, linkedDirectory.resolve("holiday-guard.sock")))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("is not a directory");
+
+        Path linkedSocket = Files.createSymbolicLink(dir.resolve("linked.sock"), daemon.socket());
+        assertThatThrownBy(() -> bind(config, linkedSocket))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("Not a socket");
+        assertThat(daemon.socket()).exists();
+    }
+
+    private File start(String json) throws IOException {
+        File config = dir.resolve("schedules.json").toFile();
+        Files.writeString(config.toPath(), json);
+        daemon = bind(config, dir.resolve("holiday-guard.sock"));
+        Thread.ofVirtual().start(() -> {
+            try {
+                daemon.serve();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return config;
+    }
+
+    private static CalendarDaemon bind(File config, Path socket) throws IOException {
+        return CalendarDaemon.bind(config, new CLIConfigLoader(), new CLIScheduleService(), socket, null);
+    }
+
+    private List<String> query(String... lines) throws IOException {
+        try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(daemon.socket()));
+             Writer out = Channels.newWriter(channel, StandardCharsets.UTF_8);
+             BufferedReader in = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8))) {
+            for (String line : lines) {
+                out.write(line + "\n");
+            }
+            out.flush();
+            channel.shutdownOutput();
+
+            List<String> replies = new ArrayList<>();
+            String reply;
+            while ((reply = in.readLine()) != null) {
+                replies.add(reply);
+            }
+            return replies;
+        }
+    }
+
+    /**
+     * Rewrites the file with a distinct modification time, so the change is seen even where
+     * the file system's timestamps are coarse.
+     */
+    private static void write(File config, String json, int secondsLater) throws IOException {
+        Files.writeString(config.toPath(), json);
+        Files.setLastModifiedTime(config.toPath(), FileTime.from(Instant.now().plusSeconds(secondsLater)));
+    }
+}
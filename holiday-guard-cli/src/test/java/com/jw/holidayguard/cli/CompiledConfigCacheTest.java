@@ -0,0 +1,189 @@
+package com.jw.holidayguard.cli;
+
+import com.jw.holidayguard.domain.RunStatus;
+import com.jw.holidayguard.service.snapshot.CalendarSnapshotFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class CompiledConfigCacheTest {
+
+    private static final LocalDate CHRISTMAS = LocalDate.of(2025, 12, 25);
+    private static final LocalDate SATURDAY = LocalDate.of(2025, 12, 27);
+
+    private static final String WEEKDAYS = """
+        {
+          "schedules": [
+            {
+              "name": "Payroll Schedule",
+              "rule": {"ruleType": "WEEKDAYS_ONLY"},
+              "deviations": [
+                {"date": "2025-12-25", "action": "FORCE_SKIP", "reason": "Christmas"}
+              ]
+            },
+            {
+              "name": "Daily Backup",
+              "rule": {"ruleType": "ALL_DAYS"}
+            }
+          ]
+        }
+        """;
+
+    private final CLIScheduleService scheduleService = new CLIScheduleService();
+    private final CountingLoader loader = new CountingLoader();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void load_parsesOnceThenAnswersFromTheCache() throws IOException {
+        File config = write(WEEKDAYS, Instant.now().minus(1, ChronoUnit.HOURS));
+        CompiledConfigCache cache = cache();
+
+        ScheduleCalendars parsed = cache.load(config, loader);
+        ScheduleCalendars cached = cache.load(config, loader);
+
+        assertThat(loader.parses.get()).isEqualTo(1);
+        assertThat(cached.names()).containsExactly("Payroll Schedule", "Daily Backup");
+        for (String name : parsed.names()) {
+            for (LocalDate date = CHRISTMAS.minusDays(7); date.isBefore(CHRISTMAS.plusDays(7)); date = date.plusDays(1)) {
+                assertThat(cached.find(name).orElseThrow().runStatus(date)).as("%s on %s", name, date)
+                    .isEqualTo(parsed.find(name).orElseThrow().runStatus(date));
+            }
+        }
+        assertThat(cached.find("payroll schedule").orElseThrow().findDeviation(CHRISTMAS).orElseThrow().getReason())
+            .isEqualTo("Christmas");
+    }
+
+    @Test
+    void load_reparsesChangedFileAndKeepsTouchedOne() throws IOException {
+        Instant anHourAgo = Instant.now().minus(1, ChronoUnit.HOURS);
+        File config = write(WEEKDAYS, anHourAgo);
+        CompiledConfigCache cache = cache();
+        cache.load(config, loader);
+
+        // touched, content unchanged: the cache is kept and its fingerprint moved to the new time
+        Instant aMinuteAgo = Instant.now().minus(1, ChronoUnit.MINUTES);
+        Files.setLastModifiedTime(config.toPath(), FileTime.from(aMinuteAgo));
+        cache.load(config, loader);
+        assertThat(loader.parses.get()).isEqualTo(1);
+        assertThat(source(cache, config).orElseThrow()).contains(" " + aMinuteAgo.toEpochMilli() + " ");
+
+        // same size (padded), different content
+        write(WEEKDAYS.replace("\"WEEKDAYS_ONLY\"", "\"NO_DAYS\"      "), Instant.now().minus(30, ChronoUnit.SECONDS));
+        assertThat(cache.load(config, loader).find("Payroll Schedule").orElseThrow().runStatus(CHRISTMAS.minusDays(1)))
+            .isEqualTo(RunStatus.SKIP);
+        assertThat(loader.parses.get()).isEqualTo(2);
+    }
+
+    @Test
+    void load_checksHashWhenFileChangedAroundTheCacheWrite() throws IOException {
+        // modified just now, as when an editor saves right before a query
+        Instant now = Instant.now();
+        File config = write(WEEKDAYS, now);
+        CompiledConfigCache cache = cache();
+        cache.load(config, loader);
+
+        cache.load(config, loader);
+        assertThat(loader.parses.get()).as("unchanged content").isEqualTo(1);
+
+        // rewritten within the same timestamp, same size
+        write(WEEKDAYS.replace("\"WEEKDAYS_ONLY\"", "\"NO_DAYS\"      "), now);
+        assertThat(cache.load(config, loader).find("Payroll Schedule").orElseThrow().runStatus(CHRISTMAS.minusDays(1)))
+            .isEqualTo(RunStatus.SKIP);
+        assertThat(loader.parses.get()).isEqualTo(2);
+    }
+
+    @Test
+    void load_cachesInvalidScheduleWithItsErrorAndRebuildsCorruptCache() throws IOException {
+        File config = write(WEEKDAYS.replace("ALL_DAYS", "NOT_A_RULE"), Instant.now().minus(1, ChronoUnit.HOURS));
+        CompiledConfigCache cache = cache();
+
+        ScheduleCalendars parsed = cache.load(config, loader);
+        ScheduleCalendars cached = cache.load(config, loader);
+
+        assertThat(loader.parses.get()).isEqualTo(1);
+        assertThat(cached.find("Payroll Schedule").orElseThrow().runStatus(CHRISTMAS)).isEqualTo(RunStatus.FORCE_SKIP);
+        String error = catchThrowableOfType(IllegalArgumentException.class, () -> parsed.find("Daily Backup")).getMessage();
+        assertThatThrownBy(() -> cached.find("Daily Backup"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage(error);
+
+        write(WEEKDAYS, Instant.now().minus(1, ChronoUnit.HOURS));
+        Files.writeString(cache.cacheFile(config.toPath().toAbsolutePath()), "HGSN truncated");
+        assertThat(cache.load(config, loader).find("Daily Backup").orElseThrow().runStatus(SATURDAY)).isEqualTo(RunStatus.RUN);
+        assertThat(loader.parses.get()).isEqualTo(2);
+        assertThat(source(cache, config)).isPresent();
+    }
+
+    @Test
+    void load_isSafeWhenProcessesRaceToRebuild() throws Exception {
+        File config = write(WEEKDAYS, Instant.now().minus(1, ChronoUnit.HOURS));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<RunStatus>> answers = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                // a cache per task, as separate processes would have
+                answers.add(executor.submit(() -> cache().load(config, new CLIConfigLoader())
+                    .find("Payroll Schedule").orElseThrow().runStatus(CHRISTMAS)));
+            }
+            for (Future<RunStatus> answer : answers) {
+                assertThat(answer.get()).isEqualTo(RunStatus.FORCE_SKIP);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        cache().load(config, loader);
+        assertThat(loader.parses.get()).isZero();
+        try (var leftovers = Files.list(dir.resolve("cache"))) {
+            assertThat(leftovers).hasSize(1);
+        }
+    }
+
+    private CompiledConfigCache cache() {
+        return new CompiledConfigCache(dir.resolve("cache"), scheduleService);
+    }
+
+    private Optional<String> source(CompiledConfigCache cache, File config) throws IOException {
+        CalendarSnapshotFile snapshot = scheduleService.openSnapshot(cache.cacheFile(config.toPath().toAbsolutePath()));
+        return snapshot.source();
+    }
+
+    private File write(String json, Instant modified) throws IOException {
+        Path config = dir.resolve("schedules.json");
+        Files.writeString(config, json);
+        Files.setLastModifiedTime(config, FileTime.from(modified));
+        return config.toFile();
+    }
+
+    private static final class CountingLoader extends CLIConfigLoader {
+        final AtomicInteger parses = new AtomicInteger();
+
+        @Override
+        public CLIConfig loadConfig(File configFile, byte[] content) throws IOException {
+            parses.incrementAndGet();
+            return super.loadConfig(configFile, content);
+        }
+    }
+}
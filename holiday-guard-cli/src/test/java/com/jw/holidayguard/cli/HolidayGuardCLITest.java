@@ -1,16 +1,24 @@
 package com.jw.holidayguard.cli;
 
+import com.jw.holidayguard.domain.Calendar;
+import com.jw.holidayguard.domain.Schedule;
+import com.jw.holidayguard.service.CalendarSnapshot;
+import com.jw.holidayguard.service.snapshot.CalendarSnapshotWriter;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import picocli.CommandLine;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintStream;
 import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -364,6 +372,253 @@ class HolidayGuardCLITest {
         assertThat(exitCode).isEqualTo(0);
     }
 
+    @Test
+    void cli_shouldReadCalendarSnapshot(@TempDir Path tempDir) throws IOException {
+        // given - a snapshot compiled from a weekdays-only schedule with a Christmas skip
+        CLIConfig config = new CLIConfigLoader().loadConfig(createConfigFile(tempDir, """
+            {
+              "schedules": [
+                {
+                  "name": "Payroll Schedule",
+                  "rule": {"ruleType": "WEEKDAYS_ONLY"},
+                  "deviations": [
+                    {"date": "2025-12-25", "action": "FORCE_SKIP", "reason": "Christmas"}
+                  ]
+                }
+              ]
+            }
+            """));
+        Calendar calendar = new CLIScheduleService().buildCalendar(config.findSchedule("Payroll Schedule"));
+        Schedule schedule = Schedule.builder().id(1L).name("Payroll Schedule").active(true).build();
+        File snapshotFile = tempDir.resolve("calendars.hgsnap").toFile();
+        new CalendarSnapshotWriter()
+            .withYearBitmaps(2025, 2025)
+            .add(new CalendarSnapshot(schedule, 1L, null, calendar))
+            .writeTo(snapshotFile.toPath());
+
+        // when
+        HolidayGuardCLI cli = new HolidayGuardCLI();
+        cli.scheduleName = "payroll schedule";
+        cli.configFile = snapshotFile;
+        cli.quiet = true;
+
+        // then - same answers as the JSON config, in and outside the bitmap years
+        cli.dateInput = "2025-12-24";
+        assertThat(cli.call()).isEqualTo(0);
+        cli.dateInput = "2025-12-25";
+        assertThat(cli.call()).isEqualTo(1);
+        cli.dateInput = "2026-01-05"; // Monday
+        assertThat(cli.call()).isEqualTo(0);
+        cli.scheduleName = "Unknown";
+        assertThat(cli.call()).isEqualTo(2);
+    }
+
+    private static final String TWO_SCHEDULES = """
+        {
+          "schedules": [
+            {
+              "name": "Payroll Schedule",
+              "rule": {"ruleType": "WEEKDAYS_ONLY"},
+              "deviations": [
+                {"date": "2025-12-25", "action": "FORCE_SKIP", "reason": "Christmas"}
+              ]
+            },
+            {
+              "name": "Daily Backup",
+              "rule": {"ruleType": "ALL_DAYS"}
+            }
+          ]
+        }
+        """;
+
+    @Test
+    void cli_batchShouldAnswerEachLineFromFile(@TempDir Path tempDir) throws IOException {
+        // given - queries for two schedules, one with the default date, plus a comment
+        Path batchFile = Files.writeString(tempDir.resolve("queries.tsv"), """
+            # schedule<TAB>date
+            Payroll Schedule	2025-12-24
+            payroll schedule	2025-12-25
+            Daily Backup
+            """);
+
+        HolidayGuardCLI cli = new HolidayGuardCLI();
+        cli.configFile = createConfigFile(tempDir, TWO_SCHEDULES);
+        cli.batchInput = batchFile.toString();
+        cli.dateInput = "2025-12-27";
+        cli.format = HolidayGuardCLI.OutputFormat.TSV;
+
+        // when
+        CapturedRun run = capture(cli);
+
+        // then - one line per query in input order; a skip makes the exit code 1
+        assertThat(run.exitCode()).isEqualTo(1);
+        assertThat(run.output().lines()).containsExactly(
+            "Payroll Schedule\t2025-12-24\tRUN\tRUN",
+            "payroll schedule\t2025-12-25\tSKIP\tFORCE_SKIP",
+            "Daily Backup\t2025-12-27\tRUN\tRUN");
+    }
+
+    @Test
+    void cli_batchShouldReportBadLinesAndContinue(@TempDir Path tempDir) throws IOException {
+        // given - stdin with an unknown schedule and an invalid date between valid queries
+        HolidayGuardCLI cli = new HolidayGuardCLI();
+        cli.configFile = createConfigFile(tempDir, TWO_SCHEDULES);
+        cli.batchInput = "-";
+        cli.format = HolidayGuardCLI.OutputFormat.JSON;
+
+        InputStream originalIn = System.in;
+        System.setIn(new ByteArrayInputStream("""
+            Daily Backup	2025-12-25
+            Unknown	2025-12-25
+            Payroll Schedule	not-a-date
+            Payroll Schedule	2025-12-26
+            """.getBytes(StandardCharsets.UTF_8)));
+        CapturedRun run;
+        try {
+            run = capture(cli);
+        } finally {
+            System.setIn(originalIn);
+        }
+
+        // then - errors are reported in line and make the exit code 2
+        assertThat(run.exitCode()).isEqualTo(2);
+        List<String> lines = run.output().lines().toList();
+        assertThat(lines).hasSize(4);
+        assertThat(lines.get(0)).isEqualTo("{\"schedule\":\"Daily Backup\",\"date\":\"2025-12-25\",\"shouldRun\":true,\"status\":\"RUN\"}");
+        assertThat(lines.get(1)).isEqualTo("{\"schedule\":\"Unknown\",\"date\":\"2025-12-25\",\"error\":\"Schedule not found\"}");
+        assertThat(lines.get(2)).contains("\"error\":\"Invalid date format: not-a-date");
+        assertThat(lines.get(3)).contains("\"shouldRun\":true");
+    }
+
+    @Test
+    void cli_allShouldAnswerEveryScheduleWithCombinedExitCode(@TempDir Path tempDir) throws IOException {
+        HolidayGuardCLI cli = new HolidayGuardCLI();
+        cli.configFile = createConfigFile(tempDir, TWO_SCHEDULES);
+        cli.all = true;
+        cli.format = HolidayGuardCLI.OutputFormat.TSV;
+
+        // Christmas: payroll skips, backup runs
+        cli.dateInput = "2025-12-25";
+        CapturedRun christmas = capture(cli);
+        assertThat(christmas.exitCode()).isEqualTo(1);
+        assertThat(christmas.output().lines()).containsExactly(
+            "Payroll Schedule\t2025-12-25\tSKIP\tFORCE_SKIP",
+            "Daily Backup\t2025-12-25\tRUN\tRUN");
+
+        // An ordinary weekday: everything runs
+        cli.dateInput = "2025-12-24";
+        assertThat(capture(cli).exitCode()).isEqualTo(0);
+    }
+
+    @Test
+    void cli_shouldRejectConflictingModes(@TempDir Path tempDir) throws IOException {
+        HolidayGuardCLI cli = new HolidayGuardCLI();
+        cli.configFile = createConfigFile(tempDir, TWO_SCHEDULES);
+        cli.quiet = true;
+
+        assertThat(cli.call()).as("no schedule name").isEqualTo(2);
+
+        cli.all = true;
+        cli.batchInput = "-";
+        assertThat(cli.call()).as("--batch with --all").isEqualTo(2);
+
+        cli.batchInput = null;
+        cli.scheduleName = "Daily Backup";
+        assertThat(cli.call()).as("--all with a schedule name").isEqualTo(2);
+    }
+
+    @Test
+    void cli_shouldAcceptLowercaseFormat(@TempDir Path tempDir) throws IOException {
+        HolidayGuardCLI cli = new HolidayGuardCLI();
+
+        HolidayGuardCLI.commandLine(cli).parseArgs("--all", "--format", "tsv",
+            "--config", createConfigFile(tempDir, TWO_SCHEDULES).toString());
+
+        assertThat(cli.format).isEqualTo(HolidayGuardCLI.OutputFormat.TSV);
+        assertThat(cli.all).isTrue();
+    }
+
+    @Test
+    void cli_rangeShouldPrintEveryDayAsCsv(@TempDir Path tempDir) throws IOException {
+        HolidayGuardCLI cli = new HolidayGuardCLI();
+        cli.configFile = createConfigFile(tempDir, TWO_SCHEDULES);
+        cli.scheduleName = "Payroll Schedule";
+        cli.fromInput = "2025-12-24";
+        cli.toInput = "2025-12-27";
+        cli.format = HolidayGuardCLI.OutputFormat.CSV;
+
+        CapturedRun run = capture(cli);
+
+        assertThat(run.exitCode()).isEqualTo(0);
+        assertThat(run.output().lines()).containsExactly(
+            "schedule,date,result,status",
+            "Payroll Schedule,2025-12-24,RUN,RUN",
+            "Payroll Schedule,2025-12-25,SKIP,FORCE_SKIP",
+            "Payroll Schedule,2025-12-26,RUN,RUN",
+            "Payroll Schedule,2025-12-27,SKIP,SKIP");
+    }
+
+    @Test
+    void cli_rangeShouldPrintRunDaysAsICalendar(@TempDir Path tempDir) throws IOException {
+        HolidayGuardCLI cli = new HolidayGuardCLI();
+        cli.configFile = createConfigFile(tempDir, TWO_SCHEDULES);
+        cli.scheduleName = "Payroll Schedule";
+        cli.fromInput = "2025-12-24";
+        cli.toInput = "2025-12-28";
+        cli.format = HolidayGuardCLI.OutputFormat.ICS;
+
+        CapturedRun run = capture(cli);
+
+        // then - CRLF lines, one all-day event for each of the two run days
+        assertThat(run.exitCode()).isEqualTo(0);
+        assertThat(run.output()).startsWith("BEGIN:VCALENDAR\r\nVERSION:2.0\r\n").endsWith("END:VCALENDAR\r\n");
+        assertThat(run.output().lines().filter("BEGIN:VEVENT"::equals)).hasSize(2);
+        assertThat(run.output()).contains(
+            "UID:20251224-payroll-schedule@holiday-guard\r\n",
+            "DTSTART;VALUE=DATE:20251226\r\nDTEND;VALUE=DATE:20251227\r\n",
+            "SUMMARY:Payroll Schedule\r\n");
+        assertThat(run.output()).doesNotContain("DTSTART;VALUE=DATE:20251225", "DTSTART;VALUE=DATE:20251227");
+    }
+
+    @Test
+    void cli_rangeShouldRejectIncompleteOrConflictingOptions(@TempDir Path tempDir) throws IOException {
+        HolidayGuardCLI cli = new HolidayGuardCLI();
+        cli.configFile = createConfigFile(tempDir, TWO_SCHEDULES);
+        cli.scheduleName = "Payroll Schedule";
+        cli.quiet = true;
+
+        cli.format = HolidayGuardCLI.OutputFormat.ICS;
+        assertThat(cli.call()).as("ics without a range").isEqualTo(2);
+
+        cli.fromInput = "2025-12-24";
+        assertThat(cli.call()).as("--from without --to").isEqualTo(2);
+
+        cli.toInput = "2025-12-01";
+        assertThat(cli.call()).as("--from after --to").isEqualTo(2);
+
+        cli.toInput = "2025-12-31";
+        assertThat(cli.call()).isEqualTo(0);
+
+        cli.all = true;
+        cli.scheduleName = null;
+        assertThat(cli.call()).as("range with --all").isEqualTo(2);
+    }
+
+    private record CapturedRun(int exitCode, String output) {
+    }
+
+    private static CapturedRun capture(HolidayGuardCLI cli) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(out, true, StandardCharsets.UTF_8));
+        try {
+            int exitCode = cli.call();
+            return new CapturedRun(exitCode, out.toString(StandardCharsets.UTF_8));
+        } finally {
+            System.setOut(originalOut);
+        }
+    }
+
     // Helper method to create config files
     private File createConfigFile(Path tempDir, String json) throws IOException {
         File configFile = tempDir.resolve("test-config.json").toFile();
@@ -0,0 +1,478 @@
+package com.jw.holidayguard.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.jw.holidayguard.domain.Calendar;
+import com.jw.holidayguard.domain.Deviation;
+import com.jw.holidayguard.domain.Rule;
+import com.jw.holidayguard.domain.Schedule;
+import com.jw.holidayguard.domain.Version;
+import com.jw.holidayguard.repository.DataProvider;
+import com.jw.holidayguard.repository.DeviationRepository;
+import com.jw.holidayguard.repository.RepositoryDataChangedEvent;
+import com.jw.holidayguard.repository.RuleRepository;
+import com.jw.holidayguard.repository.ScheduleRepository;
+import com.jw.holidayguard.repository.VersionRepository;
+import com.jw.holidayguard.service.rule.CompiledRule;
+import com.jw.holidayguard.service.rule.RuleEngine;
+import com.jw.holidayguard.service.snapshot.CalendarSnapshotFile;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded in-process cache of compiled {@link CalendarSnapshot}s.
+ *
+ * <p>Each entry holds the schedule, its active version id and a {@link Calendar} built from
+ * that version's rule and deviations. Once a schedule is cached, should-run queries are
+ * answered without touching the repositories.
+ *
+ * <p>Entries are replaced only through {@link #invalidate(Long)}, which the write paths
+ * ({@link ScheduleService#updateSchedule}, {@link ScheduleVersionService#updateScheduleRule})
+ * call whenever the schedule or its active version changes, and all at once when a
+ * {@link RepositoryDataChangedEvent} reports that the data was replaced. Eviction is
+ * least-recently-used once {@code app.calendar-cache.max-size} entries are held.
+ *
+ * <p>A replacement can change a rule or deviations under an unchanged version id, so every
+ * snapshot and {@link CalendarStamp} also carries the {@link #dataRevision()} it was read in.
+ *
+ * <p>With a {@link CalendarSnapshotFile} configured ({@code app.calendar-snapshot.file}), a
+ * miss still reads the schedule, its active version and its rule, but when the file holds a
+ * calendar compiled from that same version and rule, the deviations are taken from the file
+ * instead of the repository, and dates in the file's bitmap years are answered without
+ * compiling the rule. A schedule whose version id, effective time, rule id, type or
+ * configuration differs from the file's is loaded from the repositories as usual. Version ids
+ * are only meaningful within one data set, so the file is used only if its
+ * {@link CalendarSnapshotFile#source() source} is the {@link DataProvider#getDataSourceId()}
+ * of the data being served, and not at all once a {@link RepositoryDataChangedEvent} reports
+ * the data replaced. A stale or foreign file thus costs lookups, never wrong answers.
+ *
+ * <p>Size, hits, misses and evictions are published as the {@code cache.*} meters tagged
+ * {@code cache=calendar}, next to the {@code holidayguard.calendar-cache.invalidations} and
+ * {@code holidayguard.calendar-cache.snapshot-loads} counters.
+ */
+@Slf4j
+@Component
+public class CalendarCache implements MeterBinder {
+
+    private final ScheduleRepository scheduleRepository;
+    private final VersionRepository versionRepository;
+    private final RuleRepository ruleRepository;
+    private final DeviationRepository deviationRepository;
+    private final RuleEngine ruleEngine;
+    // cleared when the repository data is replaced; version ids then no longer identify the file's calendars
+    private volatile CalendarSnapshotFile snapshotFile;
+
+    private final Cache<Long, CalendarSnapshot> snapshots;
+    private final AtomicLong snapshotLoads = new AtomicLong();
+
+    // bumped on every invalidation so a load racing with a write never re-caches stale data
+    private final AtomicLong generation = new AtomicLong();
+
+    // starts at the time the cache was created, so stamps from before a restart never match
+    private final AtomicLong dataRevision = new AtomicLong(System.currentTimeMillis());
+
+    public CalendarCache(
+            ScheduleRepository scheduleRepository,
+            VersionRepository versionRepository,
+            RuleRepository ruleRepository,
+            DeviationRepository deviationRepository,
+            RuleEngine ruleEngine,
+            long maximumSize) {
+        this(scheduleRepository, versionRepository, ruleRepository, deviationRepository, ruleEngine, maximumSize,
+                Optional.empty(), Optional.empty());
+    }
+
+    @Autowired
+    public CalendarCache(
+            ScheduleRepository scheduleRepository,
+            VersionRepository versionRepository,
+            RuleRepository ruleRepository,
+            DeviationRepository deviationRepository,
+            RuleEngine ruleEngine,
+            @Value("${app.calendar-cache.max-size:10000}") long maximumSize,
+            Optional<CalendarSnapshotFile> snapshotFile,
+            Optional<DataProvider> dataProvider) {
+        this.scheduleRepository = scheduleRepository;
+        this.versionRepository = versionRepository;
+        this.ruleRepository = ruleRepository;
+        this.deviationRepository = deviationRepository;
+        this.ruleEngine = ruleEngine;
+        this.snapshotFile = snapshotFile
+                .filter(file -> exportedFrom(file, dataProvider.map(DataProvider::getDataSourceId).orElse(null)))
+                .orElse(null);
+        this.snapshots = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the compiled snapshot for a schedule, loading it on a miss.
+     *
+     * @throws IllegalArgumentException if the schedule does not exist
+     * @throws IllegalStateException if the schedule has no active version or the version has no rule
+     */
+    public CalendarSnapshot get(Long scheduleId) {
+        CalendarSnapshot cached = snapshots.getIfPresent(scheduleId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long observedGeneration = generation.get();
+        CalendarSnapshot loaded = load(scheduleId, dataRevision.get());
+        cache(Map.of(scheduleId, loaded), observedGeneration);
+        return loaded;
+    }
+
+    /**
+     * Returns snapshots for several schedules, loading all misses with one query per table.
+     *
+     * <p>Schedules that do not exist, have no active version or whose version has no rule are
+     * left out of the result; {@link #get(Long)} reports the reason for a single schedule.
+     *
+     * @return snapshots keyed by schedule id, in the order the ids were given
+     */
+    public Map<Long, CalendarSnapshot> getAll(Collection<Long> scheduleIds) {
+        return lookup(scheduleIds, snapshot -> snapshot,
+                (misses, revision, observedGeneration) -> cache(loadAll(misses, revision), observedGeneration));
+    }
+
+    /**
+     * As {@link #getAll(Collection)}, but misses are loaded without being cached, for callers
+     * that walk every schedule once (such as the snapshot export) and would otherwise evict
+     * the working set.
+     */
+    public Map<Long, CalendarSnapshot> getAllUncached(Collection<Long> scheduleIds) {
+        return lookup(scheduleIds, snapshot -> snapshot, (misses, revision, observedGeneration) -> loadAll(misses, revision));
+    }
+
+    /**
+     * Returns the version stamp for each schedule without compiling anything. Cached snapshots
+     * answer directly; for the rest only the schedules and their active versions are read, one
+     * query each. Schedules that do not exist or have no active version are left out.
+     *
+     * @return stamps keyed by schedule id, in the order the ids were given
+     */
+    public Map<Long, CalendarStamp> stamps(Collection<Long> scheduleIds) {
+        return lookup(scheduleIds, CalendarSnapshot::stamp, (misses, revision, observedGeneration) -> loadStamps(misses, revision));
+    }
+
+    /**
+     * Returns the version stamp for one schedule; see {@link #stamps(Collection)}.
+     *
+     * @return the stamp, or empty if the schedule does not exist or has no active version
+     */
+    public Optional<CalendarStamp> stamp(Long scheduleId) {
+        return Optional.ofNullable(stamps(List.of(scheduleId)).get(scheduleId));
+    }
+
+    /**
+     * Discards the cached snapshot for a schedule.
+     *
+     * <p>When called inside a transaction the entry is evicted again after commit, so a
+     * concurrent reader cannot re-populate the cache with data from before the write.
+     */
+    public void invalidate(Long scheduleId) {
+        evict(scheduleId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(scheduleId);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        snapshots.invalidateAll();
+    }
+
+    /**
+     * Drops every snapshot when the repository data is replaced wholesale, e.g. by a JSON
+     * file reload, and moves to a new data revision.
+     */
+    @EventListener
+    public void onRepositoryDataChanged(RepositoryDataChangedEvent event) {
+        log.info("{} repository data changed (revision {}); invalidating {} cached calendars",
+                event.providerName(), event.revision(), snapshots.size());
+        dataRevision.accumulateAndGet(event.revision(), (current, published) -> Math.max(current + 1, published));
+        if (snapshotFile != null) {
+            log.warn("No longer loading calendars from snapshot {}: it was exported from the data before the change",
+                    snapshotFile.file());
+            snapshotFile = null;
+        }
+        invalidateAll();
+    }
+
+    /**
+     * Returns the revision of the repository data, which increases whenever a
+     * {@link RepositoryDataChangedEvent} reports that the data was replaced.
+     */
+    public long dataRevision() {
+        return dataRevision.get();
+    }
+
+    /**
+     * Returns a counter that changes whenever any snapshot is invalidated. Callers that derive
+     * results from many snapshots compare it to tell whether their result is still current.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public CacheStats stats() {
+        return snapshots.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        GuavaCacheMetrics.monitor(registry, snapshots, "calendar");
+        FunctionCounter.builder("holidayguard.calendar-cache.invalidations", generation, AtomicLong::get)
+                .description("Calendar cache invalidations (schedule or version changes)")
+                .register(registry);
+        FunctionCounter.builder("holidayguard.calendar-cache.snapshot-loads", snapshotLoads, AtomicLong::get)
+                .description("Calendars loaded from the calendar snapshot file instead of the rule and deviation repositories")
+                .register(registry);
+    }
+
+    public long size() {
+        return snapshots.size();
+    }
+
+    private void evict(Long scheduleId) {
+        generation.incrementAndGet();
+        snapshots.invalidate(scheduleId);
+        log.debug("Evicted calendar snapshot for schedule {}", scheduleId);
+    }
+
+    /**
+     * Answers each id from the cache when it holds the schedule and loads the rest with one
+     * call, so the bulk reads share their hit/miss split, revision and ordering.
+     *
+     * @param fromCache what a cached snapshot answers
+     * @param loader loads the misses; ids it leaves out are left out of the result
+     * @return results keyed by schedule id, in the order the ids were given
+     */
+    private <T> Map<Long, T> lookup(Collection<Long> scheduleIds, Function<CalendarSnapshot, T> fromCache,
+                                    MissLoader<T> loader) {
+        Map<Long, T> found = new HashMap<>();
+        Set<Long> misses = new LinkedHashSet<>();
+        for (Long scheduleId : scheduleIds) {
+            CalendarSnapshot cached = snapshots.getIfPresent(scheduleId);
+            if (cached != null) {
+                found.put(scheduleId, fromCache.apply(cached));
+            } else {
+                misses.add(scheduleId);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            // generation first: an invalidation between the two reads is then still detected
+            long observedGeneration = generation.get();
+            found.putAll(loader.load(misses, dataRevision.get(), observedGeneration));
+        }
+
+        Map<Long, T> ordered = new LinkedHashMap<>();
+        for (Long scheduleId : scheduleIds) {
+            T result = found.get(scheduleId);
+            if (result != null) {
+                ordered.put(scheduleId, result);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Caches loaded snapshots unless an invalidation ran since {@code observedGeneration}
+     * was read, in which case the loaded data may predate it.
+     */
+    private Map<Long, CalendarSnapshot> cache(Map<Long, CalendarSnapshot> loaded, long observedGeneration) {
+        snapshots.putAll(loaded);
+        if (generation.get() != observedGeneration) {
+            snapshots.invalidateAll(loaded.keySet());
+        }
+        return loaded;
+    }
+
+    private Map<Long, CalendarStamp> loadStamps(Set<Long> scheduleIds, long revision) {
+        List<Schedule> schedules = scheduleRepository.findAllById(scheduleIds);
+        if (schedules.isEmpty()) return Map.of();
+
+        Map<Long, Version> versions = versionRepository
+                .findByScheduleIdInAndActiveTrue(schedules.stream().map(Schedule::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(Version::getScheduleId, v -> v, (first, second) -> first));
+
+        Map<Long, CalendarStamp> stamps = new HashMap<>();
+        for (Schedule schedule : schedules) {
+            Version version = versions.get(schedule.getId());
+            if (version != null) {
+                stamps.put(schedule.getId(), new CalendarStamp(
+                        schedule.getId(), version.getId(), schedule.getName(), schedule.isActive(), version.getEffectiveFrom(),
+                        revision));
+            }
+        }
+        return stamps;
+    }
+
+    private CalendarSnapshot load(Long scheduleId, long revision) {
+        Schedule schedule = scheduleRepository.findById(scheduleId)
+                .orElseThrow(() -> new IllegalArgumentException("Schedule not found: " + scheduleId));
+
+        Version activeVersion = versionRepository.findByScheduleIdAndActiveTrue(scheduleId)
+                .orElseThrow(() -> new IllegalStateException("No active version found for schedule: " + scheduleId));
+
+        Rule rule = ruleRepository.findByVersionId(activeVersion.getId())
+                .orElseThrow(() -> new IllegalStateException("No rule found for version: " + activeVersion.getId()));
+
+        Optional<CalendarSnapshotFile.Entry> compiled = compiledEntry(activeVersion, rule);
+        if (compiled.isPresent()) {
+            return compile(schedule, activeVersion, compiled.get(), revision);
+        }
+
+        List<Deviation> deviations = deviationRepository.findByScheduleIdAndVersionId(scheduleId, activeVersion.getId());
+
+        return compile(schedule, activeVersion, rule, deviations, revision);
+    }
+
+    private Map<Long, CalendarSnapshot> loadAll(Set<Long> scheduleIds, long revision) {
+        List<Schedule> schedules = scheduleRepository.findAllById(scheduleIds);
+        if (schedules.isEmpty()) return Map.of();
+
+        Map<Long, Version> versionsBySchedule = versionRepository
+                .findByScheduleIdInAndActiveTrue(schedules.stream().map(Schedule::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(Version::getScheduleId, v -> v, (first, second) -> first));
+        if (versionsBySchedule.isEmpty()) return Map.of();
+
+        Set<Long> versionIds = versionsBySchedule.values().stream()
+                .map(Version::getId)
+                .collect(Collectors.toSet());
+
+        Map<Long, Rule> rulesByVersion = ruleRepository.findByVersionIdIn(versionIds).stream()
+                .collect(Collectors.toMap(Rule::getVersionId, r -> r, (first, second) -> first));
+
+        Map<Long, CalendarSnapshotFile.Entry> compiled = new HashMap<>();
+        Set<Long> uncompiledVersionIds = new HashSet<>();
+        for (Version version : versionsBySchedule.values()) {
+            Rule rule = rulesByVersion.get(version.getId());
+            if (rule == null) continue;
+            compiledEntry(version, rule).ifPresentOrElse(
+                    entry -> compiled.put(version.getScheduleId(), entry),
+                    () -> uncompiledVersionIds.add(version.getId()));
+        }
+
+        Map<Long, List<Deviation>> deviationsByVersion = uncompiledVersionIds.isEmpty() ? Map.of() : deviationRepository.findByVersionIdIn(uncompiledVersionIds).stream()
+                .collect(Collectors.groupingBy(Deviation::getVersionId));
+
+        Map<Long, CalendarSnapshot> loaded = new HashMap<>();
+        for (Schedule schedule : schedules) {
+            Version version = versionsBySchedule.get(schedule.getId());
+            if (version == null) continue;
+
+            CalendarSnapshotFile.Entry entry = compiled.get(schedule.getId());
+            if (entry != null) {
+                loaded.put(schedule.getId(), compile(schedule, version, entry, revision));
+                continue;
+            }
+
+            Rule rule = rulesByVersion.get(version.getId());
+            if (rule == null) continue;
+
+            List<Deviation> deviations = deviationsByVersion.getOrDefault(version.getId(), List.of());
+            loaded.put(schedule.getId(), compile(schedule, version, rule, deviations, revision));
+        }
+        return loaded;
+    }
+
+    private CalendarSnapshot compile(Schedule schedule, Version version, Rule rule, List<Deviation> deviations, long revision) {
+        // parse the rule once; every date evaluated against this snapshot reuses it
+        CompiledRule compiledRule = ruleEngine.compile(rule);
+        Calendar calendar = new Calendar(schedule, rule, deviations, (r, date) -> compiledRule.shouldRun(date));
+        return new CalendarSnapshot(schedule, version.getId(), version.getEffectiveFrom(), calendar, revision);
+    }
+
+    private CalendarSnapshot compile(Schedule schedule, Version version, CalendarSnapshotFile.Entry entry, long revision) {
+        snapshotLoads.incrementAndGet();
+        return new CalendarSnapshot(schedule, version.getId(), version.getEffectiveFrom(), entry.calendar(schedule), revision);
+    }
+
+    /**
+     * The snapshot file's calendar for the schedule, if the file has one compiled from this
+     * exact version and rule.
+     */
+    private Optional<CalendarSnapshotFile.Entry> compiledEntry(Version version, Rule rule) {
+        CalendarSnapshotFile file = snapshotFile;
+        if (file == null) return Optional.empty();
+        return file.find(version.getScheduleId())
+                .filter(entry -> version.getId().equals(entry.versionId())
+                        && sameMillis(version.getEffectiveFrom(), entry.versionEffectiveFrom())
+                        && Objects.equals(rule.getId(), entry.ruleId())
+                        && sameRule(rule, entry));
+    }
+
+    private static boolean sameRule(Rule rule, CalendarSnapshotFile.Entry entry) {
+        try {
+            return rule.getRuleType() == entry.ruleType() && Objects.equals(rule.getRuleConfig(), entry.ruleConfig());
+        } catch (IllegalArgumentException e) {
+            return false; // a rule type this version does not know
+        }
+    }
+
+    // the file stores epoch milliseconds
+    private static boolean sameMillis(Instant expected, Instant stored) {
+        if (expected == null || stored == null) return expected == stored;
+        return expected.toEpochMilli() == stored.toEpochMilli();
+    }
+
+    /**
+     * Loads the schedules a bulk read missed in the cache.
+     */
+    @FunctionalInterface
+    private interface MissLoader<T> {
+
+        /**
+         * @param revision the data revision to stamp the results with
+         * @param observedGeneration the invalidation generation read before the revision
+         */
+        Map<Long, T> load(Set<Long> scheduleIds, long revision, long observedGeneration);
+    }
+
+    private static boolean exportedFrom(CalendarSnapshotFile file, String dataSourceId) {
+        String source = file.source().orElse(null);
+        if (dataSourceId != null && dataSourceId.equals(source)) {
+            return true;
+        }
+        log.warn("Not loading calendars from snapshot {}: it was exported from [{}], this server serves [{}]; "
+                + "export it again from this server to use it", file.file(), source, dataSourceId);
+        return false;
+    }
+}
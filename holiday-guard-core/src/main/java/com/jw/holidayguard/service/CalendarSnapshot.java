@@ -0,0 +1,40 @@
+package com.jw.holidayguard.service;
+
+import com.jw.holidayguard.domain.Calendar;
+import com.jw.holidayguard.domain.Schedule;
+
+import java.time.Instant;
+
+/**
+ * Immutable, compiled view of a schedule as of its active version.
+ *
+ * <p>Snapshots are produced by {@link CalendarCache} and shared between request threads,
+ * so callers must treat the contained {@link Schedule} as read-only.
+ *
+ * @param schedule the schedule as loaded when the snapshot was compiled
+ * @param versionId the active version the calendar was compiled from
+ * @param versionEffectiveFrom when that version took (or takes) effect
+ * @param calendar calendar holding the version's rule and deviations
+ * @param dataRevision the {@link CalendarCache#dataRevision() data revision} it was loaded in
+ */
+public record CalendarSnapshot(Schedule schedule, Long versionId, Instant versionEffectiveFrom, Calendar calendar,
+                               long dataRevision) {
+
+    /**
+     * A snapshot not read from the repositories, such as one taken from a snapshot file.
+     */
+    public CalendarSnapshot(Schedule schedule, Long versionId, Instant versionEffectiveFrom, Calendar calendar) {
+        this(schedule, versionId, versionEffectiveFrom, calendar, 0);
+    }
+
+    public Long scheduleId() {
+        return schedule.getId();
+    }
+
+    /**
+     * @return the version stamp this snapshot was compiled from
+     */
+    public CalendarStamp stamp() {
+        return new CalendarStamp(schedule.getId(), versionId, schedule.getName(), schedule.isActive(), versionEffectiveFrom, dataRevision);
+    }
+}
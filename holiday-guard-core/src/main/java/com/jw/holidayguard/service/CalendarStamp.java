@@ -0,0 +1,22 @@
+package com.jw.holidayguard.service;
+
+import java.time.Instant;
+
+/**
+ * Identifies the state a schedule's calendar answers are derived from: the active version
+ * (rule and deviations) plus the schedule fields that appear in responses, within one data
+ * revision. Two equal stamps produce identical calendars, which makes a stamp a cheap basis
+ * for HTTP validators.
+ *
+ * @param scheduleId the schedule
+ * @param versionId the active version id
+ * @param scheduleName the schedule name
+ * @param active whether the schedule is active
+ * @param versionEffectiveFrom when the active version took (or takes) effect; may be null
+ * @param dataRevision the {@link CalendarCache#dataRevision() data revision} the version was
+ *                     read in; a repository reload can change a version's rule or deviations
+ *                     without changing its id
+ */
+public record CalendarStamp(Long scheduleId, Long versionId, String scheduleName, boolean active, Instant versionEffectiveFrom,
+                            long dataRevision) {
+}
@@ -2,18 +2,10 @@ package com.jw.holidayguard.service;
 
 import com.jw.holidayguard.domain.Calendar;
 import com.jw.holidayguard.domain.Deviation;
-import com.jw.holidayguard.domain.Rule;
 import com.jw.holidayguard.domain.RunStatus;
-import com.jw.holidayguard.domain.Schedule;
-import com.jw.holidayguard.domain.Version;
 import com.jw.holidayguard.dto.view.DayStatusView;
 import com.jw.holidayguard.dto.view.MultiScheduleCalendarView;
 import com.jw.holidayguard.dto.view.ScheduleMonthView;
-import com.jw.holidayguard.repository.DeviationRepository;
-import com.jw.holidayguard.repository.RuleRepository;
-import com.jw.holidayguard.repository.ScheduleRepository;
-import com.jw.holidayguard.repository.VersionRepository;
-import com.jw.holidayguard.service.rule.RuleEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -24,11 +16,14 @@ import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 /**
  * Service for generating multi-schedule calendar views.
  * Aggregates calendar data from multiple schedules with deviations applied.
+ *
+ * <p>Compiled calendars for all requested schedules come from {@link CalendarCache#getAll},
+ * which loads any misses with one {@code IN} query per table. Each schedule's month is then
+ * evaluated in parallel on the {@link EvaluationExecutor}; results keep the requested order.
  */
 @Slf4j
 @Service
@@ -36,12 +31,8 @@ import java.util.Optional;
 @Transactional(readOnly = true)
 public class CalendarViewService {
 
-    private final ScheduleRepository scheduleRepository;
-    private final RuleRepository ruleRepository;
-    private final VersionRepository versionRepository;
-    private final DeviationRepository deviationRepository;
-
-    private final RuleEngine ruleEngine;
+    private final CalendarCache calendarCache;
+    private final EvaluationExecutor evaluationExecutor;
 
     /**
      * Get calendar data for multiple schedules for a given month.
@@ -49,6 +40,7 @@ public class CalendarViewService {
      *
      * <p>Returns a normalized structure where each schedule appears once
      * with all its days nested underneath, eliminating redundant schedule metadata.
+     * Schedules that do not exist, or have no active version or rule, are skipped.
      *
      * @param scheduleIds List of schedule IDs to include
      * @param yearMonth The month to generate calendar for
@@ -60,82 +52,57 @@ public class CalendarViewService {
             YearMonth yearMonth,
             boolean includeDeviations) {
 
-        List<ScheduleMonthView> schedules = new ArrayList<>();
-        LocalDate fromDate = yearMonth.atDay(1);
-        LocalDate toDate = yearMonth.atEndOfMonth();
+        Map<Long, CalendarSnapshot> snapshots = calendarCache.getAll(scheduleIds);
 
+        List<CalendarSnapshot> requested = new ArrayList<>();
         for (Long scheduleId : scheduleIds) {
-            // Fetch schedule
-            Optional<Schedule> scheduleOpt = scheduleRepository.findById(scheduleId);
-            if (scheduleOpt.isEmpty()) {
-                log.warn("Schedule {} not found, skipping", scheduleId);
-                continue;
-            }
-
-            Schedule schedule = scheduleOpt.get();
-
-            // Get active version
-            Optional<Version> versionOpt = versionRepository.findByScheduleIdAndActiveTrue(scheduleId);
-            if (versionOpt.isEmpty()) {
-                log.warn("No active version for schedule {}, skipping", scheduleId);
+            CalendarSnapshot snapshot = snapshots.get(scheduleId);
+            if (snapshot == null) {
+                log.warn("Schedule {} not found or has no active rule, skipping", scheduleId);
                 continue;
             }
+            requested.add(snapshot);
+        }
 
-            Version version = versionOpt.get();
-
-            // Fetch rule for active version
-            Optional<Rule> ruleOpt = ruleRepository.findByVersionId(version.getId());
-            if (ruleOpt.isEmpty()) {
-                log.warn("No rule found for version {}, skipping", scheduleId);
-                continue;
-            }
-
-            Rule rule = ruleOpt.get();
-
-            // Fetch deviations (if requested)
-            List<Deviation> deviations = includeDeviations
-                    ? deviationRepository.findByScheduleIdAndVersionId(scheduleId, version.getId())
-                    : List.of();
-
-            // Create Calendar abstraction - encapsulates shouldRun business logic
-            // RuleEngine implements Calendar.RuleEvaluator, so we can use it directly
-            Calendar calendar = new Calendar(schedule, rule, deviations, ruleEngine::shouldRun);
-
-            // Query date range using Calendar - guarantees algorithm consistency
-            Map<LocalDate, Boolean> shouldRunMap = calendar.shouldRun(fromDate, toDate);
+        List<ScheduleMonthView> schedules = evaluationExecutor.map(requested,
+                snapshot -> toMonthView(snapshot, yearMonth, includeDeviations));
 
-            // Convert to day status views for this schedule
-            List<DayStatusView> days = new ArrayList<>();
-            for (Map.Entry<LocalDate, Boolean> entry : shouldRunMap.entrySet()) {
-                LocalDate date = entry.getKey();
-                boolean shouldRun = entry.getValue();
+        return new MultiScheduleCalendarView(yearMonth, schedules);
+    }
 
-                // Find deviation for this date (if applicable) to get reason
-                Optional<Deviation> deviationOpt = deviations.stream()
-                        .filter(d -> d.getDeviationDate().equals(date))
-                        .findFirst();
+    /**
+     * Cheap stamps of the state {@link #getMultiScheduleCalendar} answers from, for conditional
+     * requests. Schedules that would be skipped are left out.
+     */
+    public Map<Long, CalendarStamp> getCalendarStamps(List<Long> scheduleIds) {
+        return calendarCache.stamps(scheduleIds);
+    }
 
-                // Calculate RunStatus and reason
-                RunStatus status = deviationOpt
-                        .map(d -> RunStatus.fromCalendar(shouldRun, d))
-                        .orElse(RunStatus.fromCalendar(shouldRun));
+    private ScheduleMonthView toMonthView(CalendarSnapshot snapshot, YearMonth yearMonth, boolean includeDeviations) {
+        Calendar calendar = snapshot.calendar();
+        if (!includeDeviations) {
+            // same compiled rule, no overlays
+            calendar = new Calendar(calendar.getSchedule(), calendar.getRule(), List.of(), calendar.getRuleEvaluator());
+        }
 
-                String reason = deviationOpt
-                        .map(Deviation::getReason)
-                        .orElse(null);
+        List<DayStatusView> days = new ArrayList<>(yearMonth.lengthOfMonth());
+        for (int day = 1; day <= yearMonth.lengthOfMonth(); day++) {
+            LocalDate date = yearMonth.atDay(day);
 
-                days.add(new DayStatusView(date, status, reason));
-            }
+            // Calendar applies deviations over the rule; the deviation (if any) supplies the reason
+            RunStatus status = calendar.runStatus(date);
+            String reason = calendar.findDeviation(date)
+                    .map(Deviation::getReason)
+                    .orElse(null);
 
-            // Create schedule month view with all days for this schedule
-            schedules.add(new ScheduleMonthView(
-                    scheduleId,
-                    schedule.getName(),
-                    yearMonth,
-                    days
-            ));
+            days.add(new DayStatusView(date, status, reason));
         }
 
-        return new MultiScheduleCalendarView(yearMonth, schedules);
+        return new ScheduleMonthView(
+                snapshot.scheduleId(),
+                snapshot.schedule().getName(),
+                yearMonth,
+                days
+        );
     }
 }
@@ -0,0 +1,131 @@
+package com.jw.holidayguard.service;
+
+import com.google.common.collect.Lists;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Bounded worker pool for evaluating many compiled calendars at once.
+ *
+ * <p>{@link #map(List, Function)} splits the input into chunks of {@code chunk-size} items and
+ * evaluates the chunks on the pool, returning results in input order. Inputs no larger than one
+ * chunk are evaluated on the calling thread. The pool has {@code app.evaluation.parallelism}
+ * threads (default: available processors) and a bounded queue; when the queue is full the
+ * caller evaluates the chunk itself, so a burst slows callers down instead of growing memory.
+ *
+ * <p>With {@code spring.threads.virtual.enabled=true} each chunk runs on its own virtual
+ * thread instead of the pool; CPU parallelism is then bounded by the virtual-thread scheduler
+ * (available processors) and {@code parallelism}/{@code queue-capacity} are ignored.
+ *
+ * <p>The platform pool's size, queue and completed tasks are published as the
+ * {@code executor.*} meters tagged {@code name=schedule-evaluation}.
+ *
+ * <p>Work handed to the pool must be pure in-memory evaluation: it runs outside the caller's
+ * transaction, so repositories must not be touched from it.
+ */
+@Slf4j
+@Component
+public class EvaluationExecutor implements MeterBinder {
+
+    private final ExecutorService executor;
+    private final int chunkSize;
+
+    public EvaluationExecutor(int parallelism, int queueCapacity, int chunkSize) {
+        this(parallelism, queueCapacity, chunkSize, false);
+    }
+
+    @Autowired
+    public EvaluationExecutor(
+            @Value("${app.evaluation.parallelism:0}") int parallelism,
+            @Value("${app.evaluation.queue-capacity:1000}") int queueCapacity,
+            @Value("${app.evaluation.chunk-size:256}") int chunkSize,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (parallelism < 0 || queueCapacity < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("Evaluation parallelism must not be negative; queue capacity and chunk size must be positive");
+        }
+        this.chunkSize = chunkSize;
+        if (virtualThreads) {
+            this.executor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("schedule-evaluation-", 0).factory());
+            log.info("Schedule evaluation runs on virtual threads");
+            return;
+        }
+
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                threads, threads,
+                30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("schedule-evaluation-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        this.executor = pool;
+    }
+
+    /**
+     * Applies the function to every item, in parallel chunks.
+     *
+     * @return results in the same order as the items
+     * @throws RuntimeException the first failure thrown by the function, unwrapped
+     */
+    public <T, R> List<R> map(List<T> items, Function<? super T, ? extends R> function) {
+        if (items.size() <= chunkSize) {
+            return applyAll(items, function);
+        }
+
+        List<CompletableFuture<List<R>>> futures = new ArrayList<>();
+        for (List<T> chunk : Lists.partition(items, chunkSize)) {
+            futures.add(CompletableFuture.supplyAsync(() -> applyAll(chunk, function), executor));
+        }
+
+        List<R> results = new ArrayList<>(items.size());
+        try {
+            for (CompletableFuture<List<R>> future : futures) {
+                results.addAll(future.join());
+            }
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(false));
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error error) throw error;
+            throw e;
+        }
+        return results;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // virtual-thread executors expose nothing to measure; the binder skips them
+        new ExecutorServiceMetrics(executor, "schedule-evaluation", Tags.empty()).bindTo(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static <T, R> List<R> applyAll(List<T> items, Function<? super T, ? extends R> function) {
+        List<R> results = new ArrayList<>(items.size());
+        for (T item : items) {
+            results.add(function.apply(item));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,285 @@
+package com.jw.holidayguard.service;
+
+import com.jw.holidayguard.domain.QueryLog;
+import com.jw.holidayguard.repository.QueryLogRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind pipeline for the should-run audit trail.
+ *
+ * <p>{@link #write(QueryLog)} only enqueues; a background thread drains the bounded queue and
+ * inserts rows through {@link QueryLogRepository#insertAll} in JDBC batches, flushing when a
+ * batch fills up or the flush interval elapses. Remaining rows are flushed on shutdown.
+ *
+ * <p>When the queue is full the {@link OverflowPolicy} decides between blocking the caller,
+ * dropping the row, or blocking for one in every {@code sample-rate} rows and dropping the rest.
+ * Queue depth, flush latency, written, dropped and failed rows are published as metrics.
+ *
+ * <p>Setting {@code app.audit.write-behind.enabled=false} restores synchronous saves.
+ */
+@Slf4j
+@Component
+public class QueryLogWriter implements MeterBinder {
+
+    public enum OverflowPolicy {
+        /** Caller waits for queue space. */
+        BLOCK,
+        /** Row is discarded and counted as dropped. */
+        DROP,
+        /** One in every sample-rate overflowing rows waits for space; the others are dropped. */
+        SAMPLE
+    }
+
+    private final QueryLogRepository queryLogRepository;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final OverflowPolicy overflowPolicy;
+    private final int sampleRate;
+    private final Duration shutdownTimeout;
+
+    private final BlockingQueue<QueryLog> queue;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong overflowed = new AtomicLong();
+    private final AtomicInteger enqueuing = new AtomicInteger();
+
+    private volatile Timer flushTimer;
+    private volatile boolean running;
+    private volatile boolean stopped;
+    private Thread worker;
+
+    public QueryLogWriter(
+            QueryLogRepository queryLogRepository,
+            @Value("${app.audit.write-behind.enabled:true}") boolean enabled,
+            @Value("${app.audit.write-behind.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.audit.write-behind.batch-size:500}") int batchSize,
+            @Value("${app.audit.write-behind.flush-interval:1s}") Duration flushInterval,
+            @Value("${app.audit.write-behind.overflow-policy:BLOCK}") OverflowPolicy overflowPolicy,
+            @Value("${app.audit.write-behind.sample-rate:10}") int sampleRate,
+            @Value("${app.audit.write-behind.shutdown-timeout:10s}") Duration shutdownTimeout) {
+        if (queueCapacity < 1 || batchSize < 1 || sampleRate < 1) {
+            throw new IllegalArgumentException("Audit queue capacity, batch size and sample rate must be positive");
+        }
+        this.queryLogRepository = queryLogRepository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.overflowPolicy = overflowPolicy;
+        this.sampleRate = sampleRate;
+        this.shutdownTimeout = shutdownTimeout;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled || running) return;
+
+        running = true;
+        worker = Thread.ofPlatform()
+                .name("query-log-writer")
+                .daemon(true)
+                .start(this::drainLoop);
+        log.info("Query log write-behind started (batch size {}, flush interval {}, overflow {})",
+                batchSize, flushInterval, overflowPolicy);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!running) return;
+
+        running = false;
+        try {
+            worker.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // anything enqueued after the worker's last poll is written here. A caller that saw
+        // stopped == false may still be enqueuing (or blocked on a full queue), so keep draining
+        // until none is in flight and the queue stays empty.
+        stopped = true;
+        while (true) {
+            flush();
+            if (enqueuing.get() == 0 && queue.isEmpty()) break;
+            Thread.yield();
+        }
+        log.info("Query log write-behind stopped ({} written, {} dropped, {} failed)",
+                written.get(), dropped.get(), failed.get());
+    }
+
+    /**
+     * Records an audit row. The query timestamp is taken now, not when the row is flushed.
+     */
+    public void write(QueryLog queryLog) {
+        if (queryLog.getQueriedAt() == null) {
+            queryLog.setQueriedAt(Instant.now());
+        }
+
+        if (!enabled) {
+            queryLogRepository.save(queryLog);
+            return;
+        }
+
+        // counted before stopped is read, so stop() waits for this row to land in the queue
+        enqueuing.incrementAndGet();
+        try {
+            if (stopped) {
+                queryLogRepository.save(queryLog);
+                return;
+            }
+            enqueue(queryLog);
+        } finally {
+            enqueuing.decrementAndGet();
+        }
+    }
+
+    private void enqueue(QueryLog queryLog) {
+        if (queue.offer(queryLog)) return;
+
+        switch (overflowPolicy) {
+            case BLOCK -> enqueueBlocking(queryLog);
+            case DROP -> dropped.incrementAndGet();
+            case SAMPLE -> {
+                if (overflowed.incrementAndGet() % sampleRate == 0) {
+                    enqueueBlocking(queryLog);
+                } else {
+                    dropped.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    public void writeAll(List<QueryLog> queryLogs) {
+        queryLogs.forEach(this::write);
+    }
+
+    /**
+     * Drains and writes everything currently queued on the calling thread.
+     */
+    public void flush() {
+        List<QueryLog> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("holidayguard.audit.queue.depth", queue, BlockingQueue::size)
+                .description("Audit rows waiting to be written")
+                .register(registry);
+        Gauge.builder("holidayguard.audit.queue.remaining", queue, BlockingQueue::remainingCapacity)
+                .description("Free slots in the audit queue")
+                .register(registry);
+        FunctionCounter.builder("holidayguard.audit.written", written, AtomicLong::get)
+                .description("Audit rows inserted")
+                .register(registry);
+        FunctionCounter.builder("holidayguard.audit.dropped", dropped, AtomicLong::get)
+                .description("Audit rows discarded because the queue was full")
+                .register(registry);
+        FunctionCounter.builder("holidayguard.audit.failed", failed, AtomicLong::get)
+                .description("Audit rows lost to failed batch inserts")
+                .register(registry);
+        flushTimer = Timer.builder("holidayguard.audit.flush")
+                .description("Time to insert one audit batch")
+                .register(registry);
+    }
+
+    private void drainLoop() {
+        List<QueryLog> batch = new ArrayList<>(batchSize);
+        long intervalNanos = flushInterval.toNanos();
+
+        while (running || !queue.isEmpty()) {
+            try {
+                QueryLog first = queue.poll(intervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) continue;
+                batch.add(first);
+
+                // keep collecting until the batch is full or the flush interval has passed
+                long deadline = System.nanoTime() + intervalNanos;
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) continue;
+
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) break;
+
+                    QueryLog next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+
+                writeBatch(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+    }
+
+    private void writeBatch(List<QueryLog> batch) {
+        long start = System.nanoTime();
+        try {
+            written.addAndGet(queryLogRepository.insertAll(batch, batchSize));
+        } catch (RuntimeException e) {
+            failed.addAndGet(batch.size());
+            log.error("Failed to write {} audit rows", batch.size(), e);
+        } finally {
+            Timer timer = flushTimer;
+            if (timer != null) {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private void enqueueBlocking(QueryLog queryLog) {
+        try {
+            queue.put(queryLog);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dropped.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.jw.holidayguard.service;
+
+import com.jw.holidayguard.domain.Rule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for the should-run query path.
+ *
+ * <ul>
+ *   <li>{@code holidayguard.query.phase} - time per phase ({@code lookup}, {@code evaluation},
+ *       {@code audit}) of each {@code operation} ({@code should-run}, {@code bulk})</li>
+ *   <li>{@code holidayguard.query.evaluation} - time to answer one date, tagged by {@code rule.type}</li>
+ *   <li>{@code holidayguard.query.requests} - should-run requests by {@code endpoint} and
+ *       {@code outcome} ({@code answered}, {@code not-modified})</li>
+ * </ul>
+ * Every tag has a fixed, small set of values. Until the instance is bound to a registry all
+ * recording is a no-op, so services built in tests need no registry.
+ */
+@Component
+public class QueryMetrics implements MeterBinder {
+
+    public enum Operation {
+        SHOULD_RUN("should-run"),
+        BULK("bulk");
+
+        private final String tag;
+
+        Operation(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    public enum Phase {
+        LOOKUP, EVALUATION, AUDIT
+    }
+
+    private volatile MeterRegistry registry;
+    private volatile Map<Operation, Map<Phase, Timer>> phaseTimers;
+    private volatile Map<Rule.RuleType, Timer> evaluationTimers;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Map<Operation, Map<Phase, Timer>> phases = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            Map<Phase, Timer> timers = new EnumMap<>(Phase.class);
+            for (Phase phase : Phase.values()) {
+                timers.put(phase, Timer.builder("holidayguard.query.phase")
+                        .description("Time spent in one phase of a should-run query")
+                        .tag("operation", operation.tag)
+                        .tag("phase", phase.name().toLowerCase())
+                        .register(registry));
+            }
+            phases.put(operation, timers);
+        }
+
+        Map<Rule.RuleType, Timer> evaluations = new EnumMap<>(Rule.RuleType.class);
+        for (Rule.RuleType ruleType : Rule.RuleType.values()) {
+            evaluations.put(ruleType, Timer.builder("holidayguard.query.evaluation")
+                    .description("Time to answer one date against a compiled calendar")
+                    .tag("rule.type", ruleType.name())
+                    .register(registry));
+        }
+
+        this.phaseTimers = phases;
+        this.evaluationTimers = evaluations;
+        this.registry = registry;
+    }
+
+    /**
+     * Records a phase that started at {@code startNanos}.
+     *
+     * @return the current {@link System#nanoTime()}, the start of the next phase
+     */
+    public long recordPhase(Operation operation, Phase phase, long startNanos) {
+        long now = System.nanoTime();
+        Map<Operation, Map<Phase, Timer>> timers = phaseTimers;
+        if (timers != null) {
+            timers.get(operation).get(phase).record(now - startNanos, TimeUnit.NANOSECONDS);
+        }
+        return now;
+    }
+
+    /**
+     * Records one date evaluation that started at {@code startNanos}.
+     */
+    public void recordEvaluation(Rule.RuleType ruleType, long startNanos) {
+        Map<Rule.RuleType, Timer> timers = evaluationTimers;
+        if (timers != null && ruleType != null) {
+            timers.get(ruleType).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Counts one should-run request.
+     *
+     * @param endpoint a fixed endpoint name, e.g. {@code today}
+     * @param outcome a fixed outcome, e.g. {@code not-modified}
+     */
+    public void countRequest(String endpoint, String outcome) {
+        MeterRegistry bound = registry;
+        if (bound != null) {
+            Counter.builder("holidayguard.query.requests")
+                    .description("Should-run requests by endpoint and outcome")
+                    .tag("endpoint", endpoint)
+                    .tag("outcome", outcome)
+                    .register(bound)
+                    .increment();
+        }
+    }
+}
@@ -2,67 +2,116 @@ package com.jw.holidayguard.service;
 
 import com.jw.holidayguard.domain.*;
 import com.jw.holidayguard.dto.QueryLogDto;
+import com.jw.holidayguard.dto.QueryLogFilter;
+import com.jw.holidayguard.dto.QueryLogPage;
 import com.jw.holidayguard.dto.view.ScheduleDashboardView;
+import com.jw.holidayguard.dto.request.BulkShouldRunRequest;
 import com.jw.holidayguard.dto.request.ShouldRunQueryRequest;
+import com.jw.holidayguard.dto.response.BulkShouldRunResponse;
+import com.jw.holidayguard.dto.response.BulkShouldRunResult;
 import com.jw.holidayguard.dto.response.ShouldRunQueryResponse;
-import com.jw.holidayguard.repository.DeviationRepository;
 import com.jw.holidayguard.repository.QueryLogRepository;
 import com.jw.holidayguard.repository.ScheduleRepository;
-import com.jw.holidayguard.repository.VersionRepository;
-import com.jw.holidayguard.repository.RuleRepository;
-import com.jw.holidayguard.service.rule.RuleEngine;
-import org.springframework.data.domain.Sort;
+import com.jw.holidayguard.service.QueryMetrics.Operation;
+import com.jw.holidayguard.service.QueryMetrics.Phase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @Transactional
 public class ScheduleQueryService {
 
+    public static final int DEFAULT_LOG_PAGE_SIZE = 50;
+    public static final int MAX_LOG_PAGE_SIZE = 500;
+
     private final ScheduleRepository scheduleRepository;
-    private final VersionRepository versionRepository;
-    private final DeviationRepository deviationRepository;
     private final QueryLogRepository queryLogRepository;
-    private final RuleEngine ruleEngine;
-    private final RuleRepository ruleRepository;
+    private final CalendarCache calendarCache;
+    private final QueryLogWriter queryLogWriter;
+    private final EvaluationExecutor evaluationExecutor;
+    private final QueryMetrics metrics;
+
+    // last dashboard answer, reused until the date rolls over or any calendar is invalidated
+    private volatile DashboardStatus dashboardStatus;
 
     public ScheduleQueryService(
             ScheduleRepository scheduleRepository,
-            VersionRepository versionRepository,
-            DeviationRepository deviationRepository,
             QueryLogRepository queryLogRepository,
-            RuleEngine ruleEngine,
-            RuleRepository ruleRepository) {
+            CalendarCache calendarCache,
+            QueryLogWriter queryLogWriter,
+            EvaluationExecutor evaluationExecutor,
+            QueryMetrics metrics) {
         this.scheduleRepository = scheduleRepository;
-        this.versionRepository = versionRepository;
-        this.deviationRepository = deviationRepository;
         this.queryLogRepository = queryLogRepository;
-        this.ruleEngine = ruleEngine;
-        this.ruleRepository = ruleRepository;
+        this.calendarCache = calendarCache;
+        this.queryLogWriter = queryLogWriter;
+        this.evaluationExecutor = evaluationExecutor;
+        this.metrics = metrics;
     }
 
-    public List<QueryLogDto> findAllLogs() {
-        // 1. Fetch all logs, sorted by newest first
-        List<QueryLog> logs = queryLogRepository.findAll(Sort.by(Sort.Direction.DESC, "queriedAt"));
+    /**
+     * Returns one page of the audit log, newest first.
+     *
+     * <p>Pages are keyset-paginated on (queriedAt, id): the cursor encodes the last row of the
+     * previous page, so each page reads the schedule's, the client's or the time index in order
+     * from the cursor onward ({@link com.jw.holidayguard.repository.QueryLogPageRepository}),
+     * costing the same no matter how deep it is. Date and result filters are checked on the
+     * rows read, so a selective one reads further for a full page. Rows written while paging
+     * never shift later pages. Schedule names are resolved for the returned rows only.
+     *
+     * @param filter optional filters
+     * @param cursor the previous page's {@code nextCursor}, or null for the first page
+     * @param limit page size, 1 to {@value #MAX_LOG_PAGE_SIZE}
+     * @throws IllegalArgumentException if the limit, date range or cursor is invalid
+     */
+    @Transactional(readOnly = true)
+    public QueryLogPage findLogs(QueryLogFilter filter, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_LOG_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LOG_PAGE_SIZE + ": " + limit);
+        }
+        if (filter.fromDate() != null && filter.toDate() != null && filter.fromDate().isAfter(filter.toDate())) {
+            throw new IllegalArgumentException("Range start " + filter.fromDate() + " is after range end " + filter.toDate());
+        }
+        LogCursor after = cursor == null || cursor.isBlank() ? null : LogCursor.decode(cursor);
+
+        // one extra row tells whether another page follows
+        List<QueryLog> rows = queryLogRepository.findPage(
+                filter.scheduleId(),
+                filter.clientIdentifier(),
+                filter.fromDate(),
+                filter.toDate(),
+                filter.shouldRunResult(),
+                after == null ? null : after.queriedAt(),
+                after == null ? null : after.id(),
+                Limit.of(limit + 1));
+        boolean hasMore = rows.size() > limit;
+        List<QueryLog> logs = hasMore ? rows.subList(0, limit) : rows;
 
-        // 2. Get unique schedule IDs
+        // Fetch names for this page's schedules in a single batch query
         var scheduleIds = logs.stream()
                 .map(QueryLog::getScheduleId)
                 .collect(Collectors.toSet());
-
-        // 3. Fetch all schedules in a single batch query
-        Map<Long, String> scheduleNames = scheduleRepository.findAllById(scheduleIds).stream()
+        Map<Long, String> scheduleNames = scheduleIds.isEmpty() ? Map.of() : scheduleRepository.findAllById(scheduleIds).stream()
                 .collect(Collectors.toMap(Schedule::getId, Schedule::getName));
 
-        // 4. Map to DTOs
-        return logs.stream()
+        List<QueryLogDto> items = logs.stream()
                 .map(log -> new QueryLogDto(
                         log.getId(),
                         log.getScheduleId(),
@@ -76,6 +125,9 @@ public class ScheduleQueryService {
                         log.getQueriedAt()
                 ))
                 .toList();
+
+        String nextCursor = hasMore ? LogCursor.of(logs.get(logs.size() - 1)).encode() : null;
+        return new QueryLogPage(items, nextCursor);
     }
 
     public long getTotalSchedulesCount() {
@@ -86,74 +138,158 @@ public class ScheduleQueryService {
         return scheduleRepository.countByActive(true);
     }
 
+    /**
+     * Today's status for every active schedule, for the admin dashboard.
+     *
+     * <p>Calendars for all active schedules are resolved with one set-based load and evaluated
+     * in parallel on the {@link EvaluationExecutor}. Internal dashboard reads are not written to
+     * the audit log. The result is reused until the date changes or a calendar is invalidated
+     * (schedule created or updated, rule changed). Schedules that cannot be evaluated, e.g.
+     * without an active version, are left out.
+     */
+    @Transactional(readOnly = true)
     public List<ScheduleDashboardView> getDailyRunStatusForAllActiveSchedules() {
-        List<Schedule> activeSchedules = scheduleRepository.findByActiveTrue();
-        ShouldRunQueryRequest request = new ShouldRunQueryRequest(LocalDate.now(), "internal-dashboard");
+        LocalDate today = LocalDate.now();
+        long generation = calendarCache.generation();
+
+        DashboardStatus cached = dashboardStatus;
+        if (cached != null && cached.date().equals(today) && cached.generation() == generation) {
+            return cached.views();
+        }
 
-        return activeSchedules.stream()
-                .map(schedule -> {
-                    var response = shouldRunToday(schedule.getId(), request);
+        List<Long> activeScheduleIds = scheduleRepository.findByActiveTrue().stream()
+                .map(Schedule::getId)
+                .toList();
+        List<CalendarSnapshot> snapshots = List.copyOf(calendarCache.getAll(activeScheduleIds).values());
+
+        List<ScheduleDashboardView> views = evaluationExecutor.map(snapshots, snapshot -> toDashboardView(snapshot, today))
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
 
-                    return new ScheduleDashboardView(
-                            schedule.getId(),
-                            schedule.getName(),
-                            response.getRunStatus(),
-                            response.isShouldRun(),
-                            response.getReason()
-                    );
-                })
-                .collect(Collectors.toList());
+        // stamped with the generation read before loading, so a concurrent write forces a recompute
+        dashboardStatus = new DashboardStatus(today, generation, views);
+        return views;
     }
 
-    public ShouldRunQueryResponse shouldRunToday(Long scheduleId, ShouldRunQueryRequest request) {
-        // Validate schedule exists and is active
-        Schedule schedule = scheduleRepository.findById(scheduleId)
-            .orElseThrow(() -> new IllegalArgumentException("Schedule not found: " + scheduleId));
+    /**
+     * Cheap stamp of the state {@link #shouldRunToday} answers from, for conditional requests.
+     */
+    @Transactional(readOnly = true)
+    public Optional<CalendarStamp> getCalendarStamp(Long scheduleId) {
+        return calendarCache.stamp(scheduleId);
+    }
 
-        if (!schedule.isActive()) {
-            throw new IllegalArgumentException("Schedule is not active: " + scheduleId);
-        }
+    public ShouldRunQueryResponse shouldRunToday(Long scheduleId, ShouldRunQueryRequest request) {
+        long start = System.nanoTime();
 
-        // Validate date bounds (reasonable planning horizon)
+        // Resolve the compiled calendar for the active version (cached between queries)
+        CalendarSnapshot snapshot = calendarCache.get(scheduleId);
         LocalDate queryDate = request.getQueryDate(); // This defaults to today if null
-        LocalDate today = LocalDate.now();
-        LocalDate maxFutureDate = today.plusYears(5); // 5 year planning horizon
-        LocalDate minPastDate = today.minusYears(1);  // 1 year historical data
+        long evaluationStart = metrics.recordPhase(Operation.SHOULD_RUN, Phase.LOOKUP, start);
 
-        if (queryDate.isAfter(maxFutureDate)) {
-            throw new IllegalArgumentException("Query date too far in future: " + queryDate + " (max: " + maxFutureDate + ")");
-        }
-        if (queryDate.isBefore(minPastDate)) {
-            throw new IllegalArgumentException("Query date too far in past: " + queryDate + " (min: " + minPastDate + ")");
+        ShouldRunQueryResponse response = evaluate(snapshot, queryDate);
+        long auditStart = metrics.recordPhase(Operation.SHOULD_RUN, Phase.EVALUATION, evaluationStart);
+
+        // Log the query for audit trail (written behind, off the request path)
+        queryLogWriter.write(toQueryLog(response, request.getClientIdentifier()));
+        metrics.recordPhase(Operation.SHOULD_RUN, Phase.AUDIT, auditStart);
+
+        return response;
+    }
+
+    /**
+     * Answers should-run for many (schedule, dates) pairs with the same semantics as
+     * {@link #shouldRunToday}. Calendars for all schedules are resolved in one set-based load
+     * and audit rows are handed to the writer as one batch. A schedule or date that cannot be
+     * evaluated yields an error result instead of failing the request.
+     */
+    public BulkShouldRunResponse shouldRunBulk(BulkShouldRunRequest request) {
+        long start = System.nanoTime();
+        var scheduleIds = request.getQueries().stream()
+                .map(BulkShouldRunRequest.ScheduleQuery::getScheduleId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Map<Long, CalendarSnapshot> snapshots = calendarCache.getAll(scheduleIds);
+        long evaluationStart = metrics.recordPhase(Operation.BULK, Phase.LOOKUP, start);
+
+        List<BulkShouldRunResult> results = new ArrayList<>();
+        List<QueryLog> queryLogs = new ArrayList<>();
+        int errorCount = 0;
+
+        for (var query : request.getQueries()) {
+            Long scheduleId = query.getScheduleId();
+            List<LocalDate> dates = query.getDates() == null || query.getDates().isEmpty()
+                    ? List.of(LocalDate.now())
+                    : query.getDates();
+
+            CalendarSnapshot snapshot = snapshots.get(scheduleId);
+            String scheduleError = snapshot == null ? resolveError(scheduleId) : null;
+
+            for (LocalDate date : dates) {
+                if (scheduleError != null) {
+                    results.add(BulkShouldRunResult.error(scheduleId, date, scheduleError));
+                    errorCount++;
+                    continue;
+                }
+
+                try {
+                    ShouldRunQueryResponse response = evaluate(snapshot, date);
+                    results.add(BulkShouldRunResult.of(response));
+                    queryLogs.add(toQueryLog(response, request.getClientIdentifier()));
+                } catch (IllegalArgumentException | IllegalStateException e) {
+                    results.add(BulkShouldRunResult.error(scheduleId, date, e.getMessage()));
+                    errorCount++;
+                }
+            }
         }
 
-        // Get active version
-        Version activeVersion = versionRepository.findByScheduleIdAndActiveTrue(scheduleId)
-            .orElseThrow(() -> new IllegalStateException("No active version found for schedule: " + scheduleId));
+        long auditStart = metrics.recordPhase(Operation.BULK, Phase.EVALUATION, evaluationStart);
 
-        // Fetch rule for active version
-        Optional<Rule> ruleOpt = ruleRepository.findByVersionId(activeVersion.getId());
-        if (ruleOpt.isEmpty()) {
-            throw new IllegalStateException("No rule found for version: " + activeVersion.getId());
+        queryLogWriter.writeAll(queryLogs);
+        metrics.recordPhase(Operation.BULK, Phase.AUDIT, auditStart);
+
+        return new BulkShouldRunResponse(results, errorCount);
+    }
+
+    /**
+     * Resolves the compiled calendar for streaming a date range, applying the same schedule
+     * and planning-horizon checks as {@link #shouldRunToday} to both ends of the range.
+     * Range answers are not written to the audit log.
+     */
+    @Transactional(readOnly = true)
+    public CalendarSnapshot getCalendarForRange(Long scheduleId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Range start " + from + " is after range end " + to);
         }
 
-        // Fetch deviations for active version
-        List<Deviation> deviations = deviationRepository.findByScheduleId(scheduleId)
-            .stream()
-            .filter(d -> d.getVersionId().equals(activeVersion.getId()))
-            .toList();
+        CalendarSnapshot snapshot = calendarCache.get(scheduleId);
+        requireActive(snapshot);
+        validateQueryDate(from);
+        validateQueryDate(to);
+
+        return snapshot;
+    }
 
-        // Create Calendar abstraction - this encapsulates the shouldRun business logic
-        // RuleEngine implements Calendar.RuleEvaluator, so we can use it directly
-        Calendar calendar = new Calendar(schedule, ruleOpt.get(), deviations, ruleEngine::shouldRun);
+    /**
+     * Evaluates one date against a compiled calendar, validating the schedule state and the
+     * planning horizon first.
+     */
+    private ShouldRunQueryResponse evaluate(CalendarSnapshot snapshot, LocalDate queryDate) {
+        Long scheduleId = snapshot.scheduleId();
+
+        requireActive(snapshot);
+        validateQueryDate(queryDate);
+
+        Calendar calendar = snapshot.calendar();
 
         // Delegate to Calendar for shouldRun decision (handles deviations + rule evaluation)
+        long start = System.nanoTime();
         boolean shouldRun = calendar.shouldRun(queryDate);
+        metrics.recordEvaluation(calendar.getRule().getRuleType(), start);
 
         // Find deviation for this date (if it exists)
-        Optional<Deviation> deviationOpt = deviations.stream()
-                .filter(d -> d.getDeviationDate().equals(queryDate))
-                .findFirst();
+        Optional<Deviation> deviationOpt = calendar.findDeviation(queryDate);
 
         boolean deviationApplied = deviationOpt.isPresent();
 
@@ -171,19 +307,6 @@ public class ScheduleQueryService {
                     : "Not scheduled to run - rule does not match";
         }
 
-        // Log the query for audit trail
-        QueryLog queryLog = QueryLog.builder()
-            .scheduleId(scheduleId)
-            .versionId(activeVersion.getId())
-            .queryDate(queryDate)
-            .shouldRunResult(shouldRun)
-            .reason(reason)
-            .deviationApplied(deviationApplied)
-            .clientIdentifier(request.getClientIdentifier())
-            .build();
-
-        queryLogRepository.save(queryLog);
-
         // Return response with both RunStatus (detailed) and shouldRun (convenience boolean)
         return new ShouldRunQueryResponse(
             scheduleId,
@@ -192,7 +315,99 @@ public class ScheduleQueryService {
             runStatus,
             reason,
             deviationApplied,
-            activeVersion.getId()
+            snapshot.versionId()
         );
     }
-}
\ No newline at end of file
+
+    private ScheduleDashboardView toDashboardView(CalendarSnapshot snapshot, LocalDate date) {
+        try {
+            ShouldRunQueryResponse response = evaluate(snapshot, date);
+            return new ScheduleDashboardView(
+                    snapshot.scheduleId(),
+                    snapshot.schedule().getName(),
+                    response.getRunStatus(),
+                    response.isShouldRun(),
+                    response.getReason()
+            );
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            log.warn("Schedule {} left off the dashboard: {}", snapshot.scheduleId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static void requireActive(CalendarSnapshot snapshot) {
+        if (!snapshot.schedule().isActive()) {
+            throw new IllegalArgumentException("Schedule is not active: " + snapshot.scheduleId());
+        }
+    }
+
+    /**
+     * Validates date bounds (reasonable planning horizon).
+     */
+    private static void validateQueryDate(LocalDate queryDate) {
+        LocalDate today = LocalDate.now();
+        LocalDate maxFutureDate = today.plusYears(5); // 5 year planning horizon
+        LocalDate minPastDate = today.minusYears(1);  // 1 year historical data
+
+        if (queryDate.isAfter(maxFutureDate)) {
+            throw new IllegalArgumentException("Query date too far in future: " + queryDate + " (max: " + maxFutureDate + ")");
+        }
+        if (queryDate.isBefore(minPastDate)) {
+            throw new IllegalArgumentException("Query date too far in past: " + queryDate + " (min: " + minPastDate + ")");
+        }
+    }
+
+    private static QueryLog toQueryLog(ShouldRunQueryResponse response, String clientIdentifier) {
+        return QueryLog.builder()
+            .scheduleId(response.getScheduleId())
+            .versionId(response.getVersionId())
+            .queryDate(response.getQueryDate())
+            .shouldRunResult(response.isShouldRun())
+            .reason(response.getReason())
+            .deviationApplied(response.isDeviationApplied())
+            .clientIdentifier(clientIdentifier)
+            .build();
+    }
+
+    /**
+     * Explains why a schedule was missing from a set-based load, using the single-schedule
+     * lookup for its precise error.
+     */
+    private String resolveError(Long scheduleId) {
+        try {
+            calendarCache.get(scheduleId);
+            return "Schedule could not be loaded: " + scheduleId;
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return e.getMessage();
+        }
+    }
+
+    /**
+     * Position in the audit log: the (queriedAt, id) of the last row on a page, encoded as
+     * URL-safe Base64 so clients treat it as opaque.
+     */
+    private record LogCursor(Instant queriedAt, Long id) {
+
+        static LogCursor of(QueryLog log) {
+            return new LogCursor(log.getQueriedAt(), log.getId());
+        }
+
+        String encode() {
+            String raw = queriedAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static LogCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                return new LogCursor(Instant.parse(raw.substring(0, separator)), Long.valueOf(raw.substring(separator + 1)));
+            } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+    }
+
+    private record DashboardStatus(LocalDate date, long generation, List<ScheduleDashboardView> views) {
+    }
+}
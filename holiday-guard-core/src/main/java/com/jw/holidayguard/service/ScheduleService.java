@@ -41,14 +41,16 @@ public class ScheduleService {
 
     private final RuleEngine ruleEngine;
     private final CurrentUserService currentUserService;
+    private final CalendarCache calendarCache;
 
-    public ScheduleService(ScheduleRepository scheduleRepo, RuleRepository ruleRepo, VersionRepository versionRepo, DeviationRepository deviationRepo, RuleEngine ruleEngine, CurrentUserService currentUserService) {
+    public ScheduleService(ScheduleRepository scheduleRepo, RuleRepository ruleRepo, VersionRepository versionRepo, DeviationRepository deviationRepo, RuleEngine ruleEngine, CurrentUserService currentUserService, CalendarCache calendarCache) {
         this.scheduleRepo = scheduleRepo;
         this.ruleRepo = ruleRepo;
         this.versionRepo = versionRepo;
         this.deviationRepo = deviationRepo;
         this.ruleEngine = ruleEngine;
         this.currentUserService = currentUserService;
+        this.calendarCache = calendarCache;
     }
 
     public Schedule createSchedule(CreateScheduleRequest request) {
@@ -82,6 +84,9 @@ public class ScheduleService {
                 .versionId(version.getId())
                 .build());
 
+        // No snapshot exists yet, but views built over all schedules (the dashboard) must see the new one
+        calendarCache.invalidate(schedule.getId());
+
         return schedule;
     }
 
@@ -186,6 +191,9 @@ public class ScheduleService {
 
         existing.setUpdatedBy(currentUserService.getCurrentUsername());
 
+        // Cached snapshot carries the schedule and its active version, both possibly changed above
+        calendarCache.invalidate(id);
+
         // JPA automatically detects changes and updates on transaction commit
         return existing;
     }
@@ -196,6 +204,14 @@ public class ScheduleService {
         return ruleRepo.findFirstByScheduleIdAndActiveTrueOrderByCreatedAtDesc(scheduleId);
     }
 
+    /**
+     * Cheap stamp of the state {@link #getScheduleCalendar} answers from, for conditional requests.
+     */
+    @Transactional(readOnly = true)
+    public Optional<CalendarStamp> getCalendarStamp(Long scheduleId) {
+        return calendarCache.stamp(scheduleId);
+    }
+
     @Transactional(readOnly = true)
     public ScheduleMonthDto getScheduleCalendar(Long scheduleId, YearMonth yearMonth) {
         Schedule schedule = findScheduleById(scheduleId);
@@ -27,16 +27,19 @@ public class ScheduleVersionService {
     private final VersionRepository versionRepository;
     private final RuleRepository ruleRepository;
     private final DeviationRepository deviationRepository;
+    private final CalendarCache calendarCache;
 
     public ScheduleVersionService(
             ScheduleRepository scheduleRepository,
             VersionRepository versionRepository,
             RuleRepository ruleRepository,
-            DeviationRepository deviationRepository) {
+            DeviationRepository deviationRepository,
+            CalendarCache calendarCache) {
         this.scheduleRepository = scheduleRepository;
         this.versionRepository = versionRepository;
         this.ruleRepository = ruleRepository;
         this.deviationRepository = deviationRepository;
+        this.calendarCache = calendarCache;
     }
 
     public Version updateScheduleRule(Long scheduleId, UpdateRuleRequest request) {
@@ -98,6 +101,8 @@ public class ScheduleVersionService {
             }
         }
 
+        calendarCache.invalidate(scheduleId);
+
         return newVersion;
     }
 }
@@ -0,0 +1,23 @@
+package com.jw.holidayguard.service.rule;
+
+import java.time.LocalDate;
+
+/**
+ * A rule that has been parsed and validated once and can then be evaluated for any date.
+ * <p>
+ * Produced by {@link com.jw.holidayguard.service.rule.handler.RuleHandler#compile} and cached by
+ * {@link RuleEngine#compile}. Implementations must be immutable so a single instance can be
+ * shared by every thread evaluating the same rule.
+ */
+@FunctionalInterface
+public interface CompiledRule {
+
+    /**
+     * Checks if a schedule should run on a specific date based on the compiled rule.
+     * Deviations are not considered.
+     *
+     * @param date The date to check
+     * @return True if the schedule should run on the given date, false otherwise
+     */
+    boolean shouldRun(LocalDate date);
+}
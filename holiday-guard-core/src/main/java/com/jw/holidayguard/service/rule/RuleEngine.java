@@ -33,4 +33,17 @@ public interface RuleEngine {
      * @return True if the schedule should run on the given date, false otherwise
      */
     boolean shouldRun(Rule rule, LocalDate date);
+
+    /**
+     * Returns a compiled predicate for the rule, parsing and validating its configuration
+     * at most once per rule id and configuration.
+     * <p>
+     * Like {@link #shouldRun(Rule, LocalDate)}, the predicate does NOT evaluate deviations.
+     *
+     * @param rule The schedule rule to compile
+     * @return An immutable, thread-safe predicate for the rule
+     * @throws IllegalArgumentException if the rule configuration is invalid
+     * @throws UnsupportedOperationException if no handler supports the rule type
+     */
+    CompiledRule compile(Rule rule);
 }
@@ -1,31 +1,58 @@
 package com.jw.holidayguard.service.rule;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.jw.holidayguard.domain.Rule;
 import com.jw.holidayguard.service.rule.handler.RuleHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implementation of RuleEngine that delegates to specific rule handlers
  * and generates materialized calendar dates.
+ * <p>
+ * Compiled rules are cached by rule id, type and configuration, so a rule's configuration is
+ * parsed once per rule version rather than once per query. Rule rows are never edited in place
+ * (a rule change creates a new version and rule), and the configuration is part of the key for
+ * rules without an id, so cached entries never go stale.
+ * <p>
+ * Once bound to a registry, {@code shouldRun} and {@code generateDates} are timed as
+ * {@code holidayguard.rule.engine} tagged by {@code rule.type} and {@code operation}, and the
+ * compiled-rule cache is published as {@code cache.*} meters tagged {@code cache=compiled-rules}.
  */
 @Service
-public class RuleEngineImpl implements RuleEngine {
+public class RuleEngineImpl implements RuleEngine, MeterBinder {
+
+    private static final long MAX_COMPILED_RULES = 10_000;
 
     private final Map<Rule.RuleType, RuleHandler> handlers;
 
+    private final Cache<RuleKey, CompiledRule> compiledRules = CacheBuilder.newBuilder()
+            .maximumSize(MAX_COMPILED_RULES)
+            .recordStats()
+            .build();
+
+    private volatile Map<Rule.RuleType, Timer> shouldRunTimers;
+    private volatile Map<Rule.RuleType, Timer> generateDatesTimers;
+
     public RuleEngineImpl(List<RuleHandler> ruleHandlers) {
-        this.handlers = ruleHandlers.stream()
-                .collect(Collectors.toMap(
-                        RuleHandler::getSupportedRuleType,
-                        Function.identity()
-                ));
+        this.handlers = new EnumMap<>(Rule.RuleType.class);
+        for (RuleHandler handler : ruleHandlers) {
+            if (handlers.putIfAbsent(handler.getSupportedRuleType(), handler) != null) {
+                throw new IllegalStateException("Duplicate handler for rule type: " + handler.getSupportedRuleType());
+            }
+        }
     }
 
     @Override
@@ -34,17 +61,71 @@ public class RuleEngineImpl implements RuleEngine {
         // empty list if not valid range
         if (from.isAfter(to)) return List.of();
 
-        return getRuleHandler(rule).generateDates(rule, from, to);
+        RuleHandler handler = getRuleHandler(rule);
+        long start = System.nanoTime();
+        List<LocalDate> dates = handler.generateDates(rule, from, to);
+        record(generateDatesTimers, rule, start);
+        return dates;
     }
 
     @Override
     public boolean shouldRun(Rule rule, LocalDate date) {
-        return getRuleHandler(rule).shouldRun(rule, date);
+        long start = System.nanoTime();
+        boolean shouldRun = compile(rule).shouldRun(date);
+        record(shouldRunTimers, rule, start);
+        return shouldRun;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        shouldRunTimers = timers(registry, "should-run");
+        generateDatesTimers = timers(registry, "generate-dates");
+        GuavaCacheMetrics.monitor(registry, compiledRules, "compiled-rules");
+    }
+
+    private static Map<Rule.RuleType, Timer> timers(MeterRegistry registry, String operation) {
+        Map<Rule.RuleType, Timer> timers = new EnumMap<>(Rule.RuleType.class);
+        for (Rule.RuleType ruleType : Rule.RuleType.values()) {
+            timers.put(ruleType, Timer.builder("holidayguard.rule.engine")
+                    .description("Rule engine calls by rule type")
+                    .tag("rule.type", ruleType.name())
+                    .tag("operation", operation)
+                    .register(registry));
+        }
+        return timers;
+    }
+
+    private static void record(Map<Rule.RuleType, Timer> timers, Rule rule, long startNanos) {
+        if (timers != null) {
+            timers.get(rule.getRuleType()).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public CompiledRule compile(Rule rule) {
+        RuleHandler handler = getRuleHandler(rule);
+
+        try {
+            return compiledRules.get(RuleKey.of(rule), () -> handler.compile(rule));
+        } catch (UncheckedExecutionException | ExecutionException e) {
+            // surface the handler's own exception (e.g. IllegalArgumentException for a bad config)
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException("Failed to compile rule: " + rule.getId(), e.getCause());
+        }
     }
 
     private RuleHandler getRuleHandler(Rule rule) {
-        return Optional
-                .ofNullable(handlers.get(rule.getRuleType()))
-                .orElseThrow(() -> new UnsupportedOperationException("No handler found for rule type: " + rule.getRuleType()));
+        RuleHandler handler = rule.getRuleType() == null ? null : handlers.get(rule.getRuleType());
+        if (handler == null) {
+            throw new UnsupportedOperationException("No handler found for rule type: " + rule.getRuleType());
+        }
+        return handler;
+    }
+
+    private record RuleKey(Long ruleId, Rule.RuleType ruleType, String ruleConfig) {
+
+        static RuleKey of(Rule rule) {
+            return new RuleKey(rule.getId(), rule.getRuleType(), rule.getRuleConfig());
+        }
     }
 }
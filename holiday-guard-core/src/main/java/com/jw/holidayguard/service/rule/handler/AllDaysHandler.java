@@ -1,6 +1,7 @@
 package com.jw.holidayguard.service.rule.handler;
 
 import com.jw.holidayguard.domain.Rule;
+import com.jw.holidayguard.service.rule.CompiledRule;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
@@ -31,4 +32,9 @@ public class AllDaysHandler implements RuleHandler {
     public boolean shouldRun(Rule rule, LocalDate date) {
         return true;
     }
-}
\ No newline at end of file
+
+    @Override
+    public CompiledRule compile(Rule rule) {
+        return date -> true;
+    }
+}
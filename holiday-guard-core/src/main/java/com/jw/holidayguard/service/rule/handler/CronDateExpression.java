@@ -0,0 +1,443 @@
+package com.jw.holidayguard.service.rule.handler;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Date-granularity compiler for the six-field cron expressions accepted by Spring's
+ * {@code CronExpression}.
+ * <p>
+ * Only the day-of-month, month and day-of-week fields decide which dates match, so they are
+ * compiled into bitmasks. A month's matching days depend only on its length (28-31) and the
+ * weekday of its 1st, so one 31-bit day mask is precomputed for each of those 28 month shapes,
+ * with {@code L}, {@code L-n}, {@code LW}, {@code nW}, {@code nL} and {@code n#k} already
+ * resolved. Matching a date is then a month bit test plus a day bit test, and enumeration
+ * jumps straight to the next set bit.
+ * <p>
+ * The time fields only matter for one detail of how {@link CronExpressionHandler} answers:
+ * a date runs when the first execution after the previous midnight falls on it. When the
+ * expression fires at any time other than 00:00:00, a date that follows a matching date is
+ * therefore reported as not running. {@link #shouldRun(LocalDate)} reproduces that exactly.
+ * <p>
+ * Parsing mirrors Spring's rules (names, {@code ?}, ranges, steps, macros, day-of-month and
+ * day-of-week combined with AND). Callers should validate with {@code CronExpression.parse}
+ * first; anything this class does not recognise is rejected with an IllegalArgumentException.
+ */
+public final class CronDateExpression {
+
+    private static final String[] MONTHS = {
+            "JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"};
+
+    private static final String[] DAYS = {"MON", "TUE", "WED", "THU", "FRI", "SAT", "SUN"};
+
+    private static final String[] MACROS = {
+            "@yearly", "0 0 0 1 1 *",
+            "@annually", "0 0 0 1 1 *",
+            "@monthly", "0 0 0 1 * *",
+            "@weekly", "0 0 0 * * 0",
+            "@daily", "0 0 0 * * *",
+            "@midnight", "0 0 0 * * *",
+            "@hourly", "0 0 * * * *"};
+
+    // one Gregorian cycle; every month shape recurs well within it
+    private static final int MAX_MONTHS_SEARCHED = 400 * 12;
+
+    private final String expression;
+    private final int monthBits;
+    private final int[] shapeMasks;
+    private final boolean midnightOnly;
+
+    private CronDateExpression(String expression, int monthBits, int[] shapeMasks, boolean midnightOnly) {
+        this.expression = expression;
+        this.monthBits = monthBits;
+        this.shapeMasks = shapeMasks;
+        this.midnightOnly = midnightOnly;
+    }
+
+    /**
+     * Compiles a cron expression.
+     *
+     * @throws IllegalArgumentException if the expression cannot be compiled
+     */
+    public static CronDateExpression parse(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new IllegalArgumentException("Expression string must not be empty");
+        }
+
+        String resolved = resolveMacros(expression.trim());
+        String[] fields = resolved.trim().split(" +");
+        if (fields.length != 6) {
+            throw new IllegalArgumentException(
+                    "Cron expression must consist of 6 fields (found " + fields.length + " in \"" + expression + "\")");
+        }
+
+        try {
+            long seconds = parseBits(fields[0], 0, 59, false);
+            long minutes = parseBits(fields[1], 0, 59, false);
+            long hours = parseBits(fields[2], 0, 23, false);
+            int months = (int) parseBits(replaceNames(fields[4], MONTHS), 1, 12, false);
+
+            DayPredicate daysOfWeek = parseDaysOfWeek(replaceNames(fields[5], DAYS));
+            DayPredicate daysOfMonth = parseDaysOfMonth(fields[3], daysOfWeek);
+
+            boolean midnightOnly = seconds == 1L && minutes == 1L && hours == 1L;
+            return new CronDateExpression(expression, months, compileShapes(daysOfMonth, daysOfWeek), midnightOnly);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(e.getMessage() + " in cron expression \"" + expression + "\"", e);
+        }
+    }
+
+    /**
+     * @return true if the date satisfies the day-of-month, month and day-of-week fields
+     */
+    public boolean matches(LocalDate date) {
+        if ((monthBits & (1 << date.getMonthValue())) == 0) return false;
+
+        int dayOfMonth = date.getDayOfMonth();
+        return (shapeMask(date) & (1 << dayOfMonth)) != 0;
+    }
+
+    /**
+     * Answers the same question as evaluating the expression for the first execution after the
+     * previous day's midnight and checking it falls on this date.
+     */
+    public boolean shouldRun(LocalDate date) {
+        return matches(date) && (midnightOnly || !matches(date.minusDays(1)));
+    }
+
+    /**
+     * Finds the first matching date on or after {@code from}, jumping month by month.
+     *
+     * @return the next match no later than {@code until}, or null if there is none
+     */
+    public LocalDate nextMatch(LocalDate from, LocalDate until) {
+        LocalDate month = from.withDayOfMonth(1);
+        int fromDay = from.getDayOfMonth();
+
+        for (int searched = 0; searched < MAX_MONTHS_SEARCHED && !month.isAfter(until); searched++) {
+            if ((monthBits & (1 << month.getMonthValue())) != 0) {
+                int days = shapeMask(month) & (-1 << fromDay);
+                if (days != 0) {
+                    LocalDate match = month.withDayOfMonth(Integer.numberOfTrailingZeros(days));
+                    return match.isAfter(until) ? null : match;
+                }
+            }
+            month = month.plusMonths(1);
+            fromDay = 1;
+        }
+        return null;
+    }
+
+    /**
+     * Lists every date in the inclusive range for which {@link #shouldRun(LocalDate)} is true.
+     */
+    public List<LocalDate> runDates(LocalDate from, LocalDate to) {
+        List<LocalDate> dates = new ArrayList<>();
+        if (from.isAfter(to)) return dates;
+
+        LocalDate previousMatch = null;
+        LocalDate match = nextMatch(from, to);
+        while (match != null) {
+            boolean followsMatch = previousMatch != null
+                    ? previousMatch.equals(match.minusDays(1))
+                    : matches(match.minusDays(1));
+
+            if (midnightOnly || !followsMatch) {
+                dates.add(match);
+            }
+
+            previousMatch = match;
+            match = match.equals(to) ? null : nextMatch(match.plusDays(1), to);
+        }
+        return dates;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    // --- compilation ---
+
+    /**
+     * Matches a day within a month described by its length and the weekday of its 1st.
+     * Weekdays use java.time numbering: Monday = 1 ... Sunday = 7.
+     */
+    @FunctionalInterface
+    private interface DayPredicate {
+
+        boolean test(int dayOfMonth, int dayOfWeek, int length, int firstDayOfWeek);
+
+        default DayPredicate or(DayPredicate other) {
+            return (d, w, l, f) -> test(d, w, l, f) || other.test(d, w, l, f);
+        }
+    }
+
+    private static int[] compileShapes(DayPredicate daysOfMonth, DayPredicate daysOfWeek) {
+        int[] masks = new int[4 * 7];
+        for (int length = 28; length <= 31; length++) {
+            for (int first = 1; first <= 7; first++) {
+                int mask = 0;
+                for (int day = 1; day <= length; day++) {
+                    int dayOfWeek = weekdayOf(day, first);
+                    if (daysOfMonth.test(day, dayOfWeek, length, first) && daysOfWeek.test(day, dayOfWeek, length, first)) {
+                        mask |= 1 << day;
+                    }
+                }
+                masks[shapeIndex(length, first)] = mask;
+            }
+        }
+        return masks;
+    }
+
+    private int shapeMask(LocalDate date) {
+        int dayOfMonth = date.getDayOfMonth();
+        int dayOfWeek = date.getDayOfWeek().getValue();
+        int first = Math.floorMod(dayOfWeek - 1 - (dayOfMonth - 1), 7) + 1;
+        return shapeMasks[shapeIndex(date.lengthOfMonth(), first)];
+    }
+
+    private static int shapeIndex(int length, int firstDayOfWeek) {
+        return (length - 28) * 7 + (firstDayOfWeek - 1);
+    }
+
+    private static int weekdayOf(int dayOfMonth, int firstDayOfWeek) {
+        return (firstDayOfWeek - 1 + dayOfMonth - 1) % 7 + 1;
+    }
+
+    // --- field parsing, following Spring's CronField rules ---
+
+    private static String resolveMacros(String expression) {
+        for (int i = 0; i < MACROS.length; i += 2) {
+            if (MACROS[i].equalsIgnoreCase(expression)) {
+                return MACROS[i + 1];
+            }
+        }
+        return expression;
+    }
+
+    private static String replaceNames(String value, String[] names) {
+        value = value.toUpperCase(Locale.ROOT);
+        for (int i = 0; i < names.length; i++) {
+            value = value.replace(names[i], Integer.toString(i + 1));
+        }
+        return value;
+    }
+
+    private static DayPredicate parseDaysOfMonth(String value, DayPredicate daysOfWeek) {
+        if (!value.contains("L") && !value.contains("W")) {
+            long bits = parseBits(value, 1, 31, true);
+            return (d, w, l, f) -> (bits & (1L << d)) != 0;
+        }
+
+        DayPredicate result = null;
+        for (String part : value.split(",", -1)) {
+            DayPredicate predicate;
+            if (part.contains("L") || part.contains("W")) {
+                predicate = parseQuartzDayOfMonth(part, daysOfWeek);
+            } else {
+                long bits = parseBits(part, 1, 31, true);
+                predicate = (d, w, l, f) -> (bits & (1L << d)) != 0;
+            }
+            result = result == null ? predicate : result.or(predicate);
+        }
+        return result;
+    }
+
+    private static DayPredicate parseQuartzDayOfMonth(String value, DayPredicate daysOfWeek) {
+        int idx = value.lastIndexOf('L');
+        if (idx != -1) {
+            if (idx != 0) {
+                throw new IllegalArgumentException("Unrecognized characters before 'L' in '" + value + "'");
+            }
+            if (value.length() == 2 && value.charAt(1) == 'W') {
+                // LW: last weekday of the month
+                return (d, w, l, f) -> d == lastWeekday(l, f);
+            }
+            if (value.length() == 1) {
+                // L: last day of the month
+                return (d, w, l, f) -> d == l;
+            }
+            // L-n: n days before the last day of the month
+            int offset = Integer.parseInt(value, 1, value.length(), 10);
+            if (offset >= 0) {
+                throw new IllegalArgumentException("Offset '" + offset + "' should be < 0 in '" + value + "'");
+            }
+            if (offset < -27) {
+                // would land in the previous month for short months, where Spring's search
+                // does not follow a simple per-month rule
+                throw new IllegalArgumentException("Offset '" + offset + "' reaches outside the month in '" + value + "'");
+            }
+            return (d, w, l, f) -> d == l + offset;
+        }
+
+        idx = value.lastIndexOf('W');
+        if (idx == 0) {
+            throw new IllegalArgumentException("No day-of-month before 'W' in '" + value + "'");
+        }
+        if (idx != value.length() - 1) {
+            throw new IllegalArgumentException("Unrecognized characters after 'W' in '" + value + "'");
+        }
+
+        // nW: weekday nearest to day n, without leaving the month. Two further days only
+        // match when Spring's search reaches them through the day-of-week field, i.e. when
+        // that field rejects the day before: Monday the 3rd after a Saturday 1st, and a
+        // Friday last day in a month that is one day short of day n.
+        int target = checkRange(Integer.parseInt(value, 0, idx, 10), 1, 31);
+        return (d, w, l, f) -> (target <= l
+                    && ((d == target && w <= 5)
+                        || (w == 5 && d == target - 1)
+                        || (w == 1 && d == target + 1)
+                        || (w == 1 && target == 1 && d == 3 && !daysOfWeek.test(2, 7, l, f))))
+                || (w == 5 && target == l + 1 && d == l && !daysOfWeek.test(l - 1, 4, l, f));
+    }
+
+    private static DayPredicate parseDaysOfWeek(String value) {
+        if (!value.contains("L") && !value.contains("#")) {
+            long bits = dayOfWeekBits(value);
+            return (d, w, l, f) -> (bits & (1L << w)) != 0;
+        }
+
+        DayPredicate result = null;
+        for (String part : value.split(",", -1)) {
+            DayPredicate predicate;
+            if (part.contains("L") || part.contains("#")) {
+                predicate = parseQuartzDayOfWeek(part);
+            } else {
+                long bits = dayOfWeekBits(part);
+                predicate = (d, w, l, f) -> (bits & (1L << w)) != 0;
+            }
+            result = result == null ? predicate : result.or(predicate);
+        }
+        return result;
+    }
+
+    private static DayPredicate parseQuartzDayOfWeek(String value) {
+        int idx = value.lastIndexOf('L');
+        if (idx != -1) {
+            if (idx != value.length() - 1) {
+                throw new IllegalArgumentException("Unrecognized characters after 'L' in '" + value + "'");
+            }
+            if (idx == 0) {
+                throw new IllegalArgumentException("No day-of-week before 'L' in '" + value + "'");
+            }
+            // nL: last given weekday of the month
+            int dayOfWeek = parseDayOfWeek(value.substring(0, idx));
+            return (d, w, l, f) -> w == dayOfWeek && d + 7 > l;
+        }
+
+        idx = value.lastIndexOf('#');
+        if (idx == 0) {
+            throw new IllegalArgumentException("No day-of-week before '#' in '" + value + "'");
+        }
+        if (idx == value.length() - 1) {
+            throw new IllegalArgumentException("No ordinal after '#' in '" + value + "'");
+        }
+
+        // n#k: k-th given weekday of the month
+        int dayOfWeek = parseDayOfWeek(value.substring(0, idx));
+        int ordinal = Integer.parseInt(value, idx + 1, value.length(), 10);
+        if (ordinal <= 0) {
+            throw new IllegalArgumentException("Ordinal '" + ordinal + "' in '" + value + "' must be positive number");
+        }
+        return (d, w, l, f) -> w == dayOfWeek && (d - 1) / 7 + 1 == ordinal;
+    }
+
+    private static int parseDayOfWeek(String value) {
+        int dayOfWeek = Integer.parseInt(value);
+        if (dayOfWeek == 0) dayOfWeek = 7;
+        return checkRange(dayOfWeek, 1, 7);
+    }
+
+    private static long dayOfWeekBits(String value) {
+        long bits = parseBits(value, 1, 7, true);
+        // 0 and 7 both mean Sunday
+        if ((bits & 1L) != 0) {
+            bits = (bits & ~1L) | (1L << 7);
+        }
+        return bits;
+    }
+
+    private static long parseBits(String value, int min, int max, boolean dateField) {
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException("Value must not be empty");
+        }
+        if (dateField && value.equals("?")) {
+            value = "*";
+        }
+
+        boolean dayOfWeek = dateField && max == 7;
+        long bits = 0;
+        for (String field : value.split(",", -1)) {
+            int slash = field.indexOf('/');
+            if (slash == -1) {
+                int[] range = parseRange(field, min, max, dayOfWeek);
+                bits |= rangeBits(range[0], range[1], 1);
+            } else {
+                String rangePart = field.substring(0, slash);
+                int[] range = parseRange(rangePart, min, max, dayOfWeek);
+                if (rangePart.indexOf('-') == -1) {
+                    range[1] = max;
+                }
+                int delta = Integer.parseInt(field.substring(slash + 1));
+                if (delta <= 0) {
+                    throw new IllegalArgumentException("Incrementer delta must be 1 or higher");
+                }
+                bits |= rangeBits(range[0], range[1], delta);
+            }
+        }
+        return bits;
+    }
+
+    private static int[] parseRange(String value, int min, int max, boolean dayOfWeek) {
+        if (value.equals("*")) {
+            return new int[] {min, max};
+        }
+
+        int hyphen = value.indexOf('-');
+        if (hyphen == -1) {
+            int single = checkValue(Integer.parseInt(value), min, max, dayOfWeek);
+            return new int[] {single, single};
+        }
+
+        int from = checkValue(Integer.parseInt(value, 0, hyphen, 10), min, max, dayOfWeek);
+        int to = checkValue(Integer.parseInt(value, hyphen + 1, value.length(), 10), min, max, dayOfWeek);
+        if (dayOfWeek && from == 7) {
+            // Sunday as the start of a range means 0, not 7
+            from = 0;
+        }
+        if (from > to) {
+            throw new IllegalArgumentException("Minimum value " + from + " must be less than maximum value " + to);
+        }
+        return new int[] {from, to};
+    }
+
+    private static int checkValue(int value, int min, int max, boolean dayOfWeek) {
+        if (dayOfWeek && value == 0) return 0;
+        return checkRange(value, min, max);
+    }
+
+    private static int checkRange(int value, int min, int max) {
+        if (value < min || value > max) {
+            throw new IllegalArgumentException("Value " + value + " outside of range " + min + "-" + max);
+        }
+        return value;
+    }
+
+    private static long rangeBits(int from, int to, int delta) {
+        long bits = 0;
+        for (int i = from; i <= to; i += delta) {
+            bits |= 1L << i;
+        }
+        return bits;
+    }
+
+    private static int lastWeekday(int length, int firstDayOfWeek) {
+        int lastDayOfWeek = weekdayOf(length, firstDayOfWeek);
+        if (lastDayOfWeek == 6) return length - 1;
+        if (lastDayOfWeek == 7) return length - 2;
+        return length;
+    }
+}
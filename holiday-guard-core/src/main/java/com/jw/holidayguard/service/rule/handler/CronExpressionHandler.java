@@ -1,6 +1,8 @@
 package com.jw.holidayguard.service.rule.handler;
 
 import com.jw.holidayguard.domain.Rule;
+import com.jw.holidayguard.service.rule.CompiledRule;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import org.springframework.scheduling.support.CronExpression;
@@ -39,39 +41,79 @@ import static com.jw.holidayguard.domain.Rule.RuleType.CRON_EXPRESSION;
  * be set to start of day, for example {@code "0 0 0 ..."}.
  * <p>
  * Example: To run on the 15th of every month, the expression would be {@code "0 0 0 15 * ?"}.
+ * <p>
+ * Dates are evaluated by {@link CronDateExpression}, which compiles the date fields to bitmasks
+ * (including {@code L}, {@code W} and {@code #}) instead of searching with
+ * {@link CronExpression#next} for every day.
  */
+@Slf4j
 @Service
 public class CronExpressionHandler implements RuleHandler {
 
     @Override
     public List<LocalDate> generateDates(Rule rule, LocalDate from, LocalDate to) {
-        CronExpression cron = CronExpression.parse(rule.getRuleConfig());
+        CronDateExpression dates = compileDates(rule.getRuleConfig());
+        if (dates != null) {
+            return dates.runDates(from, to);
+        }
 
-        var dates = new ArrayList<LocalDate>();
+        // only expressions the date compiler rejects get here; Spring's parser reports invalid ones
+        CronExpression cron = CronExpression.parse(rule.getRuleConfig());
+        var result = new ArrayList<LocalDate>();
 
         LocalDate day = from;
 
         while (!day.isAfter(to)) {
-            // Find next execution after yesterday - if it's today, then it runs today
-            LocalDateTime nextExecution = cron.next(day.atStartOfDay().minusDays(1));
-            if (nextExecution != null && nextExecution.toLocalDate().equals(day)) {
-                dates.add(day);
+            if (runsOn(cron, day)) {
+                result.add(day);
             }
             day = day.plusDays(1);
         }
 
-        return dates;
+        return result;
     }
 
     @Override
     public boolean shouldRun(Rule rule, LocalDate date) {
+        return compile(rule).shouldRun(date);
+    }
+
+    /**
+     * Parses the cron expression once. The date fields are compiled to bitmasks by
+     * {@link CronDateExpression}; Spring's parser is still run first so validation and error
+     * messages are unchanged, and is used directly for anything the date compiler rejects.
+     *
+     * @throws IllegalArgumentException if the expression cannot be parsed
+     */
+    @Override
+    public CompiledRule compile(Rule rule) {
         CronExpression cron = CronExpression.parse(rule.getRuleConfig());
-        LocalDateTime nextExecution = cron.next(date.atStartOfDay().minusDays(1));
-        return nextExecution != null && nextExecution.toLocalDate().equals(date);
+
+        CronDateExpression dates = compileDates(rule.getRuleConfig());
+        if (dates != null) {
+            return dates::shouldRun;
+        }
+
+        return date -> runsOn(cron, date);
     }
 
     @Override
     public Rule.RuleType getSupportedRuleType() {
         return CRON_EXPRESSION;
     }
+
+    private static CronDateExpression compileDates(String expression) {
+        try {
+            return CronDateExpression.parse(expression);
+        } catch (IllegalArgumentException e) {
+            log.debug("Falling back to per-day cron evaluation for '{}': {}", expression, e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean runsOn(CronExpression cron, LocalDate date) {
+        // Find next execution after yesterday - if it's today, then it runs today
+        LocalDateTime nextExecution = cron.next(date.atStartOfDay().minusDays(1));
+        return nextExecution != null && nextExecution.toLocalDate().equals(date);
+    }
 }
@@ -1,6 +1,7 @@
 package com.jw.holidayguard.service.rule.handler;
 
 import com.jw.holidayguard.domain.Rule;
+import com.jw.holidayguard.service.rule.CompiledRule;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
@@ -24,11 +25,16 @@ public class NoDaysHandler implements RuleHandler {
 
     @Override
     public List<LocalDate> generateDates(Rule rule, LocalDate from, LocalDate to) {
-        return from.datesUntil(to.plusDays(1)).toList();
+        return List.of();
     }
 
     @Override
     public boolean shouldRun(Rule rule, LocalDate date) {
         return false;
     }
+
+    @Override
+    public CompiledRule compile(Rule rule) {
+        return date -> false;
+    }
 }
@@ -1,6 +1,7 @@
 package com.jw.holidayguard.service.rule.handler;
 
 import com.jw.holidayguard.domain.Rule;
+import com.jw.holidayguard.service.rule.CompiledRule;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -30,6 +31,21 @@ public interface RuleHandler {
      */
     boolean shouldRun(Rule rule, LocalDate date);
 
+    /**
+     * Parses and validates the rule once, returning a predicate that answers
+     * {@link #shouldRun(Rule, LocalDate)} for any date without repeating that work.
+     * <p>
+     * The default simply delegates to {@code shouldRun}; handlers whose rules carry
+     * configuration that is costly to interpret should override it.
+     *
+     * @param rule The schedule rule to compile
+     * @return An immutable, thread-safe predicate for the rule
+     * @throws IllegalArgumentException if the rule configuration is invalid
+     */
+    default CompiledRule compile(Rule rule) {
+        return date -> shouldRun(rule, date);
+    }
+
     /**
      * Returns the rule type this handler supports.
      */
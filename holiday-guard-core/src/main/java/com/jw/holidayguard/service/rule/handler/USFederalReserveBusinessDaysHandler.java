@@ -1,24 +1,44 @@
 package com.jw.holidayguard.service.rule.handler;
 
 import com.jw.holidayguard.domain.Rule;
-import com.jw.holidayguard.util.USFederalReserveScheduleFactory.USFederalHolidays;
+import com.jw.holidayguard.util.USFederalHolidayTable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.util.List;
 
 import static com.jw.holidayguard.domain.Rule.RuleType.US_FEDERAL_RESERVE_BUSINESS_DAYS;
-import static java.time.DayOfWeek.SATURDAY;
-import static java.time.DayOfWeek.SUNDAY;
 
 /**
  * Provides business logic used to populate a US Fed Business day calendar
  * (basically weekdays, excluding federal holidays)
+ * <p>
+ * Answers come from a precomputed {@link USFederalHolidayTable}; the years it precomputes are
+ * set with {@code app.holidays.first-year} / {@code app.holidays.last-year}.
  */
 @Component
 public class USFederalReserveBusinessDaysHandler implements RuleHandler {
 
+    private final USFederalHolidayTable holidays;
+
+    /**
+     * Uses the shared default table.
+     */
+    public USFederalReserveBusinessDaysHandler() {
+        this.holidays = USFederalHolidayTable.getDefault();
+    }
+
+    @Autowired
+    public USFederalReserveBusinessDaysHandler(
+            @Value("${app.holidays.first-year:" + USFederalHolidayTable.DEFAULT_FIRST_YEAR + "}") int firstYear,
+            @Value("${app.holidays.last-year:" + USFederalHolidayTable.DEFAULT_LAST_YEAR + "}") int lastYear) {
+        this.holidays = firstYear == USFederalHolidayTable.DEFAULT_FIRST_YEAR && lastYear == USFederalHolidayTable.DEFAULT_LAST_YEAR
+                ? USFederalHolidayTable.getDefault()
+                : new USFederalHolidayTable(firstYear, lastYear);
+    }
+
     @Override
     public Rule.RuleType getSupportedRuleType() {
         return US_FEDERAL_RESERVE_BUSINESS_DAYS;
@@ -26,24 +46,12 @@ public class USFederalReserveBusinessDaysHandler implements RuleHandler {
 
     @Override
     public List<LocalDate> generateDates(Rule rule, LocalDate from, LocalDate to) {
-        return from.datesUntil(to.plusDays(1))
-                .filter(this::isBusinessDay)
-                .toList();
+        return holidays.getBusinessDays(from, to);
     }
 
     @Override
     public boolean shouldRun(Rule rule, LocalDate date) {
-        return isBusinessDay(date);
-    }
-
-    private boolean isBusinessDay(LocalDate date) {
-
-        // weekends are not business days
-        DayOfWeek day = date.getDayOfWeek();
-        if (day == SATURDAY || day == SUNDAY) return false;
-
-        // holidays are not business days
-        List<LocalDate> holidays = USFederalHolidays.getHolidays(date.getYear());
-        return ! holidays.contains(date);
+        // weekends and holidays are not business days
+        return holidays.isBusinessDay(date);
     }
 }
\ No newline at end of file
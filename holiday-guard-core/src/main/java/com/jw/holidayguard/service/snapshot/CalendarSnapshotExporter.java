@@ -0,0 +1,63 @@
+package com.jw.holidayguard.service.snapshot;
+
+import com.jw.holidayguard.domain.Schedule;
+import com.jw.holidayguard.repository.DataProvider;
+import com.jw.holidayguard.repository.ScheduleRepository;
+import com.jw.holidayguard.service.CalendarCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Exports every schedule's compiled calendar as a snapshot file for {@link CalendarSnapshotFile}
+ * readers: servers started with {@code app.calendar-snapshot.file} and the CLI.
+ *
+ * <p>Calendars come from the {@link CalendarCache}, loaded {@value #CHUNK_SIZE} schedules at a
+ * time without filling the cache. Schedules without an active version or rule are left out.
+ * The file's source is the {@link DataProvider#getDataSourceId()} of the data exported, which
+ * servers compare with their own before using it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class CalendarSnapshotExporter {
+
+    static final int CHUNK_SIZE = 1_000;
+
+    private final ScheduleRepository scheduleRepository;
+    private final CalendarCache calendarCache;
+    private final DataProvider dataProvider;
+
+    /**
+     * Collects every schedule's calendar into a writer; nothing is written until the caller
+     * calls {@link CalendarSnapshotWriter#writeTo}.
+     *
+     * @param firstYear first year to store rule bitmaps for, or {@code null} for none
+     * @param lastYear  last year to store rule bitmaps for (inclusive)
+     * @throws IllegalArgumentException if the bitmap year range is invalid
+     */
+    public CalendarSnapshotWriter export(Integer firstYear, Integer lastYear) {
+        CalendarSnapshotWriter writer = new CalendarSnapshotWriter().withSource(dataProvider.getDataSourceId());
+        if (firstYear != null || lastYear != null) {
+            if (firstYear == null || lastYear == null) {
+                throw new IllegalArgumentException("Both firstYear and lastYear are required for year bitmaps");
+            }
+            writer.withYearBitmaps(firstYear, lastYear);
+        }
+
+        List<Long> scheduleIds = scheduleRepository.findAll().stream()
+                .map(Schedule::getId)
+                .toList();
+        for (int from = 0; from < scheduleIds.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = scheduleIds.subList(from, Math.min(from + CHUNK_SIZE, scheduleIds.size()));
+            calendarCache.getAllUncached(chunk).values().forEach(writer::add);
+        }
+
+        log.info("Exporting {} of {} schedules to calendar snapshot", writer.size(), scheduleIds.size());
+        return writer;
+    }
+}
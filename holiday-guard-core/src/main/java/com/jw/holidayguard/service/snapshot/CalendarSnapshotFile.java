@@ -0,0 +1,412 @@
+package com.jw.holidayguard.service.snapshot;
+
+import com.jw.holidayguard.domain.Calendar;
+import com.jw.holidayguard.domain.Deviation;
+import com.jw.holidayguard.domain.Rule;
+import com.jw.holidayguard.domain.RunStatus;
+import com.jw.holidayguard.domain.Schedule;
+import com.jw.holidayguard.service.rule.CompiledRule;
+import com.jw.holidayguard.service.rule.RuleEngine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.jw.holidayguard.service.snapshot.CalendarSnapshotFormat.*;
+
+/**
+ * A calendar snapshot file ({@code .hgsnap}), memory-mapped and answered in place.
+ *
+ * <p>Opening a file maps it and checks its header; nothing else is read, so opening takes
+ * the same time for ten schedules as for a hundred thousand. Lookups by schedule id are a
+ * binary search over the fixed-size entries and lookups by name probe a hash index, both
+ * directly in the mapped buffer. Evaluating a date searches the schedule's sorted deviation
+ * days, then reads the rule's answer from the year bitmap when the file has one for that year.
+ * Only for other years is the rule compiled, once per entry, with the given {@link RuleEngine}.
+ *
+ * <p>Instances are immutable views and safe to share between threads. The mapping stays
+ * valid after the file is replaced on disk (writers move a new file into place), so a reader
+ * keeps answering from the snapshot it opened until it opens the new one.
+ *
+ * @see CalendarSnapshotWriter
+ */
+public final class CalendarSnapshotFile {
+
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final RuleEngine ruleEngine;
+
+    private final int count;
+    private final int firstYear;
+    private final int years;
+    private final int deviationsOffset;
+    private final int reasonsOffset;
+    private final int nameIndexOffset;
+    private final int nameIndexSlots;
+    private final int bitmapsOffset;
+    private final int stringsOffset;
+
+    private final AtomicReferenceArray<CompiledRule> compiledRules;
+
+    private CalendarSnapshotFile(Path file, ByteBuffer buffer, RuleEngine ruleEngine) throws IOException {
+        this.file = file;
+        this.buffer = buffer;
+        this.ruleEngine = ruleEngine;
+
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(H_MAGIC) != MAGIC) {
+            throw new IOException("Not a calendar snapshot file: " + file);
+        }
+        if (buffer.getShort(H_VERSION) > VERSION) {
+            throw new IOException("Calendar snapshot " + file + " has format version " + buffer.getShort(H_VERSION)
+                    + "; this reader supports up to " + VERSION);
+        }
+        if (buffer.getInt(H_FILE_LENGTH) != buffer.capacity()) {
+            throw new IOException("Calendar snapshot " + file + " is truncated: expected " + buffer.getInt(H_FILE_LENGTH)
+                    + " bytes, found " + buffer.capacity());
+        }
+
+        this.count = buffer.getInt(H_ENTRY_COUNT);
+        boolean bitmaps = (buffer.getShort(H_FLAGS) & FLAG_BITMAPS) != 0;
+        this.firstYear = bitmaps ? buffer.getShort(H_BITMAP_FIRST_YEAR) : 0;
+        this.years = bitmaps ? buffer.getShort(H_BITMAP_YEARS) : 0;
+        this.deviationsOffset = buffer.getInt(H_DEVIATIONS);
+        this.reasonsOffset = buffer.getInt(H_REASONS);
+        this.nameIndexOffset = buffer.getInt(H_NAME_INDEX);
+        this.nameIndexSlots = buffer.getInt(H_NAME_INDEX_SLOTS);
+        this.bitmapsOffset = buffer.getInt(H_BITMAPS);
+        this.stringsOffset = buffer.getInt(H_STRINGS);
+        this.compiledRules = new AtomicReferenceArray<>(count);
+    }
+
+    /**
+     * Maps the file read-only.
+     *
+     * @param ruleEngine compiles rules for dates outside the file's year bitmaps
+     * @throws IOException if the file cannot be read, is not a snapshot, or was written by a
+     *                     newer format version
+     */
+    public static CalendarSnapshotFile open(Path file, RuleEngine ruleEngine) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Not a calendar snapshot file (over 2 GB): " + file);
+            }
+            return new CalendarSnapshotFile(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), ruleEngine);
+        }
+    }
+
+    /**
+     * Whether the file starts with the snapshot magic number, so callers can accept either a
+     * snapshot or another format at the same option.
+     */
+    public static boolean isSnapshot(Path file) {
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] magic = in.readNBytes(Integer.BYTES);
+            return magic.length == Integer.BYTES && ByteBuffer.wrap(magic).getInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public Instant exportedAt() {
+        return Instant.ofEpochMilli(buffer.getLong(H_EXPORTED_AT));
+    }
+
+    /**
+     * @return what the snapshot was compiled from, as given to
+     *         {@link CalendarSnapshotWriter#withSource(String)}, or empty if not recorded
+     */
+    public Optional<String> source() {
+        if ((buffer.getShort(H_FLAGS) & FLAG_SOURCE) == 0) return Optional.empty();
+        return Optional.ofNullable(string(buffer.getInt(H_SOURCE)));
+    }
+
+    /**
+     * @return whether the rule's answers for {@code year} are stored in the file
+     */
+    public boolean hasBitmap(int year) {
+        return year >= firstYear && year < firstYear + years;
+    }
+
+    /**
+     * The entries in schedule id order.
+     */
+    public List<Entry> entries() {
+        return new AbstractList<>() {
+            @Override
+            public Entry get(int index) {
+                if (index < 0 || index >= count) throw new IndexOutOfBoundsException(index);
+                return new Entry(index);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    public Optional<Entry> find(long scheduleId) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long id = buffer.getLong(entryOffset(mid) + E_SCHEDULE_ID);
+            if (id < scheduleId) {
+                low = mid + 1;
+            } else if (id > scheduleId) {
+                high = mid - 1;
+            } else {
+                return Optional.of(new Entry(mid));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Finds a schedule by name, ignoring case. Where names differ only in case, the entry
+     * with the lowest schedule id is returned.
+     */
+    public Optional<Entry> findByName(String name) {
+        if (name == null || count == 0) return Optional.empty();
+
+        int mask = nameIndexSlots - 1;
+        for (int slot = nameHash(name) & mask; ; slot = (slot + 1) & mask) {
+            int value = buffer.getInt(nameIndexOffset + slot * Integer.BYTES);
+            if (value == 0) return Optional.empty();
+
+            Entry entry = new Entry(value - 1);
+            if (name.equalsIgnoreCase(entry.name())) return Optional.of(entry);
+        }
+    }
+
+    /**
+     * Schedule names in schedule id order, for listing and error messages.
+     */
+    public List<String> names() {
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(new Entry(i).name());
+        }
+        return names;
+    }
+
+    private static int entryOffset(int index) {
+        return HEADER_SIZE + index * ENTRY_SIZE;
+    }
+
+    private String string(int ref) {
+        if (ref == NO_REF) return null;
+        int position = stringsOffset + ref;
+        byte[] utf8 = new byte[buffer.getInt(position)];
+        buffer.get(position + Integer.BYTES, utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * One schedule's compiled calendar, read from the mapped file on each call.
+     */
+    public final class Entry {
+
+        private final int index;
+        private final int offset;
+
+        private Entry(int index) {
+            this.index = index;
+            this.offset = entryOffset(index);
+        }
+
+        public long scheduleId() {
+            return buffer.getLong(offset + E_SCHEDULE_ID);
+        }
+
+        public Long versionId() {
+            return value(E_VERSION_ID);
+        }
+
+        public Long ruleId() {
+            return value(E_RULE_ID);
+        }
+
+        public Instant versionEffectiveFrom() {
+            Long millis = value(E_EFFECTIVE_FROM);
+            return millis != null ? Instant.ofEpochMilli(millis) : null;
+        }
+
+        public String name() {
+            return string(buffer.getInt(offset + E_NAME));
+        }
+
+        public boolean active() {
+            return (buffer.getInt(offset + E_FLAGS) & FLAG_ACTIVE) != 0;
+        }
+
+        /**
+         * @throws IllegalArgumentException if the rule type is unknown to this version
+         */
+        public Rule.RuleType ruleType() {
+            String ruleType = string(buffer.getInt(offset + E_RULE_TYPE));
+            return ruleType != null ? Rule.RuleType.valueOf(ruleType) : null;
+        }
+
+        public String ruleConfig() {
+            return string(buffer.getInt(offset + E_RULE_CONFIG));
+        }
+
+        public int deviationCount() {
+            return buffer.getInt(offset + E_DEVIATION_COUNT);
+        }
+
+        public Schedule schedule() {
+            return Schedule.builder()
+                    .id(scheduleId())
+                    .name(name())
+                    .country(string(buffer.getInt(offset + E_COUNTRY)))
+                    .active(active())
+                    .build();
+        }
+
+        public Rule rule() {
+            return Rule.builder()
+                    .id(value(E_RULE_ID))
+                    .scheduleId(scheduleId())
+                    .versionId(versionId())
+                    .ruleType(ruleType())
+                    .ruleConfig(ruleConfig())
+                    .build();
+        }
+
+        /**
+         * The deviations, sorted by date.
+         */
+        public List<Deviation> deviations() {
+            int first = buffer.getInt(offset + E_FIRST_DEVIATION);
+            int deviationCount = deviationCount();
+            List<Deviation> deviations = new ArrayList<>(deviationCount);
+            for (int i = first; i < first + deviationCount; i++) {
+                deviations.add(deviation(i));
+            }
+            return deviations;
+        }
+
+        public Optional<Deviation> findDeviation(LocalDate date) {
+            int found = searchDeviation(date);
+            return found >= 0 ? Optional.of(deviation(found)) : Optional.empty();
+        }
+
+        /**
+         * The rule's answer for the date, deviations not applied: from the year bitmap when
+         * the file has one, otherwise from the compiled rule.
+         *
+         * @throws IllegalArgumentException if the rule configuration is invalid
+         * @throws UnsupportedOperationException if no handler supports the rule type
+         */
+        public boolean ruleShouldRun(LocalDate date) {
+            int year = date.getYear();
+            if (hasBitmap(year)) {
+                int day = date.getDayOfYear() - 1;
+                int position = bitmapsOffset + ((index * years) + (year - firstYear)) * BITMAP_SIZE + (day >>> 6) * Long.BYTES;
+                return (buffer.getLong(position) >>> (day & 63) & 1L) != 0;
+            }
+            return compiledRule().shouldRun(date);
+        }
+
+        public boolean shouldRun(LocalDate date) {
+            int found = searchDeviation(date);
+            return found >= 0 ? forceRun(found) : ruleShouldRun(date);
+        }
+
+        /**
+         * FORCE_RUN/FORCE_SKIP when a deviation applies, otherwise RUN/SKIP from the rule;
+         * the same answer {@link Calendar#runStatus(LocalDate)} gives.
+         */
+        public RunStatus runStatus(LocalDate date) {
+            int found = searchDeviation(date);
+            if (found >= 0) {
+                return forceRun(found) ? RunStatus.FORCE_RUN : RunStatus.FORCE_SKIP;
+            }
+            return RunStatus.fromCalendar(ruleShouldRun(date));
+        }
+
+        /**
+         * A {@link Calendar} for this entry. Its deviations are decoded once; its rule is
+         * answered by {@link #ruleShouldRun(LocalDate)}.
+         */
+        public Calendar calendar() {
+            return calendar(schedule());
+        }
+
+        /**
+         * As {@link #calendar()}, for a schedule loaded from elsewhere.
+         */
+        public Calendar calendar(Schedule schedule) {
+            return new Calendar(schedule, rule(), deviations(), (r, date) -> ruleShouldRun(date));
+        }
+
+        private Long value(int field) {
+            long value = buffer.getLong(offset + field);
+            return value != NO_VALUE ? value : null;
+        }
+
+        private int searchDeviation(LocalDate date) {
+            long epochDay = date.toEpochDay();
+            int low = buffer.getInt(offset + E_FIRST_DEVIATION);
+            int high = low + deviationCount() - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                long day = buffer.getInt(deviationsOffset + mid * Integer.BYTES) >> 1;
+                if (day < epochDay) {
+                    low = mid + 1;
+                } else if (day > epochDay) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+
+        private boolean forceRun(int deviation) {
+            return (buffer.getInt(deviationsOffset + deviation * Integer.BYTES) & 1) != 0;
+        }
+
+        private Deviation deviation(int deviation) {
+            int packed = buffer.getInt(deviationsOffset + deviation * Integer.BYTES);
+            return Deviation.builder()
+                    .scheduleId(scheduleId())
+                    .versionId(versionId())
+                    .deviationDate(LocalDate.ofEpochDay(packed >> 1))
+                    .action((packed & 1) != 0 ? RunStatus.FORCE_RUN : RunStatus.FORCE_SKIP)
+                    .reason(string(buffer.getInt(reasonsOffset + deviation * Integer.BYTES)))
+                    .build();
+        }
+
+        private CompiledRule compiledRule() {
+            CompiledRule compiled = compiledRules.get(index);
+            if (compiled == null) {
+                compiled = ruleEngine.compile(rule());
+                compiledRules.compareAndSet(index, null, compiled);
+            }
+            return compiled;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.jw.holidayguard.service.snapshot;
+
+import java.util.Locale;
+
+/**
+ * Layout of a calendar snapshot file ({@code .hgsnap}), version 1.
+ *
+ * <p>All numbers are big-endian. Offsets are absolute byte positions unless noted, and the
+ * whole file is at most 2 GB so every offset fits an {@code int}.
+ *
+ * <pre>
+ * Header (64 bytes)
+ *   0  int    magic "HGSN"
+ *   4  short  format version
+ *   6  short  flags: bit 0 = year bitmaps present, bit 1 = source present
+ *   8  int    entry count
+ *  12  short  first bitmap year
+ *  14  short  bitmap year count
+ *  16  long   export time, epoch millis
+ *  24  int    deviations offset       int[deviation count]: epochDay * 2 + (FORCE_RUN ? 1 : 0)
+ *  28  int    deviation count
+ *  32  int    reasons offset          int[deviation count]: string ref of each deviation's reason
+ *  36  int    name index offset       int[slots]: entry index + 1, 0 = empty slot
+ *  40  int    name index slots        a power of two
+ *  44  int    bitmaps offset          entry count * year count * 48 bytes, 8-byte aligned
+ *  48  int    strings offset
+ *  52  int    strings length
+ *  56  int    file length
+ *  60  int    source ref              what the snapshot was compiled from; only with flag bit 1
+ *
+ * Entries (64 bytes each, sorted by schedule id)
+ *   0  long   schedule id
+ *   8  long   active version id
+ *  16  long   rule id                 NO_VALUE if none
+ *  24  long   version effective from, epoch millis, NO_VALUE if none
+ *  32  int    name ref
+ *  36  int    country ref
+ *  40  int    rule type ref           the {@code Rule.RuleType} name
+ *  44  int    rule config ref
+ *  48  int    first deviation index
+ *  52  int    deviation count         sorted by date, one per date
+ *  56  int    flags: bit 0 = schedule active
+ *  60  int    reserved
+ *
+ * Strings: int UTF-8 byte length, then the bytes. A string ref is the string's offset from
+ * the start of the strings section, or NO_REF; equal strings are stored once.
+ *
+ * Year bitmap: 6 longs; bit (day of year - 1), counted from the low bit of the first long,
+ * is the rule's answer for that day. Deviations are not applied. This is
+ * YearCalendar.getRunBits() of the rule-only year.
+ * </pre>
+ *
+ * <p>Readers reject files with another magic or a newer format version. Fields are only
+ * ever added in the reserved space or behind a new flag, so a version 1 reader keeps working
+ * on files written by a later version 1 writer.
+ */
+final class CalendarSnapshotFormat {
+
+    static final int MAGIC = 0x4847534E; // "HGSN"
+    static final short VERSION = 1;
+
+    static final int FLAG_BITMAPS = 1;
+    static final int FLAG_SOURCE = 2;
+    static final int FLAG_ACTIVE = 1;
+
+    static final int HEADER_SIZE = 64;
+    static final int ENTRY_SIZE = 64;
+    static final int BITMAP_LONGS = 6;
+    static final int BITMAP_SIZE = BITMAP_LONGS * Long.BYTES;
+
+    static final int NO_REF = -1;
+    static final long NO_VALUE = Long.MIN_VALUE;
+
+    // header fields
+    static final int H_MAGIC = 0;
+    static final int H_VERSION = 4;
+    static final int H_FLAGS = 6;
+    static final int H_ENTRY_COUNT = 8;
+    static final int H_BITMAP_FIRST_YEAR = 12;
+    static final int H_BITMAP_YEARS = 14;
+    static final int H_EXPORTED_AT = 16;
+    static final int H_DEVIATIONS = 24;
+    static final int H_DEVIATION_COUNT = 28;
+    static final int H_REASONS = 32;
+    static final int H_NAME_INDEX = 36;
+    static final int H_NAME_INDEX_SLOTS = 40;
+    static final int H_BITMAPS = 44;
+    static final int H_STRINGS = 48;
+    static final int H_STRINGS_LENGTH = 52;
+    static final int H_FILE_LENGTH = 56;
+    static final int H_SOURCE = 60;
+
+    // entry fields
+    static final int E_SCHEDULE_ID = 0;
+    static final int E_VERSION_ID = 8;
+    static final int E_RULE_ID = 16;
+    static final int E_EFFECTIVE_FROM = 24;
+    static final int E_NAME = 32;
+    static final int E_COUNTRY = 36;
+    static final int E_RULE_TYPE = 40;
+    static final int E_RULE_CONFIG = 44;
+    static final int E_FIRST_DEVIATION = 48;
+    static final int E_DEVIATION_COUNT = 52;
+    static final int E_FLAGS = 56;
+
+    private CalendarSnapshotFormat() {
+    }
+
+    /**
+     * Hash used by the name index; names match case-insensitively.
+     */
+    static int nameHash(String name) {
+        int h = name.toLowerCase(Locale.ROOT).hashCode();
+        return h ^ (h >>> 16);
+    }
+}
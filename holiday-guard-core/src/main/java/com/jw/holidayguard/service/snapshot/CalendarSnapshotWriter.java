@@ -0,0 +1,284 @@
+package com.jw.holidayguard.service.snapshot;
+
+import com.jw.holidayguard.domain.Calendar;
+import com.jw.holidayguard.domain.Deviation;
+import com.jw.holidayguard.domain.Rule;
+import com.jw.holidayguard.domain.RunStatus;
+import com.jw.holidayguard.domain.Schedule;
+import com.jw.holidayguard.domain.YearCalendar;
+import com.jw.holidayguard.service.CalendarSnapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static com.jw.holidayguard.service.snapshot.CalendarSnapshotFormat.*;
+
+/**
+ * Writes compiled calendars to a snapshot file ({@code .hgsnap}) that
+ * {@link CalendarSnapshotFile} memory-maps; see {@link CalendarSnapshotFormat} for the layout.
+ *
+ * <p>Each calendar is stored as its schedule id, name, country and active flag, the active
+ * version id and effective time, the rule's id, type and configuration, and its deviations
+ * as a sorted array of epoch days. With {@link #withYearBitmaps(int, int)} the rule's answer
+ * for every day of those years is evaluated once here and stored as a bitmap, so readers
+ * answer dates in that range without compiling the rule.
+ *
+ * <p>Calendars need a schedule id; ids must be unique. Where a calendar has several
+ * deviations for one date, the first one is kept, as {@link Calendar} does.
+ */
+public final class CalendarSnapshotWriter {
+
+    private static final int MAX_BITMAP_YEARS = 100;
+
+    private final List<CalendarSnapshot> calendars = new ArrayList<>();
+    private int firstYear;
+    private int years;
+    private String source;
+
+    /**
+     * Stores the rule's answers for every day from {@code firstYear} to {@code lastYear}
+     * (inclusive) as bitmaps.
+     *
+     * @throws IllegalArgumentException if the range is empty or longer than 100 years
+     */
+    public CalendarSnapshotWriter withYearBitmaps(int firstYear, int lastYear) {
+        if (firstYear < 1 || lastYear > 9999 || lastYear < firstYear || lastYear - firstYear >= MAX_BITMAP_YEARS) {
+            throw new IllegalArgumentException("Bitmap years must be an ascending range of at most "
+                    + MAX_BITMAP_YEARS + " years between 1 and 9999: " + firstYear + ".." + lastYear);
+        }
+        this.firstYear = firstYear;
+        this.years = lastYear - firstYear + 1;
+        return this;
+    }
+
+    /**
+     * Records what the calendars were compiled from, for example a fingerprint of the
+     * configuration file, so a reader can tell whether the snapshot is still current
+     * ({@link CalendarSnapshotFile#source()}).
+     */
+    public CalendarSnapshotWriter withSource(String source) {
+        this.source = source;
+        return this;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the calendar's schedule has no id
+     */
+    public CalendarSnapshotWriter add(CalendarSnapshot calendar) {
+        if (calendar.scheduleId() == null) {
+            throw new IllegalArgumentException("Schedule id is required to export calendar: " + calendar.schedule().getName());
+        }
+        calendars.add(calendar);
+        return this;
+    }
+
+    public int size() {
+        return calendars.size();
+    }
+
+    /**
+     * Writes the snapshot to a temporary file next to {@code file} and moves it into place,
+     * so readers never see a partial file.
+     */
+    public void writeTo(Path file) throws IOException {
+        Path target = file.toAbsolutePath();
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                writeTo(out);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Writes the snapshot to the stream. The stream is not closed.
+     *
+     * @throws IllegalArgumentException if two calendars share a schedule id
+     * @throws IOException if the stream fails, or the snapshot would exceed 2 GB
+     */
+    public void writeTo(OutputStream stream) throws IOException {
+        List<CalendarSnapshot> sorted = new ArrayList<>(calendars);
+        sorted.sort(Comparator.comparing(CalendarSnapshot::scheduleId));
+        int count = sorted.size();
+
+        Strings strings = new Strings();
+        ByteArrayOutputStream entries = new ByteArrayOutputStream(count * ENTRY_SIZE);
+        ByteArrayOutputStream deviations = new ByteArrayOutputStream();
+        ByteArrayOutputStream reasons = new ByteArrayOutputStream();
+        DataOutputStream entriesOut = new DataOutputStream(entries);
+        DataOutputStream deviationsOut = new DataOutputStream(deviations);
+        DataOutputStream reasonsOut = new DataOutputStream(reasons);
+
+        int slots = Integer.highestOneBit(Math.max(1, count * 2 - 1)) << 1;
+        int[] nameIndex = new int[slots];
+        Set<String> indexedNames = new HashSet<>();
+
+        int deviationCount = 0;
+        Long previousId = null;
+        for (int i = 0; i < count; i++) {
+            CalendarSnapshot snapshot = sorted.get(i);
+            Schedule schedule = snapshot.schedule();
+            Calendar calendar = snapshot.calendar();
+            Rule rule = calendar.getRule();
+            if (snapshot.scheduleId().equals(previousId)) {
+                throw new IllegalArgumentException("Duplicate schedule id in snapshot: " + previousId);
+            }
+            previousId = snapshot.scheduleId();
+
+            Map<LocalDate, Deviation> byDate = new TreeMap<>(firstByDate(calendar.getDeviations()));
+            entriesOut.writeLong(snapshot.scheduleId());
+            entriesOut.writeLong(snapshot.versionId() != null ? snapshot.versionId() : NO_VALUE);
+            entriesOut.writeLong(rule.getId() != null ? rule.getId() : NO_VALUE);
+            entriesOut.writeLong(snapshot.versionEffectiveFrom() != null ? snapshot.versionEffectiveFrom().toEpochMilli() : NO_VALUE);
+            entriesOut.writeInt(strings.ref(schedule.getName()));
+            entriesOut.writeInt(strings.ref(schedule.getCountry()));
+            entriesOut.writeInt(strings.ref(rule.getRuleType() != null ? rule.getRuleType().name() : null));
+            entriesOut.writeInt(strings.ref(rule.getRuleConfig()));
+            entriesOut.writeInt(deviationCount);
+            entriesOut.writeInt(byDate.size());
+            entriesOut.writeInt(schedule.isActive() ? FLAG_ACTIVE : 0);
+            entriesOut.writeInt(0);
+
+            for (Deviation deviation : byDate.values()) {
+                long epochDay = deviation.getDeviationDate().toEpochDay();
+                deviationsOut.writeInt(Math.toIntExact(epochDay * 2 + (deviation.getAction() == RunStatus.FORCE_RUN ? 1 : 0)));
+                reasonsOut.writeInt(strings.ref(deviation.getReason()));
+            }
+            deviationCount += byDate.size();
+
+            String name = schedule.getName();
+            if (name != null && indexedNames.add(name.toLowerCase(Locale.ROOT))) {
+                int slot = nameHash(name) & (slots - 1);
+                while (nameIndex[slot] != 0) {
+                    slot = (slot + 1) & (slots - 1);
+                }
+                nameIndex[slot] = i + 1;
+            }
+        }
+
+        int sourceRef = strings.ref(source);
+        long deviationsOffset = HEADER_SIZE + (long) count * ENTRY_SIZE;
+        long reasonsOffset = deviationsOffset + deviations.size();
+        long nameIndexOffset = reasonsOffset + reasons.size();
+        long bitmapsOffset = align(nameIndexOffset + (long) slots * Integer.BYTES);
+        long stringsOffset = bitmapsOffset + (long) count * years * BITMAP_SIZE;
+        long fileLength = stringsOffset + strings.size();
+        if (fileLength > Integer.MAX_VALUE) {
+            throw new IOException("Calendar snapshot would be " + fileLength + " bytes; the format is limited to 2 GB");
+        }
+
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeShort((years > 0 ? FLAG_BITMAPS : 0) | (source != null ? FLAG_SOURCE : 0));
+        out.writeInt(count);
+        out.writeShort(firstYear);
+        out.writeShort(years);
+        out.writeLong(Instant.now().toEpochMilli());
+        out.writeInt((int) deviationsOffset);
+        out.writeInt(deviationCount);
+        out.writeInt((int) reasonsOffset);
+        out.writeInt((int) nameIndexOffset);
+        out.writeInt(slots);
+        out.writeInt((int) bitmapsOffset);
+        out.writeInt((int) stringsOffset);
+        out.writeInt(strings.size());
+        out.writeInt((int) fileLength);
+        out.writeInt(sourceRef);
+
+        entries.writeTo(out);
+        deviations.writeTo(out);
+        reasons.writeTo(out);
+        for (int slot : nameIndex) {
+            out.writeInt(slot);
+        }
+        out.write(new byte[(int) (bitmapsOffset - nameIndexOffset - (long) slots * Integer.BYTES)]);
+        for (CalendarSnapshot snapshot : sorted) {
+            writeBitmaps(out, snapshot.calendar());
+        }
+        strings.writeTo(out);
+        out.flush();
+    }
+
+    private void writeBitmaps(DataOutputStream out, Calendar calendar) throws IOException {
+        for (int year = firstYear; year < firstYear + years; year++) {
+            // rule only; deviations are stored separately so the reader can report them
+            YearCalendar ruleYear = YearCalendar.ofDays(year,
+                    date -> calendar.getRuleEvaluator().shouldRun(calendar.getRule(), date));
+            for (long word : ruleYear.getRunBits()) {
+                out.writeLong(word);
+            }
+        }
+    }
+
+    private static Map<LocalDate, Deviation> firstByDate(List<Deviation> deviations) {
+        Map<LocalDate, Deviation> byDate = new LinkedHashMap<>();
+        for (Deviation deviation : deviations) {
+            if (deviation.getDeviationDate() != null) {
+                byDate.putIfAbsent(deviation.getDeviationDate(), deviation);
+            }
+        }
+        return byDate;
+    }
+
+    private static long align(long offset) {
+        return (offset + Long.BYTES - 1) & -Long.BYTES;
+    }
+
+    /**
+     * The strings section: each distinct string stored once, length-prefixed UTF-8.
+     */
+    private static final class Strings {
+        private final Map<String, Integer> refs = new HashMap<>();
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+
+        int ref(String value) throws IOException {
+            if (value == null) return NO_REF;
+            Integer ref = refs.get(value);
+            if (ref == null) {
+                ref = bytes.size();
+                byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(utf8.length);
+                out.write(utf8);
+                refs.put(value, ref);
+            }
+            return ref;
+        }
+
+        int size() {
+            return bytes.size();
+        }
+
+        void writeTo(OutputStream target) throws IOException {
+            bytes.writeTo(target);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.jw.holidayguard.util;
+
+import com.jw.holidayguard.domain.YearCalendar;
+import com.jw.holidayguard.util.USFederalReserveScheduleFactory.USFederalHolidays;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed US federal holidays and Federal Reserve business days.
+ * <p>
+ * Every year in the configured span is computed once on construction: its sorted holiday list,
+ * a holiday bitmap over the whole span indexed by epoch day, and a {@link YearCalendar} per year
+ * whose run days are the business days (weekdays that are not holidays). Lookups are then a bit test with
+ * no allocation. Years outside the span are computed the first time they are asked for and
+ * kept, so callers never see a range error.
+ * <p>
+ * Instances are immutable apart from that lazy extension, which is thread-safe, so a table
+ * can be shared freely. {@link #getDefault()} covers 1970-2099.
+ */
+public final class USFederalHolidayTable {
+
+    public static final int DEFAULT_FIRST_YEAR = 1970;
+    public static final int DEFAULT_LAST_YEAR = 2099;
+
+    private final int firstYear;
+    private final int lastYear;
+    private final long firstEpochDay;
+    private final long lastEpochDay;
+    private final long[] holidayBits;
+    private final HolidayYear[] years;
+    private final Map<Integer, HolidayYear> extendedYears = new ConcurrentHashMap<>();
+
+    /**
+     * @param firstYear first year to precompute (inclusive)
+     * @param lastYear last year to precompute (inclusive)
+     * @throws IllegalArgumentException if the span is empty
+     */
+    public USFederalHolidayTable(int firstYear, int lastYear) {
+        if (firstYear > lastYear) {
+            throw new IllegalArgumentException("First year " + firstYear + " is after last year " + lastYear);
+        }
+        this.firstYear = firstYear;
+        this.lastYear = lastYear;
+        this.firstEpochDay = LocalDate.of(firstYear, 1, 1).toEpochDay();
+        this.lastEpochDay = LocalDate.of(lastYear, 12, 31).toEpochDay();
+        this.holidayBits = new long[(int) ((lastEpochDay - firstEpochDay) / 64) + 1];
+        this.years = new HolidayYear[lastYear - firstYear + 1];
+
+        for (int year = firstYear; year <= lastYear; year++) {
+            HolidayYear holidayYear = HolidayYear.compute(year);
+            years[year - firstYear] = holidayYear;
+            for (LocalDate holiday : holidayYear.holidays()) {
+                int offset = (int) (holiday.toEpochDay() - firstEpochDay);
+                holidayBits[offset >>> 6] |= 1L << offset;
+            }
+        }
+    }
+
+    /**
+     * @return the shared table covering {@value #DEFAULT_FIRST_YEAR}-{@value #DEFAULT_LAST_YEAR}
+     */
+    public static USFederalHolidayTable getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    public int getFirstYear() {
+        return firstYear;
+    }
+
+    public int getLastYear() {
+        return lastYear;
+    }
+
+    /**
+     * @return true if the epoch day is a US federal holiday
+     */
+    public boolean isHoliday(long epochDay) {
+        if (epochDay >= firstEpochDay && epochDay <= lastEpochDay) {
+            int offset = (int) (epochDay - firstEpochDay);
+            return (holidayBits[offset >>> 6] & (1L << offset)) != 0;
+        }
+        return isHoliday(LocalDate.ofEpochDay(epochDay));
+    }
+
+    /**
+     * @return true if the date is a US federal holiday
+     */
+    public boolean isHoliday(LocalDate date) {
+        long epochDay = date.toEpochDay();
+        if (epochDay >= firstEpochDay && epochDay <= lastEpochDay) {
+            return isHoliday(epochDay);
+        }
+        return year(date.getYear()).holidays().contains(date);
+    }
+
+    /**
+     * @return true if the date is a weekday and not a federal holiday
+     */
+    public boolean isBusinessDay(LocalDate date) {
+        return year(date.getYear()).businessDays().shouldRun(date);
+    }
+
+    /**
+     * @return the year's holidays in date order (unmodifiable)
+     */
+    public List<LocalDate> getHolidays(int year) {
+        return year(year).holidays();
+    }
+
+    /**
+     * Returns the year's business days as a bitmap: bit {@code i} is set when day-of-year
+     * {@code i + 1} is a business day.
+     *
+     * @return a copy of the bitmap, six words long
+     */
+    public long[] getBusinessDayBits(int year) {
+        return year(year).businessDays().getRunBits();
+    }
+
+    /**
+     * @return the number of business days in the year
+     */
+    public int countBusinessDays(int year) {
+        return year(year).businessDays().countRunDays();
+    }
+
+    /**
+     * Lists business days in an inclusive range, walking the per-year bitmaps.
+     * If from is after to, returns an empty list.
+     */
+    public List<LocalDate> getBusinessDays(LocalDate from, LocalDate to) {
+        List<LocalDate> dates = new ArrayList<>();
+        if (from.isAfter(to)) return dates;
+
+        for (int year = from.getYear(); year <= to.getYear(); year++) {
+            LocalDate start = year == from.getYear() ? from : LocalDate.of(year, 1, 1);
+            LocalDate end = year == to.getYear() ? to : LocalDate.of(year, 12, 31);
+            dates.addAll(year(year).businessDays().runDates(start, end));
+        }
+        return dates;
+    }
+
+    private HolidayYear year(int year) {
+        if (year >= firstYear && year <= lastYear) {
+            return years[year - firstYear];
+        }
+        return extendedYears.computeIfAbsent(year, HolidayYear::compute);
+    }
+
+    /**
+     * One year's holidays and business days.
+     */
+    private record HolidayYear(List<LocalDate> holidays, YearCalendar businessDays) {
+
+        static HolidayYear compute(int year) {
+            List<LocalDate> holidays = USFederalHolidays.calculateHolidays(year);
+
+            Set<LocalDate> holidaySet = Set.copyOf(holidays);
+            YearCalendar businessDays = YearCalendar.ofDays(year, date -> {
+                DayOfWeek dayOfWeek = date.getDayOfWeek();
+                return dayOfWeek != DayOfWeek.SATURDAY && dayOfWeek != DayOfWeek.SUNDAY && !holidaySet.contains(date);
+            });
+
+            return new HolidayYear(holidays, businessDays);
+        }
+    }
+
+    private static final class DefaultHolder {
+        private static final USFederalHolidayTable INSTANCE =
+                new USFederalHolidayTable(DEFAULT_FIRST_YEAR, DEFAULT_LAST_YEAR);
+    }
+}
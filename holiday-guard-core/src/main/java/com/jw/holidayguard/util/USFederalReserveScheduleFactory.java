@@ -80,10 +80,20 @@ public class USFederalReserveScheduleFactory {
          * <p>Juneteenth (June 19) is included for years 2021 and later, when it became
          * a federal holiday.
          *
+         * <p>Served from the shared {@link USFederalHolidayTable}, so repeated calls for
+         * the same year do not recalculate anything.
+         *
          * @param year the year for which to calculate federal holidays
-         * @return a sorted list of all US federal holidays for the given year
+         * @return a sorted, unmodifiable list of all US federal holidays for the given year
          */
         public static List<LocalDate> getHolidays(int year) {
+            return USFederalHolidayTable.getDefault().getHolidays(year);
+        }
+
+        /**
+         * Calculates the holidays for a year from scratch; used to build {@link USFederalHolidayTable}.
+         */
+        static List<LocalDate> calculateHolidays(int year) {
             List<LocalDate> holidays = new ArrayList<>();
 
             // Fixed date holidays
@@ -0,0 +1,11 @@
+-- Migration: Indexes for keyset pagination of the audit log
+-- The audit log API pages newest first on (queried_at, id), optionally filtered by
+-- schedule or client. These composite indexes serve each of those orderings directly.
+
+CREATE INDEX idx_query_log_queried_at_id ON query_log (queried_at, id);
+CREATE INDEX idx_query_log_schedule_queried_at ON query_log (schedule_id, queried_at, id);
+CREATE INDEX idx_query_log_client_queried_at ON query_log (client_identifier, queried_at, id);
+
+-- Superseded by the composite indexes above
+DROP INDEX IF EXISTS idx_query_log_queried_at;
+DROP INDEX IF EXISTS idx_query_log_client;
@@ -0,0 +1,323 @@
+package com.jw.holidayguard.service;
+
+import com.jw.holidayguard.domain.Calendar;
+import com.jw.holidayguard.domain.Rule;
+import com.jw.holidayguard.domain.Schedule;
+import com.jw.holidayguard.domain.Version;
+import com.jw.holidayguard.repository.DataProvider;
+import com.jw.holidayguard.repository.DeviationRepository;
+import com.jw.holidayguard.repository.RepositoryDataChangedEvent;
+import com.jw.holidayguard.repository.RuleRepository;
+import com.jw.holidayguard.repository.ScheduleRepository;
+import com.jw.holidayguard.repository.VersionRepository;
+import com.jw.holidayguard.service.rule.RuleEngine;
+import com.jw.holidayguard.service.snapshot.CalendarSnapshotFile;
+import com.jw.holidayguard.service.snapshot.CalendarSnapshotWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CalendarCacheTest {
+
+    @Mock
+    private ScheduleRepository scheduleRepository;
+
+    @Mock
+    private VersionRepository versionRepository;
+
+    @Mock
+    private RuleRepository ruleRepository;
+
+    @Mock
+    private DeviationRepository deviationRepository;
+
+    @Mock
+    private RuleEngine ruleEngine;
+
+    private CalendarCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CalendarCache(scheduleRepository, versionRepository, ruleRepository, deviationRepository, ruleEngine, 2);
+    }
+
+    @Test
+    void get_loadsOnceAndServesFromCache() {
+        // given
+        stubSchedule(1L, 10L);
+
+        // when
+        CalendarSnapshot first = cache.get(1L);
+        CalendarSnapshot second = cache.get(1L);
+
+        // then
+        assertThat(second).isSameAs(first);
+        assertThat(first.versionId()).isEqualTo(10L);
+        verify(scheduleRepository, times(1)).findById(1L);
+        verify(deviationRepository, times(1)).findByScheduleIdAndVersionId(1L, 10L);
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidate_reloadsNewActiveVersion() {
+        // given
+        stubSchedule(1L, 10L);
+        cache.get(1L);
+
+        when(versionRepository.findByScheduleIdAndActiveTrue(1L))
+                .thenReturn(Optional.of(Version.builder().id(11L).scheduleId(1L).active(true).build()));
+        when(ruleRepository.findByVersionId(11L))
+                .thenReturn(Optional.of(Rule.builder().id(101L).versionId(11L).ruleType(Rule.RuleType.ALL_DAYS).build()));
+
+        // when
+        cache.invalidate(1L);
+        CalendarSnapshot reloaded = cache.get(1L);
+
+        // then
+        assertThat(reloaded.versionId()).isEqualTo(11L);
+        assertThat(reloaded.calendar().getRule().getRuleType()).isEqualTo(Rule.RuleType.ALL_DAYS);
+    }
+
+    @Test
+    void invalidate_leavesOtherSchedulesCached() {
+        // given
+        stubSchedule(1L, 10L);
+        stubSchedule(2L, 20L);
+        cache.get(1L);
+        CalendarSnapshot other = cache.get(2L);
+
+        // when
+        cache.invalidate(1L);
+
+        // then
+        assertThat(cache.get(2L)).isSameAs(other);
+        verify(scheduleRepository, times(1)).findById(2L);
+    }
+
+    @Test
+    void repositoryDataChanged_dropsEverySnapshot() {
+        // given
+        stubSchedule(1L, 10L);
+        stubSchedule(2L, 20L);
+        CalendarSnapshot first = cache.get(1L);
+        cache.get(2L);
+        long generation = cache.generation();
+
+        // when
+        cache.onRepositoryDataChanged(new RepositoryDataChangedEvent("JSON", 1L));
+
+        // then
+        assertThat(cache.size()).isZero();
+        assertThat(cache.generation()).isGreaterThan(generation);
+        assertThat(cache.get(1L)).isNotSameAs(first);
+    }
+
+    @Test
+    void repositoryDataChanged_changesStampOfUnchangedVersion() {
+        // given - version 10 is cached, then reloaded with the same id and a different rule
+        stubSchedule(1L, 10L);
+        CalendarStamp before = cache.get(1L).stamp();
+        when(ruleRepository.findByVersionId(10L))
+                .thenReturn(Optional.of(Rule.builder().id(100L).versionId(10L).ruleType(Rule.RuleType.NO_DAYS).build()));
+
+        // when
+        cache.onRepositoryDataChanged(new RepositoryDataChangedEvent("JSON", before.dataRevision() + 1));
+        CalendarSnapshot reloaded = cache.get(1L);
+
+        // then - same version id, new revision, so validators built from the stamp change
+        assertThat(reloaded.versionId()).isEqualTo(10L);
+        assertThat(reloaded.calendar().getRule().getRuleType()).isEqualTo(Rule.RuleType.NO_DAYS);
+        assertThat(reloaded.stamp()).isNotEqualTo(before);
+        assertThat(reloaded.stamp().dataRevision()).isGreaterThan(before.dataRevision());
+        assertThat(cache.stamp(1L)).contains(reloaded.stamp());
+
+        // and - a revision older than the cache's still moves it forward
+        cache.onRepositoryDataChanged(new RepositoryDataChangedEvent("JSON", 0L));
+        assertThat(cache.dataRevision()).isGreaterThan(reloaded.dataRevision());
+    }
+
+    @Test
+    void get_evictsBeyondMaximumSize() {
+        // given - cache bounded to two entries
+        stubSchedule(1L, 10L);
+        stubSchedule(2L, 20L);
+        stubSchedule(3L, 30L);
+
+        // when
+        cache.get(1L);
+        cache.get(2L);
+        cache.get(3L);
+
+        // then
+        assertThat(cache.size()).isLessThanOrEqualTo(2);
+        assertThat(cache.stats().evictionCount()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void get_doesNotCacheMissingSchedule() {
+        // given
+        when(scheduleRepository.findById(anyLong())).thenReturn(Optional.empty());
+
+        // when / then
+        assertThatThrownBy(() -> cache.get(99L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Schedule not found: 99");
+        assertThatThrownBy(() -> cache.get(99L))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(scheduleRepository, times(2)).findById(99L);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void get_throwsWhenNoActiveVersion() {
+        // given
+        when(scheduleRepository.findById(1L))
+                .thenReturn(Optional.of(Schedule.builder().id(1L).name("s1").active(true).build()));
+        when(versionRepository.findByScheduleIdAndActiveTrue(1L)).thenReturn(Optional.empty());
+
+        // when / then
+        assertThatThrownBy(() -> cache.get(1L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("No active version found for schedule: 1");
+    }
+
+    @Test
+    void stamps_useCachedSnapshotsAndReadOnlyVersionsForMisses() {
+        // given - schedule 1 cached, schedule 2 not, schedule 3 unknown
+        stubSchedule(1L, 10L);
+        cache.get(1L);
+        Schedule schedule2 = Schedule.builder().id(2L).name("s2").active(false).build();
+        when(scheduleRepository.findAllById(Set.of(2L, 3L))).thenReturn(List.of(schedule2));
+        when(versionRepository.findByScheduleIdInAndActiveTrue(List.of(2L)))
+                .thenReturn(List.of(Version.builder().id(20L).scheduleId(2L).active(true).build()));
+
+        // when
+        Map<Long, CalendarStamp> stamps = cache.stamps(List.of(3L, 2L, 1L));
+
+        // then - requested order, nothing compiled for the miss
+        assertThat(stamps).containsExactly(
+                Map.entry(2L, new CalendarStamp(2L, 20L, "s2", false, null, cache.dataRevision())),
+                Map.entry(1L, new CalendarStamp(1L, 10L, "s1", true, null, cache.dataRevision())));
+        verify(ruleRepository, never()).findByVersionIdIn(any());
+        verify(ruleRepository, never()).findByVersionId(20L);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void get_usesSnapshotFileWhenItHoldsTheActiveVersion(@TempDir Path dir) throws IOException {
+        // given - a snapshot file compiled from version 10 of schedule 1 and version 20 of schedule 2
+        cache = snapshotCache(dir, "H2 test", "H2 test");
+        stubSchedule(1L, 10L);
+        stubSchedule(2L, 21L);
+
+        // when
+        CalendarSnapshot fromFile = cache.get(1L);
+        CalendarSnapshot stale = cache.get(2L);
+
+        // then - schedule 1 comes from the file; schedule 2 changed since the export
+        assertThat(fromFile.calendar().getRule().getRuleType()).isEqualTo(Rule.RuleType.WEEKDAYS_ONLY);
+        assertThat(fromFile.calendar().shouldRun(LocalDate.of(2025, 1, 4))).isTrue();
+        verify(deviationRepository, never()).findByScheduleIdAndVersionId(1L, 10L);
+        verify(ruleEngine, never()).compile(argThat(rule -> rule.getVersionId() == 10L));
+        assertThat(stale.versionId()).isEqualTo(21L);
+        verify(deviationRepository).findByScheduleIdAndVersionId(2L, 21L);
+    }
+
+    @Test
+    void get_ignoresSnapshotEntryWhoseRuleDiffersUnderTheSameVersionId(@TempDir Path dir) throws IOException {
+        // given - version 10 was edited in place since the export
+        cache = snapshotCache(dir, "H2 test", "H2 test");
+        stubSchedule(1L, 10L);
+        when(ruleRepository.findByVersionId(10L))
+                .thenReturn(Optional.of(Rule.builder().id(100L).versionId(10L).ruleType(Rule.RuleType.NO_DAYS).build()));
+
+        // when
+        CalendarSnapshot loaded = cache.get(1L);
+
+        // then - answered from the repository, not the file
+        assertThat(loaded.calendar().getRule().getRuleType()).isEqualTo(Rule.RuleType.NO_DAYS);
+        verify(deviationRepository).findByScheduleIdAndVersionId(1L, 10L);
+    }
+
+    @Test
+    void get_ignoresSnapshotFileFromAnotherDataSource(@TempDir Path dir) throws IOException {
+        // given - same ids, exported from another environment's database
+        cache = snapshotCache(dir, "H2 staging", "H2 production");
+        stubSchedule(1L, 10L);
+
+        // when
+        cache.get(1L);
+
+        // then
+        verify(deviationRepository).findByScheduleIdAndVersionId(1L, 10L);
+        verify(ruleEngine).compile(argThat(rule -> rule.getVersionId() == 10L));
+    }
+
+    @Test
+    void repositoryDataChanged_stopsUsingSnapshotFile(@TempDir Path dir) throws IOException {
+        // given
+        cache = snapshotCache(dir, "H2 test", "H2 test");
+        stubSchedule(1L, 10L);
+        cache.get(1L);
+        verify(deviationRepository, never()).findByScheduleIdAndVersionId(1L, 10L);
+
+        // when - the data was replaced; version 10 may now hold other deviations
+        cache.onRepositoryDataChanged(new RepositoryDataChangedEvent("JSON", 1L));
+        cache.get(1L);
+
+        // then
+        verify(deviationRepository).findByScheduleIdAndVersionId(1L, 10L);
+    }
+
+    /**
+     * A cache over a snapshot file exported from {@code exportedFrom}, holding version 10 of
+     * schedule 1 (rule 100, weekdays) and version 20 of schedule 2, serving {@code serving}.
+     */
+    private CalendarCache snapshotCache(Path dir, String exportedFrom, String serving) throws IOException {
+        Schedule exported = Schedule.builder().id(1L).name("s1").active(true).build();
+        Rule weekdays = Rule.builder().id(100L).versionId(10L).ruleType(Rule.RuleType.WEEKDAYS_ONLY).build();
+        Path file = dir.resolve("calendars.hgsnap");
+        new CalendarSnapshotWriter()
+                .withYearBitmaps(2025, 2025)
+                .withSource(exportedFrom)
+                .add(new CalendarSnapshot(exported, 10L, null, new Calendar(exported, weekdays, List.of(), (rule, date) -> true)))
+                .add(new CalendarSnapshot(Schedule.builder().id(2L).name("s2").build(), 20L, null,
+                        new Calendar(exported, weekdays, List.of(), (rule, date) -> true)))
+                .writeTo(file);
+        DataProvider dataProvider = mock(DataProvider.class);
+        when(dataProvider.getDataSourceId()).thenReturn(serving);
+        return new CalendarCache(scheduleRepository, versionRepository, ruleRepository, deviationRepository, ruleEngine, 2,
+                Optional.of(CalendarSnapshotFile.open(file, ruleEngine)), Optional.of(dataProvider));
+    }
+
+    private void stubSchedule(Long scheduleId, Long versionId) {
+        when(scheduleRepository.findById(scheduleId))
+                .thenReturn(Optional.of(Schedule.builder().id(scheduleId).name("s" + scheduleId).active(true).build()));
+        when(versionRepository.findByScheduleIdAndActiveTrue(scheduleId))
+                .thenReturn(Optional.of(Version.builder().id(versionId).scheduleId(scheduleId).active(true).build()));
+        lenient().when(ruleRepository.findByVersionId(versionId))
+                .thenReturn(Optional.of(Rule.builder().id(versionId * 10).versionId(versionId).ruleType(Rule.RuleType.WEEKDAYS_ONLY).build()));
+        lenient().when(deviationRepository.findByScheduleIdAndVersionId(scheduleId, versionId))
+                .thenReturn(List.of());
+    }
+}
@@ -8,24 +8,26 @@ import com.jw.holidayguard.repository.DeviationRepository;
 import com.jw.holidayguard.repository.RuleRepository;
 import com.jw.holidayguard.repository.ScheduleRepository;
 import com.jw.holidayguard.repository.VersionRepository;
+import com.jw.holidayguard.service.rule.CompiledRule;
 import com.jw.holidayguard.service.rule.RuleEngine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.List;
-import java.util.Optional;
 
 import static com.jw.holidayguard.domain.RunStatus.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 /**
@@ -50,7 +52,6 @@ class CalendarViewServiceTest {
     @Mock
     private RuleEngine ruleEngine;
 
-    @InjectMocks
     private CalendarViewService service;
 
     private Schedule testSchedule;
@@ -61,6 +62,16 @@ class CalendarViewServiceTest {
 
     @BeforeEach
     void setUp() {
+        var calendarCache = new CalendarCache(
+                scheduleRepository, versionRepository, ruleRepository, deviationRepository, ruleEngine, 100);
+        service = new CalendarViewService(calendarCache, new EvaluationExecutor(2, 100, 1));
+
+        // the cache evaluates compiled rules; route them back to the stubbed shouldRun
+        lenient().when(ruleEngine.compile(any(Rule.class))).thenAnswer(invocation -> {
+            Rule rule = invocation.getArgument(0);
+            return (CompiledRule) date -> ruleEngine.shouldRun(rule, date);
+        });
+
         scheduleId = 1L;
         versionId = 10L;
 
@@ -89,12 +100,7 @@ class CalendarViewServiceTest {
         // given - A single schedule with weekdays-only rule for January 2025
         YearMonth yearMonth = YearMonth.of(2025, 1);
 
-        when(scheduleRepository.findById(scheduleId)).thenReturn(Optional.of(testSchedule));
-        when(versionRepository.findByScheduleIdAndActiveTrue(scheduleId))
-                .thenReturn(Optional.of(testVersion));
-        when(ruleRepository.findByVersionId(versionId)).thenReturn(Optional.of(testRule));
-        when(deviationRepository.findByScheduleIdAndVersionId(scheduleId, versionId))
-                .thenReturn(List.of());
+        stubLoad(List.of(testSchedule), List.of(testVersion), List.of(testRule), List.of());
 
         // Mock RuleEngine to return true for weekdays (Mon-Fri)
         when(ruleEngine.shouldRun(any(Rule.class), any(LocalDate.class)))
@@ -154,21 +160,8 @@ class CalendarViewServiceTest {
 
         YearMonth yearMonth = YearMonth.of(2025, 1);
 
-        // Mock first schedule (weekdays only)
-        when(scheduleRepository.findById(scheduleId)).thenReturn(Optional.of(testSchedule));
-        when(versionRepository.findByScheduleIdAndActiveTrue(scheduleId))
-                .thenReturn(Optional.of(testVersion));
-        when(ruleRepository.findByVersionId(versionId)).thenReturn(Optional.of(testRule));
-        when(deviationRepository.findByScheduleIdAndVersionId(scheduleId, versionId))
-                .thenReturn(List.of());
-
-        // Mock second schedule (all days)
-        when(scheduleRepository.findById(schedule2Id)).thenReturn(Optional.of(schedule2));
-        when(versionRepository.findByScheduleIdAndActiveTrue(schedule2Id))
-                .thenReturn(Optional.of(version2));
-        when(ruleRepository.findByVersionId(version2Id)).thenReturn(Optional.of(rule2));
-        when(deviationRepository.findByScheduleIdAndVersionId(schedule2Id, version2Id))
-                .thenReturn(List.of());
+        // First schedule weekdays only, second all days - loaded together
+        stubLoad(List.of(testSchedule, schedule2), List.of(testVersion, version2), List.of(testRule, rule2), List.of());
 
         when(ruleEngine.shouldRun(any(Rule.class), any(LocalDate.class)))
                 .thenAnswer(invocation -> {
@@ -219,12 +212,7 @@ class CalendarViewServiceTest {
                 .reason("Holiday - MLK Day")
                 .build();
 
-        when(scheduleRepository.findById(scheduleId)).thenReturn(Optional.of(testSchedule));
-        when(versionRepository.findByScheduleIdAndActiveTrue(scheduleId))
-                .thenReturn(Optional.of(testVersion));
-        when(ruleRepository.findByVersionId(versionId)).thenReturn(Optional.of(testRule));
-        when(deviationRepository.findByScheduleIdAndVersionId(scheduleId, versionId))
-                .thenReturn(List.of(skipDeviation));
+        stubLoad(List.of(testSchedule), List.of(testVersion), List.of(testRule), List.of(skipDeviation));
 
         when(ruleEngine.shouldRun(any(Rule.class), any(LocalDate.class)))
                 .thenAnswer(invocation -> {
@@ -263,12 +251,7 @@ class CalendarViewServiceTest {
                 .reason("Emergency processing")
                 .build();
 
-        when(scheduleRepository.findById(scheduleId)).thenReturn(Optional.of(testSchedule));
-        when(versionRepository.findByScheduleIdAndActiveTrue(scheduleId))
-                .thenReturn(Optional.of(testVersion));
-        when(ruleRepository.findByVersionId(versionId)).thenReturn(Optional.of(testRule));
-        when(deviationRepository.findByScheduleIdAndVersionId(scheduleId, versionId))
-                .thenReturn(List.of(forceRunDeviation));
+        stubLoad(List.of(testSchedule), List.of(testVersion), List.of(testRule), List.of(forceRunDeviation));
 
         when(ruleEngine.shouldRun(any(Rule.class), any(LocalDate.class)))
                 .thenAnswer(invocation -> {
@@ -297,10 +280,7 @@ class CalendarViewServiceTest {
         // given - Schedule exists but has no rule
         YearMonth yearMonth = YearMonth.of(2025, 1);
 
-        when(scheduleRepository.findById(scheduleId)).thenReturn(Optional.of(testSchedule));
-        when(versionRepository.findByScheduleIdAndActiveTrue(scheduleId))
-                .thenReturn(Optional.of(testVersion));
-        when(ruleRepository.findByVersionId(versionId)).thenReturn(Optional.empty());
+        stubLoad(List.of(testSchedule), List.of(testVersion), List.of(), List.of());
 
         // when - Generating calendar
         MultiScheduleCalendarView result = service.getMultiScheduleCalendar(
@@ -316,9 +296,7 @@ class CalendarViewServiceTest {
         // given - Schedule exists but has no active version
         YearMonth yearMonth = YearMonth.of(2025, 1);
 
-        when(scheduleRepository.findById(scheduleId)).thenReturn(Optional.of(testSchedule));
-        when(versionRepository.findByScheduleIdAndActiveTrue(scheduleId))
-                .thenReturn(Optional.empty());
+        stubLoad(List.of(testSchedule), List.of(), List.of(), List.of());
 
         // when - Generating calendar
         MultiScheduleCalendarView result = service.getMultiScheduleCalendar(
@@ -344,14 +322,9 @@ class CalendarViewServiceTest {
                 .reason("Holiday")
                 .build();
 
-        when(scheduleRepository.findById(scheduleId))
-                .thenReturn(Optional.of(testSchedule));
-        when(versionRepository.findByScheduleIdAndActiveTrue(scheduleId))
-                .thenReturn(Optional.of(testVersion));
-        when(ruleRepository.findByVersionId(versionId))
-                .thenReturn(Optional.of(testRule));
+        // the cached snapshot carries the deviation; includeDeviations=false must ignore it
+        stubLoad(List.of(testSchedule), List.of(testVersion), List.of(testRule), List.of(forceSkip));
 
-        // deviation repo should NOT be called when includeDeviations=false
         when(ruleEngine.shouldRun(any(Rule.class), any(LocalDate.class)))
                 .thenAnswer(invocation -> {
                     LocalDate date = invocation.getArgument(1);
@@ -380,12 +353,7 @@ class CalendarViewServiceTest {
         // given - A schedule for February 2025 (28 days)
         YearMonth yearMonth = YearMonth.of(2025, 2);
 
-        when(scheduleRepository.findById(scheduleId)).thenReturn(Optional.of(testSchedule));
-        when(versionRepository.findByScheduleIdAndActiveTrue(scheduleId))
-                .thenReturn(Optional.of(testVersion));
-        when(ruleRepository.findByVersionId(versionId)).thenReturn(Optional.of(testRule));
-        when(deviationRepository.findByScheduleIdAndVersionId(scheduleId, versionId))
-                .thenReturn(List.of());
+        stubLoad(List.of(testSchedule), List.of(testVersion), List.of(testRule), List.of());
 
         when(ruleEngine.shouldRun(any(Rule.class), any(LocalDate.class)))
                 .thenReturn(true); // All days run
@@ -409,4 +377,38 @@ class CalendarViewServiceTest {
             assertThat(dates).contains(expectedDate);
         }
     }
+
+    @Test
+    void shouldLoadAllSchedulesTogetherAndKeepRequestedOrder() {
+        // given - three schedules requested out of id order, one unknown
+        var schedules = new java.util.ArrayList<Schedule>();
+        var versions = new java.util.ArrayList<Version>();
+        var rules = new java.util.ArrayList<Rule>();
+        for (long id = 1; id <= 3; id++) {
+            schedules.add(Schedule.builder().id(id).name("Schedule " + id).active(true).build());
+            versions.add(Version.builder().id(id * 10).scheduleId(id).active(true).build());
+            rules.add(Rule.builder().id(id * 100).versionId(id * 10).ruleType(Rule.RuleType.ALL_DAYS).build());
+        }
+        stubLoad(schedules, versions, rules, List.of());
+        when(ruleEngine.shouldRun(any(Rule.class), any(LocalDate.class))).thenReturn(true);
+
+        // when
+        MultiScheduleCalendarView result = service.getMultiScheduleCalendar(
+                List.of(3L, 99L, 1L, 2L), YearMonth.of(2025, 1), true);
+
+        // then - requested order, unknown schedule skipped, one query per table
+        assertThat(result.schedules()).extracting(ScheduleMonthView::scheduleId).containsExactly(3L, 1L, 2L);
+        verify(scheduleRepository).findAllById(any());
+        verify(versionRepository).findByScheduleIdInAndActiveTrue(any());
+        verify(ruleRepository).findByVersionIdIn(any());
+        verify(deviationRepository).findByVersionIdIn(any());
+        verifyNoMoreInteractions(scheduleRepository, versionRepository, ruleRepository, deviationRepository);
+    }
+
+    private void stubLoad(List<Schedule> schedules, List<Version> versions, List<Rule> rules, List<Deviation> deviations) {
+        lenient().when(scheduleRepository.findAllById(any())).thenReturn(schedules);
+        lenient().when(versionRepository.findByScheduleIdInAndActiveTrue(any())).thenReturn(versions);
+        lenient().when(ruleRepository.findByVersionIdIn(any())).thenReturn(rules);
+        lenient().when(deviationRepository.findByVersionIdIn(any())).thenReturn(deviations);
+    }
 }
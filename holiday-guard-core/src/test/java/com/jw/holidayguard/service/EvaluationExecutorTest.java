@@ -0,0 +1,69 @@
+package com.jw.holidayguard.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EvaluationExecutorTest {
+
+    private EvaluationExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) executor.shutdown();
+    }
+
+    @Test
+    void map_keepsInputOrderOnPlatformPool() {
+        // given - four chunks of three on two threads
+        executor = new EvaluationExecutor(2, 10, 3);
+        List<Integer> items = IntStream.range(0, 12).boxed().toList();
+        Set<Boolean> virtual = ConcurrentHashMap.newKeySet();
+
+        // when
+        List<Integer> doubled = executor.map(items, item -> {
+            virtual.add(Thread.currentThread().isVirtual());
+            return item * 2;
+        });
+
+        // then
+        assertThat(doubled).containsExactly(0, 2, 4, 6, 8, 10, 12, 14, 16, 18, 20, 22);
+        assertThat(virtual).containsExactly(false);
+    }
+
+    @Test
+    void map_runsChunksOnVirtualThreadsWhenEnabled() {
+        // given
+        executor = new EvaluationExecutor(0, 1, 3, true);
+        List<Integer> items = IntStream.range(0, 12).boxed().toList();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        // when
+        List<Integer> doubled = executor.map(items, item -> {
+            assertThat(Thread.currentThread().isVirtual()).isTrue();
+            threads.add(Thread.currentThread().getName());
+            return item * 2;
+        });
+
+        // then
+        assertThat(doubled).containsExactly(0, 2, 4, 6, 8, 10, 12, 14, 16, 18, 20, 22);
+        assertThat(threads).allMatch(name -> name.startsWith("schedule-evaluation-"));
+    }
+
+    @Test
+    void map_rethrowsFailureUnwrapped() {
+        executor = new EvaluationExecutor(0, 1, 2, true);
+
+        assertThatThrownBy(() -> executor.map(List.of(1, 2, 3, 4), item -> {
+            if (item == 3) throw new IllegalStateException("boom");
+            return item;
+        })).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+    }
+}
@@ -0,0 +1,256 @@
+package com.jw.holidayguard.service;
+
+import com.jw.holidayguard.domain.QueryLog;
+import com.jw.holidayguard.repository.QueryLogRepository;
+import com.jw.holidayguard.service.QueryLogWriter.OverflowPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QueryLogWriterTest {
+
+    @Mock
+    private QueryLogRepository queryLogRepository;
+
+    private QueryLogWriter writer;
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) writer.stop();
+    }
+
+    @Test
+    void write_isFlushedInBackgroundBatches() {
+        // given
+        List<QueryLog> inserted = recordInserts();
+        writer = writer(true, 100, 3, OverflowPolicy.BLOCK, 1);
+        writer.start();
+
+        // when
+        for (int i = 0; i < 7; i++) {
+            writer.write(queryLog(i));
+        }
+
+        // then - all rows written, none larger than the batch size
+        verify(queryLogRepository, timeout(2000).atLeast(3)).insertAll(anyList(), eq(3));
+        ArgumentCaptor<List<QueryLog>> batches = ArgumentCaptor.captor();
+        verify(queryLogRepository, timeout(2000).atLeast(3)).insertAll(batches.capture(), anyInt());
+        assertThat(batches.getAllValues()).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(3));
+        waitForWritten(7);
+        assertThat(inserted).hasSize(7);
+        verify(queryLogRepository, never()).save(any());
+    }
+
+    @Test
+    void write_stampsQueryTimeWhenEnqueued() {
+        // given
+        writer = writer(true, 10, 10, OverflowPolicy.BLOCK, 1);
+        QueryLog log = queryLog(0);
+
+        // when
+        writer.write(log);
+
+        // then
+        assertThat(log.getQueriedAt()).isNotNull();
+        assertThat(writer.getQueueDepth()).isEqualTo(1);
+    }
+
+    @Test
+    void stop_flushesQueuedRows() {
+        // given
+        List<QueryLog> inserted = recordInserts();
+        writer = writer(true, 100, 50, OverflowPolicy.BLOCK, 1);
+        writer.start();
+        for (int i = 0; i < 20; i++) {
+            writer.write(queryLog(i));
+        }
+
+        // when
+        writer.stop();
+
+        // then
+        assertThat(inserted).hasSize(20);
+        assertThat(writer.getQueueDepth()).isZero();
+    }
+
+    @Test
+    void stop_losesNoRowWrittenConcurrently() throws Exception {
+        // given - request threads writing while the application shuts down
+        List<QueryLog> inserted = recordInserts();
+        List<QueryLog> saved = java.util.Collections.synchronizedList(new ArrayList<>());
+        lenient().when(queryLogRepository.save(any(QueryLog.class))).thenAnswer(invocation -> {
+            saved.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        writer = writer(true, 8, 4, OverflowPolicy.BLOCK, 1);
+        writer.start();
+
+        List<CompletableFuture<Void>> writers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            writers.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 500; i++) {
+                    writer.write(queryLog(i));
+                }
+            }));
+        }
+
+        // when
+        Thread.sleep(5);
+        writer.stop();
+        CompletableFuture.allOf(writers.toArray(CompletableFuture[]::new)).get();
+
+        // then - every row was either flushed by the writer or saved directly after stop
+        assertThat(inserted.size() + saved.size()).isEqualTo(2000);
+        assertThat(writer.getQueueDepth()).isZero();
+    }
+
+    @Test
+    void write_afterStopIsSynchronous() {
+        // given
+        writer = writer(true, 10, 10, OverflowPolicy.BLOCK, 1);
+        writer.start();
+        writer.stop();
+
+        // when
+        writer.write(queryLog(0));
+
+        // then
+        verify(queryLogRepository).save(any(QueryLog.class));
+    }
+
+    @Test
+    void write_dropsWhenQueueIsFull() {
+        // given - writer not started, so nothing drains the queue
+        writer = writer(true, 2, 10, OverflowPolicy.DROP, 1);
+
+        // when
+        writer.write(queryLog(0));
+        writer.write(queryLog(1));
+        writer.write(queryLog(2));
+
+        // then
+        assertThat(writer.getQueueDepth()).isEqualTo(2);
+        assertThat(writer.getDroppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void write_samplesOverflowingRows() throws Exception {
+        // given - queue of one, every second overflowing row waits for space
+        List<QueryLog> inserted = recordInserts();
+        writer = writer(true, 1, 10, OverflowPolicy.SAMPLE, 2);
+        writer.write(queryLog(0));
+
+        // when - first overflow is dropped, second blocks until a flush frees space
+        writer.write(queryLog(1));
+        CompletableFuture<Void> blocked = CompletableFuture.runAsync(() -> writer.write(queryLog(2)));
+        Thread.sleep(100);
+        assertThat(blocked).isNotDone();
+        writer.flush();
+        blocked.get();
+        writer.flush();
+
+        // then
+        assertThat(writer.getDroppedCount()).isEqualTo(1);
+        assertThat(inserted).extracting(QueryLog::getReason).containsExactly("row 0", "row 2");
+    }
+
+    @Test
+    void write_savesSynchronouslyWhenDisabled() {
+        // given
+        writer = writer(false, 10, 10, OverflowPolicy.BLOCK, 1);
+        writer.start();
+
+        // when
+        writer.write(queryLog(0));
+
+        // then
+        verify(queryLogRepository).save(any(QueryLog.class));
+        verify(queryLogRepository, never()).insertAll(anyList(), anyInt());
+    }
+
+    @Test
+    void failedBatch_isCountedAndDoesNotStopWriter() {
+        // given
+        when(queryLogRepository.insertAll(anyList(), anyInt())).thenThrow(new IllegalStateException("db down"));
+        writer = writer(true, 10, 10, OverflowPolicy.BLOCK, 1);
+        writer.write(queryLog(0));
+        writer.write(queryLog(1));
+
+        // when
+        writer.flush();
+
+        // then
+        assertThat(writer.getFailedCount()).isEqualTo(2);
+        assertThat(writer.getQueueDepth()).isZero();
+    }
+
+    @Test
+    void bindTo_publishesQueueAndFlushMetrics() {
+        // given
+        recordInserts();
+        var registry = new SimpleMeterRegistry();
+        writer = writer(true, 1, 10, OverflowPolicy.DROP, 1);
+        writer.bindTo(registry);
+
+        // when
+        writer.write(queryLog(0));
+        writer.write(queryLog(1));
+
+        // then
+        assertThat(registry.get("holidayguard.audit.queue.depth").gauge().value()).isEqualTo(1.0);
+        assertThat(registry.get("holidayguard.audit.dropped").functionCounter().count()).isEqualTo(1.0);
+
+        writer.flush();
+        assertThat(registry.get("holidayguard.audit.flush").timer().count()).isEqualTo(1);
+        assertThat(registry.get("holidayguard.audit.written").functionCounter().count()).isEqualTo(1.0);
+    }
+
+    private QueryLogWriter writer(boolean enabled, int capacity, int batchSize, OverflowPolicy policy, int sampleRate) {
+        return new QueryLogWriter(queryLogRepository, enabled, capacity, batchSize,
+                Duration.ofMillis(50), policy, sampleRate, Duration.ofSeconds(5));
+    }
+
+    private List<QueryLog> recordInserts() {
+        List<QueryLog> inserted = java.util.Collections.synchronizedList(new ArrayList<>());
+        lenient().when(queryLogRepository.insertAll(anyList(), anyInt())).thenAnswer(invocation -> {
+            List<QueryLog> batch = invocation.getArgument(0);
+            inserted.addAll(batch);
+            return batch.size();
+        });
+        return inserted;
+    }
+
+    private void waitForWritten(long expected) {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (writer.getWrittenCount() < expected && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static QueryLog queryLog(int i) {
+        return QueryLog.builder()
+                .scheduleId(1L)
+                .versionId(10L)
+                .queryDate(LocalDate.of(2025, 1, 1))
+                .shouldRunResult(true)
+                .reason("row " + i)
+                .clientIdentifier("test")
+                .build();
+    }
+}
@@ -1,26 +1,33 @@
 package com.jw.holidayguard.service;
 
-import com.jw.holidayguard.domain.Schedule;
 import com.jw.holidayguard.domain.QueryLog;
+import com.jw.holidayguard.domain.Schedule;
 import com.jw.holidayguard.domain.Deviation;
 import com.jw.holidayguard.domain.Rule;
 import com.jw.holidayguard.domain.RunStatus;
 import com.jw.holidayguard.domain.Version;
+import com.jw.holidayguard.dto.QueryLogFilter;
+import com.jw.holidayguard.dto.QueryLogPage;
+import com.jw.holidayguard.dto.request.BulkShouldRunRequest;
 import com.jw.holidayguard.dto.request.ShouldRunQueryRequest;
+import com.jw.holidayguard.dto.response.BulkShouldRunResponse;
 import com.jw.holidayguard.dto.response.ShouldRunQueryResponse;
 import com.jw.holidayguard.repository.DeviationRepository;
 import com.jw.holidayguard.repository.QueryLogRepository;
 import com.jw.holidayguard.repository.ScheduleRepository;
 import com.jw.holidayguard.repository.VersionRepository;
 import com.jw.holidayguard.repository.RuleRepository;
+import com.jw.holidayguard.service.rule.CompiledRule;
 import com.jw.holidayguard.service.rule.RuleEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Optional;
 
@@ -50,8 +57,14 @@ class ScheduleQueryServiceTest {
     @Mock
     private RuleEngine ruleEngine;
 
-    @InjectMocks
+    @Mock
+    private QueryLogWriter queryLogWriter;
+
     private ScheduleQueryService service;
+
+    private CalendarCache calendarCache;
+
+    private QueryMetrics metrics;
     
     private Schedule testSchedule;
     private Version activeVersion;
@@ -60,6 +73,18 @@ class ScheduleQueryServiceTest {
 
     @BeforeEach
     void setUp() {
+        calendarCache = new CalendarCache(
+            scheduleRepository, versionRepository, ruleRepository, overrideRepository, ruleEngine, 100);
+        metrics = new QueryMetrics();
+        service = new ScheduleQueryService(scheduleRepository, queryLogRepository, calendarCache, queryLogWriter,
+            new EvaluationExecutor(2, 100, 2), metrics);
+
+        // the cache evaluates compiled rules; route them back to the stubbed shouldRun
+        lenient().when(ruleEngine.compile(any(Rule.class))).thenAnswer(invocation -> {
+            Rule rule = invocation.getArgument(0);
+            return (CompiledRule) date -> ruleEngine.shouldRun(rule, date);
+        });
+
         scheduleId = 1L;
         versionId = 10L;
 
@@ -88,10 +113,8 @@ class ScheduleQueryServiceTest {
         when(ruleRepository.findByVersionId(versionId))
             .thenReturn(Optional.of(new Rule()));
         when(ruleEngine.shouldRun(any(Rule.class), eq(queryDate))).thenReturn(true);
-        when(overrideRepository.findByScheduleId(scheduleId))
+        when(overrideRepository.findByScheduleIdAndVersionId(scheduleId, versionId))
             .thenReturn(java.util.Collections.emptyList());
-        when(queryLogRepository.save(any(QueryLog.class)))
-            .thenAnswer(invocation -> invocation.getArgument(0));
 
         // when - Querying should I run today
         ShouldRunQueryResponse response = service.shouldRunToday(scheduleId, request);
@@ -104,7 +127,7 @@ class ScheduleQueryServiceTest {
         assertEquals(versionId, response.getVersionId());
         
         // Should log the query
-        verify(queryLogRepository).save(argThat(log -> 
+        verify(queryLogWriter).write(argThat(log -> 
             log.getScheduleId().equals(scheduleId) &&
             log.getQueryDate().equals(queryDate) &&
             log.isShouldRunResult() &&
@@ -112,6 +135,32 @@ class ScheduleQueryServiceTest {
         ));
     }
 
+    @Test
+    void shouldRunToday_recordsPhaseAndRuleTypeTimers() {
+        // given - metrics bound to a registry
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        metrics.bindTo(registry);
+        LocalDate queryDate = LocalDate.now().plusDays(1);
+
+        when(scheduleRepository.findById(scheduleId)).thenReturn(Optional.of(testSchedule));
+        when(versionRepository.findByScheduleIdAndActiveTrue(scheduleId)).thenReturn(Optional.of(activeVersion));
+        when(ruleRepository.findByVersionId(versionId))
+            .thenReturn(Optional.of(Rule.builder().ruleType(Rule.RuleType.WEEKDAYS_ONLY).build()));
+        when(ruleEngine.shouldRun(any(Rule.class), eq(queryDate))).thenReturn(true);
+        when(overrideRepository.findByScheduleIdAndVersionId(scheduleId, versionId)).thenReturn(java.util.Collections.emptyList());
+
+        // when
+        service.shouldRunToday(scheduleId, new ShouldRunQueryRequest(queryDate, "payroll-service"));
+
+        // then - one sample per phase, and the evaluation is attributed to the rule type
+        for (String phase : new String[]{"lookup", "evaluation", "audit"}) {
+            assertEquals(1, registry.get("holidayguard.query.phase")
+                .tag("operation", "should-run").tag("phase", phase).timer().count(), phase);
+        }
+        assertEquals(1, registry.get("holidayguard.query.evaluation").tag("rule.type", "WEEKDAYS_ONLY").timer().count());
+        assertEquals(0, registry.get("holidayguard.query.phase").tag("operation", "bulk").tag("phase", "lookup").timer().count());
+    }
+
     @Test
     void shouldReturnFalseWhenAnyRuleFails() {
         // given - At least one rule fails for the given date
@@ -124,10 +173,8 @@ class ScheduleQueryServiceTest {
         when(ruleRepository.findByVersionId(versionId))
             .thenReturn(Optional.of(new Rule()));
         when(ruleEngine.shouldRun(any(Rule.class), eq(queryDate))).thenReturn(false);
-        when(overrideRepository.findByScheduleId(scheduleId))
+        when(overrideRepository.findByScheduleIdAndVersionId(scheduleId, versionId))
             .thenReturn(java.util.Collections.emptyList());
-        when(queryLogRepository.save(any(QueryLog.class)))
-            .thenAnswer(invocation -> invocation.getArgument(0));
 
         // when - Querying should I run today
         ShouldRunQueryResponse response = service.shouldRunToday(scheduleId, request);
@@ -139,7 +186,7 @@ class ScheduleQueryServiceTest {
         assertFalse(response.isDeviationApplied());
         
         // Should log the query
-        verify(queryLogRepository).save(argThat(log -> 
+        verify(queryLogWriter).write(argThat(log -> 
             log.getScheduleId().equals(scheduleId) &&
             log.getQueryDate().equals(queryDate) &&
             !log.isShouldRunResult()
@@ -166,11 +213,9 @@ class ScheduleQueryServiceTest {
             .thenReturn(Optional.of(activeVersion));
         when(ruleRepository.findByVersionId(versionId))
             .thenReturn(Optional.of(new Rule())); // Need to mock rule for Calendar construction
-        when(overrideRepository.findByScheduleId(scheduleId))
+        when(overrideRepository.findByScheduleIdAndVersionId(scheduleId, versionId))
             .thenReturn(java.util.List.of(skipOverride));
         // Note: No need to mock ruleEngine.shouldRun() - Calendar checks deviations first
-        when(queryLogRepository.save(any(QueryLog.class)))
-            .thenAnswer(invocation -> invocation.getArgument(0));
 
         // when - Querying should I run today
         ShouldRunQueryResponse response = service.shouldRunToday(scheduleId, request);
@@ -182,8 +227,171 @@ class ScheduleQueryServiceTest {
         assertTrue(response.isDeviationApplied());
 
         // Should log the query with override flag
-        verify(queryLogRepository).save(argThat(log ->
+        verify(queryLogWriter).write(argThat(log ->
             log.isDeviationApplied() && !log.isShouldRunResult()
         ));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldAnswerBulkQueriesWithSetBasedLoadsAndOneAuditBatch() {
+        // given - one valid schedule with a skip deviation, one unknown schedule
+        LocalDate runDate = LocalDate.now().plusDays(3);
+        LocalDate skipDate = LocalDate.now().plusDays(4);
+        LocalDate tooFar = LocalDate.now().plusYears(6);
+
+        Deviation skip = Deviation.builder()
+            .scheduleId(scheduleId)
+            .versionId(versionId)
+            .deviationDate(skipDate)
+            .action(RunStatus.FORCE_SKIP)
+            .reason("Maintenance")
+            .build();
+
+        when(scheduleRepository.findAllById(any())).thenReturn(java.util.List.of(testSchedule));
+        when(versionRepository.findByScheduleIdInAndActiveTrue(any())).thenReturn(java.util.List.of(activeVersion));
+        when(ruleRepository.findByVersionIdIn(any()))
+            .thenReturn(java.util.List.of(Rule.builder().versionId(versionId).build()));
+        when(overrideRepository.findByVersionIdIn(any())).thenReturn(java.util.List.of(skip));
+        when(ruleEngine.shouldRun(any(Rule.class), eq(runDate))).thenReturn(true);
+        when(scheduleRepository.findById(99L)).thenReturn(Optional.empty());
+
+        var request = new BulkShouldRunRequest(java.util.List.of(
+            new BulkShouldRunRequest.ScheduleQuery(scheduleId, java.util.List.of(runDate, skipDate, tooFar)),
+            new BulkShouldRunRequest.ScheduleQuery(99L, java.util.List.of(runDate))
+        ), "orchestrator");
+
+        // when
+        BulkShouldRunResponse response = service.shouldRunBulk(request);
+
+        // then - answers in request order, errors isolated per item
+        var results = response.getResults();
+        assertEquals(4, results.size());
+        assertEquals(2, response.getErrorCount());
+
+        assertTrue(results.get(0).getShouldRun());
+        assertEquals(RunStatus.RUN, results.get(0).getRunStatus());
+        assertEquals(versionId, results.get(0).getVersionId());
+
+        assertFalse(results.get(1).getShouldRun());
+        assertEquals(RunStatus.FORCE_SKIP, results.get(1).getRunStatus());
+        assertEquals("Deviation applied: Maintenance", results.get(1).getReason());
+
+        assertTrue(results.get(2).getError().startsWith("Query date too far in future"));
+        assertEquals("Schedule not found: 99", results.get(3).getError());
+
+        // repositories queried per table, not per schedule
+        verify(versionRepository, never()).findByScheduleIdAndActiveTrue(scheduleId);
+        verify(overrideRepository, never()).findByScheduleIdAndVersionId(any(), any());
+
+        // only evaluated answers are audited, as a single batch
+        verify(queryLogWriter).writeAll(argThat(logs -> logs.size() == 2
+            && logs.stream().allMatch(log -> "orchestrator".equals(log.getClientIdentifier()))));
+        verify(queryLogWriter, never()).write(any());
+    }
+
+    @Test
+    void shouldEvaluateDashboardInParallelWithoutAuditAndCacheUntilInvalidated() {
+        // given - five active schedules, the last without an active version
+        var schedules = new java.util.ArrayList<Schedule>();
+        var versions = new java.util.ArrayList<Version>();
+        var rules = new java.util.ArrayList<Rule>();
+        for (long id = 1; id <= 5; id++) {
+            schedules.add(Schedule.builder().id(id).name("Schedule " + id).active(true).build());
+            if (id < 5) {
+                versions.add(Version.builder().id(id * 10).scheduleId(id).active(true).build());
+                rules.add(Rule.builder().id(id * 100).versionId(id * 10).build());
+            }
+        }
+
+        when(scheduleRepository.findByActiveTrue()).thenReturn(schedules);
+        when(scheduleRepository.findAllById(any())).thenReturn(schedules);
+        when(versionRepository.findByScheduleIdInAndActiveTrue(any())).thenReturn(versions);
+        when(ruleRepository.findByVersionIdIn(any())).thenReturn(rules);
+        when(overrideRepository.findByVersionIdIn(any())).thenReturn(java.util.List.of());
+        when(ruleEngine.shouldRun(any(Rule.class), any(LocalDate.class))).thenReturn(true);
+
+        // when
+        var views = service.getDailyRunStatusForAllActiveSchedules();
+        var again = service.getDailyRunStatusForAllActiveSchedules();
+
+        // then - evaluated in schedule order, unevaluable schedule left out, nothing audited
+        assertEquals(java.util.List.of(1L, 2L, 3L, 4L),
+            views.stream().map(com.jw.holidayguard.dto.view.ScheduleDashboardView::scheduleId).toList());
+        assertTrue(views.stream().allMatch(view -> view.status() == RunStatus.RUN));
+        assertSame(views, again);
+        verify(scheduleRepository, times(1)).findByActiveTrue();
+        verifyNoInteractions(queryLogWriter);
+
+        // when - a schedule changes
+        calendarCache.invalidate(2L);
+        service.getDailyRunStatusForAllActiveSchedules();
+
+        // then - recomputed
+        verify(scheduleRepository, times(2)).findByActiveTrue();
+    }
+
+    @Test
+    void shouldPageLogsWithCursorAndResolveNamesForPageOnly() {
+        // given - the repository returns one row more than the page size
+        Instant queriedAt = Instant.parse("2025-01-10T12:00:00Z");
+        var rows = java.util.List.of(
+            QueryLog.builder().id(3L).scheduleId(scheduleId).versionId(versionId).queryDate(LocalDate.of(2025, 1, 10))
+                .reason("r3").queriedAt(queriedAt).clientIdentifier("c").build(),
+            QueryLog.builder().id(2L).scheduleId(scheduleId).versionId(versionId).queryDate(LocalDate.of(2025, 1, 10))
+                .reason("r2").queriedAt(queriedAt).clientIdentifier("c").build(),
+            QueryLog.builder().id(1L).scheduleId(7L).versionId(versionId).queryDate(LocalDate.of(2025, 1, 10))
+                .reason("r1").queriedAt(queriedAt).clientIdentifier("c").build());
+        when(queryLogRepository.findPage(any(), any(), any(), any(), any(), any(), any(), eq(Limit.of(3)))).thenReturn(rows);
+        when(scheduleRepository.findAllById(java.util.Set.of(scheduleId))).thenReturn(java.util.List.of(testSchedule));
+
+        // when
+        QueryLogPage page = service.findLogs(QueryLogFilter.none(), null, 2);
+
+        // then - two items, names looked up only for them, cursor points at the last item
+        assertEquals(2, page.items().size());
+        assertEquals("Payroll Schedule", page.items().get(0).scheduleName());
+        assertNotNull(page.nextCursor());
+
+        // when - the cursor is passed back
+        when(queryLogRepository.findPage(any(), any(), any(), any(), any(), eq(queriedAt), eq(2L), eq(Limit.of(3))))
+            .thenReturn(rows.subList(2, 3));
+        when(scheduleRepository.findAllById(java.util.Set.of(7L))).thenReturn(java.util.List.of());
+        QueryLogPage next = service.findLogs(QueryLogFilter.none(), page.nextCursor(), 2);
+
+        // then - last page
+        assertEquals("Unknown", next.items().get(0).scheduleName());
+        assertNull(next.nextCursor());
+    }
+
+    @Test
+    void shouldRejectInvalidLogPageRequests() {
+        assertThrows(IllegalArgumentException.class, () -> service.findLogs(QueryLogFilter.none(), null, 0));
+        assertThrows(IllegalArgumentException.class, () -> service.findLogs(QueryLogFilter.none(), null, 501));
+        assertThrows(IllegalArgumentException.class, () -> service.findLogs(QueryLogFilter.none(), "not a cursor", 10));
+        assertThrows(IllegalArgumentException.class, () -> service.findLogs(
+            new QueryLogFilter(null, null, LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 1), null), null, 10));
+        verifyNoInteractions(queryLogRepository);
+    }
+
+    @Test
+    void shouldResolveCalendarForRangeWithinPlanningHorizon() {
+        // given
+        LocalDate from = LocalDate.now();
+        LocalDate to = from.plusYears(5);
+        when(scheduleRepository.findById(scheduleId)).thenReturn(Optional.of(testSchedule));
+        when(versionRepository.findByScheduleIdAndActiveTrue(scheduleId)).thenReturn(Optional.of(activeVersion));
+        when(ruleRepository.findByVersionId(versionId)).thenReturn(Optional.of(new Rule()));
+        when(overrideRepository.findByScheduleIdAndVersionId(scheduleId, versionId)).thenReturn(java.util.List.of());
+
+        // when
+        CalendarSnapshot snapshot = service.getCalendarForRange(scheduleId, from, to);
+
+        // then - range answers are not audited
+        assertEquals(versionId, snapshot.versionId());
+        verifyNoInteractions(queryLogWriter);
+        assertThrows(IllegalArgumentException.class,
+            () -> service.getCalendarForRange(scheduleId, from, to.plusDays(1)));
+        assertThrows(IllegalArgumentException.class,
+            () -> service.getCalendarForRange(scheduleId, to, from));
+    }
+}
@@ -54,6 +54,9 @@ class ScheduleServiceTest {
     @Mock
     private CurrentUserService currentUserService;
 
+    @Mock
+    private CalendarCache calendarCache;
+
     @InjectMocks
     private ScheduleService service;
 
@@ -192,6 +195,7 @@ class ScheduleServiceTest {
         // then
         verify(versionRepository, times(1)).save(any(Version.class));
         verify(ruleRepository, times(1)).save(any(Rule.class));
+        verify(calendarCache).invalidate(scheduleId);
     }
 
     @Test
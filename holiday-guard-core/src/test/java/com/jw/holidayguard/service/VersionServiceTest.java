@@ -39,6 +39,9 @@ class VersionServiceTest {
     @Mock
     private DeviationRepository deviationRepository;
 
+    @Mock
+    private CalendarCache calendarCache;
+
     private ScheduleVersionService scheduleVersionService;
 
     private Schedule testSchedule;
@@ -51,7 +54,8 @@ class VersionServiceTest {
                 scheduleRepository,
                 versionRepository,
                 ruleRepository,
-                deviationRepository
+                deviationRepository,
+                calendarCache
         );
 
         scheduleId = 1L;
@@ -109,5 +113,6 @@ class VersionServiceTest {
                 version.getId().equals(currentVersion.getId()) && !version.isActive()
         ));
         verify(ruleRepository).save(any(Rule.class));
+        verify(calendarCache).invalidate(scheduleId);
     }
 }
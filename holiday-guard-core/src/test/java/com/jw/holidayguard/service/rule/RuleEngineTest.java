@@ -1,7 +1,9 @@
 package com.jw.holidayguard.service.rule;
 
 import com.jw.holidayguard.domain.Rule;
+import com.jw.holidayguard.service.rule.handler.CronExpressionHandler;
 import com.jw.holidayguard.service.rule.handler.WeekdaysOnlyHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import java.time.LocalDate;
@@ -74,4 +76,66 @@ class RuleEngineTest {
             engine.generateDates(unsupportedRule, fromDate, toDate);
         });
     }
+
+    @Test
+    void shouldCompileEachRuleOnce() {
+        engine = new RuleEngineImpl(List.of(new WeekdaysOnlyHandler(), new CronExpressionHandler()));
+        Rule cronRule = Rule.builder()
+                .id(1L)
+                .ruleType(Rule.RuleType.CRON_EXPRESSION)
+                .ruleConfig("0 0 0 * * MON-FRI")
+                .build();
+        Rule sameRuleReloaded = Rule.builder()
+                .id(1L)
+                .ruleType(Rule.RuleType.CRON_EXPRESSION)
+                .ruleConfig("0 0 0 * * MON-FRI")
+                .build();
+        Rule changedConfig = Rule.builder()
+                .id(1L)
+                .ruleType(Rule.RuleType.CRON_EXPRESSION)
+                .ruleConfig("0 0 0 * * SAT,SUN")
+                .build();
+
+        CompiledRule compiled = engine.compile(cronRule);
+
+        assertSame(compiled, engine.compile(sameRuleReloaded));
+        assertNotSame(compiled, engine.compile(changedConfig));
+        assertTrue(compiled.shouldRun(LocalDate.of(2025, 1, 6)));  // Mon
+        assertFalse(compiled.shouldRun(LocalDate.of(2025, 1, 4))); // Sat
+        assertTrue(engine.shouldRun(changedConfig, LocalDate.of(2025, 1, 4)));
+    }
+
+    @Test
+    void shouldRejectInvalidRuleConfigurationAtCompileTime() {
+        engine = new RuleEngineImpl(List.of(new CronExpressionHandler()));
+        Rule invalid = Rule.builder()
+                .id(2L)
+                .ruleType(Rule.RuleType.CRON_EXPRESSION)
+                .ruleConfig("not a cron")
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> engine.compile(invalid));
+        assertThrows(IllegalArgumentException.class, () -> engine.shouldRun(invalid, LocalDate.of(2025, 1, 6)));
+    }
+
+    @Test
+    void shouldTimeCallsByRuleTypeOnceBound() {
+        RuleEngineImpl impl = new RuleEngineImpl(List.of(new WeekdaysOnlyHandler()));
+        Rule rule = Rule.builder()
+                .id(3L)
+                .ruleType(Rule.RuleType.WEEKDAYS_ONLY)
+                .build();
+        impl.shouldRun(rule, LocalDate.of(2025, 1, 6)); // unbound: not recorded
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        impl.bindTo(registry);
+        impl.shouldRun(rule, LocalDate.of(2025, 1, 6));
+        impl.generateDates(rule, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 7));
+
+        assertEquals(1, registry.get("holidayguard.rule.engine")
+                .tags("rule.type", "WEEKDAYS_ONLY", "operation", "should-run").timer().count());
+        assertEquals(1, registry.get("holidayguard.rule.engine")
+                .tags("rule.type", "WEEKDAYS_ONLY", "operation", "generate-dates").timer().count());
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "compiled-rules", "result", "hit").functionCounter().count());
+    }
 }
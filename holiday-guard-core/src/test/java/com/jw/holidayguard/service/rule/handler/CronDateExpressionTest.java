@@ -0,0 +1,227 @@
+package com.jw.holidayguard.service.rule.handler;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.support.CronExpression;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * CronDateExpression must give exactly the answers the per-day {@link CronExpression#next} scan gives.
+ */
+class CronDateExpressionTest {
+
+    private static final long SEED = 20251013L;
+
+    @Test
+    void shouldMatchSpecialDayOfMonthAndDayOfWeekSyntax() {
+        // last day, last weekday, nearest weekday, last Friday, second Tuesday
+        assertRuns("0 0 0 L * ?", LocalDate.of(2024, 2, 29), LocalDate.of(2024, 2, 28));
+        assertRuns("0 0 0 LW * ?", LocalDate.of(2025, 8, 29), LocalDate.of(2025, 8, 31)); // Aug 31 2025 is Sunday
+        assertRuns("0 0 0 L-2 * ?", LocalDate.of(2025, 4, 28), LocalDate.of(2025, 4, 30));
+        assertRuns("0 0 0 15W * ?", LocalDate.of(2025, 3, 14), LocalDate.of(2025, 3, 15)); // Mar 15 2025 is Saturday
+        assertRuns("0 0 0 1W * ?", LocalDate.of(2025, 6, 2), LocalDate.of(2025, 6, 1));   // Jun 1 2025 is Sunday
+        assertRuns("0 0 0 1W * ?", LocalDate.of(2025, 4, 1), LocalDate.of(2025, 2, 3));   // Feb 1 2025 is Saturday: no match
+        assertRuns("0 0 0 1W * MON", LocalDate.of(2025, 2, 3), LocalDate.of(2025, 2, 10)); // reached via day-of-week
+        assertRuns("0 0 0 29W * ?", LocalDate.of(2024, 2, 29), LocalDate.of(2025, 2, 28)); // no 29th, no match
+        assertRuns("0 0 0 ? * 5L", LocalDate.of(2025, 1, 31), LocalDate.of(2025, 1, 24));
+        assertRuns("0 0 0 ? * TUE#2", LocalDate.of(2025, 1, 14), LocalDate.of(2025, 1, 7));
+        assertRuns("@monthly", LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 2));
+    }
+
+    @Test
+    void shouldOnlyRunFirstDayOfConsecutiveMatchesWhenFiringAfterMidnight() {
+        // the handler looks for the first execution after the previous midnight
+        CronDateExpression noon = CronDateExpression.parse("0 0 12 * * MON-FRI");
+
+        assertThat(noon.shouldRun(LocalDate.of(2025, 1, 6))).isTrue();  // Monday, Sunday did not match
+        assertThat(noon.shouldRun(LocalDate.of(2025, 1, 7))).isFalse(); // Tuesday, Monday fired at noon
+        assertThat(noon.runDates(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31)))
+                .containsExactly(LocalDate.of(2025, 1, 6), LocalDate.of(2025, 1, 13),
+                        LocalDate.of(2025, 1, 20), LocalDate.of(2025, 1, 27));
+    }
+
+    @Test
+    void shouldJumpToNextMatch() {
+        CronDateExpression leapDay = CronDateExpression.parse("0 0 0 29 2 ?");
+
+        assertThat(leapDay.nextMatch(LocalDate.of(2025, 3, 1), LocalDate.of(2030, 1, 1)))
+                .isEqualTo(LocalDate.of(2028, 2, 29));
+        assertThat(leapDay.nextMatch(LocalDate.of(2025, 3, 1), LocalDate.of(2027, 1, 1))).isNull();
+        assertThat(CronDateExpression.parse("0 0 0 31 2 ?").nextMatch(LocalDate.of(2025, 1, 1), LocalDate.of(2125, 1, 1)))
+                .isNull();
+    }
+
+    @Test
+    void shouldRejectMalformedExpressions() {
+        assertThatThrownBy(() -> CronDateExpression.parse("0 0 * *"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CronDateExpression.parse("0 0 0 32 * ?"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CronDateExpression.parse("0 0 0 ? * MON#0"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldLeaveOffsetsReachingPreviousMonthToSpring() {
+        // Spring resolves L-30 in February to January 29th; the handler falls back for these
+        assertThatThrownBy(() -> CronDateExpression.parse("0 0 0 L-28 * ?"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(CronDateExpression.parse("0 0 0 L-27 * ?").shouldRun(LocalDate.of(2025, 2, 1))).isTrue();
+    }
+
+    @Test
+    void shouldAgreeWithSpringOnRandomizedCorpus() {
+        Random random = new Random(SEED);
+        int compared = 0;
+        int unsupported = 0;
+
+        for (int i = 0; i < 3000; i++) {
+            String expression = randomExpression(random);
+
+            CronExpression cron;
+            try {
+                cron = CronExpression.parse(expression);
+            } catch (IllegalArgumentException e) {
+                // the handler never reaches the date compiler for expressions Spring rejects
+                continue;
+            }
+
+            CronDateExpression compiled;
+            try {
+                compiled = CronDateExpression.parse(expression);
+            } catch (IllegalArgumentException e) {
+                // left to Spring by the handler
+                unsupported++;
+                continue;
+            }
+
+            // a window of consecutive days somewhere between 1971 and 2098
+            LocalDate from = LocalDate.of(1971 + random.nextInt(127), 1, 1).plusDays(random.nextInt(365));
+            LocalDate to = from.plusDays(random.nextInt(120));
+
+            List<LocalDate> expected = new ArrayList<>();
+            for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                boolean springRuns = springRunsOn(cron, day);
+                assertThat(compiled.shouldRun(day))
+                        .as("'%s' on %s", expression, day)
+                        .isEqualTo(springRuns);
+                if (springRuns) expected.add(day);
+                compared++;
+            }
+
+            assertThat(compiled.runDates(from, to))
+                    .as("'%s' from %s to %s", expression, from, to)
+                    .isEqualTo(expected);
+        }
+
+        assertThat(compared).isGreaterThan(100_000);
+        assertThat(unsupported).isLessThan(100);
+    }
+
+    private void assertRuns(String expression, LocalDate runs, LocalDate doesNotRun) {
+        CronExpression cron = CronExpression.parse(expression);
+        CronDateExpression compiled = CronDateExpression.parse(expression);
+
+        assertThat(springRunsOn(cron, runs)).as("spring '%s' on %s", expression, runs).isTrue();
+        assertThat(compiled.shouldRun(runs)).as("'%s' on %s", expression, runs).isTrue();
+        assertThat(springRunsOn(cron, doesNotRun)).as("spring '%s' on %s", expression, doesNotRun).isFalse();
+        assertThat(compiled.shouldRun(doesNotRun)).as("'%s' on %s", expression, doesNotRun).isFalse();
+    }
+
+    private static boolean springRunsOn(CronExpression cron, LocalDate date) {
+        LocalDateTime next = cron.next(date.atStartOfDay().minusDays(1));
+        return next != null && next.toLocalDate().equals(date);
+    }
+
+    // --- random expression generation ---
+
+    private static final String[] MONTH_NAMES = {
+            "JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"};
+    private static final String[] DAY_NAMES = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+    private static final String[] MACROS = {"@yearly", "@annually", "@monthly", "@weekly", "@daily", "@midnight", "@hourly"};
+
+    private static String randomExpression(Random random) {
+        if (random.nextInt(40) == 0) {
+            return MACROS[random.nextInt(MACROS.length)];
+        }
+        return randomTime(random) + " " + randomDaysOfMonth(random) + " " + randomMonths(random) + " " + randomDaysOfWeek(random);
+    }
+
+    private static String randomTime(Random random) {
+        return switch (random.nextInt(8)) {
+            case 0 -> "0 0 12";
+            case 1 -> "0 0 0,12";
+            case 2 -> "0 30 0";
+            case 3 -> "*/30 * *";
+            case 4 -> "0 0 */6";
+            default -> "0 0 0";
+        };
+    }
+
+    private static String randomDaysOfMonth(Random random) {
+        int parts = random.nextInt(6) == 0 ? 2 : 1;
+        List<String> list = new ArrayList<>();
+        for (int i = 0; i < parts; i++) {
+            list.add(switch (random.nextInt(12)) {
+                case 0 -> "*";
+                case 1 -> "?";
+                case 2 -> "L";
+                case 3 -> "LW";
+                case 4 -> "L-" + (1 + random.nextInt(30));
+                case 5, 6 -> (1 + random.nextInt(31)) + "W";
+                case 7 -> {
+                    int a = 1 + random.nextInt(31);
+                    yield a + "-" + (a + random.nextInt(32 - a));
+                }
+                case 8 -> (1 + random.nextInt(31)) + "/" + (1 + random.nextInt(10));
+                case 9 -> "*/" + (1 + random.nextInt(10));
+                default -> Integer.toString(1 + random.nextInt(31));
+            });
+        }
+        return String.join(",", list);
+    }
+
+    private static String randomMonths(Random random) {
+        return switch (random.nextInt(8)) {
+            case 0 -> MONTH_NAMES[random.nextInt(12)];
+            case 1 -> Integer.toString(1 + random.nextInt(12));
+            case 2 -> {
+                int a = 1 + random.nextInt(12);
+                yield a + "-" + (a + random.nextInt(13 - a));
+            }
+            case 3 -> "*/" + (1 + random.nextInt(6));
+            case 4 -> MONTH_NAMES[random.nextInt(12)] + "," + MONTH_NAMES[random.nextInt(12)];
+            default -> "*";
+        };
+    }
+
+    private static String randomDaysOfWeek(Random random) {
+        int parts = random.nextInt(6) == 0 ? 2 : 1;
+        List<String> list = new ArrayList<>();
+        for (int i = 0; i < parts; i++) {
+            list.add(switch (random.nextInt(12)) {
+                case 0, 1 -> "*";
+                case 2, 3 -> "?";
+                case 4 -> DAY_NAMES[random.nextInt(7)];
+                case 5 -> Integer.toString(random.nextInt(8));
+                case 6 -> {
+                    int a = random.nextInt(8);
+                    yield a + "-" + (a + random.nextInt(8 - a));
+                }
+                case 7 -> DAY_NAMES[1 + random.nextInt(5)] + "-" + DAY_NAMES[6];
+                case 8 -> random.nextInt(8) + "L";
+                case 9 -> DAY_NAMES[random.nextInt(7)] + "#" + (1 + random.nextInt(5));
+                case 10 -> random.nextInt(8) + "#" + (1 + random.nextInt(5));
+                default -> "*/" + (1 + random.nextInt(3));
+            });
+        }
+        return String.join(",", list);
+    }
+}
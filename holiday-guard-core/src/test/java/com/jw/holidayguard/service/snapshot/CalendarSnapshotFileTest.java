@@ -0,0 +1,170 @@
+package com.jw.holidayguard.service.snapshot;
+
+import com.jw.holidayguard.domain.Calendar;
+import com.jw.holidayguard.domain.Deviation;
+import com.jw.holidayguard.domain.Rule;
+import com.jw.holidayguard.domain.RunStatus;
+import com.jw.holidayguard.domain.Schedule;
+import com.jw.holidayguard.service.CalendarSnapshot;
+import com.jw.holidayguard.service.rule.RuleEngine;
+import com.jw.holidayguard.service.rule.RuleEngineImpl;
+import com.jw.holidayguard.service.rule.handler.AllDaysHandler;
+import com.jw.holidayguard.service.rule.handler.CronExpressionHandler;
+import com.jw.holidayguard.service.rule.handler.WeekdaysOnlyHandler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class CalendarSnapshotFileTest {
+
+    private static final LocalDate CHRISTMAS = LocalDate.of(2025, 12, 25);
+    private static final LocalDate SATURDAY = LocalDate.of(2025, 12, 27);
+
+    private final RuleEngine ruleEngine = new RuleEngineImpl(List.of(
+            new WeekdaysOnlyHandler(), new CronExpressionHandler(), new AllDaysHandler()));
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTrip_keepsSchedulesRulesAndDeviations() throws IOException {
+        CalendarSnapshot payroll = snapshot(2L, "Payroll", Rule.RuleType.WEEKDAYS_ONLY, null,
+                deviation(CHRISTMAS, RunStatus.FORCE_SKIP, "Christmas"),
+                deviation(SATURDAY, RunStatus.FORCE_RUN, "Year-end catch-up"),
+                deviation(CHRISTMAS, RunStatus.FORCE_RUN, "ignored: first deviation per date wins"));
+        CalendarSnapshot reports = snapshot(1L, "Reports", Rule.RuleType.CRON_EXPRESSION, "0 0 0 * * MON", new Deviation[0]);
+
+        CalendarSnapshotFile file = write(new CalendarSnapshotWriter().add(payroll).add(reports));
+
+        assertThat(file.size()).isEqualTo(2);
+        assertThat(file.names()).containsExactly("Reports", "Payroll");
+        assertThat(file.exportedAt()).isBeforeOrEqualTo(Instant.now());
+        assertThat(file.source()).isEmpty();
+
+        CalendarSnapshotFile.Entry entry = file.find(2L).orElseThrow();
+        assertThat(entry.versionId()).isEqualTo(20L);
+        assertThat(entry.versionEffectiveFrom()).isEqualTo(Instant.parse("2025-01-01T00:00:00Z"));
+        assertThat(entry.schedule().getCountry()).isEqualTo("US");
+        assertThat(entry.active()).isTrue();
+        assertThat(entry.rule().getId()).isEqualTo(200L);
+        assertThat(entry.ruleType()).isEqualTo(Rule.RuleType.WEEKDAYS_ONLY);
+        assertThat(entry.ruleConfig()).isNull();
+        assertThat(entry.deviations())
+                .extracting(Deviation::getDeviationDate, Deviation::getAction, Deviation::getReason)
+                .containsExactly(
+                        tuple(CHRISTMAS, RunStatus.FORCE_SKIP, "Christmas"),
+                        tuple(SATURDAY, RunStatus.FORCE_RUN, "Year-end catch-up"));
+        assertThat(entry.runStatus(CHRISTMAS)).isEqualTo(RunStatus.FORCE_SKIP);
+        assertThat(entry.runStatus(SATURDAY)).isEqualTo(RunStatus.FORCE_RUN);
+        assertThat(entry.runStatus(CHRISTMAS.minusDays(1))).isEqualTo(RunStatus.RUN);
+        assertThat(entry.runStatus(SATURDAY.plusDays(1))).isEqualTo(RunStatus.SKIP);
+
+        assertThat(file.find(1L).orElseThrow().ruleConfig()).isEqualTo("0 0 0 * * MON");
+        assertThat(file.find(3L)).isEmpty();
+    }
+
+    @Test
+    void yearBitmaps_answerLikeTheCompiledRule() throws IOException {
+        CalendarSnapshot cron = snapshot(1L, "Mondays", Rule.RuleType.CRON_EXPRESSION, "0 0 0 * * MON",
+                deviation(LocalDate.of(2024, 2, 29), RunStatus.FORCE_RUN, "Leap day"));
+        CalendarSnapshot weekdays = snapshot(2L, "Weekdays", Rule.RuleType.WEEKDAYS_ONLY, null, new Deviation[0]);
+
+        CalendarSnapshotFile withBitmaps = write(new CalendarSnapshotWriter().withYearBitmaps(2024, 2025).add(cron).add(weekdays));
+        assertThat(withBitmaps.hasBitmap(2024)).isTrue();
+        assertThat(withBitmaps.hasBitmap(2026)).isFalse();
+
+        for (CalendarSnapshot snapshot : List.of(cron, weekdays)) {
+            Calendar expected = snapshot.calendar();
+            Calendar actual = withBitmaps.find(snapshot.scheduleId()).orElseThrow().calendar();
+            for (LocalDate date = LocalDate.of(2023, 12, 1); date.isBefore(LocalDate.of(2026, 2, 1)); date = date.plusDays(1)) {
+                assertThat(actual.runStatus(date)).as("%s on %s", snapshot.schedule().getName(), date)
+                        .isEqualTo(expected.runStatus(date));
+            }
+        }
+    }
+
+    @Test
+    void source_isKeptWithoutDisturbingStrings() throws IOException {
+        CalendarSnapshotFile file = write(new CalendarSnapshotWriter()
+                .withSource("Payroll")
+                .add(snapshot(1L, "Payroll", Rule.RuleType.WEEKDAYS_ONLY, null, new Deviation[0])));
+
+        assertThat(file.source()).contains("Payroll");
+        assertThat(file.names()).containsExactly("Payroll");
+    }
+
+    @Test
+    void findByName_ignoresCase() throws IOException {
+        CalendarSnapshotWriter writer = new CalendarSnapshotWriter();
+        for (long id = 1; id <= 50; id++) {
+            writer.add(snapshot(id, "Schedule " + id, Rule.RuleType.ALL_DAYS, null, new Deviation[0]));
+        }
+        writer.add(snapshot(51L, "SCHEDULE 7", Rule.RuleType.ALL_DAYS, null, new Deviation[0]));
+
+        CalendarSnapshotFile file = write(writer);
+
+        assertThat(file.findByName("schedule 42")).map(CalendarSnapshotFile.Entry::scheduleId).contains(42L);
+        assertThat(file.findByName("Schedule 7")).map(CalendarSnapshotFile.Entry::scheduleId).contains(7L);
+        assertThat(file.findByName("Schedule 99")).isEmpty();
+    }
+
+    @Test
+    void open_rejectsOtherAndTruncatedFiles() throws IOException {
+        Path json = Files.writeString(dir.resolve("schedules.json"), "{\"schedules\": []}");
+        assertThat(CalendarSnapshotFile.isSnapshot(json)).isFalse();
+        assertThatThrownBy(() -> CalendarSnapshotFile.open(json, ruleEngine))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Not a calendar snapshot file");
+
+        CalendarSnapshotFile file = write(new CalendarSnapshotWriter()
+                .add(snapshot(1L, "Payroll", Rule.RuleType.WEEKDAYS_ONLY, null, new Deviation[0])));
+        assertThat(CalendarSnapshotFile.isSnapshot(file.file())).isTrue();
+        byte[] bytes = Files.readAllBytes(file.file());
+        Path truncated = Files.write(dir.resolve("truncated.hgsnap"), Arrays.copyOf(bytes, bytes.length - 1));
+        assertThatThrownBy(() -> CalendarSnapshotFile.open(truncated, ruleEngine))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("is truncated");
+    }
+
+    @Test
+    void writer_rejectsDuplicateIdsAndLongBitmapRanges() {
+        CalendarSnapshotWriter writer = new CalendarSnapshotWriter()
+                .add(snapshot(1L, "a", Rule.RuleType.ALL_DAYS, null, new Deviation[0]))
+                .add(snapshot(1L, "b", Rule.RuleType.ALL_DAYS, null, new Deviation[0]));
+
+        assertThatThrownBy(() -> writer.writeTo(dir.resolve("duplicate.hgsnap")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Duplicate schedule id in snapshot: 1");
+        assertThat(dir.resolve("duplicate.hgsnap")).doesNotExist();
+        assertThatThrownBy(() -> new CalendarSnapshotWriter().withYearBitmaps(2000, 2100))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private CalendarSnapshotFile write(CalendarSnapshotWriter writer) throws IOException {
+        Path file = dir.resolve("calendars.hgsnap");
+        writer.writeTo(file);
+        return CalendarSnapshotFile.open(file, ruleEngine);
+    }
+
+    private CalendarSnapshot snapshot(Long id, String name, Rule.RuleType ruleType, String ruleConfig, Deviation... deviations) {
+        Schedule schedule = Schedule.builder().id(id).name(name).country("US").active(true).build();
+        Rule rule = Rule.builder().id(id * 100).scheduleId(id).versionId(id * 10).ruleType(ruleType).ruleConfig(ruleConfig).build();
+        Calendar calendar = new Calendar(schedule, rule, List.of(deviations), ruleEngine::shouldRun);
+        return new CalendarSnapshot(schedule, id * 10, Instant.parse("2025-01-01T00:00:00Z"), calendar);
+    }
+
+    private static Deviation deviation(LocalDate date, RunStatus action, String reason) {
+        return Deviation.builder().deviationDate(date).action(action).reason(reason).build();
+    }
+}
@@ -0,0 +1,72 @@
+package com.jw.holidayguard.util;
+
+import com.jw.holidayguard.util.USFederalReserveScheduleFactory.USFederalHolidays;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class USFederalHolidayTableTest {
+
+    @Test
+    void agreesWithCalculatedHolidaysInsideAndOutsideSpan() {
+        // given - a small span so most years are computed lazily
+        USFederalHolidayTable table = new USFederalHolidayTable(2024, 2025);
+
+        // then - every day from 2019 to 2031 matches a from-scratch calculation
+        for (LocalDate date = LocalDate.of(2019, 1, 1); date.getYear() < 2032; date = date.plusDays(1)) {
+            List<LocalDate> holidays = USFederalHolidays.calculateHolidays(date.getYear());
+            boolean holiday = holidays.contains(date);
+            boolean weekend = date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY;
+
+            assertThat(table.isHoliday(date)).as("isHoliday %s", date).isEqualTo(holiday);
+            assertThat(table.isHoliday(date.toEpochDay())).as("isHoliday epoch %s", date).isEqualTo(holiday);
+            assertThat(table.isBusinessDay(date)).as("isBusinessDay %s", date).isEqualTo(!weekend && !holiday);
+        }
+        assertThat(table.getHolidays(2030)).isEqualTo(USFederalHolidays.calculateHolidays(2030));
+    }
+
+    @Test
+    void listsBusinessDaysAcrossYearBoundaries() {
+        // given
+        USFederalHolidayTable table = USFederalHolidayTable.getDefault();
+        LocalDate from = LocalDate.of(2024, 12, 20);
+        LocalDate to = LocalDate.of(2025, 1, 10);
+
+        // when
+        List<LocalDate> businessDays = table.getBusinessDays(from, to);
+
+        // then
+        List<LocalDate> expected = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            if (table.isBusinessDay(date)) expected.add(date);
+        }
+        assertThat(businessDays).isEqualTo(expected)
+                .doesNotContain(LocalDate.of(2024, 12, 25), LocalDate.of(2025, 1, 1))
+                .startsWith(LocalDate.of(2024, 12, 20))
+                .endsWith(LocalDate.of(2025, 1, 10));
+        assertThat(table.getBusinessDays(to, from)).isEmpty();
+    }
+
+    @Test
+    void countsBusinessDaysPerYear() {
+        USFederalHolidayTable table = USFederalHolidayTable.getDefault();
+
+        // 2025: 261 weekdays, all 11 holidays fall on weekdays
+        assertThat(table.countBusinessDays(2025)).isEqualTo(250);
+        assertThat(table.getBusinessDayBits(2025)).hasSize(6);
+        assertThat(USFederalHolidays.getHolidays(2025)).isSameAs(table.getHolidays(2025));
+    }
+
+    @Test
+    void rejectsEmptySpan() {
+        assertThatThrownBy(() -> new USFederalHolidayTable(2030, 2020))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("after last year");
+    }
+}
@@ -4,9 +4,11 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.AccessLevel;
 import lombok.Getter;
 
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,7 +31,9 @@ import java.util.Optional;
  *   <li>This is a POJO, not a JPA @Entity (composition, not persistence)</li>
  *   <li>Deviations always take precedence over rules</li>
  *   <li>Single-date query is optimized (O(1) for deviation lookup + O(1) for rule evaluation)</li>
+ *   <li>Deviations are indexed by date on construction, so lookup cost does not grow with their count</li>
  *   <li>Date-range query internally calls single-date query for consistency</li>
+ *   <li>Deviations are copied on construction, so a Calendar can be shared across threads</li>
  * </ul>
  */
 @Getter
@@ -39,12 +43,13 @@ public class Calendar {
     private final Rule rule;
     private final List<Deviation> deviations;
 
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    private final Map<LocalDate, Deviation> deviationsByDate;
+
     @JsonIgnore  // Don't serialize the evaluator - it's a strategy, not data
     private final RuleEvaluator ruleEvaluator;
 
-    private static final ObjectMapper mapper = new ObjectMapper()
-            .registerModule(new JavaTimeModule());
-
     /**
      * Creates a Calendar with the given schedule, rule, and deviations.
      *
@@ -56,7 +61,8 @@ public class Calendar {
     public Calendar(Schedule schedule, Rule rule, List<Deviation> deviations, RuleEvaluator ruleEvaluator) {
         this.schedule = schedule;
         this.rule = rule;
-        this.deviations = deviations != null ? deviations : List.of();
+        this.deviations = deviations != null ? List.copyOf(deviations) : List.of();
+        this.deviationsByDate = indexByDate(this.deviations);
         this.ruleEvaluator = ruleEvaluator;
     }
 
@@ -76,7 +82,7 @@ public class Calendar {
      */
     public boolean shouldRun(LocalDate date) {
 
-        var deviation = findDeviationForDate(date);
+        var deviation = findDeviation(date);
 
         // use deviation or fallback to rule
         return deviation
@@ -86,6 +92,20 @@ public class Calendar {
         // No deviation found, evaluate rule
     }
 
+    /**
+     * Determines the detailed run status for a date: FORCE_RUN/FORCE_SKIP when a deviation
+     * applies, otherwise RUN/SKIP from the rule. Consistent with {@link #shouldRun(LocalDate)}.
+     *
+     * @param date The date to check
+     * @return the run status for the date
+     */
+    public RunStatus runStatus(LocalDate date) {
+        var deviation = findDeviation(date);
+        return deviation
+                .map(Deviation::getAction)
+                .orElseGet(() -> RunStatus.fromCalendar(ruleEvaluator.shouldRun(rule, date)));
+    }
+
     /**
      * Checks if the schedule should run for each date in the given range (inclusive).
      * This method ensures consistency with single-date queries by calling shouldRun(date)
@@ -114,15 +134,28 @@ public class Calendar {
     }
 
     /**
-     * Finds a deviation for the given date, if one exists.
+     * Finds the deviation for the given date, if one exists.
+     * Backed by an index built at construction, so this is a single hash lookup.
+     *
+     * <p>If several deviations share a date, the first one in list order wins.
      *
      * @param date The date to look up
      * @return Optional containing the deviation, or empty if none exists
      */
-    private Optional<Deviation> findDeviationForDate(LocalDate date) {
-        return deviations.stream()
-                .filter(d -> d.getDeviationDate().equals(date))
-                .findFirst();
+    public Optional<Deviation> findDeviation(LocalDate date) {
+        return Optional.ofNullable(deviationsByDate.get(date));
+    }
+
+    private static Map<LocalDate, Deviation> indexByDate(List<Deviation> deviations) {
+        if (deviations.isEmpty()) return Map.of();
+
+        Map<LocalDate, Deviation> index = new HashMap<>(deviations.size() * 2);
+        for (Deviation deviation : deviations) {
+            if (deviation.getDeviationDate() != null) {
+                index.putIfAbsent(deviation.getDeviationDate(), deviation);
+            }
+        }
+        return Map.copyOf(index);
     }
 
     /**
@@ -136,7 +169,7 @@ public class Calendar {
      */
     public String toJson() {
         try {
-            return mapper.writeValueAsString(this);
+            return Json.MAPPER.writeValueAsString(this);
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Failed to serialize Calendar to JSON", e);
         }
@@ -153,7 +186,7 @@ public class Calendar {
      */
     public static Calendar fromJson(String json, RuleEvaluator ruleEvaluator) {
         try {
-            var data = mapper.readValue(json, CalendarData.class);
+            var data = Json.MAPPER.readValue(json, CalendarData.class);
 
             return new Calendar(
                     data.schedule(),
@@ -166,6 +199,15 @@ public class Calendar {
         }
     }
 
+    /**
+     * Holds the mapper, so Jackson starts on the first toJson/fromJson rather than with the
+     * first Calendar; short-lived callers such as the CLI never serialize one.
+     */
+    private static final class Json {
+        static final ObjectMapper MAPPER = new ObjectMapper()
+                .registerModule(new JavaTimeModule());
+    }
+
     /**
      * Internal DTO for JSON deserialization.
      * Needed because Calendar has a @JsonIgnore field (ruleEvaluator) that we don't want to deserialize.
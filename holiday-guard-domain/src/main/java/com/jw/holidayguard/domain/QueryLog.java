@@ -15,7 +15,12 @@ import java.time.LocalDate;
  * These records are never deleted.
  */
 @Entity
-@Table(name = "query_log")
+@Table(name = "query_log", indexes = {
+    // keyset pagination of the audit log: newest first, optionally narrowed to a schedule or client
+    @Index(name = "idx_query_log_queried_at_id", columnList = "queried_at, id"),
+    @Index(name = "idx_query_log_schedule_queried_at", columnList = "schedule_id, queried_at, id"),
+    @Index(name = "idx_query_log_client_queried_at", columnList = "client_identifier, queried_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
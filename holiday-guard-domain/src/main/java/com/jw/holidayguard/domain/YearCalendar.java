@@ -0,0 +1,328 @@
+package com.jw.holidayguard.domain;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * YearCalendar is a materialized view of a {@link Calendar} for a single calendar year.
+ * Every day's final answer (rule and deviations already applied) is stored as one bit,
+ * and a second bitmap marks the days where a deviation decided the answer.
+ *
+ * <p>Design notes:
+ * <ul>
+ *   <li>Built once by evaluating the calendar for each day of the year (365/366 evaluations)</li>
+ *   <li>After that, shouldRun() and runStatus() are single bit lookups</li>
+ *   <li>Range counts use Long.bitCount over whole words instead of iterating dates</li>
+ *   <li>A year fits in six longs per bitmap, so instances are cheap to keep per schedule</li>
+ *   <li>Immutable; {@link #getRunBits()} hands out a copy, so instances can be shared across threads</li>
+ * </ul>
+ *
+ * <p>Bit {@code i} corresponds to day-of-year {@code i + 1}. A deviation day that runs is
+ * FORCE_RUN, a deviation day that does not run is FORCE_SKIP.
+ *
+ * <p>This is the one per-year bitmap in the code base: calendar snapshot files store
+ * {@link #getRunBits()} of a rule-only year ({@link #ofDays}), the Federal Reserve
+ * business-day table keeps one per year, and the CLI range walk materializes one per year
+ * from the rule engine's run dates.
+ */
+public final class YearCalendar {
+
+    private static final int WORDS = 6; // 366 days / 64 bits, rounded up
+
+    private final int year;
+    private final int length;
+    private final long[] runBits;
+    private final long[] deviationBits;
+
+    private YearCalendar(int year, long[] runBits, long[] deviationBits) {
+        this.year = year;
+        this.length = Year.of(year).length();
+        this.runBits = runBits;
+        this.deviationBits = deviationBits;
+    }
+
+    /**
+     * Materializes one year of the given calendar.
+     *
+     * @param calendar The calendar to evaluate; its rule evaluator is called once per day
+     * @param year The calendar year to materialize
+     * @return the materialized year
+     */
+    public static YearCalendar of(Calendar calendar, int year) {
+        long[] runBits = ruleBits(year, date -> calendar.getRuleEvaluator().shouldRun(calendar.getRule(), date));
+        return withDeviations(calendar, year, runBits);
+    }
+
+    /**
+     * Materializes one year of the given calendar from run dates the rule already produced,
+     * such as a rule engine's {@code generateDates}, so the rule is not evaluated per day.
+     * Deviations are applied on top as in {@link #of(Calendar, int)}.
+     *
+     * @param calendar The calendar whose deviations apply
+     * @param year The calendar year to materialize
+     * @param ruleRunDates Days the rule runs; dates outside the year are ignored. A caller that
+     *                     only reads part of the year may pass the run dates of that part.
+     * @return the materialized year
+     */
+    public static YearCalendar of(Calendar calendar, int year, List<LocalDate> ruleRunDates) {
+        long[] runBits = new long[WORDS];
+        for (LocalDate date : ruleRunDates) {
+            if (date.getYear() == year) {
+                set(runBits, date.getDayOfYear() - 1);
+            }
+        }
+        return withDeviations(calendar, year, runBits);
+    }
+
+    /**
+     * Materializes a year from a plain day predicate, with no deviations: every day is RUN or
+     * SKIP. Used for rule-only bitmaps and fixed day sets such as business days.
+     *
+     * @param year The calendar year to materialize
+     * @param runs Called once per day of the year
+     * @return the materialized year
+     */
+    public static YearCalendar ofDays(int year, Predicate<LocalDate> runs) {
+        return new YearCalendar(year, ruleBits(year, runs), new long[WORDS]);
+    }
+
+    private static long[] ruleBits(int year, Predicate<LocalDate> runs) {
+        long[] runBits = new long[WORDS];
+        LocalDate date = LocalDate.ofYearDay(year, 1);
+        int length = Year.of(year).length();
+        for (int day = 0; day < length; day++, date = date.plusDays(1)) {
+            if (runs.test(date)) {
+                set(runBits, day);
+            }
+        }
+        return runBits;
+    }
+
+    private static YearCalendar withDeviations(Calendar calendar, int year, long[] runBits) {
+        long[] deviationBits = new long[WORDS];
+        for (Deviation deviation : calendar.getDeviations()) {
+            LocalDate date = deviation.getDeviationDate();
+            if (date == null || date.getYear() != year) continue;
+
+            // the first deviation on a date wins, as in Calendar
+            int day = date.getDayOfYear() - 1;
+            if (get(deviationBits, day)) continue;
+            set(deviationBits, day);
+            if (deviation.shouldRun()) {
+                set(runBits, day);
+            } else {
+                runBits[day >>> 6] &= ~(1L << day);
+            }
+        }
+        return new YearCalendar(year, runBits, deviationBits);
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    /**
+     * @return true if the date falls within this calendar's year
+     */
+    public boolean covers(LocalDate date) {
+        return date.getYear() == year;
+    }
+
+    /**
+     * Checks if the schedule should run on a specific date. Consistent with
+     * {@link Calendar#shouldRun(LocalDate)} for the calendar this year was built from.
+     *
+     * @throws IllegalArgumentException if the date is not in this year
+     */
+    public boolean shouldRun(LocalDate date) {
+        return get(runBits, index(date));
+    }
+
+    /**
+     * @return true if a deviation decided the answer for this date
+     * @throws IllegalArgumentException if the date is not in this year
+     */
+    public boolean isDeviation(LocalDate date) {
+        return get(deviationBits, index(date));
+    }
+
+    /**
+     * Determines the detailed run status for a date. Consistent with
+     * {@link Calendar#runStatus(LocalDate)}.
+     *
+     * @throws IllegalArgumentException if the date is not in this year
+     */
+    public RunStatus runStatus(LocalDate date) {
+        int day = index(date);
+        boolean run = get(runBits, day);
+        if (get(deviationBits, day)) {
+            return run ? RunStatus.FORCE_RUN : RunStatus.FORCE_SKIP;
+        }
+        return RunStatus.fromCalendar(run);
+    }
+
+    /**
+     * @return the number of days in the year the schedule runs
+     */
+    public int countRunDays() {
+        int count = 0;
+        for (long word : runBits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Counts run days in an inclusive range. Both ends must lie within this year.
+     * If start is after end, returns 0.
+     *
+     * @throws IllegalArgumentException if either end is not in this year
+     */
+    public int countRunDays(LocalDate start, LocalDate end) {
+        return countBits(runBits, index(start), index(end));
+    }
+
+    /**
+     * @return the number of days in the year decided by a deviation
+     */
+    public int countDeviationDays() {
+        int count = 0;
+        for (long word : deviationBits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Finds the first run date on or after the given date, within this year.
+     *
+     * @param from The date to start searching from (inclusive)
+     * @return the next run date, or empty if the schedule does not run again this year
+     * @throws IllegalArgumentException if the date is not in this year
+     */
+    public Optional<LocalDate> nextRunDate(LocalDate from) {
+        int day = index(from);
+        int word = day >>> 6;
+        long bits = runBits[word] & (-1L << day);
+
+        while (true) {
+            if (bits != 0) {
+                int found = (word << 6) + Long.numberOfTrailingZeros(bits);
+                return found < length ? Optional.of(LocalDate.ofYearDay(year, found + 1)) : Optional.empty();
+            }
+            if (++word == WORDS) return Optional.empty();
+            bits = runBits[word];
+        }
+    }
+
+    /**
+     * @return every date in the year the schedule runs, in order
+     */
+    public List<LocalDate> runDates() {
+        List<LocalDate> dates = new ArrayList<>(countRunDays());
+        for (int word = 0; word < WORDS; word++) {
+            long bits = runBits[word];
+            while (bits != 0) {
+                int day = (word << 6) + Long.numberOfTrailingZeros(bits);
+                dates.add(LocalDate.ofYearDay(year, day + 1));
+                bits &= bits - 1;
+            }
+        }
+        return dates;
+    }
+
+    /**
+     * Lists run dates in an inclusive range. Both ends must lie within this year.
+     * If start is after end, returns an empty list.
+     *
+     * @throws IllegalArgumentException if either end is not in this year
+     */
+    public List<LocalDate> runDates(LocalDate start, LocalDate end) {
+        int from = index(start);
+        int to = index(end);
+        List<LocalDate> dates = new ArrayList<>();
+        if (from > to) return dates;
+
+        for (int word = from >>> 6; word <= to >>> 6; word++) {
+            long bits = runBits[word];
+            while (bits != 0) {
+                int day = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (day < from) continue;
+                if (day > to) break;
+                dates.add(LocalDate.ofYearDay(year, day + 1));
+            }
+        }
+        return dates;
+    }
+
+    /**
+     * Returns the run bitmap: bit {@code i} (word {@code i / 64}, bit {@code i % 64}) is set
+     * when the schedule runs on day-of-year {@code i + 1}. This is the layout calendar snapshot
+     * files store per year.
+     *
+     * @return a copy of the bitmap, six words long
+     */
+    public long[] getRunBits() {
+        return runBits.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof YearCalendar other)) return false;
+        return year == other.year
+                && Arrays.equals(runBits, other.runBits)
+                && Arrays.equals(deviationBits, other.deviationBits);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * year + Arrays.hashCode(runBits)) + Arrays.hashCode(deviationBits);
+    }
+
+    @Override
+    public String toString() {
+        return "YearCalendar{year=" + year + ", runDays=" + countRunDays()
+                + ", deviationDays=" + countDeviationDays() + "}";
+    }
+
+    private int index(LocalDate date) {
+        if (date.getYear() != year) {
+            throw new IllegalArgumentException("Date " + date + " is outside calendar year " + year);
+        }
+        return date.getDayOfYear() - 1;
+    }
+
+    private static void set(long[] bits, int day) {
+        bits[day >>> 6] |= 1L << day;
+    }
+
+    private static boolean get(long[] bits, int day) {
+        return (bits[day >>> 6] & (1L << day)) != 0;
+    }
+
+    private static int countBits(long[] bits, int from, int to) {
+        if (from > to) return 0;
+
+        int firstWord = from >>> 6;
+        int lastWord = to >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> (63 - (to & 63));
+
+        if (firstWord == lastWord) {
+            return Long.bitCount(bits[firstWord] & firstMask & lastMask);
+        }
+
+        int count = Long.bitCount(bits[firstWord] & firstMask);
+        for (int word = firstWord + 1; word < lastWord; word++) {
+            count += Long.bitCount(bits[word]);
+        }
+        return count + Long.bitCount(bits[lastWord] & lastMask);
+    }
+}
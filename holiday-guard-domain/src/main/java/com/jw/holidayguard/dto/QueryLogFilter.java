@@ -0,0 +1,24 @@
+package com.jw.holidayguard.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Optional filters for browsing the audit log. A null field does not filter.
+ *
+ * @param scheduleId only entries for this schedule
+ * @param clientIdentifier only entries from this client
+ * @param fromDate only entries whose query date is on or after this date
+ * @param toDate only entries whose query date is on or before this date
+ * @param shouldRunResult only entries with this answer
+ */
+public record QueryLogFilter(
+    Long scheduleId,
+    String clientIdentifier,
+    LocalDate fromDate,
+    LocalDate toDate,
+    Boolean shouldRunResult) {
+
+    public static QueryLogFilter none() {
+        return new QueryLogFilter(null, null, null, null, null);
+    }
+}
@@ -0,0 +1,14 @@
+package com.jw.holidayguard.dto;
+
+import java.util.List;
+
+/**
+ * One page of audit log entries, newest first.
+ *
+ * @param items the entries on this page
+ * @param nextCursor opaque cursor for the following page, or null if this is the last page
+ */
+public record QueryLogPage(
+    List<QueryLogDto> items,
+    String nextCursor) {
+}
@@ -0,0 +1,41 @@
+package com.jw.holidayguard.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Request DTO for answering should-run for many schedules and dates at once.
+ * A query without dates is evaluated for today.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkShouldRunRequest {
+
+    @NotEmpty(message = "At least one schedule query is required")
+    @Size(max = 1000, message = "No more than 1000 schedule queries per request")
+    @Valid
+    private List<ScheduleQuery> queries;
+
+    private String clientIdentifier;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ScheduleQuery {
+
+        @NotNull(message = "Schedule ID is required")
+        private Long scheduleId;
+
+        @Size(max = 366, message = "No more than 366 dates per schedule query")
+        private List<@NotNull(message = "Dates must not contain null") LocalDate> dates;
+    }
+}
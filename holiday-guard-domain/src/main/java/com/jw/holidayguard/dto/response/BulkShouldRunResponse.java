@@ -0,0 +1,20 @@
+package com.jw.holidayguard.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for bulk should-run queries.
+ * Results follow the order of the request, one per (schedule, date) pair.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkShouldRunResponse {
+
+    private List<BulkShouldRunResult> results;
+    private int errorCount;
+}
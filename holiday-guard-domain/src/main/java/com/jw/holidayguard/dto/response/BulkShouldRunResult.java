@@ -0,0 +1,46 @@
+package com.jw.holidayguard.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.jw.holidayguard.domain.RunStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One answer in a {@link BulkShouldRunResponse}.
+ * Carries the same fields as {@link ShouldRunQueryResponse}, or an error message when that
+ * (schedule, date) pair could not be evaluated.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkShouldRunResult {
+
+    private Long scheduleId;
+    private LocalDate queryDate;
+    private Boolean shouldRun;
+    private RunStatus runStatus;
+    private String reason;
+    private Boolean deviationApplied;
+    private Long versionId;
+    private String error;
+
+    public static BulkShouldRunResult of(ShouldRunQueryResponse response) {
+        return new BulkShouldRunResult(
+                response.getScheduleId(),
+                response.getQueryDate(),
+                response.isShouldRun(),
+                response.getRunStatus(),
+                response.getReason(),
+                response.isDeviationApplied(),
+                response.getVersionId(),
+                null);
+    }
+
+    public static BulkShouldRunResult error(Long scheduleId, LocalDate queryDate, String error) {
+        return new BulkShouldRunResult(scheduleId, queryDate, null, null, null, null, null, error);
+    }
+}
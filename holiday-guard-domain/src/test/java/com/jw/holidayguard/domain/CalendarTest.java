@@ -76,6 +76,42 @@ class CalendarTest {
         assertThat(mockRuleEvaluator.getLastQueriedDate()).isEqualTo(saturday);
     }
 
+    @Test
+    void runStatus_reportsDeviationActionOrRuleResult() {
+        // given - a skip deviation on Wednesday, rule matches every day
+        LocalDate tuesday = LocalDate.of(2025, 1, 7);
+        LocalDate wednesday = LocalDate.of(2025, 1, 8);
+        Deviation skipWednesday = Deviation.builder()
+                .deviationDate(wednesday)
+                .action(RunStatus.FORCE_SKIP)
+                .reason("Maintenance")
+                .build();
+        Calendar calendar = new Calendar(schedule, weekdaysRule, List.of(skipWednesday), mockRuleEvaluator);
+        mockRuleEvaluator.setResult(true);
+
+        // when / then
+        assertThat(calendar.runStatus(tuesday)).isEqualTo(RunStatus.RUN);
+        assertThat(calendar.runStatus(wednesday)).isEqualTo(RunStatus.FORCE_SKIP);
+        assertThat(calendar.shouldRun(wednesday)).isFalse();
+    }
+
+    @Test
+    void findDeviation_returnsFirstDeviationForDate() {
+        // given - two deviations on the same date and one on another
+        LocalDate christmas = LocalDate.of(2025, 12, 25);
+        Deviation first = Deviation.builder().deviationDate(christmas).action(RunStatus.FORCE_SKIP).reason("Christmas").build();
+        Deviation duplicate = Deviation.builder().deviationDate(christmas).action(RunStatus.FORCE_RUN).reason("Duplicate").build();
+        Deviation newYear = Deviation.builder().deviationDate(LocalDate.of(2026, 1, 1)).action(RunStatus.FORCE_SKIP).reason("New Year").build();
+
+        Calendar calendar = new Calendar(schedule, weekdaysRule, List.of(first, duplicate, newYear), mockRuleEvaluator);
+
+        // when / then - list order decides, as with the original linear scan
+        assertThat(calendar.findDeviation(christmas)).containsSame(first);
+        assertThat(calendar.findDeviation(LocalDate.of(2026, 1, 1))).containsSame(newYear);
+        assertThat(calendar.findDeviation(LocalDate.of(2025, 12, 24))).isEmpty();
+        assertThat(calendar.getDeviations()).hasSize(3);
+    }
+
     @Test
     void shouldApplySkipDeviation_overridingRule() {
         // given - A calendar with a SKIP deviation on Monday
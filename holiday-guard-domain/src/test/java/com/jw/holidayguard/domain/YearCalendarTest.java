@@ -0,0 +1,169 @@
+package com.jw.holidayguard.domain;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class YearCalendarTest {
+
+    private static final Calendar.RuleEvaluator WEEKDAYS =
+            (rule, date) -> date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY;
+
+    private Schedule schedule;
+    private Rule rule;
+
+    @BeforeEach
+    void setUp() {
+        schedule = Schedule.builder().id(1L).name("Payroll Schedule").build();
+        rule = Rule.builder().id(10L).ruleType(Rule.RuleType.WEEKDAYS_ONLY).build();
+    }
+
+    @Test
+    void agreesWithCalendarForEveryDayOfYear() {
+        // given - weekdays rule with a skipped weekday and a forced weekend run
+        List<Deviation> deviations = List.of(
+                deviation(LocalDate.of(2024, 12, 25), RunStatus.FORCE_SKIP),
+                deviation(LocalDate.of(2024, 12, 28), RunStatus.FORCE_RUN),
+                deviation(LocalDate.of(2023, 12, 25), RunStatus.FORCE_RUN)); // other year, ignored
+        Calendar calendar = new Calendar(schedule, rule, deviations, WEEKDAYS);
+
+        // when - 2024 is a leap year
+        YearCalendar year = YearCalendar.of(calendar, 2024);
+
+        // then
+        for (LocalDate date = LocalDate.of(2024, 1, 1); date.getYear() == 2024; date = date.plusDays(1)) {
+            assertThat(year.shouldRun(date)).as("shouldRun %s", date).isEqualTo(calendar.shouldRun(date));
+            assertThat(year.runStatus(date)).as("runStatus %s", date).isEqualTo(calendar.runStatus(date));
+        }
+        assertThat(year.isDeviation(LocalDate.of(2024, 12, 25))).isTrue();
+        assertThat(year.isDeviation(LocalDate.of(2024, 12, 24))).isFalse();
+        assertThat(year.countDeviationDays()).isEqualTo(2);
+    }
+
+    @Test
+    void evaluatesEachDayOnce() {
+        // given
+        AtomicInteger evaluations = new AtomicInteger();
+        Calendar calendar = new Calendar(schedule, rule, List.of(), (r, date) -> {
+            evaluations.incrementAndGet();
+            return true;
+        });
+
+        // when
+        YearCalendar year = YearCalendar.of(calendar, 2025);
+        year.shouldRun(LocalDate.of(2025, 6, 1));
+        year.countRunDays();
+
+        // then
+        assertThat(evaluations.get()).isEqualTo(365);
+        assertThat(year.countRunDays()).isEqualTo(365);
+    }
+
+    @Test
+    void countsRunDaysInRanges() {
+        // given - 2025 has 261 weekdays
+        YearCalendar year = YearCalendar.of(new Calendar(schedule, rule, List.of(), WEEKDAYS), 2025);
+
+        // then - ranges within one word, across words, and the whole year
+        assertThat(year.countRunDays()).isEqualTo(261);
+        assertThat(year.countRunDays(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31))).isEqualTo(261);
+        assertThat(year.countRunDays(LocalDate.of(2025, 1, 6), LocalDate.of(2025, 1, 12))).isEqualTo(5);
+        assertThat(year.countRunDays(LocalDate.of(2025, 2, 24), LocalDate.of(2025, 3, 9))).isEqualTo(10);
+        assertThat(year.countRunDays(LocalDate.of(2025, 1, 4), LocalDate.of(2025, 1, 4))).isZero();
+        assertThat(year.countRunDays(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 2, 1))).isZero();
+    }
+
+    @Test
+    void findsNextRunDateWithinYear() {
+        // given
+        YearCalendar year = YearCalendar.of(new Calendar(schedule, rule, List.of(), WEEKDAYS), 2025);
+
+        // then - Saturday rolls to Monday; nothing after the last weekday of the year
+        assertThat(year.nextRunDate(LocalDate.of(2025, 1, 4))).contains(LocalDate.of(2025, 1, 6));
+        assertThat(year.nextRunDate(LocalDate.of(2025, 1, 6))).contains(LocalDate.of(2025, 1, 6));
+        assertThat(year.nextRunDate(LocalDate.of(2025, 12, 31))).contains(LocalDate.of(2025, 12, 31));
+
+        YearCalendar never = YearCalendar.of(new Calendar(schedule, rule, List.of(), (r, d) -> false), 2025);
+        assertThat(never.nextRunDate(LocalDate.of(2025, 1, 1))).isEmpty();
+        assertThat(never.runDates()).isEmpty();
+    }
+
+    @Test
+    void listsRunDatesInOrder() {
+        // given - runs only on the first of each month
+        YearCalendar year = YearCalendar.of(
+                new Calendar(schedule, rule, List.of(), (r, date) -> date.getDayOfMonth() == 1), 2024);
+
+        // then
+        assertThat(year.runDates()).hasSize(12)
+                .startsWith(LocalDate.of(2024, 1, 1))
+                .endsWith(LocalDate.of(2024, 12, 1))
+                .isSorted();
+    }
+
+    @Test
+    void buildsFromRuleRunDatesWithDeviationsApplied() {
+        // given - the same deviations as a per-day evaluated year, the first on a date winning
+        List<Deviation> deviations = List.of(
+                deviation(LocalDate.of(2024, 12, 25), RunStatus.FORCE_SKIP),
+                deviation(LocalDate.of(2024, 12, 25), RunStatus.FORCE_RUN),
+                deviation(LocalDate.of(2024, 12, 28), RunStatus.FORCE_RUN));
+        Calendar calendar = new Calendar(schedule, rule, deviations, WEEKDAYS);
+        List<LocalDate> ruleRunDates = YearCalendar.ofDays(2024, date -> WEEKDAYS.shouldRun(rule, date)).runDates();
+
+        // when
+        YearCalendar year = YearCalendar.of(calendar, 2024, ruleRunDates);
+
+        // then
+        assertThat(year).isEqualTo(YearCalendar.of(calendar, 2024));
+        assertThat(year.runStatus(LocalDate.of(2024, 12, 25))).isEqualTo(RunStatus.FORCE_SKIP);
+    }
+
+    @Test
+    void exposesRunBitsInDayOfYearOrder() {
+        // given - only the first and last day of a leap year
+        YearCalendar year = YearCalendar.ofDays(2024, date -> date.getDayOfYear() == 1 || date.getDayOfYear() == 366);
+
+        // when
+        long[] bits = year.getRunBits();
+        bits[0] = 0; // a copy
+
+        // then
+        assertThat(bits).hasSize(6);
+        assertThat(bits[5]).isEqualTo(1L << (365 & 63));
+        assertThat(year.getRunBits()[0]).isEqualTo(1L);
+        assertThat(year.countDeviationDays()).isZero();
+    }
+
+    @Test
+    void listsRunDatesInRanges() {
+        YearCalendar year = YearCalendar.of(new Calendar(schedule, rule, List.of(), WEEKDAYS), 2025);
+
+        assertThat(year.runDates(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 9)))
+                .containsExactly(LocalDate.of(2025, 3, 3), LocalDate.of(2025, 3, 4), LocalDate.of(2025, 3, 5),
+                        LocalDate.of(2025, 3, 6), LocalDate.of(2025, 3, 7));
+        assertThat(year.runDates(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31))).isEqualTo(year.runDates());
+        assertThat(year.runDates(LocalDate.of(2025, 3, 9), LocalDate.of(2025, 3, 1))).isEmpty();
+    }
+
+    @Test
+    void rejectsDatesOutsideYear() {
+        YearCalendar year = YearCalendar.of(new Calendar(schedule, rule, List.of(), WEEKDAYS), 2025);
+
+        assertThat(year.covers(LocalDate.of(2026, 1, 1))).isFalse();
+        assertThatThrownBy(() -> year.shouldRun(LocalDate.of(2026, 1, 1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("outside calendar year 2025");
+    }
+
+    private Deviation deviation(LocalDate date, RunStatus action) {
+        return Deviation.builder().deviationDate(date).action(action).reason("test").build();
+    }
+}
@@ -6,7 +6,7 @@ import {useAuditLogs} from '../hooks/queries';
 type SortableKey = keyof AuditLog;
 
 const AuditLogPage = () => {
-    const {data: logs = [], isLoading, error} = useAuditLogs();
+    const {data: logs = [], isLoading, error, hasNextPage, fetchNextPage, isFetchingNextPage} = useAuditLogs();
     const [searchTerm, setSearchTerm] = useState('');
     const [sortColumn, setSortColumn] = useState<SortableKey>('createdAt');
     const [sortDirection, setSortDirection] = useState('descending');
@@ -103,6 +103,18 @@ const AuditLogPage = () => {
                         ))}
                         </tbody>
                     </table>
+                    {hasNextPage && (
+                        <div className="p-4 text-center">
+                            <button
+                                type="button"
+                                onClick={() => fetchNextPage()}
+                                disabled={isFetchingNextPage}
+                                className="px-4 py-2 text-sm font-medium text-gray-700 bg-gray-100 rounded hover:bg-gray-200 disabled:opacity-50"
+                            >
+                                {isFetchingNextPage ? 'Loading...' : 'Load older entries'}
+                            </button>
+                        </div>
+                    )}
                 </div>
                 )}
             </div>
@@ -1,20 +1,23 @@
-import {useQuery} from '@tanstack/react-query';
+import {useInfiniteQuery} from '@tanstack/react-query';
 import {getAuditLogs} from '../../services/backend';
 import type {AuditLog} from '../../types/audit';
 
+const PAGE_SIZE = 200;
+
 /**
- * Hook to fetch all audit logs.
+ * Hook to fetch audit logs page by page, newest first.
+ * Call fetchNextPage() to append the next page while hasNextPage is true.
  */
 export const useAuditLogs = () => {
-    return useQuery({
+    return useInfiniteQuery({
         queryKey: ['auditLogs'],
-        queryFn: async (): Promise<AuditLog[]> => {
-            const data = await getAuditLogs();
+        initialPageParam: undefined as string | undefined,
+        queryFn: ({pageParam}) => getAuditLogs({cursor: pageParam, limit: PAGE_SIZE}),
+        getNextPageParam: (lastPage) => lastPage.nextCursor ?? undefined,
+        select: (data): AuditLog[] => data.pages.flatMap(page => page.items.map(log => ({
+            ...log,
             // Transform dates
-            return data.map(log => ({
-                ...log,
-                createdAt: new Date(log.createdAt),
-            }));
-        },
+            createdAt: new Date(log.createdAt),
+        }))),
     });
 };
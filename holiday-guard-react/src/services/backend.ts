@@ -4,7 +4,7 @@
 
 import api from './api';
 import {ScheduleResponseDto, Schedule} from '../types/schedule';
-import {AuditLogDto} from '../types/audit';
+import {AuditLogPageDto, AuditLogQuery} from '../types/audit';
 import {MultiScheduleCalendarView, MultiScheduleCalendar} from '../types/calendar-view';
 import {RunStatus} from '../types/runStatus';
 
@@ -205,10 +205,10 @@ export const saveScheduleVersion = async (
 // ============================================================================
 
 /**
- * Fetches all audit logs.
+ * Fetches one page of audit logs, newest first.
  */
-export const getAuditLogs = async (): Promise<AuditLogDto[]> => {
-    const response = await api.get<AuditLogDto[]>('/audit-logs');
+export const getAuditLogs = async (query: AuditLogQuery = {}): Promise<AuditLogPageDto> => {
+    const response = await api.get<AuditLogPageDto>('/audit-logs', {params: query});
     return response.data;
 };
 
@@ -14,6 +14,29 @@ export interface AuditLogDto {
   createdAt: string; // ISO 8601 timestamp
 }
 
+/**
+ * One page of audit log entries, newest first.
+ * Pass nextCursor back as the cursor parameter to fetch the following page;
+ * it is null on the last page.
+ */
+export interface AuditLogPageDto {
+  items: AuditLogDto[];
+  nextCursor: string | null;
+}
+
+/**
+ * Optional filters and paging parameters for the audit log API.
+ */
+export interface AuditLogQuery {
+  scheduleId?: number;
+  clientIdentifier?: string;
+  from?: string; // YYYY-MM-DD, inclusive
+  to?: string;   // YYYY-MM-DD, inclusive
+  shouldRun?: boolean;
+  cursor?: string;
+  limit?: number;
+}
+
 /**
  * Type for the audit log data as displayed in the table,
  * with the createdAt property converted to a Date object.
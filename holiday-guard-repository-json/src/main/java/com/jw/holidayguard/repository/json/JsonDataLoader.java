@@ -0,0 +1,325 @@
+package com.jw.holidayguard.repository.json;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.jw.holidayguard.domain.Deviation;
+import com.jw.holidayguard.domain.Rule;
+import com.jw.holidayguard.domain.Schedule;
+import com.jw.holidayguard.domain.Version;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Reads and validates a JSON data file, in one of three {@link Mode}s.
+ *
+ * <p>{@link Mode#DATABIND}, the default, binds the whole file to a {@link JsonDataModel}
+ * with one {@code ObjectMapper.readValue} call.
+ *
+ * <p>{@link Mode#STREAMING} reads the file with a {@link JsonParser}: the {@code schedules},
+ * {@code versions}, {@code rules} and {@code deviations} arrays are read one entity at a time
+ * and each entity goes straight into a {@link JsonDataModel.Builder}, which indexes it as it
+ * arrives. Unknown top-level sections, such as {@code queryLogs}, are skipped, and a
+ * {@code null} section counts as empty. It rejects a repeated section, which databind lets
+ * the last one win. It is not the default because it was measured both slower and larger:
+ * on a 1 GB file (1 CPU, Serial GC) it took 34.7 s and peaked at 3262 MB of heap against
+ * 29.2 s and 2882 MB for databind. The model itself, about 2 GB, dominates either way; the
+ * lists databind builds first hold only references, and indexing while parsing makes young
+ * collections slower. See the load benchmark in the benchmarks module.
+ *
+ * <p>{@link Mode#PARALLEL} memory-maps the file, finds where each top-level section starts
+ * and ends with one pass over the tokens, and then streams the sections concurrently, one
+ * thread per section. Its speedup is bounded by the largest section (usually the deviations,
+ * nearly all of the bytes) and by the number of cores. It has only been measured on one CPU,
+ * where it is the slowest mode (37.9 s) because it only adds the scan; it is not known to be
+ * faster anywhere. Files over 2 GB, which cannot be mapped into one buffer, are streamed
+ * sequentially.
+ *
+ * <p>Validation rejects files the repositories could not answer consistently from:
+ * <ul>
+ *   <li>entities without an id, or ids repeated within one section</li>
+ *   <li>versions, rules and deviations that refer to a schedule or version not in the file,
+ *       or to a version of a different schedule</li>
+ *   <li>more than one active version for a schedule</li>
+ * </ul>
+ */
+@Slf4j
+public final class JsonDataLoader {
+
+    private static final List<Section<?>> SECTIONS = List.of(
+            new Section<>("schedules", Schedule.class, JsonDataModel.Builder::addSchedule),
+            new Section<>("versions", Version.class, JsonDataModel.Builder::addVersion),
+            new Section<>("rules", Rule.class, JsonDataModel.Builder::addRule),
+            new Section<>("deviations", Deviation.class, JsonDataModel.Builder::addDeviation));
+
+    private final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .registerModule(new JavaTimeModule());
+
+    /**
+     * How the file is parsed; see the class description.
+     */
+    public enum Mode {
+        DATABIND, STREAMING, PARALLEL
+    }
+
+    private final Mode mode;
+
+    /**
+     * A loader that binds the whole file with databind.
+     */
+    public JsonDataLoader() {
+        this(Mode.DATABIND);
+    }
+
+    public JsonDataLoader(Mode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Parses, indexes and validates the file.
+     *
+     * @throws IOException if the file cannot be read or is not valid JSON
+     * @throws IllegalArgumentException if the data fails validation
+     */
+    public JsonDataModel load(Path file) throws IOException {
+        JsonDataModel data = switch (mode) {
+            case DATABIND -> mapper.readValue(file.toFile(), JsonDataModel.class);
+            case STREAMING -> read(file);
+            case PARALLEL -> readParallel(file);
+        };
+        validate(data);
+        return data;
+    }
+
+    private JsonDataModel read(Path file) throws IOException {
+        JsonDataModel.Builder builder = JsonDataModel.builder();
+        try (JsonParser parser = mapper.createParser(file.toFile())) {
+            expectObject(parser);
+            Set<Section<?>> seen = new HashSet<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                Section<?> section = section(parser, seen);
+                parser.nextToken();
+                if (section == null) {
+                    parser.skipChildren();
+                } else {
+                    section.read(mapper, parser, builder);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private JsonDataModel readParallel(Path file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                log.info("{} is too large to map ({} bytes); reading it sequentially", file, channel.size());
+                return read(file);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        Map<Section<?>, ByteBuffer> slices = scan(buffer);
+        JsonDataModel.Builder builder = JsonDataModel.builder();
+        if (slices.isEmpty()) {
+            return builder.build();
+        }
+
+        ThreadFactory threads = Thread.ofPlatform().name("json-loader-", 0).daemon(true).factory();
+        List<Future<?>> parsed = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(slices.size(), Runtime.getRuntime().availableProcessors()), threads)) {
+            slices.forEach((section, slice) -> parsed.add(executor.submit(() -> {
+                try (JsonParser parser = mapper.createParser(new ByteBufferBackedInputStream(slice))) {
+                    parser.nextToken();
+                    section.read(mapper, parser, builder);
+                }
+                return null;
+            })));
+            for (Future<?> future : parsed) {
+                await(future);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Finds the byte range of each known section that holds an array.
+     */
+    private Map<Section<?>, ByteBuffer> scan(ByteBuffer buffer) throws IOException {
+        Map<Section<?>, ByteBuffer> slices = new LinkedHashMap<>();
+        try (JsonParser parser = mapper.createParser(new ByteBufferBackedInputStream(buffer.duplicate()))) {
+            expectObject(parser);
+            Set<Section<?>> seen = new HashSet<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                Section<?> section = section(parser, seen);
+                JsonToken value = parser.nextToken();
+                if (section == null || value == JsonToken.VALUE_NULL) {
+                    parser.skipChildren();
+                    continue;
+                }
+                expectArray(parser, section);
+                int start = (int) parser.currentTokenLocation().getByteOffset();
+                parser.skipChildren();
+                int end = (int) parser.currentTokenLocation().getByteOffset() + 1;
+                slices.put(section, buffer.slice(start, end - start));
+            }
+        }
+        return slices;
+    }
+
+    private static void await(Future<?> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading JSON data");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) throw io;
+            if (cause instanceof RuntimeException runtime) throw runtime;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static void expectObject(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "JSON data file must contain an object");
+        }
+    }
+
+    private static void expectArray(JsonParser parser, Section<?> section) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new JsonParseException(parser, "Section \"" + section.name() + "\" must be an array");
+        }
+    }
+
+    private static Section<?> section(JsonParser parser, Set<Section<?>> seen) throws IOException {
+        String name = parser.currentName();
+        for (Section<?> section : SECTIONS) {
+            if (section.name().equals(name)) {
+                if (!seen.add(section)) {
+                    throw new JsonParseException(parser, "Duplicate section \"" + name + "\"");
+                }
+                return section;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A top-level array of one entity type and where its entities go.
+     */
+    private record Section<T>(String name, Class<T> type, BiConsumer<JsonDataModel.Builder, T> add) {
+
+        /**
+         * Reads the array the parser is positioned on, one entity at a time.
+         */
+        void read(ObjectMapper mapper, JsonParser parser, JsonDataModel.Builder builder) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_NULL) return;
+            expectArray(parser, this);
+
+            ObjectReader reader = mapper.readerFor(type);
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                T entity = reader.readValue(parser);
+                if (entity == null) {
+                    throw new JsonParseException(parser, "Null entry in section \"" + name + "\"");
+                }
+                add.accept(builder, entity);
+            }
+        }
+    }
+
+    /**
+     * Checks a model for the problems listed on this class.
+     *
+     * @throws IllegalArgumentException describing the first problem found
+     */
+    public static void validate(JsonDataModel data) {
+        Set<Long> scheduleIds = ids("schedule", data.getSchedules(), Schedule::getId);
+        Map<Long, Long> versionSchedules = new HashMap<>();
+        Set<Long> activeSchedules = new HashSet<>();
+
+        for (Version version : data.getVersions()) {
+            if (version.getId() == null) {
+                throw new IllegalArgumentException("Missing version id");
+            }
+            if (versionSchedules.put(version.getId(), version.getScheduleId()) != null) {
+                throw new IllegalArgumentException("Duplicate version id " + version.getId());
+            }
+            requireSchedule(scheduleIds, "Version " + version.getId(), version.getScheduleId());
+            if (version.isActive() && !activeSchedules.add(version.getScheduleId())) {
+                throw new IllegalArgumentException("Schedule " + version.getScheduleId() + " has more than one active version");
+            }
+        }
+
+        ids("rule", data.getRules(), Rule::getId);
+        for (Rule rule : data.getRules()) {
+            requireVersion(scheduleIds, versionSchedules, "Rule " + rule.getId(), rule.getScheduleId(), rule.getVersionId());
+        }
+
+        ids("deviation", data.getDeviations(), Deviation::getId);
+        for (Deviation deviation : data.getDeviations()) {
+            requireVersion(scheduleIds, versionSchedules, "Deviation " + deviation.getId(),
+                    deviation.getScheduleId(), deviation.getVersionId());
+        }
+    }
+
+    private static <T> Set<Long> ids(String kind, List<T> entities, Function<T, Long> id) {
+        Set<Long> ids = new HashSet<>();
+        for (T entity : entities) {
+            Long value = id.apply(entity);
+            if (value == null) {
+                throw new IllegalArgumentException("Missing " + kind + " id");
+            }
+            if (!ids.add(value)) {
+                throw new IllegalArgumentException("Duplicate " + kind + " id " + value);
+            }
+        }
+        return ids;
+    }
+
+    private static void requireSchedule(Set<Long> scheduleIds, String entity, Long scheduleId) {
+        if (scheduleId == null || !scheduleIds.contains(scheduleId)) {
+            throw new IllegalArgumentException(entity + " refers to unknown schedule " + scheduleId);
+        }
+    }
+
+    private static void requireVersion(Set<Long> scheduleIds, Map<Long, Long> versionSchedules,
+                                       String entity, Long scheduleId, Long versionId) {
+        requireSchedule(scheduleIds, entity, scheduleId);
+        if (versionId == null || !versionSchedules.containsKey(versionId)) {
+            throw new IllegalArgumentException(entity + " refers to unknown version " + versionId);
+        }
+        if (!scheduleId.equals(versionSchedules.get(versionId))) {
+            throw new IllegalArgumentException(entity + " refers to version " + versionId
+                    + ", which belongs to schedule " + versionSchedules.get(versionId) + ", not " + scheduleId);
+        }
+    }
+}
@@ -1,14 +1,22 @@
 package com.jw.holidayguard.repository.json;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.jw.holidayguard.domain.Deviation;
-import com.jw.holidayguard.domain.QueryLog;
 import com.jw.holidayguard.domain.Rule;
 import com.jw.holidayguard.domain.Schedule;
 import com.jw.holidayguard.domain.Version;
-import lombok.Data;
+import lombok.Getter;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 /**
  * Root data model for JSON file-based repository.
@@ -16,8 +24,16 @@ import java.util.List;
  * <p>This class represents the entire database structure in a single JSON file.
  * It contains all schedules, versions, rules, and deviations in separate lists.
  *
+ * <p>The model is immutable. The lists are unmodifiable and in file order, and the indexes
+ * the repositories query (by id, schedule name, country, schedule id, version id, active
+ * version and schedule/version pair) are filled by a {@link Builder} as each entity is added,
+ * whether the entities come from databind's lists or one at a time from a streaming loader. Lookups are hash lookups and return the
+ * indexed lists themselves, so nothing is scanned or copied per query. Where the file holds
+ * duplicates for a unique key (name, active version), the first entry wins, as it did with
+ * the earlier stream scans.
+ *
  * <p>Note: QueryLogs are not stored in JSON files (read-only mode).
- * The queryLogs list will always be empty when loaded from JSON.
+ * A {@code queryLogs} section in the file is ignored.
  *
  * <p>Example JSON structure:
  * <pre>
@@ -29,35 +45,336 @@ import java.util.List;
  * }
  * </pre>
  */
-@Data
 public class JsonDataModel {
 
-    private List<Schedule> schedules = new ArrayList<>();
-    private List<Version> versions = new ArrayList<>();
-    private List<Rule> rules = new ArrayList<>();
-    private List<Deviation> deviations = new ArrayList<>();
-    private List<QueryLog> queryLogs = new ArrayList<>();  // Always empty in JSON mode
+    @Getter
+    private final List<Schedule> schedules;
+    @Getter
+    private final List<Version> versions;
+    @Getter
+    private final List<Rule> rules;
+    @Getter
+    private final List<Deviation> deviations;
+
+    private final Map<Long, Schedule> schedulesById;
+    private final Map<String, Schedule> schedulesByName;
+    private final Map<String, List<Schedule>> schedulesByCountry;
+    @Getter
+    private final List<Schedule> activeSchedules;
+
+    private final Map<Long, Version> versionsById;
+    private final Map<Long, List<Version>> versionsByScheduleId;
+    private final Map<Long, Version> activeVersionsByScheduleId;
+
+    private final Map<Long, Rule> rulesById;
+    private final Map<Long, List<Rule>> rulesByScheduleId;
+    private final Map<Long, List<Rule>> rulesByVersionId;
+    private final Map<ScheduleVersion, List<Rule>> rulesByScheduleVersion;
+
+    private final Map<Long, Deviation> deviationsById;
+    private final Map<Long, List<Deviation>> deviationsByScheduleId;
+    private final Map<Long, List<Deviation>> deviationsByVersionId;
+    private final Map<ScheduleVersion, List<Deviation>> deviationsByScheduleVersion;
 
     /**
      * Creates an empty data model.
      */
     public JsonDataModel() {
+        this(new Builder());
     }
 
     /**
-     * Creates a data model with the given data.
+     * Creates a data model with the given data and indexes it.
      *
      * @param schedules List of schedules
      * @param versions List of versions
      * @param rules List of rules
      * @param deviations List of deviations
      */
-    public JsonDataModel(List<Schedule> schedules, List<Version> versions,
-                         List<Rule> rules, List<Deviation> deviations) {
-        this.schedules = schedules != null ? schedules : new ArrayList<>();
-        this.versions = versions != null ? versions : new ArrayList<>();
-        this.rules = rules != null ? rules : new ArrayList<>();
-        this.deviations = deviations != null ? deviations : new ArrayList<>();
-        this.queryLogs = new ArrayList<>();  // Query logs not supported in JSON mode
+    @JsonCreator
+    public JsonDataModel(@JsonProperty("schedules") List<Schedule> schedules,
+                         @JsonProperty("versions") List<Version> versions,
+                         @JsonProperty("rules") List<Rule> rules,
+                         @JsonProperty("deviations") List<Deviation> deviations) {
+        this(Builder.of(schedules, versions, rules, deviations));
+    }
+
+    private JsonDataModel(Builder builder) {
+        this.schedules = unmodifiable(builder.schedules);
+        this.versions = unmodifiable(builder.versions);
+        this.rules = unmodifiable(builder.rules);
+        this.deviations = unmodifiable(builder.deviations);
+
+        this.schedulesById = builder.schedulesById.freeze();
+        this.schedulesByName = builder.schedulesByName.freeze();
+        this.schedulesByCountry = builder.schedulesByCountry.freeze();
+        this.activeSchedules = unmodifiable(builder.activeSchedules);
+
+        this.versionsById = builder.versionsById.freeze();
+        this.versionsByScheduleId = builder.versionsByScheduleId.freeze();
+        this.activeVersionsByScheduleId = builder.activeVersionsByScheduleId.freeze();
+
+        this.rulesById = builder.rulesById.freeze();
+        this.rulesByScheduleId = builder.rulesByScheduleId.freeze();
+        this.rulesByVersionId = builder.rulesByVersionId.freeze();
+        this.rulesByScheduleVersion = builder.rulesByScheduleVersion.freeze();
+
+        this.deviationsById = builder.deviationsById.freeze();
+        this.deviationsByScheduleId = builder.deviationsByScheduleId.freeze();
+        this.deviationsByVersionId = builder.deviationsByVersionId.freeze();
+        this.deviationsByScheduleVersion = builder.deviationsByScheduleVersion.freeze();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // === Schedules ===
+
+    public Optional<Schedule> findSchedule(Long id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(schedulesById.get(id));
+    }
+
+    public Optional<Schedule> findScheduleByName(String name) {
+        return name == null ? Optional.empty() : Optional.ofNullable(schedulesByName.get(name));
+    }
+
+    public List<Schedule> schedulesForCountry(String country) {
+        return country == null ? List.of() : schedulesByCountry.getOrDefault(country, List.of());
+    }
+
+    public List<Schedule> findSchedules(Iterable<Long> ids) {
+        return lookupAll(ids, schedulesById);
+    }
+
+    // === Versions ===
+
+    public Optional<Version> findVersion(Long id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(versionsById.get(id));
+    }
+
+    /**
+     * All versions of a schedule, in file order.
+     */
+    public List<Version> versionsForSchedule(Long scheduleId) {
+        return scheduleId == null ? List.of() : versionsByScheduleId.getOrDefault(scheduleId, List.of());
+    }
+
+    public Optional<Version> findActiveVersion(Long scheduleId) {
+        return scheduleId == null ? Optional.empty() : Optional.ofNullable(activeVersionsByScheduleId.get(scheduleId));
+    }
+
+    public List<Version> findVersions(Iterable<Long> ids) {
+        return lookupAll(ids, versionsById);
+    }
+
+    // === Rules ===
+
+    public Optional<Rule> findRule(Long id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(rulesById.get(id));
+    }
+
+    public List<Rule> rulesForSchedule(Long scheduleId) {
+        return scheduleId == null ? List.of() : rulesByScheduleId.getOrDefault(scheduleId, List.of());
+    }
+
+    public List<Rule> rulesForVersion(Long versionId) {
+        return versionId == null ? List.of() : rulesByVersionId.getOrDefault(versionId, List.of());
+    }
+
+    public List<Rule> rulesForScheduleVersion(Long scheduleId, Long versionId) {
+        ScheduleVersion key = ScheduleVersion.of(scheduleId, versionId);
+        return key == null ? List.of() : rulesByScheduleVersion.getOrDefault(key, List.of());
+    }
+
+    public List<Rule> findRules(Iterable<Long> ids) {
+        return lookupAll(ids, rulesById);
+    }
+
+    // === Deviations ===
+
+    public Optional<Deviation> findDeviation(Long id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(deviationsById.get(id));
+    }
+
+    public List<Deviation> deviationsForSchedule(Long scheduleId) {
+        return scheduleId == null ? List.of() : deviationsByScheduleId.getOrDefault(scheduleId, List.of());
+    }
+
+    public List<Deviation> deviationsForVersion(Long versionId) {
+        return versionId == null ? List.of() : deviationsByVersionId.getOrDefault(versionId, List.of());
+    }
+
+    public List<Deviation> deviationsForScheduleVersion(Long scheduleId, Long versionId) {
+        ScheduleVersion key = ScheduleVersion.of(scheduleId, versionId);
+        return key == null ? List.of() : deviationsByScheduleVersion.getOrDefault(key, List.of());
+    }
+
+    public List<Deviation> findDeviations(Iterable<Long> ids) {
+        return lookupAll(ids, deviationsById);
+    }
+
+    // === Index construction ===
+
+    /**
+     * Key for rows that belong to one version of one schedule.
+     */
+    private record ScheduleVersion(Long scheduleId, Long versionId) {
+        static ScheduleVersion of(Long scheduleId, Long versionId) {
+            return scheduleId == null || versionId == null ? null : new ScheduleVersion(scheduleId, versionId);
+        }
+    }
+
+    /**
+     * Collects entities and indexes each one as it is added.
+     *
+     * <p>The four sections are independent: each may be filled from its own thread, as long
+     * as every section is filled by one thread at a time and {@link #build()} runs after all
+     * of them have finished. The builder must not be used after {@code build()}.
+     */
+    public static final class Builder {
+
+        private final List<Schedule> schedules = new ArrayList<>();
+        private final UniqueIndex<Long, Schedule> schedulesById = new UniqueIndex<>(Schedule::getId);
+        private final UniqueIndex<String, Schedule> schedulesByName = new UniqueIndex<>(Schedule::getName);
+        private final GroupIndex<String, Schedule> schedulesByCountry = new GroupIndex<>(Schedule::getCountry);
+        private final List<Schedule> activeSchedules = new ArrayList<>();
+
+        private final List<Version> versions = new ArrayList<>();
+        private final UniqueIndex<Long, Version> versionsById = new UniqueIndex<>(Version::getId);
+        private final GroupIndex<Long, Version> versionsByScheduleId = new GroupIndex<>(Version::getScheduleId);
+        private final UniqueIndex<Long, Version> activeVersionsByScheduleId = new UniqueIndex<>(Version::getScheduleId);
+
+        private final List<Rule> rules = new ArrayList<>();
+        private final UniqueIndex<Long, Rule> rulesById = new UniqueIndex<>(Rule::getId);
+        private final GroupIndex<Long, Rule> rulesByScheduleId = new GroupIndex<>(Rule::getScheduleId);
+        private final GroupIndex<Long, Rule> rulesByVersionId = new GroupIndex<>(Rule::getVersionId);
+        private final GroupIndex<ScheduleVersion, Rule> rulesByScheduleVersion =
+                new GroupIndex<>(r -> ScheduleVersion.of(r.getScheduleId(), r.getVersionId()));
+
+        private final List<Deviation> deviations = new ArrayList<>();
+        private final UniqueIndex<Long, Deviation> deviationsById = new UniqueIndex<>(Deviation::getId);
+        private final GroupIndex<Long, Deviation> deviationsByScheduleId = new GroupIndex<>(Deviation::getScheduleId);
+        private final GroupIndex<Long, Deviation> deviationsByVersionId = new GroupIndex<>(Deviation::getVersionId);
+        private final GroupIndex<ScheduleVersion, Deviation> deviationsByScheduleVersion =
+                new GroupIndex<>(d -> ScheduleVersion.of(d.getScheduleId(), d.getVersionId()));
+
+        private Builder() {
+        }
+
+        private static Builder of(List<Schedule> schedules, List<Version> versions, List<Rule> rules, List<Deviation> deviations) {
+            Builder builder = new Builder();
+            if (schedules != null) schedules.forEach(builder::addSchedule);
+            if (versions != null) versions.forEach(builder::addVersion);
+            if (rules != null) rules.forEach(builder::addRule);
+            if (deviations != null) deviations.forEach(builder::addDeviation);
+            return builder;
+        }
+
+        public Builder addSchedule(Schedule schedule) {
+            schedules.add(schedule);
+            schedulesById.add(schedule);
+            schedulesByName.add(schedule);
+            schedulesByCountry.add(schedule);
+            if (schedule.isActive()) activeSchedules.add(schedule);
+            return this;
+        }
+
+        public Builder addVersion(Version version) {
+            versions.add(version);
+            versionsById.add(version);
+            versionsByScheduleId.add(version);
+            if (version.isActive()) activeVersionsByScheduleId.add(version);
+            return this;
+        }
+
+        public Builder addRule(Rule rule) {
+            rules.add(rule);
+            rulesById.add(rule);
+            rulesByScheduleId.add(rule);
+            rulesByVersionId.add(rule);
+            rulesByScheduleVersion.add(rule);
+            return this;
+        }
+
+        public Builder addDeviation(Deviation deviation) {
+            deviations.add(deviation);
+            deviationsById.add(deviation);
+            deviationsByScheduleId.add(deviation);
+            deviationsByVersionId.add(deviation);
+            deviationsByScheduleVersion.add(deviation);
+            return this;
+        }
+
+        public JsonDataModel build() {
+            return new JsonDataModel(this);
+        }
+    }
+
+    /**
+     * Index by a unique key. Entities without a key are left out and the first entity wins
+     * for duplicate keys.
+     */
+    private static final class UniqueIndex<K, T> {
+        private final Function<T, K> key;
+        private final Map<K, T> index = new HashMap<>();
+
+        UniqueIndex(Function<T, K> key) {
+            this.key = key;
+        }
+
+        void add(T entity) {
+            K k = key.apply(entity);
+            if (k != null) index.putIfAbsent(k, entity);
+        }
+
+        Map<K, T> freeze() {
+            return Collections.unmodifiableMap(index);
+        }
+    }
+
+    /**
+     * Index grouping entities by a key, keeping insertion order within each group. Entities
+     * without a key are left out.
+     */
+    private static final class GroupIndex<K, T> {
+        private final Function<T, K> key;
+        private final Map<K, List<T>> index = new HashMap<>();
+
+        GroupIndex(Function<T, K> key) {
+            this.key = key;
+        }
+
+        void add(T entity) {
+            K k = key.apply(entity);
+            if (k != null) index.computeIfAbsent(k, x -> new ArrayList<>(2)).add(entity);
+        }
+
+        Map<K, List<T>> freeze() {
+            index.replaceAll((k, group) -> unmodifiable(group));
+            return Collections.unmodifiableMap(index);
+        }
+    }
+
+    /**
+     * Trims and wraps a list the builder no longer touches; no copy is made.
+     */
+    private static <T> List<T> unmodifiable(List<T> list) {
+        ((ArrayList<T>) list).trimToSize();
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Looks up each distinct id once, skipping unknown ids, in the order given.
+     */
+    private static <T> List<T> lookupAll(Iterable<Long> ids, Map<Long, T> index) {
+        Set<Long> distinct = new LinkedHashSet<>();
+        ids.forEach(distinct::add);
+        List<T> found = new ArrayList<>(distinct.size());
+        for (Long id : distinct) {
+            T entity = id == null ? null : index.get(id);
+            if (entity != null) found.add(entity);
+        }
+        return found;
     }
 }
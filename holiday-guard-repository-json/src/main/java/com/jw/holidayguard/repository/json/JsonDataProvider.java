@@ -22,6 +22,12 @@ public class JsonDataProvider implements DataProvider {
     @Value("${app.repo.json.filename:./data.json}")
     private String jsonFilePath;
 
+    private final JsonDataStore store;
+
+    public JsonDataProvider(JsonDataStore store) {
+        this.store = store;
+    }
+
     @PostConstruct
     public void logActivation() {
         log.info("╔════════════════════════════════════════════════════════╗");
@@ -45,4 +51,13 @@ public class JsonDataProvider implements DataProvider {
     public boolean supportsManagement() {
         return false;  // JSON repository is read-only
     }
+
+    /**
+     * The file and the size and modification time of the version currently loaded, so a file
+     * edited since an export (even under the same version ids) is a different data set.
+     */
+    @Override
+    public String getDataSourceId() {
+        return "JSON " + store.fileState();
+    }
 }
@@ -0,0 +1,306 @@
+package com.jw.holidayguard.repository.json;
+
+import com.jw.holidayguard.repository.RepositoryDataChangedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the current {@link JsonDataModel} snapshot and replaces it when the data file changes.
+ *
+ * <p>Readers call {@link #snapshot()}, a single volatile read. A snapshot is immutable, so a
+ * query that holds one keeps answering from it while a newer one is swapped in; the read path
+ * takes no locks.
+ *
+ * <p>With watching enabled, a background thread waits on a {@link WatchService} for changes
+ * to the file's directory and also re-checks the file every poll interval. The periodic check
+ * covers file systems that do not deliver watch events (NFS, some container mounts) and
+ * platforms without a watch service. A change is detected by the file's modification time and
+ * size. The new file is parsed, indexed and validated on the watcher thread, and only then
+ * swapped in, followed by a {@link RepositoryDataChangedEvent}.
+ *
+ * <p>Each snapshot has a {@link #revision()}. A reload may change a rule or deviation under a
+ * version id that already existed, so the revision, not the version ids, tells consumers that
+ * answers changed. It starts at the time of the initial load in epoch milliseconds, so a
+ * restart also moves it forward, and increases on every swap.
+ *
+ * <p>A file that cannot be read or fails validation is logged and counted, and the last good
+ * snapshot stays in service. The same file state is not retried until it changes again.
+ *
+ * <p>Metrics: {@code holidayguard.json.reloads} tagged {@code result=success|failure}, and
+ * {@code holidayguard.json.snapshot.age}, the time since the current snapshot was loaded.
+ */
+@Slf4j
+public class JsonDataStore implements MeterBinder {
+
+    /** Quiet time after a watch event before reading, so a writer can finish the file. */
+    private static final Duration SETTLE_TIME = Duration.ofMillis(250);
+
+    private final Path file;
+    private final boolean watch;
+    private final Duration pollInterval;
+    private final ApplicationEventPublisher events;
+    private final JsonDataLoader loader;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private final AtomicLong reloads = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    private volatile JsonDataModel snapshot;
+    private volatile Instant loadedAt;
+    private volatile long revision;
+    private volatile FileState loadedState;
+    private FileState failedState;
+
+    private volatile boolean running;
+    private Thread watcher;
+
+    /**
+     * Loads the file with databind; see {@link #JsonDataStore(Path, JsonDataLoader, boolean, Duration, ApplicationEventPublisher)}.
+     */
+    public JsonDataStore(Path file, boolean watch, Duration pollInterval, ApplicationEventPublisher events) {
+        this(file, new JsonDataLoader(), watch, pollInterval, events);
+    }
+
+    /**
+     * Loads the file. A missing file starts with an empty model (and is picked up once it
+     * appears, if watching); an unreadable or invalid file fails startup.
+     *
+     * @throws IllegalStateException if the file exists but cannot be loaded
+     */
+    public JsonDataStore(Path file, JsonDataLoader loader, boolean watch, Duration pollInterval,
+                         ApplicationEventPublisher events) {
+        if (watch && (pollInterval == null || pollInterval.isNegative() || pollInterval.isZero())) {
+            throw new IllegalArgumentException("JSON watch poll interval must be positive");
+        }
+        this.file = file.toAbsolutePath().normalize();
+        this.loader = loader;
+        this.watch = watch;
+        this.pollInterval = pollInterval;
+        this.events = events;
+
+        FileState state = FileState.of(this.file);
+        if (state == null) {
+            log.warn("JSON file not found at: {}. Using empty data model.", this.file);
+            this.snapshot = new JsonDataModel();
+        } else {
+            try {
+                this.snapshot = loader.load(this.file);
+            } catch (IOException | RuntimeException e) {
+                throw new IllegalStateException("Failed to load JSON data from " + this.file, e);
+            }
+            this.loadedState = state;
+            logLoaded("loaded");
+        }
+        this.loadedAt = Instant.now();
+        this.revision = loadedAt.toEpochMilli();
+    }
+
+    /**
+     * A store serving a fixed model, for tests.
+     */
+    JsonDataStore(JsonDataModel snapshot) {
+        this.file = null;
+        this.loader = null;
+        this.watch = false;
+        this.pollInterval = null;
+        this.events = event -> { };
+        this.snapshot = snapshot;
+        this.loadedAt = Instant.now();
+        this.revision = loadedAt.toEpochMilli();
+    }
+
+    /**
+     * The current snapshot. Callers that make several lookups for one answer should read it
+     * once and query that instance.
+     */
+    public JsonDataModel snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * The path, size and modification time of the file the current snapshot was loaded from,
+     * e.g. {@code /data/data.json 5120 bytes, modified 2025-01-01T00:00:00Z}, or just the path
+     * while no file has been loaded.
+     */
+    public String fileState() {
+        FileState state = loadedState;
+        return state == null ? String.valueOf(file) : file + " " + state.size() + " bytes, modified " + state.lastModified();
+    }
+
+    /**
+     * The revision of the current snapshot; see the class description.
+     */
+    public long revision() {
+        return revision;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!watch || running) return;
+
+        running = true;
+        watcher = Thread.ofPlatform()
+                .name("json-data-watcher")
+                .daemon(true)
+                .start(this::watchLoop);
+        log.info("Watching {} for changes (poll interval {})", file, pollInterval);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!running) return;
+
+        running = false;
+        watcher.interrupt();
+        try {
+            watcher.join(pollInterval.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Loads the file if it changed since the last attempt and swaps it in when it is valid.
+     *
+     * @return whether a new snapshot was swapped in
+     */
+    public boolean reload() {
+        long swapped;
+        reloadLock.lock();
+        try {
+            FileState state = FileState.of(file);
+            if (state == null || state.equals(loadedState) || state.equals(failedState)) {
+                return false;
+            }
+
+            JsonDataModel next;
+            try {
+                next = loader.load(file);
+            } catch (IOException | RuntimeException e) {
+                failedState = state;
+                failures.incrementAndGet();
+                log.error("Keeping the last good JSON snapshot; {} could not be loaded: {}", file, e.getMessage());
+                return false;
+            }
+
+            snapshot = next;
+            loadedAt = Instant.now();
+            swapped = Math.max(revision + 1, loadedAt.toEpochMilli());
+            revision = swapped;
+            loadedState = state;
+            failedState = null;
+            reloads.incrementAndGet();
+            logLoaded("reloaded");
+        } finally {
+            reloadLock.unlock();
+        }
+
+        events.publishEvent(new RepositoryDataChangedEvent("JSON", swapped));
+        return true;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("holidayguard.json.reloads", reloads, AtomicLong::get)
+                .description("JSON data file reloads swapped in")
+                .tag("result", "success")
+                .register(registry);
+        FunctionCounter.builder("holidayguard.json.reloads", failures, AtomicLong::get)
+                .description("JSON data file reloads rejected; the last good snapshot was kept")
+                .tag("result", "failure")
+                .register(registry);
+        TimeGauge.builder("holidayguard.json.snapshot.age", this,
+                        TimeUnit.MILLISECONDS, store -> Duration.between(store.loadedAt, Instant.now()).toMillis())
+                .description("Time since the current JSON snapshot was loaded")
+                .register(registry);
+    }
+
+    private void watchLoop() {
+        WatchService watchService = openWatchService();
+        try {
+            while (running) {
+                if (watchService != null) {
+                    WatchKey key = watchService.poll(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                    if (key != null) {
+                        key.pollEvents();
+                        key.reset();
+                        Thread.sleep(SETTLE_TIME.toMillis());
+                    }
+                } else {
+                    Thread.sleep(pollInterval.toMillis());
+                }
+                reload();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeQuietly(watchService);
+        }
+    }
+
+    private WatchService openWatchService() {
+        try {
+            WatchService watchService = file.getFileSystem().newWatchService();
+            file.getParent().register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            return watchService;
+        } catch (IOException | UnsupportedOperationException e) {
+            log.info("No watch service for {} ({}); polling every {}", file.getParent(), e.getMessage(), pollInterval);
+            return null;
+        }
+    }
+
+    private static void closeQuietly(WatchService watchService) {
+        if (watchService == null) return;
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            log.debug("Failed to close watch service", e);
+        }
+    }
+
+    private void logLoaded(String action) {
+        JsonDataModel data = snapshot;
+        log.info("JSON data {} from {}: {} schedules, {} versions, {} rules, {} deviations", action, file,
+                data.getSchedules().size(), data.getVersions().size(), data.getRules().size(), data.getDeviations().size());
+    }
+
+    /**
+     * What identifies one state of the file between checks.
+     */
+    private record FileState(Instant lastModified, long size) {
+        static FileState of(Path file) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                return new FileState(attributes.lastModifiedTime().toInstant(), attributes.size());
+            } catch (NoSuchFileException e) {
+                return null;
+            } catch (IOException e) {
+                log.warn("Cannot read attributes of {}: {}", file, e.getMessage());
+                return null;
+            }
+        }
+    }
+}
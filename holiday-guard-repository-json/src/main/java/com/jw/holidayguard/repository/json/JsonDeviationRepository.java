@@ -10,72 +10,74 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.repository.query.FluentQuery;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
  * JSON file-based implementation of DeviationRepository.
  *
  * <p>Read-only repository that queries deviations from in-memory JSON data.
+ * Lookups go through the {@link JsonDataModel} indexes and return its unmodifiable lists.
  */
 @Repository
 @Profile("json")
 public class JsonDeviationRepository implements DeviationRepository {
 
-    private final JsonDataModel data;
+    private final JsonDataStore store;
 
-    public JsonDeviationRepository(JsonDataModel data) {
-        this.data = data;
+    public JsonDeviationRepository(JsonDataStore store) {
+        this.store = store;
     }
 
     // === Query Methods ===
 
     @Override
     public Optional<Deviation> findById(Long id) {
-        return data.getDeviations().stream()
-                .filter(d -> d.getId().equals(id))
-                .findFirst();
+        return store.snapshot().findDeviation(id);
     }
 
     @Override
     public List<Deviation> findAll() {
-        return List.copyOf(data.getDeviations());
+        return store.snapshot().getDeviations();
     }
 
     @Override
     public List<Deviation> findByScheduleId(Long scheduleId) {
-        return data.getDeviations().stream()
-                .filter(d -> d.getScheduleId().equals(scheduleId))
-                .collect(Collectors.toList());
+        return store.snapshot().deviationsForSchedule(scheduleId);
     }
 
     @Override
     public List<Deviation> findByScheduleIdAndVersionId(Long scheduleId, Long versionId) {
-        return data.getDeviations().stream()
-                .filter(d -> d.getScheduleId().equals(scheduleId) && d.getVersionId().equals(versionId))
-                .collect(Collectors.toList());
+        return store.snapshot().deviationsForScheduleVersion(scheduleId, versionId);
+    }
+
+    @Override
+    public List<Deviation> findByVersionIdIn(Collection<Long> versionIds) {
+        JsonDataModel data = store.snapshot();
+        List<Deviation> found = new ArrayList<>();
+        for (Long versionId : new LinkedHashSet<>(versionIds)) {
+            found.addAll(data.deviationsForVersion(versionId));
+        }
+        return found;
     }
 
     @Override
     public long count() {
-        return data.getDeviations().size();
+        return store.snapshot().getDeviations().size();
     }
 
     @Override
     public boolean existsById(Long id) {
-        return data.getDeviations().stream()
-                .anyMatch(d -> d.getId().equals(id));
+        return store.snapshot().findDeviation(id).isPresent();
     }
 
     @Override
     public List<Deviation> findAllById(Iterable<Long> ids) {
-        List<Long> idList = new java.util.ArrayList<>();
-        ids.forEach(idList::add);
-        return data.getDeviations().stream()
-                .filter(d -> idList.contains(d.getId()))
-                .collect(Collectors.toList());
+        return store.snapshot().findDeviations(ids);
     }
 
     // === Unsupported Write Operations ===
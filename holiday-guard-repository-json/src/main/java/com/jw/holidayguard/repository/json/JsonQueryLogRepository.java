@@ -18,7 +18,8 @@ import java.util.function.Function;
  * JSON file-based implementation of QueryLogRepository.
  *
  * <p>Since JSON repositories are read-only and don't track query logs,
- * this implementation always returns empty results.
+ * this implementation always returns empty results, and batched audit
+ * writes from the query log pipeline are discarded.
  */
 @Repository
 @Profile("json")
@@ -37,6 +38,7 @@ public class JsonQueryLogRepository implements QueryLogRepository {
     @Override public long countDeviationApplicationsInDateRange(Long scheduleId, LocalDate startDate, LocalDate endDate) { return 0; }
     @Override public List<String> findDistinctClientIdentifiersByScheduleId(Long scheduleId) { return Collections.emptyList(); }
     @Override public QueryLog findLatestQueryForScheduleAndDate(Long scheduleId, LocalDate queryDate) { return null; }
+    @Override public List<QueryLog> findPage(Long scheduleId, String clientIdentifier, LocalDate fromDate, LocalDate toDate, Boolean shouldRunResult, Instant afterQueriedAt, Long afterId, Limit limit) { return EMPTY_LIST; }
 
     // Standard CRUD methods
     @Override public Optional<QueryLog> findById(Long id) { return Optional.empty(); }
@@ -45,6 +47,9 @@ public class JsonQueryLogRepository implements QueryLogRepository {
     @Override public boolean existsById(Long id) { return false; }
     @Override public List<QueryLog> findAllById(Iterable<Long> ids) { return EMPTY_LIST; }
 
+    // Audit rows are not persisted in read-only mode
+    @Override public int insertAll(List<QueryLog> logs, int batchSize) { return 0; }
+
     // Unsupported write operations
     @Override public <S extends QueryLog> S save(S entity) { throw new UnsupportedOperationException("JSON repository is read-only. Use H2 profile for CRUD operations."); }
     @Override public <S extends QueryLog> List<S> saveAll(Iterable<S> entities) { throw new UnsupportedOperationException("JSON repository is read-only. Use H2 profile for CRUD operations."); }
@@ -1,17 +1,14 @@
 package com.jw.holidayguard.repository.json;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 
-import java.io.File;
-import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 
 /**
  * Configuration for JSON file-based repository implementation.
@@ -20,53 +17,30 @@ import java.io.IOException;
  * It loads the JSON data file on startup and makes it available as a bean
  * for all repository implementations to use.
  */
-@Slf4j
 @Configuration
 @Profile("json")
 @ComponentScan(basePackages = "com.jw.holidayguard.repository.json")
 public class JsonRepositoryConfiguration {
 
-    @Value("${app.repo.json.filename:./data.json}")
-    private String jsonFilePath;
-
     /**
-     * Loads the JSON data file and creates a JsonDataModel bean.
+     * Loads the JSON data file and creates the store that serves it.
      *
-     * <p>The data is loaded once at startup and kept in memory for the
-     * lifetime of the application. All repository queries filter this
-     * in-memory data.
+     * <p>The data is kept in memory as an immutable, indexed {@link JsonDataModel}. With
+     * {@code app.repo.json.watch.enabled} (the default) the file is watched and a changed,
+     * valid file replaces the snapshot without a restart; see {@link JsonDataStore}. With
+     * {@code app.repo.json.load-mode} the file is bound with databind (the default), streamed,
+     * or streamed section by section in parallel; see {@link JsonDataLoader}.
      *
-     * @return JsonDataModel containing all schedules, versions, rules, and deviations
-     * @throws RuntimeException if the JSON file cannot be read or parsed
+     * @return JsonDataStore serving the schedules, versions, rules, and deviations
+     * @throws IllegalStateException if the JSON file exists but cannot be read, parsed or validated
      */
     @Bean
-    public JsonDataModel jsonDataModel() {
-        log.info("Loading JSON data from: {}", jsonFilePath);
-
-        File jsonFile = new File(jsonFilePath);
-        if (!jsonFile.exists()) {
-            log.warn("JSON file not found at: {}. Using empty data model.", jsonFilePath);
-            return new JsonDataModel();
-        }
-
-        try {
-            ObjectMapper mapper = new ObjectMapper()
-                    .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-
-            mapper.registerModule(new JavaTimeModule());
-
-            JsonDataModel data = mapper.readValue(jsonFile, JsonDataModel.class);
-
-            log.info("JSON data loaded successfully:");
-            log.info("  - Schedules: {}", data.getSchedules().size());
-            log.info("  - Versions: {}", data.getVersions().size());
-            log.info("  - Rules: {}", data.getRules().size());
-            log.info("  - Deviations: {}", data.getDeviations().size());
-
-            return data;
-
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to load JSON data from " + jsonFilePath, e);
-        }
+    public JsonDataStore jsonDataStore(
+            @Value("${app.repo.json.filename:./data.json}") String jsonFilePath,
+            @Value("${app.repo.json.load-mode:databind}") JsonDataLoader.Mode loadMode,
+            @Value("${app.repo.json.watch.enabled:true}") boolean watch,
+            @Value("${app.repo.json.watch.poll-interval:10s}") Duration pollInterval,
+            ApplicationEventPublisher events) {
+        return new JsonDataStore(Path.of(jsonFilePath), new JsonDataLoader(loadMode), watch, pollInterval, events);
     }
 }
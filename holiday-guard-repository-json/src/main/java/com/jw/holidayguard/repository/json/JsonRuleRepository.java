@@ -11,121 +11,119 @@ import org.springframework.data.repository.query.FluentQuery;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
  * JSON file-based implementation of RuleRepository.
  *
  * <p>Read-only repository that queries rules from in-memory JSON data.
+ * Lookups by id, version and schedule/version go through the {@link JsonDataModel} indexes.
  */
 @Repository
 @Profile("json")
 public class JsonRuleRepository implements RuleRepository {
 
-    private final JsonDataModel data;
+    private final JsonDataStore store;
 
-    public JsonRuleRepository(JsonDataModel data) {
-        this.data = data;
+    public JsonRuleRepository(JsonDataStore store) {
+        this.store = store;
     }
 
     // === Query Methods ===
 
     @Override
     public Optional<Rule> findById(Long id) {
-        return data.getRules().stream()
-                .filter(r -> r.getId().equals(id))
-                .findFirst();
+        return store.snapshot().findRule(id);
     }
 
     @Override
     public List<Rule> findAll() {
-        return List.copyOf(data.getRules());
+        return store.snapshot().getRules();
     }
 
     @Override
     public Optional<Rule> findByVersionId(Long versionId) {
-        return data.getRules().stream()
-                .filter(r -> r.getVersionId().equals(versionId))
-                .findFirst();
+        return store.snapshot().rulesForVersion(versionId).stream().findFirst();
+    }
+
+    @Override
+    public List<Rule> findByVersionIdIn(Collection<Long> versionIds) {
+        JsonDataModel data = store.snapshot();
+        List<Rule> found = new ArrayList<>(versionIds.size());
+        for (Long versionId : new LinkedHashSet<>(versionIds)) {
+            found.addAll(data.rulesForVersion(versionId));
+        }
+        return found;
     }
 
     @Override
     public Optional<Rule> findByVersionIdAndActiveTrue(Long versionId) {
-        return data.getRules().stream()
-                .filter(r -> r.getVersionId().equals(versionId) && r.isActive())
+        return store.snapshot().rulesForVersion(versionId).stream()
+                .filter(Rule::isActive)
                 .findFirst();
     }
 
     @Override
     public Optional<Rule> findByScheduleIdAndVersionId(Long scheduleId, Long versionId) {
-        return data.getRules().stream()
-                .filter(r -> r.getScheduleId().equals(scheduleId) && r.getVersionId().equals(versionId))
-                .findFirst();
+        return store.snapshot().rulesForScheduleVersion(scheduleId, versionId).stream().findFirst();
     }
 
     @Override
     public Optional<Rule> findByScheduleIdAndVersionIdAndActiveTrue(Long scheduleId, Long versionId) {
-        return data.getRules().stream()
-                .filter(r -> r.getScheduleId().equals(scheduleId)
-                        && r.getVersionId().equals(versionId)
-                        && r.isActive())
+        return store.snapshot().rulesForScheduleVersion(scheduleId, versionId).stream()
+                .filter(Rule::isActive)
                 .findFirst();
     }
 
     @Override
     public Optional<Rule> findActiveRuleForDateAndVersion(Long versionId, LocalDate date) {
-        return data.getRules().stream()
-                .filter(r -> r.getVersionId().equals(versionId))
-                .filter(r -> r.isActive())
+        return store.snapshot().rulesForVersion(versionId).stream()
+                .filter(Rule::isActive)
                 .filter(r -> !r.getEffectiveFrom().isAfter(date))
                 .max(Comparator.comparing(Rule::getEffectiveFrom));
     }
 
     @Override
     public List<Rule> findByRuleType(Rule.RuleType ruleType) {
-        return data.getRules().stream()
+        return store.snapshot().getRules().stream()
                 .filter(r -> r.getRuleType() == ruleType)
-                .collect(Collectors.toList());
+                .toList();
     }
 
     @Override
     public List<Rule> findByScheduleIdAndRuleTypeAndActiveTrue(Long scheduleId, Rule.RuleType ruleType) {
-        return data.getRules().stream()
-                .filter(r -> r.getScheduleId().equals(scheduleId))
+        return store.snapshot().rulesForSchedule(scheduleId).stream()
                 .filter(r -> r.getRuleType() == ruleType)
                 .filter(Rule::isActive)
-                .collect(Collectors.toList());
+                .toList();
     }
 
     @Override
     public Optional<Rule> findFirstByScheduleIdAndActiveTrueOrderByCreatedAtDesc(Long scheduleId) {
-        return data.getRules().stream()
-                .filter(r -> r.getScheduleId().equals(scheduleId) && r.isActive())
+        return store.snapshot().rulesForSchedule(scheduleId).stream()
+                .filter(Rule::isActive)
                 .max(Comparator.comparing(Rule::getCreatedAt));
     }
 
     @Override
     public long count() {
-        return data.getRules().size();
+        return store.snapshot().getRules().size();
     }
 
     @Override
     public boolean existsById(Long id) {
-        return data.getRules().stream()
-                .anyMatch(r -> r.getId().equals(id));
+        return store.snapshot().findRule(id).isPresent();
     }
 
     @Override
     public List<Rule> findAllById(Iterable<Long> ids) {
-        List<Long> idList = new java.util.ArrayList<>();
-        ids.forEach(idList::add);
-        return data.getRules().stream()
-                .filter(r -> idList.contains(r.getId()))
-                .collect(Collectors.toList());
+        return store.snapshot().findRules(ids);
     }
 
     // === Unsupported Write Operations ===
@@ -13,7 +13,6 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
  * JSON file-based implementation of ScheduleRepository.
@@ -21,86 +20,74 @@ import java.util.stream.Collectors;
  * <p>This repository loads data from a JSON file and provides read-only access.
  * All write operations (save, delete) throw UnsupportedOperationException.
  *
- * <p>Data is loaded once at startup and kept in memory. All queries filter
- * the in-memory list using Java streams.
+ * <p>Data is kept in memory. Each query reads the current {@link JsonDataStore} snapshot
+ * once and answers from the indexes built by {@link JsonDataModel}, returning its
+ * unmodifiable lists without copying.
  */
 @Repository
 @Profile("json")
 public class JsonScheduleRepository implements ScheduleRepository {
 
-    private final JsonDataModel data;
+    private final JsonDataStore store;
 
-    public JsonScheduleRepository(JsonDataModel data) {
-        this.data = data;
+    public JsonScheduleRepository(JsonDataStore store) {
+        this.store = store;
     }
 
     // === Query Methods (Read-Only) ===
 
     @Override
     public Optional<Schedule> findById(Long id) {
-        return data.getSchedules().stream()
-                .filter(s -> s.getId().equals(id))
-                .findFirst();
+        return store.snapshot().findSchedule(id);
     }
 
     @Override
     public List<Schedule> findAll() {
-        return List.copyOf(data.getSchedules());
+        return store.snapshot().getSchedules();
     }
 
     @Override
     public Optional<Schedule> findByName(String name) {
-        return data.getSchedules().stream()
-                .filter(s -> s.getName().equals(name))
-                .findFirst();
+        return store.snapshot().findScheduleByName(name);
     }
 
     @Override
     public List<Schedule> findByActiveTrue() {
-        return data.getSchedules().stream()
-                .filter(Schedule::isActive)
-                .collect(Collectors.toList());
+        return store.snapshot().getActiveSchedules();
     }
 
     @Override
     public List<Schedule> findByCountry(String country) {
-        return data.getSchedules().stream()
-                .filter(s -> s.getCountry().equals(country))
-                .collect(Collectors.toList());
+        return store.snapshot().schedulesForCountry(country);
     }
 
     @Override
     public List<Schedule> findByCountryAndActiveTrue(String country) {
-        return data.getSchedules().stream()
-                .filter(s -> s.getCountry().equals(country) && s.isActive())
-                .collect(Collectors.toList());
+        return store.snapshot().schedulesForCountry(country).stream()
+                .filter(Schedule::isActive)
+                .toList();
     }
 
     @Override
     public long count() {
-        return data.getSchedules().size();
+        return store.snapshot().getSchedules().size();
     }
 
     @Override
     public long countByActive(boolean active) {
-        return data.getSchedules().stream()
-                .filter(s -> s.isActive() == active)
-                .count();
+        JsonDataModel data = store.snapshot();
+        int activeCount = data.getActiveSchedules().size();
+        return active ? activeCount : data.getSchedules().size() - activeCount;
     }
 
     @Override
     public boolean existsById(Long id) {
-        return data.getSchedules().stream()
-                .anyMatch(s -> s.getId().equals(id));
+        return store.snapshot().findSchedule(id).isPresent();
     }
 
     @Override
     public List<Schedule> findAllById(Iterable<Long> ids) {
-        List<Long> idList = new java.util.ArrayList<>();
-        ids.forEach(idList::add);
-        return data.getSchedules().stream()
-                .filter(s -> idList.contains(s.getId()))
-                .collect(Collectors.toList());
+        return store.snapshot().findSchedules(ids);
     }
 
     // === Unsupported Write Operations ===
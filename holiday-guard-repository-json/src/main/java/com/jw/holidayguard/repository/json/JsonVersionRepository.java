@@ -11,105 +11,106 @@ import org.springframework.data.repository.query.FluentQuery;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
  * JSON file-based implementation of VersionRepository.
  *
- * <p>Read-only repository that queries versions from in-memory JSON data.
+ * <p>Read-only repository that queries versions from in-memory JSON data. Lookups go
+ * through the {@link JsonDataModel} indexes; only the per-schedule version history is
+ * sorted on demand.
  */
 @Repository
 @Profile("json")
 public class JsonVersionRepository implements VersionRepository {
 
-    private final JsonDataModel data;
+    private final JsonDataStore store;
 
-    public JsonVersionRepository(JsonDataModel data) {
-        this.data = data;
+    public JsonVersionRepository(JsonDataStore store) {
+        this.store = store;
     }
 
     // === Query Methods ===
 
     @Override
     public Optional<Version> findById(Long id) {
-        return data.getVersions().stream()
-                .filter(v -> v.getId().equals(id))
-                .findFirst();
+        return store.snapshot().findVersion(id);
     }
 
     @Override
     public List<Version> findAll() {
-        return List.copyOf(data.getVersions());
+        return store.snapshot().getVersions();
     }
 
     @Override
     public Optional<Version> findByScheduleIdAndActiveTrue(Long scheduleId) {
-        return data.getVersions().stream()
-                .filter(v -> v.getScheduleId().equals(scheduleId) && v.isActive())
-                .findFirst();
+        return store.snapshot().findActiveVersion(scheduleId);
+    }
+
+    @Override
+    public List<Version> findByScheduleIdInAndActiveTrue(Collection<Long> scheduleIds) {
+        JsonDataModel data = store.snapshot();
+        List<Version> active = new ArrayList<>(scheduleIds.size());
+        for (Long scheduleId : new LinkedHashSet<>(scheduleIds)) {
+            data.findActiveVersion(scheduleId).ifPresent(active::add);
+        }
+        return active;
     }
 
     @Override
     public List<Version> findByScheduleIdOrderByCreatedAtDesc(Long scheduleId) {
-        return data.getVersions().stream()
-                .filter(v -> v.getScheduleId().equals(scheduleId))
+        return store.snapshot().versionsForSchedule(scheduleId).stream()
                 .sorted(Comparator.comparing(Version::getCreatedAt).reversed())
-                .collect(Collectors.toList());
+                .toList();
     }
 
     @Override
     public List<Version> findByScheduleIdAndActiveFalseOrderByCreatedAtDesc(Long scheduleId) {
-        return data.getVersions().stream()
-                .filter(v -> v.getScheduleId().equals(scheduleId) && !v.isActive())
+        return store.snapshot().versionsForSchedule(scheduleId).stream()
+                .filter(v -> !v.isActive())
                 .sorted(Comparator.comparing(Version::getCreatedAt).reversed())
-                .collect(Collectors.toList());
+                .toList();
     }
 
     @Override
     public List<Version> findVersionsAsOf(Long scheduleId, Instant asOfDate) {
-        return data.getVersions().stream()
-                .filter(v -> v.getScheduleId().equals(scheduleId))
+        return store.snapshot().versionsForSchedule(scheduleId).stream()
                 .filter(v -> !v.getEffectiveFrom().isAfter(asOfDate))
                 .sorted(Comparator.comparing(Version::getEffectiveFrom).reversed())
-                .collect(Collectors.toList());
+                .toList();
     }
 
     @Override
     public Optional<Version> findActiveVersionAsOf(Long scheduleId, Instant asOfDate) {
-        return data.getVersions().stream()
-                .filter(v -> v.getScheduleId().equals(scheduleId))
+        return store.snapshot().versionsForSchedule(scheduleId).stream()
                 .filter(v -> !v.getEffectiveFrom().isAfter(asOfDate))
                 .max(Comparator.comparing(Version::getEffectiveFrom));
     }
 
     @Override
     public boolean existsByScheduleIdAndActiveTrue(Long scheduleId) {
-        return data.getVersions().stream()
-                .anyMatch(v -> v.getScheduleId().equals(scheduleId) && v.isActive());
+        return store.snapshot().findActiveVersion(scheduleId).isPresent();
     }
 
     @Override
     public long count() {
-        return data.getVersions().size();
+        return store.snapshot().getVersions().size();
     }
 
     @Override
     public boolean existsById(Long id) {
-        return data.getVersions().stream()
-                .anyMatch(v -> v.getId().equals(id));
+        return store.snapshot().findVersion(id).isPresent();
     }
 
     @Override
     public List<Version> findAllById(Iterable<Long> ids) {
-        List<Long> idList = new java.util.ArrayList<>();
-        ids.forEach(idList::add);
-        return data.getVersions().stream()
-                .filter(v -> idList.contains(v.getId()))
-                .collect(Collectors.toList());
+        return store.snapshot().findVersions(ids);
     }
 
     // === Unsupported Write Operations ===
@@ -0,0 +1,108 @@
+package com.jw.holidayguard.repository.json;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonDataLoaderTest {
+
+    private static final String DATA = """
+            {
+              "queryLogs": [{"id": 1, "nested": {"schedules": [{"id": 99}]}}],
+              "deviations": [
+                {"id": 1000, "scheduleId": 1, "versionId": 10, "deviationDate": "2025-12-25", "action": "FORCE_SKIP"},
+                {"id": 1001, "scheduleId": 2, "versionId": 20, "deviationDate": "2025-07-04", "action": "FORCE_RUN"}
+              ],
+              "schedules": [
+                {"id": 1, "name": "Payroll", "country": "US", "active": true},
+                {"id": 2, "name": "Settlement", "country": "US", "active": true}
+              ],
+              "versions": [
+                {"id": 10, "scheduleId": 1, "effectiveFrom": "2025-01-01T00:00:00Z", "active": true},
+                {"id": 20, "scheduleId": 2, "effectiveFrom": "2025-01-01T00:00:00Z", "active": true}
+              ],
+              "rules": [
+                {"id": 100, "scheduleId": 1, "versionId": 10, "ruleType": "WEEKDAYS_ONLY", "effectiveFrom": "2025-01-01"},
+                {"id": 200, "scheduleId": 2, "versionId": 20, "ruleType": "ALL_DAYS", "effectiveFrom": "2025-01-01"}
+              ]
+            }
+            """;
+
+    @TempDir
+    Path dir;
+
+    @ParameterizedTest
+    @EnumSource(JsonDataLoader.Mode.class)
+    void load_readsSectionsInAnyOrderLikeDatabind(JsonDataLoader.Mode mode) throws IOException {
+        JsonDataModel expected = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .registerModule(new JavaTimeModule())
+                .readValue(DATA, JsonDataModel.class);
+
+        JsonDataModel data = new JsonDataLoader(mode).load(write(DATA));
+
+        assertThat(data.getSchedules()).isEqualTo(expected.getSchedules()).hasSize(2);
+        assertThat(data.getVersions()).isEqualTo(expected.getVersions());
+        assertThat(data.getRules()).isEqualTo(expected.getRules());
+        assertThat(data.getDeviations()).isEqualTo(expected.getDeviations());
+        assertThat(data.findScheduleByName("Settlement")).contains(expected.getSchedules().get(1));
+        assertThat(data.deviationsForScheduleVersion(1L, 10L)).containsExactly(expected.getDeviations().get(0));
+    }
+
+    @ParameterizedTest
+    @EnumSource(JsonDataLoader.Mode.class)
+    void load_treatsMissingAndNullSectionsAsEmpty(JsonDataLoader.Mode mode) throws IOException {
+        JsonDataModel data = new JsonDataLoader(mode).load(write("""
+                {"schedules": [{"id": 1, "name": "Payroll"}], "versions": null, "rules": []}
+                """));
+
+        assertThat(data.getSchedules()).hasSize(1);
+        assertThat(data.getVersions()).isEmpty();
+        assertThat(data.getRules()).isEmpty();
+        assertThat(data.getDeviations()).isEmpty();
+    }
+
+    @ParameterizedTest
+    @EnumSource(JsonDataLoader.Mode.class)
+    void load_rejectsMalformedFiles(JsonDataLoader.Mode mode) throws IOException {
+        JsonDataLoader loader = new JsonDataLoader(mode);
+
+        for (String json : new String[] {"[]", "{\"rules\": {}}", "{\"schedules\": [null]}", "{\"schedules\": [{\"id\": 1}"}) {
+            assertThatThrownBy(() -> loader.load(write(json))).as(json).isInstanceOf(JsonProcessingException.class);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = JsonDataLoader.Mode.class, names = {"STREAMING", "PARALLEL"})
+    void load_namesTheMalformedSectionWhenStreaming(JsonDataLoader.Mode mode) throws IOException {
+        JsonDataLoader loader = new JsonDataLoader(mode);
+
+        assertThatThrownBy(() -> loader.load(write("[]")))
+                .isInstanceOf(JsonProcessingException.class)
+                .hasMessageStartingWith("JSON data file must contain an object");
+        assertThatThrownBy(() -> loader.load(write("{\"rules\": {}}")))
+                .isInstanceOf(JsonProcessingException.class)
+                .hasMessageStartingWith("Section \"rules\" must be an array");
+        assertThatThrownBy(() -> loader.load(write("{\"rules\": [], \"rules\": []}")))
+                .isInstanceOf(JsonProcessingException.class)
+                .hasMessageStartingWith("Duplicate section \"rules\"");
+        assertThatThrownBy(() -> loader.load(write("{\"schedules\": [null]}")))
+                .isInstanceOf(JsonProcessingException.class)
+                .hasMessageStartingWith("Null entry in section \"schedules\"");
+    }
+
+    private Path write(String json) throws IOException {
+        return Files.writeString(dir.resolve("data.json"), json);
+    }
+}
@@ -0,0 +1,98 @@
+package com.jw.holidayguard.repository.json;
+
+import com.jw.holidayguard.domain.Deviation;
+import com.jw.holidayguard.domain.Rule;
+import com.jw.holidayguard.domain.RunStatus;
+import com.jw.holidayguard.domain.Schedule;
+import com.jw.holidayguard.domain.Version;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonDataModelTest {
+
+    private final Schedule payroll = Schedule.builder().id(1L).name("Payroll").country("US").build();
+    private final Schedule inactive = Schedule.builder().id(2L).name("Legacy").country("US").active(false).build();
+    private final Version payrollV1 = Version.builder().id(10L).scheduleId(1L).active(false).build();
+    private final Version payrollV2 = Version.builder().id(11L).scheduleId(1L).active(true).build();
+    private final Rule payrollRule = Rule.builder().id(100L).scheduleId(1L).versionId(11L).ruleType(Rule.RuleType.WEEKDAYS_ONLY).build();
+    private final Deviation skip = deviation(1000L, 11L, LocalDate.of(2025, 12, 25));
+    private final Deviation oldSkip = deviation(1001L, 10L, LocalDate.of(2024, 12, 25));
+
+    private final JsonDataModel data = new JsonDataModel(
+            List.of(payroll, inactive),
+            List.of(payrollV1, payrollV2),
+            List.of(payrollRule),
+            List.of(skip, oldSkip));
+
+    @Test
+    void indexesSchedulesByIdNameCountryAndActiveFlag() {
+        assertThat(data.findSchedule(1L)).contains(payroll);
+        assertThat(data.findSchedule(99L)).isEmpty();
+        assertThat(data.findScheduleByName("Legacy")).contains(inactive);
+        assertThat(data.schedulesForCountry("US")).containsExactly(payroll, inactive);
+        assertThat(data.schedulesForCountry("UK")).isEmpty();
+        assertThat(data.getActiveSchedules()).containsExactly(payroll);
+    }
+
+    @Test
+    void indexesVersionsRulesAndDeviationsBySchedule() {
+        assertThat(data.findActiveVersion(1L)).contains(payrollV2);
+        assertThat(data.findActiveVersion(2L)).isEmpty();
+        assertThat(data.versionsForSchedule(1L)).containsExactly(payrollV1, payrollV2);
+        assertThat(data.rulesForVersion(11L)).containsExactly(payrollRule);
+        assertThat(data.rulesForScheduleVersion(1L, 11L)).containsExactly(payrollRule);
+        assertThat(data.rulesForScheduleVersion(2L, 11L)).isEmpty();
+        assertThat(data.deviationsForScheduleVersion(1L, 11L)).containsExactly(skip);
+        assertThat(data.deviationsForSchedule(1L)).containsExactly(skip, oldSkip);
+        assertThat(data.deviationsForScheduleVersion(null, 11L)).isEmpty();
+    }
+
+    @Test
+    void findAllByIdSkipsUnknownAndDuplicateIds() {
+        assertThat(data.findSchedules(List.of(2L, 99L, 1L, 2L))).containsExactly(inactive, payroll);
+    }
+
+    @Test
+    void isImmutableAndIndependentOfTheSourceLists() {
+        List<Schedule> source = new ArrayList<>(List.of(payroll));
+        JsonDataModel model = new JsonDataModel(source, null, null, null);
+        source.add(inactive);
+
+        assertThat(model.getSchedules()).containsExactly(payroll);
+        assertThat(model.getVersions()).isEmpty();
+        assertThatThrownBy(() -> model.getSchedules().add(inactive)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> model.deviationsForSchedule(1L).clear()).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void repositoriesAnswerFromTheIndexes() {
+        var store = new JsonDataStore(data);
+        var schedules = new JsonScheduleRepository(store);
+        var versions = new JsonVersionRepository(store);
+        var rules = new JsonRuleRepository(store);
+        var deviations = new JsonDeviationRepository(store);
+
+        assertThat(schedules.countByActive(true)).isEqualTo(1);
+        assertThat(schedules.countByActive(false)).isEqualTo(1);
+        assertThat(versions.findByScheduleIdInAndActiveTrue(List.of(1L, 2L))).containsExactly(payrollV2);
+        assertThat(rules.findByVersionIdIn(List.of(11L, 10L))).containsExactly(payrollRule);
+        assertThat(deviations.findByVersionIdIn(List.of(10L, 11L))).containsExactly(oldSkip, skip);
+        assertThat(deviations.findByScheduleIdAndVersionId(1L, 11L)).isSameAs(data.deviationsForScheduleVersion(1L, 11L));
+    }
+
+    private static Deviation deviation(Long id, Long versionId, LocalDate date) {
+        return Deviation.builder()
+                .id(id)
+                .scheduleId(1L)
+                .versionId(versionId)
+                .deviationDate(date)
+                .action(RunStatus.FORCE_SKIP)
+                .build();
+    }
+}
@@ -0,0 +1,149 @@
+package com.jw.holidayguard.repository.json;
+
+import com.jw.holidayguard.repository.RepositoryDataChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class JsonDataStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+    private JsonDataStore store;
+    private int writes;
+
+    @AfterEach
+    void tearDown() {
+        if (store != null) store.stop();
+    }
+
+    @Test
+    void reload_swapsInChangedFileAndPublishesEvent() throws IOException {
+        // given
+        Path file = write(data("Payroll"));
+        store = new JsonDataStore(file, false, Duration.ofSeconds(1), events::add);
+        JsonDataModel before = store.snapshot();
+        long revision = store.revision();
+
+        // when
+        write(data("Payroll v2"));
+        boolean swapped = store.reload();
+
+        // then
+        assertThat(swapped).isTrue();
+        assertThat(store.snapshot().findSchedule(1L)).hasValueSatisfying(s -> assertThat(s.getName()).isEqualTo("Payroll v2"));
+        assertThat(before.findSchedule(1L)).hasValueSatisfying(s -> assertThat(s.getName()).isEqualTo("Payroll"));
+        assertThat(store.revision()).isGreaterThan(revision);
+        assertThat(events).containsExactly(new RepositoryDataChangedEvent("JSON", store.revision()));
+        assertThat(store.reload()).isFalse(); // unchanged file
+    }
+
+    @Test
+    void reload_movesRevisionWhenRuleChangesUnderTheSameVersionId() throws IOException {
+        // given
+        Path file = write(data("Payroll"));
+        store = new JsonDataStore(file, false, Duration.ofSeconds(1), events::add);
+        long revision = store.revision();
+
+        // when - version 10 keeps its id, its rule does not
+        write(data("Payroll").replace("WEEKDAYS_ONLY", "ALL_DAYS"));
+        store.reload();
+
+        // then
+        assertThat(store.snapshot().findRule(100L)).hasValueSatisfying(r -> assertThat(r.getRuleType()).hasToString("ALL_DAYS"));
+        assertThat(store.revision()).isGreaterThan(revision);
+        assertThat(events).containsExactly(new RepositoryDataChangedEvent("JSON", store.revision()));
+    }
+
+    @Test
+    void reload_keepsLastGoodSnapshotWhenFileIsInvalid() throws IOException {
+        // given
+        Path file = write(data("Payroll"));
+        store = new JsonDataStore(file, false, Duration.ofSeconds(1), events::add);
+        JsonDataModel good = store.snapshot();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        store.bindTo(registry);
+
+        // when - truncated file, then a rule pointing at a missing version
+        write("{\"schedules\": [");
+        boolean truncated = store.reload();
+        boolean retried = store.reload();
+        write(data("Payroll").replace("\"versionId\": 10", "\"versionId\": 99"));
+        boolean dangling = store.reload();
+
+        // then
+        assertThat(truncated).isFalse();
+        assertThat(retried).isFalse();
+        assertThat(dangling).isFalse();
+        assertThat(store.snapshot()).isSameAs(good);
+        assertThat(events).isEmpty();
+        assertThat(registry.get("holidayguard.json.reloads").tag("result", "failure").functionCounter().count()).isEqualTo(2);
+        assertThat(registry.get("holidayguard.json.reloads").tag("result", "success").functionCounter().count()).isZero();
+    }
+
+    @Test
+    void watcher_reloadsChangedFileInBackground() throws IOException {
+        // given
+        Path file = write(data("Payroll"));
+        store = new JsonDataStore(file, true, Duration.ofMillis(100), events::add);
+        store.start();
+
+        // when
+        write(data("Payroll v2"));
+
+        // then
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(store.snapshot().findScheduleByName("Payroll v2")).isPresent());
+        assertThat(events).hasSize(1);
+    }
+
+    @Test
+    void startsEmptyWhenFileIsMissingAndFailsWhenItIsInvalid() throws IOException {
+        store = new JsonDataStore(dir.resolve("absent.json"), false, Duration.ofSeconds(1), events::add);
+        assertThat(store.snapshot().getSchedules()).isEmpty();
+
+        Path invalid = write(data("Payroll").replace("\"id\": 10,", "\"id\": 11,"));
+        assertThatThrownBy(() -> new JsonDataStore(invalid, false, Duration.ofSeconds(1), events::add))
+                .isInstanceOf(IllegalStateException.class)
+                .hasRootCauseInstanceOf(IllegalArgumentException.class)
+                .hasRootCauseMessage("Rule 100 refers to unknown version 10");
+    }
+
+    /**
+     * Writes the data file with a distinct modification time, so each write is a new file state
+     * even on file systems with coarse timestamps.
+     */
+    private Path write(String json) throws IOException {
+        Path file = dir.resolve("data.json");
+        Files.writeString(file, json);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2025-01-01T00:00:00Z").plusSeconds(++writes)));
+        return file;
+    }
+
+    private static String data(String scheduleName) {
+        return """
+                {
+                  "schedules": [{"id": 1, "name": "%s", "country": "US", "active": true}],
+                  "versions": [{"id": 10, "scheduleId": 1, "effectiveFrom": "2025-01-01T00:00:00Z", "active": true}],
+                  "rules": [{"id": 100, "scheduleId": 1, "versionId": 10, "ruleType": "WEEKDAYS_ONLY", "effectiveFrom": "2025-01-01"}],
+                  "deviations": [{"id": 1000, "scheduleId": 1, "versionId": 10, "deviationDate": "2025-12-25", "action": "FORCE_SKIP"}]
+                }
+                """.formatted(scheduleName);
+    }
+}
@@ -61,4 +61,18 @@ public interface DataProvider {
      * @return {@code true} if this provider supports management operations, {@code false} if read-only
      */
     boolean supportsManagement();
+
+    /**
+     * Identifies the data set this provider serves. Calendar snapshot files record the id of
+     * the data they were exported from, and a server only answers from a file exported from
+     * the same data set.
+     *
+     * <p>Providers whose data can be replaced outside the service write paths (a data file
+     * edited on disk) should include something that changes with it.
+     *
+     * @return the data set's identity; defaults to {@link #getStorageDescription()}
+     */
+    default String getDataSourceId() {
+        return getStorageDescription();
+    }
 }
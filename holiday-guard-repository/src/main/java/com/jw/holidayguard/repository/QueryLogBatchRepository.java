@@ -0,0 +1,23 @@
+package com.jw.holidayguard.repository;
+
+import com.jw.holidayguard.domain.QueryLog;
+
+import java.util.List;
+
+/**
+ * Bulk insert path for the audit trail, used by the write-behind query log pipeline.
+ *
+ * <p>{@code QueryLog} ids are IDENTITY-generated, which stops Hibernate from batching
+ * inserts, so the JPA implementation goes straight to JDBC batches instead.
+ */
+public interface QueryLogBatchRepository {
+
+    /**
+     * Inserts the given rows in JDBC batches. Generated ids are not written back.
+     *
+     * @param logs rows to insert
+     * @param batchSize maximum number of rows per JDBC batch
+     * @return number of rows inserted
+     */
+    int insertAll(List<QueryLog> logs, int batchSize);
+}
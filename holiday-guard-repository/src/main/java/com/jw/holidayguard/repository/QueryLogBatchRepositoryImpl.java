@@ -0,0 +1,52 @@
+package com.jw.holidayguard.repository;
+
+import com.jw.holidayguard.domain.QueryLog;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * JDBC batch implementation of {@link QueryLogBatchRepository}, picked up by Spring Data as
+ * a fragment of {@link QueryLogRepository}. Defaults mirror {@code QueryLog}'s {@code @PrePersist}.
+ */
+class QueryLogBatchRepositoryImpl implements QueryLogBatchRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO query_log
+                (schedule_id, version_id, query_date, should_run_result, reason, deviation_applied, queried_at, client_identifier)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    QueryLogBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public int insertAll(List<QueryLog> logs, int batchSize) {
+        if (logs.isEmpty()) return 0;
+
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, logs, batchSize, (ps, log) -> {
+            ps.setLong(1, log.getScheduleId());
+            ps.setLong(2, log.getVersionId());
+            ps.setDate(3, Date.valueOf(log.getQueryDate()));
+            ps.setBoolean(4, log.isShouldRunResult());
+            ps.setString(5, log.getReason());
+            ps.setBoolean(6, log.isDeviationApplied());
+            ps.setTimestamp(7, Timestamp.from(log.getQueriedAt() != null ? log.getQueriedAt() : Instant.now()));
+            ps.setString(8, log.getClientIdentifier() != null ? log.getClientIdentifier() : "unknown");
+        });
+
+        int inserted = 0;
+        for (int[] batch : counts) {
+            inserted += batch.length;
+        }
+        return inserted;
+    }
+}
@@ -0,0 +1,35 @@
+package com.jw.holidayguard.repository;
+
+import com.jw.holidayguard.domain.QueryLog;
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Keyset-paginated reads of the audit trail.
+ *
+ * <p>Only the filters that are set become predicates, so the database can pick the
+ * {@code (schedule_id, queried_at, id)}, {@code (client_identifier, queried_at, id)} or
+ * {@code (queried_at, id)} index for the filters actually used; a single query with
+ * {@code (:x IS NULL OR col = :x)} for every filter can use none of them.
+ */
+public interface QueryLogPageRepository {
+
+    /**
+     * One page of the audit trail, newest first, ordered by (queriedAt, id) for keyset pagination.
+     * Every filter is optional: null means not filtered. To continue after a page, pass the
+     * queriedAt and id of its last row as afterQueriedAt / afterId; null starts at the newest row.
+     *
+     * @throws IllegalArgumentException if only one of afterQueriedAt and afterId is given
+     */
+    List<QueryLog> findPage(Long scheduleId,
+                            String clientIdentifier,
+                            LocalDate fromDate,
+                            LocalDate toDate,
+                            Boolean shouldRunResult,
+                            Instant afterQueriedAt,
+                            Long afterId,
+                            Limit limit);
+}
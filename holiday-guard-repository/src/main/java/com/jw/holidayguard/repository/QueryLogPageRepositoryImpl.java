@@ -0,0 +1,94 @@
+package com.jw.holidayguard.repository;
+
+import com.jw.holidayguard.domain.QueryLog;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria implementation of {@link QueryLogPageRepository}, picked up by Spring Data as a
+ * fragment of {@link QueryLogRepository}.
+ *
+ * <p>The keyset condition {@code (queriedAt, id) < (afterQueriedAt, afterId)} is written as
+ * {@code queriedAt <= afterQueriedAt AND (queriedAt < afterQueriedAt OR id < afterId)}: the
+ * first conjunct bounds the index range scan, the second only drops rows within it. With the
+ * condition as a bare OR the scan has no bound and starts from the newest row on every page.
+ * A schedule or client filter also leads the sort order: it is constant within the result, and
+ * lets the database see that the filtered index is already in order, so it reads only one
+ * page of rows instead of sorting every match.
+ */
+class QueryLogPageRepositoryImpl implements QueryLogPageRepository {
+
+    private final EntityManager entityManager;
+
+    QueryLogPageRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<QueryLog> findPage(Long scheduleId, String clientIdentifier, LocalDate fromDate, LocalDate toDate,
+                                   Boolean shouldRunResult, Instant afterQueriedAt, Long afterId, Limit limit) {
+        if ((afterQueriedAt == null) != (afterId == null)) {
+            throw new IllegalArgumentException("afterQueriedAt and afterId must be given together");
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<QueryLog> query = cb.createQuery(QueryLog.class);
+        Root<QueryLog> log = query.from(QueryLog.class);
+        Path<Instant> queriedAt = log.get("queriedAt");
+        Path<Long> id = log.get("id");
+
+        List<Predicate> where = new ArrayList<>();
+        if (scheduleId != null) {
+            where.add(cb.equal(log.get("scheduleId"), scheduleId));
+        }
+        if (clientIdentifier != null) {
+            where.add(cb.equal(log.get("clientIdentifier"), clientIdentifier));
+        }
+        if (afterQueriedAt != null) {
+            where.add(cb.lessThanOrEqualTo(queriedAt, afterQueriedAt));
+            where.add(cb.or(cb.lessThan(queriedAt, afterQueriedAt), cb.lessThan(id, afterId)));
+        }
+        if (fromDate != null) {
+            where.add(cb.greaterThanOrEqualTo(log.get("queryDate"), fromDate));
+        }
+        if (toDate != null) {
+            where.add(cb.lessThanOrEqualTo(log.get("queryDate"), toDate));
+        }
+        if (shouldRunResult != null) {
+            where.add(cb.equal(log.get("shouldRunResult"), shouldRunResult));
+        }
+
+        List<Order> order = new ArrayList<>();
+        if (scheduleId != null) {
+            order.add(cb.desc(log.get("scheduleId")));
+        } else if (clientIdentifier != null) {
+            order.add(cb.desc(log.get("clientIdentifier")));
+        }
+        order.add(cb.desc(queriedAt));
+        order.add(cb.desc(id));
+
+        query.select(log)
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(order);
+
+        TypedQuery<QueryLog> typed = entityManager.createQuery(query);
+        if (limit.isLimited()) {
+            typed.setMaxResults(limit.max());
+        }
+        return typed.getResultList();
+    }
+}
@@ -13,7 +13,7 @@ import java.time.LocalDate;
 import java.util.List;
 
 @Repository
-public interface QueryLogRepository extends JpaRepository<QueryLog, Long> {
+public interface QueryLogRepository extends JpaRepository<QueryLog, Long>, QueryLogBatchRepository, QueryLogPageRepository {
 
     List<QueryLog> findByScheduleIdAndQueryDate(Long scheduleId, LocalDate queryDate);
 
@@ -39,4 +39,4 @@ public interface QueryLogRepository extends JpaRepository<QueryLog, Long> {
 
     @Query("SELECT sql FROM QueryLog sql WHERE sql.scheduleId = :scheduleId AND sql.queryDate = :queryDate ORDER BY sql.queriedAt DESC LIMIT 1")
     QueryLog findLatestQueryForScheduleAndDate(@Param("scheduleId") Long scheduleId, @Param("queryDate") LocalDate queryDate);
-}
\ No newline at end of file
+}
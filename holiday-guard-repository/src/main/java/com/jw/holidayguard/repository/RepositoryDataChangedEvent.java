@@ -0,0 +1,19 @@
+package com.jw.holidayguard.repository;
+
+/**
+ * Application event published when a repository implementation replaces its data outside
+ * the service layer's write paths, e.g. when the JSON provider reloads its file.
+ *
+ * <p>Anything derived from repository data (compiled calendars, dashboard status) must be
+ * treated as stale once this event is received. Writes made through the services do not
+ * publish it; they invalidate the affected schedules directly.
+ *
+ * <p>The data can change without any version id changing (a reloaded file may edit a rule in
+ * place), so consumers that identify answers by version must also track {@code revision}.
+ *
+ * @param providerName the {@link DataProvider#getProviderName()} of the publishing provider
+ * @param revision the provider's data revision after the change; greater than any revision
+ *                 it published before
+ */
+public record RepositoryDataChangedEvent(String providerName, long revision) {
+}
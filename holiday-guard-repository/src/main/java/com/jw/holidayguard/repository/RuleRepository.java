@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +16,8 @@ public interface RuleRepository extends JpaRepository<Rule, Long> {
 
     Optional<Rule> findByVersionId(Long versionId);
 
+    List<Rule> findByVersionIdIn(Collection<Long> versionIds);
+
     Optional<Rule> findByVersionIdAndActiveTrue(Long versionId);
 
     Optional<Rule> findByScheduleIdAndVersionId(Long scheduleId, Long versionId);
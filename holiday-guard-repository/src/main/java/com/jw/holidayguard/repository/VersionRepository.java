@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +16,8 @@ public interface VersionRepository extends JpaRepository<Version, Long> {
 
     Optional<Version> findByScheduleIdAndActiveTrue(Long scheduleId);
 
+    List<Version> findByScheduleIdInAndActiveTrue(Collection<Long> scheduleIds);
+
     List<Version> findByScheduleIdOrderByCreatedAtDesc(Long scheduleId);
 
     List<Version> findByScheduleIdAndActiveFalseOrderByCreatedAtDesc(Long scheduleId);
@@ -0,0 +1,163 @@
+package com.jw.holidayguard.repository;
+
+import com.jw.holidayguard.domain.QueryLog;
+import com.jw.holidayguard.domain.Schedule;
+import com.jw.holidayguard.domain.Version;
+import com.jw.holidayguard.util.ScheduleTestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class QueryLogRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private QueryLogRepository queryLogRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Schedule schedule;
+    private Version version;
+
+    @BeforeEach
+    void setUp() {
+        schedule = entityManager.persistAndFlush(ScheduleTestDataFactory.createPayrollSchedule());
+        version = entityManager.persistAndFlush(ScheduleTestDataFactory.createScheduleVersion(schedule.getId(), true));
+    }
+
+    @Test
+    void insertAll_writesEveryRowAcrossBatches() {
+        // given - more rows than a single batch holds
+        Instant queriedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        List<QueryLog> logs = IntStream.range(0, 7)
+                .mapToObj(i -> QueryLog.builder()
+                        .scheduleId(schedule.getId())
+                        .versionId(version.getId())
+                        .queryDate(LocalDate.of(2025, 1, 1).plusDays(i))
+                        .shouldRunResult(i % 2 == 0)
+                        .reason("row " + i)
+                        .queriedAt(queriedAt)
+                        .clientIdentifier("batch-client")
+                        .build())
+                .toList();
+
+        // when
+        int inserted = queryLogRepository.insertAll(logs, 3);
+
+        // then
+        assertThat(inserted).isEqualTo(7);
+        List<QueryLog> stored = queryLogRepository.findByClientIdentifier("batch-client");
+        assertThat(stored).hasSize(7);
+        assertThat(stored).allSatisfy(log -> {
+            assertThat(log.getId()).isNotNull();
+            assertThat(log.getQueriedAt()).isEqualTo(queriedAt);
+        });
+    }
+
+    @Test
+    void insertAll_appliesEntityDefaults() {
+        // given - a row without timestamp or client
+        QueryLog log = QueryLog.builder()
+                .scheduleId(schedule.getId())
+                .versionId(version.getId())
+                .queryDate(LocalDate.of(2025, 1, 1))
+                .shouldRunResult(true)
+                .reason("defaults")
+                .build();
+
+        // when
+        queryLogRepository.insertAll(List.of(log), 100);
+
+        // then
+        List<QueryLog> stored = queryLogRepository.findByClientIdentifier("unknown");
+        assertThat(stored).hasSize(1);
+        assertThat(stored.get(0).getQueriedAt()).isNotNull();
+    }
+
+    @Test
+    void findPage_walksNewestFirstAcrossEqualTimestampsWithFilters() {
+        // given - five rows, three sharing one timestamp
+        Instant base = Instant.parse("2025-01-10T12:00:00Z");
+        List<QueryLog> logs = IntStream.range(0, 5)
+                .mapToObj(i -> QueryLog.builder()
+                        .scheduleId(schedule.getId())
+                        .versionId(version.getId())
+                        .queryDate(LocalDate.of(2025, 1, 1).plusDays(i))
+                        .shouldRunResult(i != 3)
+                        .reason("row " + i)
+                        .queriedAt(i < 3 ? base : base.plusSeconds(i))
+                        .clientIdentifier(i == 4 ? "other-client" : "page-client")
+                        .build())
+                .toList();
+        queryLogRepository.insertAll(logs, 10);
+
+        // when - pages of two, continuing after the last row of each page
+        List<QueryLog> first = queryLogRepository.findPage(null, null, null, null, null, null, null, Limit.of(2));
+        QueryLog last = first.get(1);
+        List<QueryLog> second = queryLogRepository.findPage(null, null, null, null, null, last.getQueriedAt(), last.getId(), Limit.of(2));
+        last = second.get(1);
+        List<QueryLog> third = queryLogRepository.findPage(null, null, null, null, null, last.getQueriedAt(), last.getId(), Limit.of(2));
+
+        // then - newest first, ties broken by id, every row exactly once
+        assertThat(first).extracting(QueryLog::getReason).containsExactly("row 4", "row 3");
+        assertThat(second).extracting(QueryLog::getReason).containsExactly("row 2", "row 1");
+        assertThat(third).extracting(QueryLog::getReason).containsExactly("row 0");
+
+        // and filters narrow the page
+        assertThat(queryLogRepository.findPage(schedule.getId(), "page-client", LocalDate.of(2025, 1, 2), LocalDate.of(2025, 1, 4), true, null, null, Limit.of(10)))
+                .extracting(QueryLog::getReason)
+                .containsExactly("row 2", "row 1");
+    }
+
+    @Test
+    void findPage_scansOnlyOnePageOfTheMatchingIndex() {
+        // given - a cursor, as when reading a later page
+        Instant after = Instant.parse("2025-01-10T12:00:00Z");
+        Timestamp cursor = Timestamp.from(after);
+
+        // when / then - each filter combination reads its index in order from the cursor
+        queryLogRepository.findPage(null, null, null, null, null, after, 5L, Limit.of(10));
+        assertThat(explainLastPage(cursor, cursor, 5L, 10))
+                .contains("IDX_QUERY_LOG_QUERIED_AT_ID: QUERIED_AT <= ?1")
+                .contains("index sorted");
+
+        queryLogRepository.findPage(schedule.getId(), null, null, null, true, after, 5L, Limit.of(10));
+        assertThat(explainLastPage(schedule.getId(), cursor, cursor, 5L, true, 10))
+                .contains("IDX_QUERY_LOG_SCHEDULE_QUERIED_AT: SCHEDULE_ID = ?1")
+                .contains("QUERIED_AT <= ?2")
+                .contains("index sorted");
+
+        queryLogRepository.findPage(null, "page-client", LocalDate.of(2025, 1, 1), null, null, after, 5L, Limit.of(10));
+        assertThat(explainLastPage("page-client", cursor, cursor, 5L, Date.valueOf("2025-01-01"), 10))
+                .contains("IDX_QUERY_LOG_CLIENT_QUERIED_AT: CLIENT_IDENTIFIER = ?1")
+                .contains("QUERIED_AT <= ?2")
+                .contains("index sorted");
+    }
+
+    /**
+     * The database's plan for the last audit page query, with the given parameters in the
+     * order the query binds them.
+     */
+    private String explainLastPage(Object... parameters) {
+        String sql = RecordingStatementInspector.lastQueryOf("query_log");
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parameters);
+    }
+}
@@ -0,0 +1,29 @@
+package com.jw.holidayguard.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records the SQL Hibernate prepares, so tests can check the plan the database picks for it.
+ * Registered in the test {@code application.yml}.
+ */
+public class RecordingStatementInspector implements StatementInspector {
+
+    static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    static String lastQueryOf(String table) {
+        for (int i = STATEMENTS.size() - 1; i >= 0; i--) {
+            String sql = STATEMENTS.get(i);
+            if (sql.startsWith("select") && sql.contains(" from " + table + " ")) return sql;
+        }
+        throw new IllegalStateException("No query of " + table + " recorded");
+    }
+}
@@ -1,14 +1,17 @@
 package com.jw.holidayguard.controller;
 
-import com.jw.holidayguard.dto.QueryLogDto;
+import com.jw.holidayguard.dto.QueryLogFilter;
+import com.jw.holidayguard.dto.QueryLogPage;
 import com.jw.holidayguard.repository.ConditionalOnManagement;
 import com.jw.holidayguard.service.ScheduleQueryService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
+import java.time.LocalDate;
 
 /**
  * REST controller for audit log viewing.
@@ -27,9 +30,21 @@ public class AuditLogController {
         this.scheduleQueryService = scheduleQueryService;
     }
 
+    /**
+     * Returns one page of audit log entries, newest first. Pass the response's
+     * {@code nextCursor} back as {@code cursor} to fetch the following page.
+     */
     @GetMapping
-    public ResponseEntity<List<QueryLogDto>> getAllLogs() {
-        List<QueryLogDto> logs = scheduleQueryService.findAllLogs();
-        return ResponseEntity.ok(logs);
+    public ResponseEntity<QueryLogPage> getLogs(
+            @RequestParam(required = false) Long scheduleId,
+            @RequestParam(required = false) String clientIdentifier,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Boolean shouldRun,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + ScheduleQueryService.DEFAULT_LOG_PAGE_SIZE) int limit) {
+
+        var filter = new QueryLogFilter(scheduleId, clientIdentifier, from, to, shouldRun);
+        return ResponseEntity.ok(scheduleQueryService.findLogs(filter, cursor, limit));
     }
 }
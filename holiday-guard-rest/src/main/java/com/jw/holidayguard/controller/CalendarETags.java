@@ -0,0 +1,66 @@
+package com.jw.holidayguard.controller;
+
+import com.jw.holidayguard.service.CalendarStamp;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Strong ETags for calendar responses.
+ *
+ * <p>A calendar answer is fully determined by the schedule's active version (within one data
+ * revision), the schedule fields shown in the response and the date or month asked about, so
+ * the tag is a digest of exactly those. Matching a tag never evaluates a calendar; it only needs the
+ * {@link CalendarStamp}s, which come from the calendar cache or two indexed lookups.
+ */
+final class CalendarETags {
+
+    private CalendarETags() {
+    }
+
+    /**
+     * Tag for a single-day answer (e.g. should-run today).
+     */
+    static String forDay(CalendarStamp stamp, LocalDate date) {
+        return tag("day|" + date + "|" + describe(stamp));
+    }
+
+    /**
+     * Tag for one schedule's month.
+     */
+    static String forMonth(CalendarStamp stamp, YearMonth yearMonth) {
+        return tag("month|" + yearMonth + "|" + describe(stamp));
+    }
+
+    /**
+     * Tag for a multi-schedule month view. Requested ids without a stamp are part of the tag
+     * too, so a schedule appearing or disappearing changes it.
+     */
+    static String forView(List<Long> scheduleIds, Map<Long, CalendarStamp> stamps, YearMonth yearMonth, boolean includeDeviations) {
+        StringBuilder key = new StringBuilder("view|").append(yearMonth).append('|').append(includeDeviations);
+        for (Long scheduleId : scheduleIds) {
+            CalendarStamp stamp = stamps.get(scheduleId);
+            key.append('|').append(stamp == null ? scheduleId + ":-" : describe(stamp));
+        }
+        return tag(key.toString());
+    }
+
+    private static String describe(CalendarStamp stamp) {
+        return stamp.scheduleId() + ":" + stamp.versionId() + "@" + stamp.dataRevision() + ":" + stamp.active() + ":" + stamp.scheduleName();
+    }
+
+    private static String tag(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.jw.holidayguard.controller;
+
+import com.jw.holidayguard.service.snapshot.CalendarSnapshotExporter;
+import com.jw.holidayguard.service.snapshot.CalendarSnapshotWriter;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * Downloads every schedule's compiled calendar as a binary snapshot file, for servers started
+ * with {@code app.calendar-snapshot.file} and for the CLI's {@code --config}.
+ */
+@RestController
+@RequestMapping("/api/v1/calendar-snapshot")
+@RequiredArgsConstructor
+public class CalendarSnapshotController {
+
+    static final String FILE_NAME = "calendars.hgsnap";
+
+    private final CalendarSnapshotExporter exporter;
+
+    /**
+     * Writes the snapshot. With {@code firstYear} and {@code lastYear} (at most 100 years) the
+     * rule's answer for each day of those years is stored as well, so readers answer them
+     * without compiling rules.
+     */
+    @GetMapping
+    public void exportSnapshot(
+            @RequestParam(required = false) Integer firstYear,
+            @RequestParam(required = false) Integer lastYear,
+            HttpServletResponse response) throws IOException {
+
+        CalendarSnapshotWriter snapshot = exporter.export(firstYear, lastYear);
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(FILE_NAME).build().toString());
+        snapshot.writeTo(response.getOutputStream());
+    }
+}
@@ -1,13 +1,18 @@
 package com.jw.holidayguard.controller;
 
+import com.jw.holidayguard.controller.ResponseCachePolicy.Endpoint;
 import com.jw.holidayguard.dto.view.MultiScheduleCalendarView;
+import com.jw.holidayguard.service.CalendarStamp;
 import com.jw.holidayguard.service.CalendarViewService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
 
 /**
  * REST controller for the multi-schedule calendar viewer.
@@ -19,6 +24,7 @@ import java.util.List;
 public class CalendarViewController {
 
     private final CalendarViewService calendarViewService;
+    private final ResponseCachePolicy cachePolicy;
 
     /**
      * Get calendar data for multiple schedules for a given month.
@@ -26,14 +32,32 @@ public class CalendarViewController {
      * @param scheduleIds Comma-separated list of schedule IDs
      * @param yearMonth Year-month in format yyyy-MM
      * @param includeDeviations Whether to include deviations (default: true)
-     * @return MultiScheduleCalendarView with normalized structure (schedule metadata appears once)
+     * @return MultiScheduleCalendarView with normalized structure (schedule metadata appears once),
+     *         or 304 when {@code If-None-Match} matches the active versions of all requested schedules;
+     *         only cacheable when every requested schedule exists and is active
      */
     @GetMapping
     public MultiScheduleCalendarView getMultiScheduleCalendar(
             @RequestParam("scheduleIds") List<Long> scheduleIds,
             @RequestParam("yearMonth") @DateTimeFormat(pattern = "yyyy-MM") YearMonth yearMonth,
-            @RequestParam(value = "includeDeviations", defaultValue = "true") boolean includeDeviations) {
+            @RequestParam(value = "includeDeviations", defaultValue = "true") boolean includeDeviations,
+            WebRequest webRequest,
+            HttpServletResponse response) {
 
-        return calendarViewService.getMultiScheduleCalendar(scheduleIds, yearMonth, includeDeviations);
+        var stamps = calendarViewService.getCalendarStamps(scheduleIds);
+        if (webRequest.checkNotModified(CalendarETags.forView(scheduleIds, stamps, yearMonth, includeDeviations))) {
+            cachePolicy.apply(response, Endpoint.CALENDAR_VIEW, requested(scheduleIds, stamps), false);
+            return null;
+        }
+        var view = calendarViewService.getMultiScheduleCalendar(scheduleIds, yearMonth, includeDeviations);
+        cachePolicy.apply(response, Endpoint.CALENDAR_VIEW, requested(scheduleIds, stamps), false);
+        return view;
+    }
+
+    /**
+     * Stamps in request order, null for schedules that were not found.
+     */
+    private static List<CalendarStamp> requested(List<Long> scheduleIds, Map<Long, CalendarStamp> stamps) {
+        return scheduleIds.stream().map(stamps::get).toList();
     }
 }
@@ -0,0 +1,146 @@
+package com.jw.holidayguard.controller;
+
+import com.jw.holidayguard.service.CalendarStamp;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.Environment;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides how long calendar answers may be cached by clients and intermediaries, and writes
+ * the {@code Cache-Control} and {@code Expires} headers for them.
+ *
+ * <p>An answer is fixed by the schedule's active version and the date asked about, so it stays
+ * valid until one of those moves:
+ * <ul>
+ *   <li>an answer about today expires at the next local midnight</li>
+ *   <li>an answer from a version that only takes effect later expires when it does</li>
+ *   <li>an inactive or unknown schedule is never cached</li>
+ * </ul>
+ * Version changes nobody can predict are bounded by the endpoint's configured max-age, and
+ * clients holding an ETag can revalidate cheaply after that.
+ *
+ * <p>Each endpoint is configured under {@code app.http.cache.<endpoint>} with {@code enabled},
+ * {@code max-age} and {@code shared} (public, cacheable by proxies, versus private to the
+ * client). {@code app.http.cache.enabled=false} turns every endpoint off.
+ */
+@Component
+class ResponseCachePolicy {
+
+    enum Endpoint {
+        SHOULD_RUN("should-run", Duration.ofMinutes(5), true),
+        RUN_DATES("run-dates", Duration.ofHours(1), true),
+        CALENDAR("calendar", Duration.ofMinutes(5), false),
+        CALENDAR_VIEW("calendar-view", Duration.ofMinutes(5), false);
+
+        private final String key;
+        private final Settings defaults;
+
+        Endpoint(String key, Duration maxAge, boolean shared) {
+            this.key = key;
+            this.defaults = new Settings(true, maxAge, shared);
+        }
+    }
+
+    /**
+     * @param enabled whether cache headers are written at all
+     * @param maxAge the longest an answer may be cached
+     * @param shared true for {@code public}, false for {@code private}
+     */
+    record Settings(boolean enabled, Duration maxAge, boolean shared) {
+    }
+
+    private static final String PREFIX = "app.http.cache.";
+
+    private final Map<Endpoint, Settings> settings;
+    private final Clock clock;
+
+    @Autowired
+    ResponseCachePolicy(Environment environment) {
+        this(resolve(environment), Clock.systemDefaultZone());
+    }
+
+    ResponseCachePolicy(Map<Endpoint, Settings> settings, Clock clock) {
+        this.settings = new EnumMap<>(settings);
+        this.clock = clock;
+    }
+
+    /**
+     * Writes cache headers for a successful answer (or a 304 revalidating one).
+     *
+     * @param response the response to add headers to
+     * @param endpoint the endpoint answering
+     * @param stamps versions of every schedule in the answer; a null entry means an unknown schedule
+     * @param today whether the answer is about the current date
+     */
+    void apply(HttpServletResponse response, Endpoint endpoint, Collection<CalendarStamp> stamps, boolean today) {
+        Settings endpointSettings = settings.get(endpoint);
+        if (!endpointSettings.enabled()) return;
+
+        Instant now = clock.instant();
+        Instant expires = expiry(endpointSettings.maxAge(), stamps, today, now);
+        long seconds = expires == null ? 0 : Duration.between(now, expires).toSeconds();
+
+        if (seconds <= 0) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+            return;
+        }
+
+        CacheControl cacheControl = CacheControl.maxAge(seconds, TimeUnit.SECONDS);
+        cacheControl = endpointSettings.shared() ? cacheControl.cachePublic() : cacheControl.cachePrivate();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        response.setDateHeader(HttpHeaders.EXPIRES, now.plusSeconds(seconds).toEpochMilli());
+    }
+
+    /**
+     * @return when the answer stops being safe to reuse, or null if it must not be cached
+     */
+    private Instant expiry(Duration maxAge, Collection<CalendarStamp> stamps, boolean today, Instant now) {
+        if (stamps.isEmpty()) return null;
+
+        Instant expires = now.plus(maxAge);
+        if (today) {
+            Instant midnight = LocalDate.now(clock).plusDays(1).atStartOfDay(clock.getZone()).toInstant();
+            expires = min(expires, midnight);
+        }
+        for (CalendarStamp stamp : stamps) {
+            if (stamp == null || !stamp.active()) return null;
+            Instant effectiveFrom = stamp.versionEffectiveFrom();
+            if (effectiveFrom != null && effectiveFrom.isAfter(now)) {
+                expires = min(expires, effectiveFrom);
+            }
+        }
+        return expires;
+    }
+
+    private static Instant min(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static Map<Endpoint, Settings> resolve(Environment environment) {
+        boolean globallyEnabled = environment.getProperty(PREFIX + "enabled", Boolean.class, true);
+        Map<Endpoint, Settings> resolved = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            String prefix = PREFIX + endpoint.key + ".";
+            Settings defaults = endpoint.defaults;
+            String maxAge = environment.getProperty(prefix + "max-age");
+            resolved.put(endpoint, new Settings(
+                    globallyEnabled && environment.getProperty(prefix + "enabled", Boolean.class, defaults.enabled()),
+                    maxAge == null ? defaults.maxAge() : DurationStyle.detectAndParse(maxAge),
+                    environment.getProperty(prefix + "shared", Boolean.class, defaults.shared())));
+        }
+        return resolved;
+    }
+}
@@ -1,11 +1,14 @@
 package com.jw.holidayguard.controller;
 
+import com.jw.holidayguard.controller.ResponseCachePolicy.Endpoint;
 import com.jw.holidayguard.dto.ScheduleMonthDto;
 import com.jw.holidayguard.dto.DeviationDto;
 import com.jw.holidayguard.service.ScheduleService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.YearMonth;
 import java.util.List;
@@ -17,12 +20,28 @@ import java.util.List;
 public class ScheduleCalendarController {
 
     private final ScheduleService scheduleService;
+    private final ResponseCachePolicy cachePolicy;
 
+    /**
+     * Base calendar for one month. Tagged with a strong ETag derived from the active version;
+     * a matching {@code If-None-Match} gets 304 without evaluating the calendar.
+     * {@code Cache-Control} follows the {@code app.http.cache.calendar} policy.
+     */
     @GetMapping("/calendar")
     public ScheduleMonthDto getScheduleCalendar(
             @PathVariable Long scheduleId,
-            @RequestParam("yearMonth") @DateTimeFormat(pattern = "yyyy-MM") YearMonth yearMonth) {
-        return scheduleService.getScheduleCalendar(scheduleId, yearMonth);
+            @RequestParam("yearMonth") @DateTimeFormat(pattern = "yyyy-MM") YearMonth yearMonth,
+            WebRequest webRequest,
+            HttpServletResponse response) {
+
+        var stamp = scheduleService.getCalendarStamp(scheduleId);
+        if (stamp.isPresent() && webRequest.checkNotModified(CalendarETags.forMonth(stamp.get(), yearMonth))) {
+            cachePolicy.apply(response, Endpoint.CALENDAR, List.of(stamp.get()), false);
+            return null;
+        }
+        ScheduleMonthDto month = scheduleService.getScheduleCalendar(scheduleId, yearMonth);
+        stamp.ifPresent(s -> cachePolicy.apply(response, Endpoint.CALENDAR, List.of(s), false));
+        return month;
     }
 
     @GetMapping("/deviations")
@@ -1,13 +1,34 @@
 package com.jw.holidayguard.controller;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.jw.holidayguard.controller.ResponseCachePolicy.Endpoint;
+import com.jw.holidayguard.domain.Calendar;
+import com.jw.holidayguard.domain.RunStatus;
+import com.jw.holidayguard.dto.request.BulkShouldRunRequest;
 import com.jw.holidayguard.dto.request.ShouldRunQueryRequest;
+import com.jw.holidayguard.dto.response.BulkShouldRunResponse;
 import com.jw.holidayguard.dto.response.ShouldRunQueryResponse;
+import com.jw.holidayguard.service.CalendarSnapshot;
+import com.jw.holidayguard.service.QueryMetrics;
 import com.jw.holidayguard.service.ScheduleQueryService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.List;
 
 
 @RestController
@@ -15,25 +36,54 @@ import org.springframework.web.bind.annotation.*;
 @Validated
 public class ShouldRunController {
 
+    private static final JsonFactory JSON_FACTORY = new JsonFactoryBuilder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .rootValueSeparator("")
+            .build();
+    private static final int ROWS_PER_FLUSH = 256;
+
     private final ScheduleQueryService service;
+    private final ResponseCachePolicy cachePolicy;
+    private final QueryMetrics metrics;
 
-    public ShouldRunController(ScheduleQueryService service) {
+    public ShouldRunController(ScheduleQueryService service, ResponseCachePolicy cachePolicy, QueryMetrics metrics) {
         this.service = service;
+        this.cachePolicy = cachePolicy;
+        this.metrics = metrics;
     }
 
     /**
      * Simple "should I run today?" endpoint - the primary daily use case.
      * No request body needed, defaults to today's date.
      * <p>
+     * The answer carries a strong ETag for (schedule, active version, today). A matching
+     * {@code If-None-Match} gets 304 without evaluating the calendar; such revalidations are
+     * not written to the audit log, since no answer is given. {@code Cache-Control} lets
+     * clients and proxies reuse the answer until local midnight at the latest.
+     * <p>
      * Example: GET /api/v1/schedules/{scheduleId}/should-run?client=payroll-service
      */
     @GetMapping("/{scheduleId}/should-run")
     public ResponseEntity<ShouldRunQueryResponse> shouldRunToday(
             @PathVariable Long scheduleId,
-            @RequestParam(required = false) String clientIdentifier) {
+            @RequestParam(required = false) String clientIdentifier,
+            WebRequest webRequest,
+            HttpServletResponse servletResponse) {
+
+        var stamp = service.getCalendarStamp(scheduleId);
+        if (stamp.isPresent() && stamp.get().active()
+                && webRequest.checkNotModified(CalendarETags.forDay(stamp.get(), LocalDate.now()))) {
+            cachePolicy.apply(servletResponse, Endpoint.SHOULD_RUN, List.of(stamp.get()), true);
+            metrics.countRequest("today", "not-modified");
+            return null;
+        }
 
         var request = new ShouldRunQueryRequest(clientIdentifier);
         var response = service.shouldRunToday(scheduleId, request);
+        if (stamp.isPresent() && stamp.get().versionId().equals(response.getVersionId())) {
+            cachePolicy.apply(servletResponse, Endpoint.SHOULD_RUN, List.of(stamp.get()), true);
+        }
+        metrics.countRequest("today", "answered");
         return ResponseEntity.ok(response);
     }
 
@@ -50,6 +100,86 @@ public class ShouldRunController {
             @Valid @RequestBody ShouldRunQueryRequest request) {
 
         var response = service.shouldRunToday(scheduleId, request);
+        metrics.countRequest("date", "answered");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Bulk "should I run?" endpoint for orchestrators checking many schedules at once.
+     * Each query names a schedule and the dates to check (today when omitted). Answers come
+     * back in request order; a schedule or date that cannot be evaluated gets an error entry
+     * instead of failing the whole request.
+     * <p>
+     * Example: POST /api/v1/schedules/should-run
+     * Body: {"clientIdentifier": "orchestrator", "queries": [{"scheduleId": 1, "dates": ["2024-03-15", "2024-03-18"]}]}
+     */
+    @PostMapping("/should-run")
+    public ResponseEntity<BulkShouldRunResponse> shouldRunBulk(
+            @Valid @RequestBody BulkShouldRunRequest request) {
+
+        var response = service.shouldRunBulk(request);
+        metrics.countRequest("bulk", "answered");
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Streams the run status of every date in a range as NDJSON, for clients that plan ahead.
+     * The first line identifies the schedule and the version the answers come from; each
+     * following line is one date. Rows are written as they are evaluated, so a range up to
+     * the full planning horizon is never held in memory. The answers depend only on the
+     * version, so they are cacheable until the configured max-age.
+     * <p>
+     * Example: GET /api/v1/schedules/{scheduleId}/run-dates?from=2026-01-01&to=2026-12-31
+     * <pre>
+     * {"scheduleId":1,"versionId":10,"from":"2026-01-01","to":"2026-12-31"}
+     * {"date":"2026-01-01","shouldRun":false,"runStatus":"FORCE_SKIP"}
+     * {"date":"2026-01-02","shouldRun":true,"runStatus":"RUN"}
+     * </pre>
+     */
+    @GetMapping(value = "/{scheduleId}/run-dates", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> runDates(
+            @PathVariable Long scheduleId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletResponse servletResponse) {
+
+        // validation happens here, before the response is committed
+        CalendarSnapshot snapshot = service.getCalendarForRange(scheduleId, from, to);
+        cachePolicy.apply(servletResponse, Endpoint.RUN_DATES, List.of(snapshot.stamp()), false);
+        metrics.countRequest("run-dates", "answered");
+
+        StreamingResponseBody body = out -> writeRunDates(out, snapshot, from, to);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private static void writeRunDates(OutputStream out, CalendarSnapshot snapshot, LocalDate from, LocalDate to) throws IOException {
+        try (JsonGenerator json = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeNumberField("scheduleId", snapshot.scheduleId());
+            json.writeNumberField("versionId", snapshot.versionId());
+            json.writeStringField("from", from.toString());
+            json.writeStringField("to", to.toString());
+            json.writeEndObject();
+            json.writeRaw('\n');
+
+            Calendar calendar = snapshot.calendar();
+            int rows = 0;
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                RunStatus status = calendar.runStatus(date);
+
+                json.writeStartObject();
+                json.writeStringField("date", date.toString());
+                json.writeBooleanField("shouldRun", status == RunStatus.RUN || status == RunStatus.FORCE_RUN);
+                json.writeStringField("runStatus", status.name());
+                json.writeEndObject();
+                json.writeRaw('\n');
+
+                if (++rows % ROWS_PER_FLUSH == 0) {
+                    json.flush();
+                }
+            }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.jw.holidayguard.controller;
 
 import com.jw.holidayguard.dto.QueryLogDto;
+import com.jw.holidayguard.dto.QueryLogFilter;
+import com.jw.holidayguard.dto.QueryLogPage;
 import com.jw.holidayguard.service.ScheduleQueryService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -53,19 +55,41 @@ class AuditLogControllerTest extends ManagementControllerTestBase {
                 )
         );
 
-        when(scheduleQueryService.findAllLogs()).thenReturn(logs);
+        when(scheduleQueryService.findLogs(QueryLogFilter.none(), null, 50))
+                .thenReturn(new QueryLogPage(logs, "next-page"));
 
         // when & then
         mockMvc.perform(get("/api/v1/audit-logs").with(user("user")))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$[0].logId").value(logId.toString()))
-                .andExpect(jsonPath("$[0].scheduleId").value(scheduleId.toString()))
-                .andExpect(jsonPath("$[0].scheduleName").value("Test Schedule"))
-                .andExpect(jsonPath("$[0].versionId").value(versionId.toString()))
-                .andExpect(jsonPath("$[0].shouldRunResult").value(true))
-                .andExpect(jsonPath("$[0].reason").value("Test Reason"))
-                .andExpect(jsonPath("$[0].clientIdentifier").value("test-client"))
-                .andExpect(jsonPath("$[0].createdAt").value(now.toString()));
+                .andExpect(jsonPath("$.items[0].logId").value(logId.toString()))
+                .andExpect(jsonPath("$.items[0].scheduleId").value(scheduleId.toString()))
+                .andExpect(jsonPath("$.items[0].scheduleName").value("Test Schedule"))
+                .andExpect(jsonPath("$.items[0].versionId").value(versionId.toString()))
+                .andExpect(jsonPath("$.items[0].shouldRunResult").value(true))
+                .andExpect(jsonPath("$.items[0].reason").value("Test Reason"))
+                .andExpect(jsonPath("$.items[0].clientIdentifier").value("test-client"))
+                .andExpect(jsonPath("$.items[0].createdAt").value(now.toString()))
+                .andExpect(jsonPath("$.nextCursor").value("next-page"));
+    }
+
+    @Test
+    void getLogs_shouldPassFiltersAndCursor() throws Exception {
+        // given
+        var filter = new QueryLogFilter(1L, "payroll", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), false);
+        when(scheduleQueryService.findLogs(filter, "abc", 10)).thenReturn(new QueryLogPage(List.of(), null));
+
+        // when & then
+        mockMvc.perform(get("/api/v1/audit-logs").with(user("user"))
+                        .param("scheduleId", "1")
+                        .param("clientIdentifier", "payroll")
+                        .param("from", "2025-01-01")
+                        .param("to", "2025-01-31")
+                        .param("shouldRun", "false")
+                        .param("cursor", "abc")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isEmpty())
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
     }
 }
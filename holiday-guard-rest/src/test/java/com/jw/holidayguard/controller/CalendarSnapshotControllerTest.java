@@ -0,0 +1,66 @@
+package com.jw.holidayguard.controller;
+
+import com.jw.holidayguard.service.snapshot.CalendarSnapshotExporter;
+import com.jw.holidayguard.service.snapshot.CalendarSnapshotWriter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.OutputStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = CalendarSnapshotController.class)
+@ContextConfiguration(classes = ControllerTestConfiguration.class)
+@Import({com.jw.holidayguard.security.SecurityConfig.class, com.jw.holidayguard.exception.GlobalExceptionHandler.class})
+class CalendarSnapshotControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private CalendarSnapshotExporter exporter;
+
+    @Test
+    void exportSnapshot_withAdminRole_downloadsFile() throws Exception {
+        CalendarSnapshotWriter snapshot = mock(CalendarSnapshotWriter.class);
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write(new byte[]{'H', 'G', 'S', 'N'});
+            return null;
+        }).when(snapshot).writeTo(any(OutputStream.class));
+        when(exporter.export(2025, 2026)).thenReturn(snapshot);
+
+        mockMvc.perform(get("/api/v1/calendar-snapshot?firstYear=2025&lastYear=2026").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/octet-stream"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"calendars.hgsnap\""))
+                .andExpect(content().bytes(new byte[]{'H', 'G', 'S', 'N'}));
+    }
+
+    @Test
+    void exportSnapshot_withUserRole_isForbidden() throws Exception {
+        mockMvc.perform(get("/api/v1/calendar-snapshot").with(user("user").roles("USER")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void exportSnapshot_withHalfOpenYearRange_isBadRequest() throws Exception {
+        when(exporter.export(2025, null))
+                .thenThrow(new IllegalArgumentException("Both firstYear and lastYear are required for year bitmaps"));
+
+        mockMvc.perform(get("/api/v1/calendar-snapshot?firstYear=2025").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isBadRequest());
+    }
+}
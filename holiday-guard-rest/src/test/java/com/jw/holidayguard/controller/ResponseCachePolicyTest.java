@@ -0,0 +1,112 @@
+package com.jw.holidayguard.controller;
+
+import com.jw.holidayguard.controller.ResponseCachePolicy.Endpoint;
+import com.jw.holidayguard.controller.ResponseCachePolicy.Settings;
+import com.jw.holidayguard.service.CalendarStamp;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCachePolicyTest {
+
+    // 2025-03-14 22:00 in New York
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2025-03-15T02:00:00Z"), ZoneId.of("America/New_York"));
+    private static final CalendarStamp ACTIVE = new CalendarStamp(1L, 10L, "Payroll", true, Instant.parse("2025-01-01T00:00:00Z"), 1L);
+
+    @Test
+    void capsTodaysAnswerAtLocalMidnight() {
+        // given - one day max-age, two hours to midnight
+        ResponseCachePolicy policy = policy(Duration.ofDays(1), true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // when
+        policy.apply(response, Endpoint.SHOULD_RUN, List.of(ACTIVE), true);
+
+        // then
+        assertThat(response.getHeader("Cache-Control")).isEqualTo("max-age=7200, public");
+        assertThat(response.getDateHeader("Expires")).isEqualTo(Instant.parse("2025-03-15T04:00:00Z").toEpochMilli());
+    }
+
+    @Test
+    void usesMaxAgeForAnswersNotAboutToday() {
+        ResponseCachePolicy policy = policy(Duration.ofDays(1), false);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        policy.apply(response, Endpoint.CALENDAR, List.of(ACTIVE), false);
+
+        assertThat(response.getHeader("Cache-Control")).isEqualTo("max-age=86400, private");
+    }
+
+    @Test
+    void capsAtFutureVersionEffectivity() {
+        // given - the active version takes effect in ten minutes
+        CalendarStamp upcoming = new CalendarStamp(1L, 11L, "Payroll", true, Instant.parse("2025-03-15T02:10:00Z"), 1L);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // when
+        policy(Duration.ofDays(1), true).apply(response, Endpoint.RUN_DATES, List.of(ACTIVE, upcoming), false);
+
+        // then
+        assertThat(response.getHeader("Cache-Control")).isEqualTo("max-age=600, public");
+    }
+
+    @Test
+    void neverCachesInactiveOrUnknownSchedules() {
+        ResponseCachePolicy policy = policy(Duration.ofDays(1), true);
+        CalendarStamp inactive = new CalendarStamp(2L, 20L, "Old", false, null, 1L);
+
+        MockHttpServletResponse inactiveResponse = new MockHttpServletResponse();
+        policy.apply(inactiveResponse, Endpoint.CALENDAR_VIEW, List.of(ACTIVE, inactive), false);
+        MockHttpServletResponse unknownResponse = new MockHttpServletResponse();
+        policy.apply(unknownResponse, Endpoint.CALENDAR_VIEW, Arrays.asList(ACTIVE, null), false);
+
+        assertThat(inactiveResponse.getHeader("Cache-Control")).isEqualTo("no-cache");
+        assertThat(inactiveResponse.containsHeader("Expires")).isFalse();
+        assertThat(unknownResponse.getHeader("Cache-Control")).isEqualTo("no-cache");
+    }
+
+    @Test
+    void readsPerEndpointSettingsFromEnvironment() {
+        // given - run-dates tuned, calendar turned off
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.http.cache.run-dates.max-age", "30s")
+                .withProperty("app.http.cache.run-dates.shared", "false")
+                .withProperty("app.http.cache.calendar.enabled", "false");
+        ResponseCachePolicy policy = new ResponseCachePolicy(environment);
+
+        // when
+        MockHttpServletResponse runDates = new MockHttpServletResponse();
+        policy.apply(runDates, Endpoint.RUN_DATES, List.of(ACTIVE), false);
+        MockHttpServletResponse calendar = new MockHttpServletResponse();
+        policy.apply(calendar, Endpoint.CALENDAR, List.of(ACTIVE), false);
+
+        // then
+        assertThat(runDates.getHeader("Cache-Control")).isEqualTo("max-age=30, private");
+        assertThat(calendar.containsHeader("Cache-Control")).isFalse();
+
+        // and - the global switch wins
+        MockHttpServletResponse disabled = new MockHttpServletResponse();
+        new ResponseCachePolicy(new MockEnvironment().withProperty("app.http.cache.enabled", "false"))
+                .apply(disabled, Endpoint.SHOULD_RUN, List.of(ACTIVE), true);
+        assertThat(disabled.containsHeader("Cache-Control")).isFalse();
+    }
+
+    private static ResponseCachePolicy policy(Duration maxAge, boolean shared) {
+        Map<Endpoint, Settings> settings = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            settings.put(endpoint, new Settings(true, maxAge, shared));
+        }
+        return new ResponseCachePolicy(settings, CLOCK);
+    }
+}
@@ -1,9 +1,19 @@
 package com.jw.holidayguard.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jw.holidayguard.domain.Calendar;
+import com.jw.holidayguard.domain.Deviation;
+import com.jw.holidayguard.domain.Rule;
 import com.jw.holidayguard.domain.RunStatus;
+import com.jw.holidayguard.domain.Schedule;
+import com.jw.holidayguard.dto.request.BulkShouldRunRequest;
 import com.jw.holidayguard.dto.request.ShouldRunQueryRequest;
+import com.jw.holidayguard.dto.response.BulkShouldRunResponse;
+import com.jw.holidayguard.dto.response.BulkShouldRunResult;
 import com.jw.holidayguard.dto.response.ShouldRunQueryResponse;
+import com.jw.holidayguard.service.CalendarSnapshot;
+import com.jw.holidayguard.service.CalendarStamp;
+import com.jw.holidayguard.service.QueryMetrics;
 import com.jw.holidayguard.service.ScheduleQueryService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,25 +21,37 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
 
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.matchesPattern;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.context.annotation.Import;
 
 @WebMvcTest(controllers = ShouldRunController.class)
 @ContextConfiguration(classes = ControllerTestConfiguration.class)
-@Import(com.jw.holidayguard.exception.GlobalExceptionHandler.class)
+@Import({com.jw.holidayguard.exception.GlobalExceptionHandler.class, ResponseCachePolicy.class, QueryMetrics.class})
 class ShouldRunControllerTest {
 
     @Autowired
@@ -41,6 +63,68 @@ class ShouldRunControllerTest {
     @MockitoBean
     private ScheduleQueryService service;
 
+    @Test
+    void shouldRunTodayReturnsNotModifiedForMatchingETagWithoutEvaluating() throws Exception {
+        // given - schedule 1 on version 10
+        Long scheduleId = 1L;
+        when(service.getCalendarStamp(scheduleId))
+            .thenReturn(Optional.of(new CalendarStamp(scheduleId, 10L, "Payroll", true, null, 1L)));
+        when(service.shouldRunToday(eq(scheduleId), any(ShouldRunQueryRequest.class)))
+            .thenReturn(new ShouldRunQueryResponse(scheduleId, LocalDate.now(), true, RunStatus.RUN, "rule matches", false, 10L));
+
+        // when - first request
+        String etag = mockMvc.perform(get("/api/v1/schedules/{scheduleId}/should-run", scheduleId).with(user("user")))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().string("Cache-Control", matchesPattern("max-age=\\d+, public")))
+                .andExpect(header().exists("Expires"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // then - revalidation is 304 and never evaluates
+        mockMvc.perform(get("/api/v1/schedules/{scheduleId}/should-run", scheduleId)
+                .header("If-None-Match", etag)
+                .with(user("user")))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+        verify(service, times(1)).shouldRunToday(eq(scheduleId), any(ShouldRunQueryRequest.class));
+
+        // and - a new active version changes the tag
+        when(service.getCalendarStamp(scheduleId))
+            .thenReturn(Optional.of(new CalendarStamp(scheduleId, 11L, "Payroll", true, null, 1L)));
+        mockMvc.perform(get("/api/v1/schedules/{scheduleId}/should-run", scheduleId)
+                .header("If-None-Match", etag)
+                .with(user("user")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldRunTodayChangesETagWhenDataIsReloadedUnderTheSameVersion() throws Exception {
+        // given - schedule 1 on version 10, then a file reload edits its rule in place
+        Long scheduleId = 1L;
+        when(service.getCalendarStamp(scheduleId))
+            .thenReturn(Optional.of(new CalendarStamp(scheduleId, 10L, "Payroll", true, null, 1L)));
+        when(service.shouldRunToday(eq(scheduleId), any(ShouldRunQueryRequest.class)))
+            .thenReturn(new ShouldRunQueryResponse(scheduleId, LocalDate.now(), true, RunStatus.RUN, "rule matches", false, 10L));
+        String etag = mockMvc.perform(get("/api/v1/schedules/{scheduleId}/should-run", scheduleId).with(user("user")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // when
+        when(service.getCalendarStamp(scheduleId))
+            .thenReturn(Optional.of(new CalendarStamp(scheduleId, 10L, "Payroll", true, null, 2L)));
+        when(service.shouldRunToday(eq(scheduleId), any(ShouldRunQueryRequest.class)))
+            .thenReturn(new ShouldRunQueryResponse(scheduleId, LocalDate.now(), false, RunStatus.SKIP, "rule does not match", false, 10L));
+
+        // then - the old tag no longer validates and the new answer is served
+        mockMvc.perform(get("/api/v1/schedules/{scheduleId}/should-run", scheduleId)
+                .header("If-None-Match", etag)
+                .with(user("user")))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", org.hamcrest.Matchers.not(etag)))
+                .andExpect(jsonPath("$.shouldRun").value(false));
+    }
+
     @Test
     void shouldRunTodayWithClientQueryParam() throws Exception {
 
@@ -193,4 +277,119 @@ class ShouldRunControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error").value("INVALID_REQUEST"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldAnswerBulkQueriesWithPerItemErrors() throws Exception {
+        // given - two schedules, one of which cannot be evaluated
+        LocalDate queryDate = LocalDate.of(2024, 3, 15);
+        var request = new BulkShouldRunRequest(List.of(
+                new BulkShouldRunRequest.ScheduleQuery(1L, List.of(queryDate)),
+                new BulkShouldRunRequest.ScheduleQuery(99L, List.of(queryDate))
+        ), "orchestrator");
+
+        var response = new BulkShouldRunResponse(List.of(
+                new BulkShouldRunResult(1L, queryDate, true, RunStatus.RUN, "Scheduled to run - rule matches", false, 10L, null),
+                BulkShouldRunResult.error(99L, queryDate, "Schedule not found: 99")
+        ), 1);
+
+        when(service.shouldRunBulk(any(BulkShouldRunRequest.class))).thenReturn(response);
+
+        // when / then - one 200 response carrying both answers
+        mockMvc.perform(post("/api/v1/schedules/should-run")
+                .with(user("user"))
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errorCount").value(1))
+                .andExpect(jsonPath("$.results[0].shouldRun").value(true))
+                .andExpect(jsonPath("$.results[0].versionId").value(10))
+                .andExpect(jsonPath("$.results[1].scheduleId").value(99))
+                .andExpect(jsonPath("$.results[1].error").value("Schedule not found: 99"))
+                .andExpect(jsonPath("$.results[1].shouldRun").doesNotExist());
+    }
+
+    @Test
+    void shouldRejectBulkRequestWithoutQueries() throws Exception {
+        // given - empty query list
+        var request = new BulkShouldRunRequest(List.of(), "orchestrator");
+
+        // when / then
+        mockMvc.perform(post("/api/v1/schedules/should-run")
+                .with(user("user"))
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldRejectBulkRequestWithNullDate() throws Exception {
+        // given - a query whose date list holds a null
+        String request = """
+            {"queries": [{"scheduleId": 1, "dates": ["2026-01-05", null]}]}
+            """;
+
+        // when / then - rejected as a whole before the service evaluates anything
+        mockMvc.perform(post("/api/v1/schedules/should-run")
+                .with(user("user"))
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(request))
+                .andExpect(status().isBadRequest());
+        verify(service, never()).shouldRunBulk(any());
+    }
+
+    @Test
+    void shouldStreamRunDatesAsNdjson() throws Exception {
+        // given - weekday rule with a skip deviation on Wednesday
+        LocalDate from = LocalDate.of(2026, 1, 5); // Monday
+        LocalDate to = LocalDate.of(2026, 1, 11);  // Sunday
+        var schedule = Schedule.builder().id(1L).name("Payroll").active(true).build();
+        var rule = Rule.builder().ruleType(Rule.RuleType.WEEKDAYS_ONLY).build();
+        var skip = Deviation.builder().deviationDate(LocalDate.of(2026, 1, 7)).action(RunStatus.FORCE_SKIP).build();
+        Calendar calendar = new Calendar(schedule, rule, List.of(skip),
+                (r, date) -> date.getDayOfWeek().getValue() <= 5);
+
+        when(service.getCalendarForRange(1L, from, to)).thenReturn(new CalendarSnapshot(schedule, 10L, null, calendar));
+
+        // when
+        MvcResult result = mockMvc.perform(get("/api/v1/schedules/{scheduleId}/run-dates", 1L)
+                .param("from", from.toString())
+                .param("to", to.toString())
+                .with(user("user")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then - header line carries the version once, then one line per date
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(8);
+        assertThat(lines.get(0)).isEqualTo("{\"scheduleId\":1,\"versionId\":10,\"from\":\"2026-01-05\",\"to\":\"2026-01-11\"}");
+        assertThat(lines.get(1)).isEqualTo("{\"date\":\"2026-01-05\",\"shouldRun\":true,\"runStatus\":\"RUN\"}");
+        assertThat(lines.get(3)).isEqualTo("{\"date\":\"2026-01-07\",\"shouldRun\":false,\"runStatus\":\"FORCE_SKIP\"}");
+        assertThat(lines.get(7)).isEqualTo("{\"date\":\"2026-01-11\",\"shouldRun\":false,\"runStatus\":\"SKIP\"}");
+        assertThat(lines).noneMatch(line -> line.contains("versionId") && line.contains("date"));
+    }
+
+    @Test
+    void shouldRejectInvalidRunDateRange() throws Exception {
+        // given
+        LocalDate from = LocalDate.of(2026, 2, 1);
+        LocalDate to = LocalDate.of(2026, 1, 1);
+        when(service.getCalendarForRange(1L, from, to))
+                .thenThrow(new IllegalArgumentException("Range start 2026-02-01 is after range end 2026-01-01"));
+
+        // when / then - error is reported before streaming starts
+        mockMvc.perform(get("/api/v1/schedules/{scheduleId}/run-dates", 1L)
+                .param("from", from.toString())
+                .param("to", to.toString())
+                .with(user("user")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("INVALID_REQUEST"));
+    }
+}
@@ -3,13 +3,16 @@ package com.jw.holidayguard.security;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.NoOpPasswordEncoder;
@@ -33,6 +36,7 @@ import org.springframework.security.web.context.RequestAttributeSecurityContextR
  *       credentials instead of Spring’s default HTML login form.</li>
  *   <li>A logout endpoint at <code>/api/logout</code> returning HTTP 200 on success.</li>
  *   <li>Role-based access control rules for selected API endpoints.</li>
+ *   <li>HTTP Basic for the Prometheus scrape endpoint only, which needs the METRICS or ADMIN role.</li>
  *   <li>401 Unauthorized responses when no authentication is present.</li>
  * </ul>
  *
@@ -52,6 +56,23 @@ import org.springframework.security.web.context.RequestAttributeSecurityContextR
 @EnableWebSecurity
 public class SecurityConfig {
 
+    /**
+     * Prometheus authenticates each scrape with HTTP Basic, which the SPA chain does not accept,
+     * so the scrape endpoint gets its own stateless chain ahead of it.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain metricsFilterChain(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher("/actuator/prometheus")
+                .csrf(AbstractHttpConfigurer::disable)
+                .authorizeHttpRequests(auth -> auth.anyRequest().hasAnyRole("METRICS", "ADMIN"))
+                .httpBasic(Customizer.withDefaults())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http, AuthenticationManager authenticationManager) throws Exception {
 
@@ -70,6 +91,8 @@ public class SecurityConfig {
                         // Health checks / public API
                         .requestMatchers("/actuator/health").permitAll()
                         .requestMatchers("/api/v1/schedules/*/should-run").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/v1/schedules/should-run").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/v1/schedules/*/run-dates").permitAll()
 
                         // Admin UI routes (only available with SQL backend via @ConditionalOnManagement)
                         .requestMatchers("/", "/admin/**", "/schedules/**", "/dashboard/**").authenticated()
@@ -79,6 +102,7 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.POST, "/api/v1/schedules/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/v1/schedules/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/v1/audit-logs").hasAnyRole("USER", "ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/v1/calendar-snapshot").hasRole("ADMIN")
                         .requestMatchers("/api/v1/dashboard/**").authenticated()
                         .requestMatchers("/api/v1/user/principal").authenticated()
 
@@ -132,7 +156,8 @@ public class SecurityConfig {
     public UserDetailsService users() {
         return new InMemoryUserDetailsManager(
                 User.withUsername("admin").password("admin").roles("ADMIN", "USER").build(),
-                User.withUsername("user").password("user").roles("USER").build()
+                User.withUsername("user").password("user").roles("USER").build(),
+                User.withUsername("prometheus").password("prometheus").roles("METRICS").build()
         );
     }
 